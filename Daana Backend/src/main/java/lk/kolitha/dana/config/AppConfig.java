@@ -1,13 +1,16 @@
 package lk.kolitha.dana.config;
 
+import com.amazonaws.ClientConfiguration;
 import com.amazonaws.auth.AWSCredentials;
 import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import com.amazonaws.services.simpleemail.AmazonSimpleEmailService;
 import com.amazonaws.services.simpleemail.AmazonSimpleEmailServiceClientBuilder;
 import org.modelmapper.ModelMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -49,21 +52,40 @@ public class AppConfig {
         Properties props = mailSender.getJavaMailProperties();
         props.put("mail.transport.protocol", environment.getRequiredProperty("daana.aws.mail.transport.protocol"));
         props.put("mail.smtp.port", environment.getRequiredProperty("daana.aws.mail.port"));
-        props.put("mail.smtp.starttls.enable", "true");
-        props.put("mail.smtp.auth", "true");
+        // Overridable so a local SMTP stand-in without TLS or auth can be used
+        props.put("mail.smtp.starttls.enable", environment.getProperty("daana.aws.mail.starttls", "true"));
+        props.put("mail.smtp.auth", environment.getProperty("daana.aws.mail.auth", "true"));
+        // A slow relay must not hold a mail worker forever
+        props.put("mail.smtp.connectiontimeout", environment.getProperty("daana.aws.mail.connection-timeout-ms", "10000"));
+        props.put("mail.smtp.timeout", environment.getProperty("daana.aws.mail.timeout-ms", "30000"));
+        props.put("mail.smtp.writetimeout", environment.getProperty("daana.aws.mail.timeout-ms", "30000"));
         return mailSender;
     }
 
 
     @Bean
+    @ConditionalOnProperty(name = "daana.storage.type", havingValue = "s3", matchIfMissing = true)
     public AmazonS3 s3Client() {
         AWSCredentials credentials = new BasicAWSCredentials(
                 environment.getRequiredProperty("aws.s3.access-key"),
                 environment.getRequiredProperty("aws.s3.secret-key")
         );
-        return AmazonS3ClientBuilder
+        // Retries apply per request, so each part of a multipart upload is retried on its own
+        ClientConfiguration clientConfiguration = new ClientConfiguration()
+                .withMaxErrorRetry(Integer.parseInt(environment.getProperty("aws.s3.max-error-retry", "5")));
+        AmazonS3ClientBuilder builder = AmazonS3ClientBuilder
                 .standard()
                 .withCredentials(new AWSStaticCredentialsProvider(credentials))
+                .withClientConfiguration(clientConfiguration);
+        // An S3 compatible stand-in such as MinIO or LocalStack serves buckets by path on its own endpoint
+        String endpoint = environment.getProperty("aws.s3.endpoint");
+        if (endpoint != null && !endpoint.isBlank()) {
+            return builder
+                    .withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(endpoint, environment.getRequiredProperty("aws.s3.region")))
+                    .withPathStyleAccessEnabled(true)
+                    .build();
+        }
+        return builder
                 .withRegion(environment.getRequiredProperty("aws.s3.region"))
                 .build();
     }
@@ -0,0 +1,46 @@
+package lk.kolitha.dana.config;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Builds bounded in-process caches that reload in the background.
+ *
+ * <p>An entry older than the refresh interval is still returned to the caller while a reload runs on
+ * the common pool, so readers only wait on the very first load. The expiry is a safety net for entries
+ * nobody reads any more. Hit, miss and load statistics are published as cache metrics.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class RefreshAheadCacheFactory {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${daana.cache.catalog.maximum-size:100}")
+    private long maximumSize;
+
+    @Value("${daana.cache.catalog.refresh-after-write-seconds:30}")
+    private long refreshAfterWriteSeconds;
+
+    @Value("${daana.cache.catalog.expire-after-write-seconds:3600}")
+    private long expireAfterWriteSeconds;
+
+    public <K, V> LoadingCache<K, V> build(String name, CacheLoader<K, V> loader) {
+        LoadingCache<K, V> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .refreshAfterWrite(Duration.ofSeconds(refreshAfterWriteSeconds))
+                .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+                .recordStats()
+                .build(loader);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        return cache;
+    }
+}
@@ -0,0 +1,156 @@
+package lk.kolitha.dana.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lk.kolitha.dana.dto.diagnostics.PinnedSiteDto;
+import lk.kolitha.dana.dto.diagnostics.PinningReportDto;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reports where virtual threads pin their carrier thread.
+ *
+ * <p>A virtual thread that blocks inside a {@code synchronized} block or a native frame keeps its carrier
+ * thread, so a few slow pinned calls (JDBC driver, S3 or SMTP client) can stall every other virtual thread.
+ * The JDK records these as {@code jdk.VirtualThreadPinned} JFR events; they are streamed in-process, counted
+ * per stack and timed in {@code daana.virtualthreads.pinned}. Only pins longer than the threshold are
+ * recorded, and the number of distinct stacks kept is capped.</p>
+ */
+@Component
+@Log4j2
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String OTHER_SITES = "(other)";
+
+    private final Timer pinnedTimer;
+    private final Map<String, PinnedSite> sites = new ConcurrentHashMap<>();
+    private final LongAdder totalPinned = new LongAdder();
+    private volatile RecordingStream recordingStream;
+    private volatile Date since;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @Value("${daana.diagnostics.pinning.enabled:true}")
+    private boolean enabled;
+
+    @Value("${daana.diagnostics.pinning.threshold-ms:20}")
+    private long thresholdMs;
+
+    @Value("${daana.diagnostics.pinning.stack-depth:12}")
+    private int stackDepth;
+
+    @Value("${daana.diagnostics.pinning.max-sites:200}")
+    private int maxSites;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry) {
+        this.pinnedTimer = Timer.builder("daana.virtualthreads.pinned")
+                .description("Virtual thread pins longer than the monitoring threshold")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // Pins only happen on virtual threads, there is nothing to watch on the platform pool
+        if (!enabled || !virtualThreadsEnabled) {
+            return;
+        }
+        try {
+            RecordingStream stream = new RecordingStream();
+            stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+            stream.onEvent(PINNED_EVENT, this::record);
+            stream.startAsync();
+            recordingStream = stream;
+            since = new Date();
+            log.info("Monitoring virtual thread pinning longer than {} ms", thresholdMs);
+        } catch (Exception e) {
+            log.warn("Virtual thread pinning monitor not started: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        RecordingStream stream = recordingStream;
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    public PinningReportDto report() {
+        List<PinnedSiteDto> report = new ArrayList<>();
+        for (PinnedSite site : sites.values()) {
+            report.add(new PinnedSiteDto(site.stackTrace.isEmpty() ? OTHER_SITES : site.stackTrace.get(0), site.stackTrace,
+                    site.count.sum(), site.totalNanos.sum() / 1_000_000.0, site.maxNanos.get() / 1_000_000.0));
+        }
+        report.sort(Comparator.comparingLong(PinnedSiteDto::getCount).reversed());
+        return new PinningReportDto(virtualThreadsEnabled, recordingStream != null, since, thresholdMs, totalPinned.sum(), report);
+    }
+
+    public void reset() {
+        sites.clear();
+        totalPinned.reset();
+        since = new Date();
+    }
+
+    private void record(RecordedEvent event) {
+        long nanos = event.getDuration().toNanos();
+        totalPinned.increment();
+        pinnedTimer.record(event.getDuration());
+
+        List<String> stackTrace = frames(event.getStackTrace());
+        String key = String.join("\n", stackTrace);
+        PinnedSite site = sites.get(key);
+        if (site == null) {
+            site = sites.size() < maxSites
+                    ? sites.computeIfAbsent(key, k -> new PinnedSite(stackTrace))
+                    : sites.computeIfAbsent(OTHER_SITES, k -> new PinnedSite(List.of()));
+        }
+        site.count.increment();
+        site.totalNanos.add(nanos);
+        site.maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private List<String> frames(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return List.of();
+        }
+        List<String> frames = new ArrayList<>();
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (frames.size() >= stackDepth) {
+                break;
+            }
+            frames.add(frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber());
+        }
+        return frames;
+    }
+
+    private static class PinnedSite {
+        private final List<String> stackTrace;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private PinnedSite(List<String> stackTrace) {
+            this.stackTrace = stackTrace;
+        }
+    }
+}
@@ -55,6 +55,24 @@ public final class ApplicationConstants {
         public static final String PROOF_DOCUMENTS = "proof-documents/";
         public static final String BANK_DOCUMENTS = "bank-documents/";
         public static final String PAYMENT_SLIP = "bank-payment-slip/";
+        // Content addressed documents, see StoredBlob
+        public static final String CONTENT_BLOBS = "blobs/";
+        // Signed url targets of direct uploads, copied to their folder once confirmed
+        public static final String DIRECT_UPLOAD_STAGING = "direct-uploads/";
+    }
+    
+    public static final class CacheConstants {
+        public static final String TRENDING_PROGRAMS = "public-trending-programs";
+        public static final String LATEST_PROGRAMS = "public-latest-programs";
+        public static final String CATEGORIES = "public-categories";
+        public static final String PROGRAM_DETAIL_RESPONSES = "public-program-detail-responses";
+        public static final String SINGLE_ENTRY_KEY = "all";
+    }
+    
+    // Template names are the file names under EmailTemplates/ without the .html extension
+    public static final class EmailTemplateConstants {
+        public static final String OTP_VERIFICATION = "OTPEmailTemplates";
+        public static final String CHARITY_PASSWORD_RESET = "CharityPasswordResetEmailTemplate";
     }
     
     private ApplicationConstants() {
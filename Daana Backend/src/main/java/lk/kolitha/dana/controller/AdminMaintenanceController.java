@@ -0,0 +1,115 @@
+package lk.kolitha.dana.controller;
+
+import lk.kolitha.dana.config.VirtualThreadPinningMonitor;
+import lk.kolitha.dana.dto.CommonResponse;
+import lk.kolitha.dana.dto.diagnostics.PinningReportDto;
+import lk.kolitha.dana.service.DashboardRollupService;
+import lk.kolitha.dana.service.ImageVariantService;
+import lk.kolitha.dana.service.OutboundEmailService;
+import lk.kolitha.dana.service.ProgramSearchService;
+import lk.kolitha.dana.service.TrendingScoreService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/maintenance")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+@Log4j2
+public class AdminMaintenanceController {
+
+    private final DashboardRollupService dashboardRollupService;
+    private final TrendingScoreService trendingScoreService;
+    private final ProgramSearchService programSearchService;
+    private final OutboundEmailService outboundEmailService;
+    private final ImageVariantService imageVariantService;
+    private final VirtualThreadPinningMonitor pinningMonitor;
+
+    // Recompute charity and campaign daily rollups from the whole donation history
+    @PostMapping("/rollups/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CommonResponse<Long>> rebuildDashboardRollups() {
+        try {
+            log.info("Received dashboard rollup rebuild request");
+            long days = dashboardRollupService.rebuildAll();
+            return ResponseEntity.ok(new CommonResponse<>(true, "Dashboard rollups rebuilt for " + days + " days", days));
+        } catch (Exception e) {
+            log.error("Error rebuilding dashboard rollups: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().body(new CommonResponse<>(false, "Failed to rebuild dashboard rollups: " + e.getMessage(), null));
+        }
+    }
+
+    // Recompute campaign trending scores from the recent donation history
+    @PostMapping("/trending/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CommonResponse<Integer>> rebuildTrendingScores() {
+        try {
+            log.info("Received trending score rebuild request");
+            int campaigns = trendingScoreService.rebuildScores();
+            return ResponseEntity.ok(new CommonResponse<>(true, "Trending scores rebuilt for " + campaigns + " campaigns", campaigns));
+        } catch (Exception e) {
+            log.error("Error rebuilding trending scores: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().body(new CommonResponse<>(false, "Failed to rebuild trending scores: " + e.getMessage(), null));
+        }
+    }
+
+    // Rebuild the in-memory program search index from the database
+    @PostMapping("/search-index/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CommonResponse<Integer>> rebuildSearchIndex() {
+        try {
+            log.info("Received program search index rebuild request");
+            int campaigns = programSearchService.rebuildIndex();
+            return ResponseEntity.ok(new CommonResponse<>(true, "Search index rebuilt with " + campaigns + " campaigns", campaigns));
+        } catch (Exception e) {
+            log.error("Error rebuilding program search index: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().body(new CommonResponse<>(false, "Failed to rebuild search index: " + e.getMessage(), null));
+        }
+    }
+
+    // Put mails that ran out of send attempts back in the queue
+    @PostMapping("/mail/dead-letters/requeue")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CommonResponse<Integer>> requeueDeadLetterMails() {
+        try {
+            log.info("Received dead letter mail requeue request");
+            int mails = outboundEmailService.requeueDeadLetters();
+            return ResponseEntity.ok(new CommonResponse<>(true, "Requeued " + mails + " mails", mails));
+        } catch (Exception e) {
+            log.error("Error requeueing dead letter mails: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().body(new CommonResponse<>(false, "Failed to requeue mails: " + e.getMessage(), null));
+        }
+    }
+
+    // Queue resized copies for images that have none yet, one batch per call
+    @PostMapping("/images/variants/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CommonResponse<Integer>> backfillImageVariants() {
+        try {
+            log.info("Received image variant backfill request");
+            int images = imageVariantService.enqueueMissingVariants();
+            return ResponseEntity.ok(new CommonResponse<>(true, "Queued " + images + " images", images));
+        } catch (Exception e) {
+            log.error("Error queueing image variants: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().body(new CommonResponse<>(false, "Failed to queue image variants: " + e.getMessage(), null));
+        }
+    }
+
+    // Where virtual threads pinned their carrier thread since startup or the last reset
+    @GetMapping("/virtual-threads/pinning")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CommonResponse<PinningReportDto>> getVirtualThreadPinning() {
+        return ResponseEntity.ok(new CommonResponse<>(true, "Pinning report retrieved successfully", pinningMonitor.report()));
+    }
+
+    @DeleteMapping("/virtual-threads/pinning")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CommonResponse<String>> resetVirtualThreadPinning() {
+        log.info("Received virtual thread pinning report reset request");
+        pinningMonitor.reset();
+        return ResponseEntity.ok(new CommonResponse<>(true, "Pinning report reset successfully", null));
+    }
+}
@@ -4,6 +4,11 @@ import lk.kolitha.dana.dto.CommonResponse;
 import lk.kolitha.dana.dto.charity.CharityProfileDto;
 import lk.kolitha.dana.dto.charity.PasswordChangeDto;
 import lk.kolitha.dana.dto.charity.ProfileUpdateDto;
+import lk.kolitha.dana.dto.upload.DirectUploadConfirmDto;
+import lk.kolitha.dana.dto.upload.DirectUploadRequestDto;
+import lk.kolitha.dana.dto.upload.DirectUploadResponseDto;
+import lk.kolitha.dana.enums.PrincipalType;
+import lk.kolitha.dana.service.DirectUploadService;
 import lk.kolitha.dana.service.CharityService;
 import lk.kolitha.dana.util.SecurityUtils;
 import lombok.RequiredArgsConstructor;
@@ -21,6 +26,7 @@ import jakarta.validation.Valid;
 public class CharityProfileController {
     
     private final CharityService charityService;
+    private final DirectUploadService directUploadService;
     private final SecurityUtils securityUtils;
     
     @GetMapping
@@ -82,4 +88,42 @@ public class CharityProfileController {
             return ResponseEntity.badRequest().body(new CommonResponse<>(false, "Failed to update profile: " + e.getMessage(), null));
         }
     }
+    
+    @PostMapping("/uploads/presign")
+    @PreAuthorize("hasRole('CHARITY')")
+    public ResponseEntity<?> createDirectUploadUrl(@Valid @RequestBody DirectUploadRequestDto uploadRequest) {
+        try {
+            Long charityId = securityUtils.getCurrentCharityId();
+            if (charityId == null) {
+                return ResponseEntity.badRequest()
+                        .body(new CommonResponse<>(false, "Unable to identify charity from token", null));
+            }
+            
+            DirectUploadResponseDto upload = directUploadService.createUploadUrl(PrincipalType.CHARITY, charityId, uploadRequest);
+            return ResponseEntity.ok(new CommonResponse<>(true, "Upload url created successfully", upload));
+            
+        } catch (Exception e) {
+            log.error("Error creating upload url: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().body(new CommonResponse<>(false, "Failed to create upload url: " + e.getMessage(), null));
+        }
+    }
+    
+    @PutMapping("/logo/confirm")
+    @PreAuthorize("hasRole('CHARITY')")
+    public ResponseEntity<?> confirmLogo(@Valid @RequestBody DirectUploadConfirmDto confirmRequest) {
+        try {
+            Long charityId = securityUtils.getCurrentCharityId();
+            if (charityId == null) {
+                return ResponseEntity.badRequest()
+                        .body(new CommonResponse<>(false, "Unable to identify charity from token", null));
+            }
+            
+            String logoUrl = charityService.confirmLogo(charityId, confirmRequest.getObjectKey());
+            return ResponseEntity.ok(new CommonResponse<>(true, "Logo updated successfully", logoUrl));
+            
+        } catch (Exception e) {
+            log.error("Error confirming logo: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().body(new CommonResponse<>(false, "Failed to update logo: " + e.getMessage(), null));
+        }
+    }
 }
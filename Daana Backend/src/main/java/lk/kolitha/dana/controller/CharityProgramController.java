@@ -9,7 +9,11 @@ import lk.kolitha.dana.dto.program.CharityDashboardStatsDto;
 import lk.kolitha.dana.dto.program.CharityProgramTableDto;
 import lk.kolitha.dana.dto.program.ProgramRegisterStep1Dto;
 import lk.kolitha.dana.dto.program.ProgramRegisterStep2Dto;
+import lk.kolitha.dana.dto.upload.UploadSessionCreateDto;
+import lk.kolitha.dana.dto.upload.UploadSessionDto;
+import lk.kolitha.dana.dto.upload.UploadSessionFinalizeDto;
 import lk.kolitha.dana.service.ProgramService;
+import lk.kolitha.dana.service.ResumableUploadService;
 import lk.kolitha.dana.util.SecurityUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
@@ -18,8 +22,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+
 @RestController
 @RequestMapping("/charity/programs")
 @RequiredArgsConstructor
@@ -27,6 +34,7 @@ import jakarta.validation.Valid;
 @Log4j2
 public class CharityProgramController {
     private final ProgramService programService;
+    private final ResumableUploadService resumableUploadService;
     private final SecurityUtils securityUtils;
 
     // Step 1: Register program with basic information (JSON)
@@ -176,4 +184,67 @@ public class CharityProgramController {
         return ResponseEntity.ok(new CommonResponse<>(true, "Campaign deleted successfully", null));
     }
 
+    /**
+     * Start a resumable upload of the campaign video. Chunks are sent with PUT at the returned offset;
+     * errors keep their status code, so a client can tell an offset conflict (409) from an expired upload (410).
+     */
+    @PostMapping("/{campaignId}/video/uploads")
+    @PreAuthorize("hasRole('CHARITY')")
+    public ResponseEntity<CommonResponse<UploadSessionDto>> createVideoUpload(@PathVariable Long campaignId,
+                                                                              @Valid @RequestBody UploadSessionCreateDto createDto) {
+        Long charityId = securityUtils.getCurrentCharityId();
+        if (charityId == null) {
+            return ResponseEntity.badRequest()
+                    .body(new CommonResponse<>(false, "Unable to identify charity from token", null));
+        }
+        UploadSessionDto session = resumableUploadService.createVideoSession(charityId, campaignId, createDto);
+        return ResponseEntity.ok(new CommonResponse<>(true, "Upload started successfully", session));
+    }
+
+    /**
+     * Append one chunk. The raw request body is the chunk, Upload-Offset is where it starts and the optional
+     * X-Chunk-Sha256 header its hex SHA-256.
+     */
+    @PutMapping("/video/uploads/{uploadId}")
+    @PreAuthorize("hasRole('CHARITY')")
+    public ResponseEntity<CommonResponse<UploadSessionDto>> uploadVideoChunk(@PathVariable String uploadId,
+                                                                             @RequestHeader("Upload-Offset") long offset,
+                                                                             @RequestHeader(value = "X-Chunk-Sha256", required = false) String chunkSha256,
+                                                                             HttpServletRequest request) throws IOException {
+        Long charityId = securityUtils.getCurrentCharityId();
+        if (charityId == null) {
+            return ResponseEntity.badRequest()
+                    .body(new CommonResponse<>(false, "Unable to identify charity from token", null));
+        }
+        UploadSessionDto session = resumableUploadService.appendChunk(charityId, uploadId, offset,
+                request.getContentLengthLong(), chunkSha256, request.getInputStream());
+        return ResponseEntity.ok(new CommonResponse<>(true, "Chunk uploaded successfully", session));
+    }
+
+    @GetMapping("/video/uploads/{uploadId}")
+    @PreAuthorize("hasRole('CHARITY')")
+    public ResponseEntity<CommonResponse<UploadSessionDto>> getVideoUpload(@PathVariable String uploadId) {
+        Long charityId = securityUtils.getCurrentCharityId();
+        if (charityId == null) {
+            return ResponseEntity.badRequest()
+                    .body(new CommonResponse<>(false, "Unable to identify charity from token", null));
+        }
+        UploadSessionDto session = resumableUploadService.getSession(charityId, uploadId);
+        return ResponseEntity.ok(new CommonResponse<>(true, "Upload retrieved successfully", session));
+    }
+
+    @PostMapping("/video/uploads/{uploadId}/finalize")
+    @PreAuthorize("hasRole('CHARITY')")
+    public ResponseEntity<CommonResponse<UploadSessionDto>> finalizeVideoUpload(@PathVariable String uploadId,
+                                                                                @RequestBody(required = false) UploadSessionFinalizeDto finalizeDto) {
+        Long charityId = securityUtils.getCurrentCharityId();
+        if (charityId == null) {
+            return ResponseEntity.badRequest()
+                    .body(new CommonResponse<>(false, "Unable to identify charity from token", null));
+        }
+        UploadSessionDto session = resumableUploadService.finalizeUpload(charityId, uploadId,
+                finalizeDto != null ? finalizeDto.getSha256() : null);
+        return ResponseEntity.ok(new CommonResponse<>(true, "Video uploaded successfully", session));
+    }
+
 }
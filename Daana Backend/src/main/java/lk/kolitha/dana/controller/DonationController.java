@@ -2,6 +2,7 @@ package lk.kolitha.dana.controller;
 
 import jakarta.validation.Valid;
 import lk.kolitha.dana.dto.CommonResponse;
+import lk.kolitha.dana.dto.CursorPage;
 import lk.kolitha.dana.dto.donation.DonationCreateResponseDto;
 import lk.kolitha.dana.dto.donation.DonationRequestDto;
 import lk.kolitha.dana.dto.donation.DonationResponseDto;
@@ -62,6 +63,46 @@ public class DonationController {
         }
     }
     
+    @GetMapping("/cursor")
+    @PreAuthorize("hasRole('CHARITY')")
+    public ResponseEntity<?> getCharityDonationsByCursor(
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String donorEmail,
+            @RequestParam(required = false) Boolean isAnonymous,
+            @RequestParam(required = false) Long programId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        
+        try {
+            log.info("Getting charity donations by cursor with filters");
+            Long charityId = securityUtils.getCurrentCharityId();
+            if (charityId == null) {
+                return ResponseEntity.badRequest()
+                        .body(new CommonResponse<>(false, "Unable to identify charity from token", null));
+            }
+            
+            CursorPage<DonationResponseDto> donations = donationService.getCharityDonationsByCursor(
+                    charityId,
+                    parseDate(startDate),
+                    parseDate(endDate),
+                    donorEmail,
+                    isAnonymous,
+                    programId,
+                    cursor,
+                    size,
+                    includeTotal
+            );
+            
+            return ResponseEntity.ok(new CommonResponse<>(true, "Donations retrieved successfully", donations));
+            
+        } catch (Exception e) {
+            log.error("Error getting charity donations: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().body(new CommonResponse<>(false, "Failed to get donations: " + e.getMessage(), null));
+        }
+    }
+    
     private java.util.Date parseDate(String dateString) {
         if (dateString == null || dateString.trim().isEmpty()) {
             return null;
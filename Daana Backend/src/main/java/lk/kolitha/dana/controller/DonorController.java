@@ -2,9 +2,15 @@ package lk.kolitha.dana.controller;
 
 import jakarta.validation.Valid;
 import lk.kolitha.dana.dto.CommonResponse;
+import lk.kolitha.dana.dto.CursorPage;
 import lk.kolitha.dana.dto.donor.DonationHistoryResponseDto;
 import lk.kolitha.dana.dto.donor.DonorProfileResponseDto;
 import lk.kolitha.dana.dto.donor.DonorProfileUpdateDto;
+import lk.kolitha.dana.dto.upload.DirectUploadConfirmDto;
+import lk.kolitha.dana.dto.upload.DirectUploadRequestDto;
+import lk.kolitha.dana.dto.upload.DirectUploadResponseDto;
+import lk.kolitha.dana.enums.PrincipalType;
+import lk.kolitha.dana.service.DirectUploadService;
 import lk.kolitha.dana.service.DonationService;
 import lk.kolitha.dana.service.RegisteredDonorService;
 import lk.kolitha.dana.util.SecurityUtils;
@@ -29,6 +35,7 @@ public class DonorController {
     
     private final RegisteredDonorService registeredDonorService;
     private final DonationService donationService;
+    private final DirectUploadService directUploadService;
     private final SecurityUtils securityUtils;
     
     /**
@@ -143,6 +150,52 @@ public class DonorController {
         }
     }
     
+    /**
+     * Issue a signed url for uploading a file directly to storage
+     */
+    @PostMapping("/uploads/presign")
+    @PreAuthorize("hasRole('DONOR')")
+    public ResponseEntity<?> createDirectUploadUrl(@Valid @RequestBody DirectUploadRequestDto uploadRequest) {
+        try {
+            Long donorId = securityUtils.getCurrentDonorId();
+            if (donorId == null) {
+                return ResponseEntity.badRequest()
+                        .body(new CommonResponse<>(false, "Unable to identify donor from token", null));
+            }
+            
+            DirectUploadResponseDto upload = directUploadService.createUploadUrl(PrincipalType.DONOR, donorId, uploadRequest);
+            return ResponseEntity.ok(new CommonResponse<>(true, "Upload url created successfully", upload));
+            
+        } catch (Exception e) {
+            log.error("Error creating upload url: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest()
+                    .body(new CommonResponse<>(false, "Failed to create upload url: " + e.getMessage(), null));
+        }
+    }
+    
+    /**
+     * Link a profile picture uploaded directly to storage
+     */
+    @PutMapping("/profile/picture/confirm")
+    @PreAuthorize("hasRole('DONOR')")
+    public ResponseEntity<?> confirmProfilePicture(@Valid @RequestBody DirectUploadConfirmDto confirmRequest) {
+        try {
+            Long donorId = securityUtils.getCurrentDonorId();
+            if (donorId == null) {
+                return ResponseEntity.badRequest()
+                        .body(new CommonResponse<>(false, "Unable to identify donor from token", null));
+            }
+            
+            String profileImageUrl = registeredDonorService.confirmProfilePicture(donorId, confirmRequest.getObjectKey());
+            return ResponseEntity.ok(new CommonResponse<>(true, "Profile picture updated successfully", profileImageUrl));
+            
+        } catch (Exception e) {
+            log.error("Error confirming profile picture: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest()
+                    .body(new CommonResponse<>(false, "Failed to update profile picture: " + e.getMessage(), null));
+        }
+    }
+    
     /**
      * Get donor profile by ID (admin only)
      */
@@ -196,5 +249,43 @@ public class DonorController {
                     .body(new CommonResponse<>(false, "Failed to get donation history: " + e.getMessage(), null));
         }
     }
+    
+    /**
+     * Get current donor's donation history paged by an opaque cursor
+     */
+    @GetMapping("/donations/cursor")
+    @PreAuthorize("hasRole('DONOR')")
+    public ResponseEntity<?> getDonorDonationHistoryByCursor(
+            @RequestParam(required = false) Date startDate,
+            @RequestParam(required = false) Date endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            log.info("Getting donation history by cursor for current donor");
+            
+            Long donorId = securityUtils.getCurrentDonorId();
+            if (donorId == null) {
+                return ResponseEntity.badRequest()
+                        .body(new CommonResponse<>(false, "Unable to identify donor from token", null));
+            }
+            
+            CursorPage<DonationHistoryResponseDto> donations = donationService.getDonorDonationHistoryByCursor(
+                    donorId,
+                    startDate,
+                    endDate,
+                    cursor,
+                    size,
+                    includeTotal
+            );
+            
+            return ResponseEntity.ok(new CommonResponse<>(true, "Donation history retrieved successfully", donations));
+            
+        } catch (Exception e) {
+            log.error("Error getting donation history: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest()
+                    .body(new CommonResponse<>(false, "Failed to get donation history: " + e.getMessage(), null));
+        }
+    }
 
 }
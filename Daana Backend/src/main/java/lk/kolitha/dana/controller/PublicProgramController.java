@@ -2,19 +2,24 @@ package lk.kolitha.dana.controller;
 
 import jakarta.validation.Valid;
 import lk.kolitha.dana.dto.CommonResponse;
+import lk.kolitha.dana.dto.CursorPage;
 import lk.kolitha.dana.dto.category.CategoryWithSubCategoriesDto;
 import lk.kolitha.dana.dto.donation.DonationCreateResponseDto;
 import lk.kolitha.dana.dto.donation.DonationRequestDto;
 import lk.kolitha.dana.dto.program.BasicProgramCardDataResDto;
 import lk.kolitha.dana.dto.program.FullProgramDto;
+import lk.kolitha.dana.exception.CustomServiceException;
 import lk.kolitha.dana.service.CategoryService;
 import lk.kolitha.dana.service.DonationService;
+import lk.kolitha.dana.service.ProgramDetailResponseService;
 import lk.kolitha.dana.service.ProgramService;
 import lk.kolitha.dana.util.SecurityUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -31,6 +36,7 @@ public class PublicProgramController {
     private final CategoryService categoryService;
     private final SecurityUtils securityUtils;
     private final DonationService donationService;
+    private final ProgramDetailResponseService programDetailResponseService;
 
     @GetMapping("/trending")
     public ResponseEntity<CommonResponse<List<BasicProgramCardDataResDto>>> getTrendingPrograms() {
@@ -122,19 +128,48 @@ public class PublicProgramController {
         ));
     }
 
+    /**
+     * Newest first program listing paged by an opaque cursor; the total is only counted when includeTotal is set
+     */
+    @GetMapping("/filter/cursor")
+    public ResponseEntity<?> filterProgramsByCursor(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long subCategoryId,
+            @RequestParam(required = false) String searchText,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal
+    ) {
+        CursorPage<BasicProgramCardDataResDto> resDto = programService.filterProgramsByCursor(categoryId, subCategoryId, searchText, cursor, size, includeTotal);
+        return ResponseEntity.ok(new CommonResponse<>(
+                true,
+                "Program retrieved successfully",
+                resDto
+        ));
+    }
 
+
+    /**
+     * Written from the cached serialized response; gzip encoded when the client accepts it
+     */
     @GetMapping("/{urlName}")
-    public ResponseEntity<CommonResponse<FullProgramDto>> getProgramByUrl(@PathVariable String urlName) {
+    public ResponseEntity<?> getProgramByUrl(@PathVariable String urlName,
+                                             @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
-            FullProgramDto program = programService.getProgramByUrl(urlName);
-
-            CommonResponse<FullProgramDto> response = new CommonResponse<>(
-                    true,
-                    "Program retrieved successfully",
-                    program
-            );
-            return ResponseEntity.ok(response);
-
+            boolean gzip = acceptsGzip(acceptEncoding);
+            byte[] body = programDetailResponseService.getProgramDetailJson(urlName, gzip);
+
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (gzip) {
+                response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            return response.body(body);
+
+        } catch (CustomServiceException e) {
+            CommonResponse<FullProgramDto> errorResponse = new CommonResponse<>(false, e.getMessage());
+            return ResponseEntity.status(e.getHttpStatus()).body(errorResponse);
         } catch (Exception e) {
             CommonResponse<FullProgramDto> errorResponse = new CommonResponse<>(
                     false,
@@ -144,6 +179,19 @@ public class PublicProgramController {
         }
     }
 
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
 
 
     @PostMapping(value = "/donate", consumes = "multipart/form-data")
@@ -0,0 +1,22 @@
+package lk.kolitha.dana.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset paginated list. Pass {@code nextCursor} back as {@code cursor} to get the next page.
+ * {@code totalElements} is only filled when the caller asked for the total count.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasNext;
+    private Long totalElements;
+}
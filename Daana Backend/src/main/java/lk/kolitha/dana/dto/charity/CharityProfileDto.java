@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.Date;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -18,6 +19,7 @@ public class CharityProfileDto {
     private String description;
     private String executionType;
     private String logoUrl;
+    private String logoAvatarUrl;
     private String contactPersonName;
     private String contactPersonMobile;
     private String nicNumberOrRegistrationNumber;
@@ -51,6 +53,8 @@ public class CharityProfileDto {
     private Long activePrograms;
     private Long totalDonations;
     private String totalRaisedAmount;
+    // Statistics that could not be loaded in time; their fields are null
+    private List<String> unavailableSections;
     
     // Additional Information
     private String optCode;
@@ -0,0 +1,20 @@
+package lk.kolitha.dana.dto.diagnostics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PinnedSiteDto {
+
+    // Innermost frame of the pinned virtual thread, e.g. com.mysql.cj.NativeSession.execSQL:1007
+    private String topFrame;
+    private List<String> stackTrace;
+    private long count;
+    private double totalMillis;
+    private double maxMillis;
+}
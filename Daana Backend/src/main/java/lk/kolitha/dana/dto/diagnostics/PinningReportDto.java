@@ -0,0 +1,22 @@
+package lk.kolitha.dana.dto.diagnostics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PinningReportDto {
+
+    private boolean virtualThreadsEnabled;
+    private boolean monitoring;
+    private Date since;
+    private long thresholdMillis;
+    private long totalPinnedEvents;
+    // Sites ordered by count, most frequent first
+    private List<PinnedSiteDto> sites;
+}
@@ -0,0 +1,37 @@
+package lk.kolitha.dana.dto.donation;
+
+import lk.kolitha.dana.enums.PaymentMethod;
+import lk.kolitha.dana.enums.Status;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Columns of a donation in the charity donation listing, selected directly into this record so
+ * campaign and donor entities are not loaded. Donor fields are null when the donation has no donor.
+ */
+public record CharityDonationRow(Long id,
+                                 BigDecimal actualDonationAmount,
+                                 BigDecimal netDonationAmount,
+                                 double serviceCharge,
+                                 Boolean isAnonymousDonation,
+                                 String comments,
+                                 Status status,
+                                 PaymentMethod paymentMethod,
+                                 String paymentSlipUrl,
+                                 String paymentReferenceNumber,
+                                 Date created,
+                                 Date updated,
+                                 Long programId,
+                                 String programName,
+                                 String programTitle,
+                                 String programUrlSlug,
+                                 BigDecimal programTargetAmount,
+                                 BigDecimal programRaised,
+                                 Long donorId,
+                                 String donorFirstName,
+                                 String donorLastName,
+                                 String donorEmail,
+                                 String donorMobile,
+                                 String donorProfileImage) {
+}
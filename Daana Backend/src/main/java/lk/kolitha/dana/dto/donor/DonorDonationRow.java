@@ -0,0 +1,47 @@
+package lk.kolitha.dana.dto.donor;
+
+import lk.kolitha.dana.enums.PaymentMethod;
+import lk.kolitha.dana.enums.Status;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Columns of a donation in the donor donation history, selected directly into this record so
+ * campaign, charity and category entities are not loaded. Charity and category fields are null
+ * when the campaign has none.
+ */
+public record DonorDonationRow(Long id,
+                               BigDecimal actualDonationAmount,
+                               BigDecimal netDonationAmount,
+                               double serviceCharge,
+                               Boolean isAnonymousDonation,
+                               String comments,
+                               Status status,
+                               PaymentMethod paymentMethod,
+                               String paymentSlipUrl,
+                               String paymentReferenceNumber,
+                               Date created,
+                               Date updated,
+                               Long campaignId,
+                               String campaignName,
+                               String campaignTitle,
+                               String campaignUrlSlug,
+                               String campaignImage,
+                               String campaignDescription,
+                               BigDecimal campaignTargetAmount,
+                               BigDecimal campaignRaisedAmount,
+                               Date campaignStartDate,
+                               Date campaignEndDate,
+                               Status campaignStatus,
+                               Long charityId,
+                               String charityName,
+                               String charityLogo,
+                               Long subCategoryId,
+                               String subCategoryName,
+                               Long categoryId,
+                               String categoryName,
+                               Long donorId,
+                               String donorFirstName,
+                               String donorLastName) {
+}
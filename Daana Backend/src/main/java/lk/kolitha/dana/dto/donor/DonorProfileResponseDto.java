@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lk.kolitha.dana.enums.Gender;
 
+import java.math.BigDecimal;
 import java.util.Date;
 
 @Data
@@ -18,6 +19,7 @@ public class DonorProfileResponseDto {
     private String email;
     private Gender gender;
     private String profileImageUrl;
+    private String profileImageAvatarUrl;
     private String phoneNumber;
     private String billingAddress;
     private boolean billingVerify;
@@ -29,4 +31,7 @@ public class DonorProfileResponseDto {
     // Computed fields
     private String fullName;
     private String displayName;
+    private long totalDonationCount;
+    private BigDecimal totalDonatedAmount;
+    private Date lastDonationDate;
 }
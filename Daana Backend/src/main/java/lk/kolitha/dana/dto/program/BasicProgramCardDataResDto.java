@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.util.Date;
 
 @Data
 @AllArgsConstructor
@@ -15,10 +16,14 @@ public class BasicProgramCardDataResDto {
     private String programTitle;
     private String programDescription;
     private String subCategoryName;
+    // Campaigns.locationSummary, cut to LOCATION_SUMMARY_LENGTH; FullProgramDto.programLocation has the full text
     private String location;
     private String programImageUrl;
+    // Card sized copy of the image; null until generated, use programImageUrl then
+    private String programImageCardUrl;
     private String urlSlug;
     private BigDecimal targetDonationAmount;
     private BigDecimal raised;
+    private Date created;
 
 }
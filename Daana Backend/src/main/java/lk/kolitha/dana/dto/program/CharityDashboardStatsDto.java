@@ -32,6 +32,9 @@ public class CharityDashboardStatsDto {
     // Monthly Statistics (last 6 months)
     private List<MonthlyStatsDto> monthlyStats;
     
+    // Sections that could not be loaded in time; their fields are null
+    private List<String> unavailableSections;
+    
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
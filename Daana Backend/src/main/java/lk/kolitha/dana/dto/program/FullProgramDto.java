@@ -30,6 +30,9 @@ public class FullProgramDto {
     private BigDecimal raised;
 
     private String programImage;
+    // Resized copies of programImage; null until generated
+    private String programImageCardUrl;
+    private String programImageDetailUrl;
     private String programVideo;
 
     private Date startDate;
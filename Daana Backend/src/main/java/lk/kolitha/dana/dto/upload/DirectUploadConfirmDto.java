@@ -0,0 +1,15 @@
+package lk.kolitha.dana.dto.upload;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DirectUploadConfirmDto {
+
+    @NotBlank(message = "Object key is required")
+    private String objectKey;
+}
@@ -0,0 +1,26 @@
+package lk.kolitha.dana.dto.upload;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DirectUploadRequestDto {
+
+    // One of ApplicationConstants.S3FolderConstants, e.g. "profile-images/"
+    @NotBlank(message = "Folder is required")
+    private String folder;
+
+    @NotBlank(message = "File name is required")
+    private String fileName;
+
+    @NotBlank(message = "Content type is required")
+    private String contentType;
+
+    @Positive(message = "Content length must be positive")
+    private long contentLength;
+}
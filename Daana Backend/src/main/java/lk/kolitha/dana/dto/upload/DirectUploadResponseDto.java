@@ -0,0 +1,21 @@
+package lk.kolitha.dana.dto.upload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DirectUploadResponseDto {
+
+    // PUT the file here with the same Content-Type header
+    private String uploadUrl;
+    // Sent back on confirm once the upload finished
+    private String objectKey;
+    private String contentType;
+    private long maxContentLength;
+    private Date expiresAt;
+}
@@ -0,0 +1,25 @@
+package lk.kolitha.dana.dto.upload;
+
+import lk.kolitha.dana.enums.UploadSessionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionDto {
+
+    private String uploadId;
+    private Long campaignId;
+    // Bytes received so far; the next chunk starts here
+    private long offset;
+    private long totalSize;
+    private long maxChunkSize;
+    private UploadSessionStatus status;
+    // Set once the upload was finalized
+    private String fileUrl;
+    private Date expiresAt;
+}
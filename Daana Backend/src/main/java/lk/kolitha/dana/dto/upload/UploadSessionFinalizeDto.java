@@ -0,0 +1,14 @@
+package lk.kolitha.dana.dto.upload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionFinalizeDto {
+
+    // Optional hex SHA-256 of the whole file, checked before the file is linked
+    private String sha256;
+}
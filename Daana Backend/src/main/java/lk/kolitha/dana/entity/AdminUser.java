@@ -45,6 +45,10 @@ public class AdminUser {
     @Temporal(TemporalType.TIMESTAMP)
     private Date updated;
 
+    // Tokens issued before this time are rejected
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date credentialsChangedAt;
+
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
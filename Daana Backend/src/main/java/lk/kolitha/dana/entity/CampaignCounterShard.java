@@ -0,0 +1,45 @@
+package lk.kolitha.dana.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Digits;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * CampaignCounterShard entity class
+ *
+ * <p><b>IDEA:</b> One stripe of a campaign's "raised" counter. Donations add to a randomly chosen
+ * shard with a single atomic upsert, so concurrent donors to the same campaign do not queue up on
+ * one row. A background fold moves the accumulated shard amounts into {@link Campaigns#getRaised()}.</p>
+ *
+ * @since 2026-10-17
+ */
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_counter_shard_campaign_shard", columnNames = {"campaign_id", "shard_no"}))
+public class CampaignCounterShard {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "campaign_id", nullable = false)
+    private Long campaignId;
+
+    @Column(name = "shard_no", nullable = false)
+    private int shardNo;
+
+    @Digits(integer = 9, fraction = 2)
+    @Column(nullable = false, precision = 11, scale = 2)
+    private BigDecimal amount;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date updated;
+}
@@ -0,0 +1,52 @@
+package lk.kolitha.dana.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Digits;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Date;
+
+/**
+ * CampaignDailyStats entity class
+ *
+ * <p><b>IDEA:</b> Per campaign counterpart of {@link CharityDailyStats}, used for program level donation
+ * counts on the charity dashboard.</p>
+ *
+ * @since 2026-10-17
+ */
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_campaign_daily_stats_campaign_date", columnNames = {"campaign_id", "stat_date"}),
+       indexes = @Index(name = "idx_campaign_daily_stats_charity_date", columnList = "charity_id, stat_date"))
+public class CampaignDailyStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "campaign_id", nullable = false)
+    private Long campaignId;
+
+    @Column(name = "charity_id", nullable = false)
+    private Long charityId;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Column(nullable = false)
+    private long donationCount;
+
+    @Digits(integer = 11, fraction = 2)
+    @Column(nullable = false, precision = 13, scale = 2)
+    private BigDecimal amount;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date updated;
+}
@@ -0,0 +1,41 @@
+package lk.kolitha.dana.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * CampaignTrendingScore entity class
+ *
+ * <p><b>IDEA:</b> Time-decayed donation velocity of a campaign, kept as a forward-decay score. Every donation
+ * adds {@code log1p(amount) * e^(lambda * (t - t0))} relative to a fixed landmark {@code t0}, so older
+ * donations never need to be decayed again: the common factor {@code e^(-lambda * (now - t0))} does not change
+ * the order. The sum is stored as its natural logarithm so the exponent cannot overflow, and the indexed
+ * column can be read top-K without sorting the campaigns table.</p>
+ *
+ * @since 2026-10-17
+ */
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(name = "idx_campaign_trending_score_log_score", columnList = "log_score"))
+public class CampaignTrendingScore {
+
+    @Id
+    @Column(name = "campaign_id")
+    private Long campaignId;
+
+    @Column(name = "log_score", nullable = false)
+    private double logScore;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date lastDonationAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date updated;
+}
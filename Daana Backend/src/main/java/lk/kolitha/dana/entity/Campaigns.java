@@ -2,9 +2,11 @@ package lk.kolitha.dana.entity;
 
 import jakarta.persistence.*;
 import lk.kolitha.dana.enums.Status;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 import java.math.BigDecimal;
 import java.util.*;
@@ -18,13 +20,28 @@ import jakarta.validation.constraints.Digits;
  */
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_campaigns_created_id", columnList = "created, id"),
+        @Index(name = "idx_campaigns_deleted_created_id", columnList = "deleted, created, id"),
+        @Index(name = "idx_campaigns_charity_deleted_status", columnList = "charity_id, deleted, status"),
+        @Index(name = "idx_campaigns_charity_deleted_created", columnList = "charity_id, deleted, created"),
+        @Index(name = "idx_campaigns_url_name", columnList = "url_name"),
+        @Index(name = "idx_campaigns_category_deleted_created_id", columnList = "category_id, deleted, created, id"),
+        @Index(name = "idx_campaigns_sub_category_deleted_created_id", columnList = "sub_category_id, deleted, created, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Campaigns {
+    public static final int LOCATION_SUMMARY_LENGTH = 255;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+    // Raised by every entity update and by the bulk updates that change what the detail page shows,
+    // not by addToRaised; cached detail responses are keyed by it
+    @Version
+    private Long version;
     private String urlName;
     private String programName;
     private String title;
@@ -35,15 +52,25 @@ public class Campaigns {
     private String contactPersonName;
 
     private boolean deleted;
+    // Only the detail page needs the full text; loaded on first access with the build time bytecode enhancement
     @Lob
+    @Basic(fetch = FetchType.LAZY)
     private String programLocation;
+    // Leading part of programLocation shown on program cards, so card queries never read the LOB column
+    @Setter(AccessLevel.NONE)
+    @Column(length = LOCATION_SUMMARY_LENGTH)
+    private String locationSummary;
 
     @Digits(integer = 9, fraction = 2)
     private BigDecimal targetDonationAmount;
     @Digits(integer = 9, fraction = 2)
+    @Column(updatable = false) // maintained by CampaignsRepository.addToRaised only
     private BigDecimal raised;
 
     private String programImage;
+    // Resized copies of programImage, null until the image variant pipeline generated them
+    private String programImageCardUrl;
+    private String programImageDetailUrl;
     private String programVideo;
 
     @Temporal(TemporalType.TIMESTAMP)
@@ -73,10 +100,24 @@ public class Campaigns {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(unique = false, nullable = true)
     private SubCategory subCategory;
+    // Category of subCategory, so listings filtered by category are read from one index in order
+    @Setter(AccessLevel.NONE)
+    private Long categoryId;
 
     @OneToMany(mappedBy = "campaigns", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Donation> donation = new ArrayList<>();
 
+    public void setProgramLocation(String programLocation) {
+        this.programLocation = programLocation;
+        this.locationSummary = programLocation == null || programLocation.length() <= LOCATION_SUMMARY_LENGTH
+                ? programLocation : programLocation.substring(0, LOCATION_SUMMARY_LENGTH);
+    }
+
+    public void setSubCategory(SubCategory subCategory) {
+        this.subCategory = subCategory;
+        this.categoryId = subCategory == null || subCategory.getCategory() == null ? null : subCategory.getCategory().getId();
+    }
+
 
 
 }
@@ -47,6 +47,8 @@ public class Charity {
     @Lob
     private String description;
     private String logoUrl;
+    // Avatar sized copy of logoUrl, null until generated
+    private String logoAvatarUrl;
     private int mobileNumber;
     private String nicNumberOrRegistrationNumber;
 
@@ -72,6 +74,9 @@ public class Charity {
     private Date created;
     @Temporal(TemporalType.TIMESTAMP)
     private Date updated;
+    // Tokens issued before this time are rejected
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date credentialsChangedAt;
 
     @OneToMany(mappedBy = "charity", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<CharityCategory> charityCategories = new ArrayList<>();
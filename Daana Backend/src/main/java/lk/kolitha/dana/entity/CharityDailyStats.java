@@ -0,0 +1,49 @@
+package lk.kolitha.dana.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Digits;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Date;
+
+/**
+ * CharityDailyStats entity class
+ *
+ * <p><b>IDEA:</b> Count and net amount of a charity's active donations for one UTC day. Rows are recomputed
+ * from the donation table for every day touched by a donation event and by the periodic repair job, so
+ * dashboard figures are read from a few rows per day instead of from the donation history.</p>
+ *
+ * @since 2026-10-17
+ */
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_charity_daily_stats_charity_date", columnNames = {"charity_id", "stat_date"}))
+public class CharityDailyStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "charity_id", nullable = false)
+    private Long charityId;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Column(nullable = false)
+    private long donationCount;
+
+    @Digits(integer = 11, fraction = 2)
+    @Column(nullable = false, precision = 13, scale = 2)
+    private BigDecimal amount;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date updated;
+}
@@ -12,6 +12,12 @@ import java.math.BigDecimal;
 import java.util.Date;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_donation_campaign_created_id", columnList = "campaigns_id, created, id"),
+        @Index(name = "idx_donation_donor_created_id", columnList = "registered_donor_id, created, id"),
+        @Index(name = "idx_donation_charity_created_id", columnList = "charity_id, created, id"),
+        @Index(name = "idx_donation_created", columnList = "created")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -56,6 +62,9 @@ public class Donation {
     @JoinColumn(unique = false, nullable = false)
     private Campaigns campaigns;
 
+    // Charity of the campaign, copied on insert so the charity's donation listings are read from one index
+    private Long charityId;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(unique = false, nullable = true)
     private DonationPackage donationPackage;
@@ -0,0 +1,61 @@
+package lk.kolitha.dana.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Digits;
+import lk.kolitha.dana.enums.DonationEventType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * DonationEvent entity class
+ *
+ * <p><b>IDEA:</b> Transactional outbox of donation changes. A row is inserted in the same transaction as
+ * the donation it describes, so an event exists exactly when the donation was committed. Each projector
+ * reads the events of its pending deliveries, which makes delivery at-least-once and the projections
+ * rebuildable from the log.</p>
+ *
+ * @since 2026-10-17
+ */
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(name = "idx_donation_event_created", columnList = "created"))
+public class DonationEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DonationEventType eventType;
+
+    @Column(nullable = false)
+    private Long donationId;
+
+    @Column(nullable = false)
+    private Long campaignId;
+
+    @Column(nullable = false)
+    private Long charityId;
+
+    private Long donorId; // null for anonymous donations
+
+    @Digits(integer = 9, fraction = 2)
+    @Column(nullable = false, precision = 11, scale = 2)
+    private BigDecimal amount; // net donation amount
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date occurredAt; // donation created time
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date created;
+}
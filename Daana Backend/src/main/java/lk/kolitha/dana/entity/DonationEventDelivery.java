@@ -0,0 +1,43 @@
+package lk.kolitha.dana.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * DonationEventDelivery entity class
+ *
+ * <p><b>IDEA:</b> A donation event a projector still has to apply. One row per projector is inserted with
+ * the event, in the donation's transaction, and deleted in the transaction that applies it. A projector's
+ * pending work is exactly its rows, so an event whose transaction commits late is picked up whenever it
+ * becomes visible, however many higher ids were applied before it.</p>
+ *
+ * @since 2026-10-17
+ */
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_donation_event_delivery_event_projector",
+        columnNames = {"event_id", "projector_name"}),
+        indexes = @Index(name = "idx_donation_event_delivery_projector_event", columnList = "projector_name, event_id"))
+public class DonationEventDelivery {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String projectorName;
+
+    @Column(nullable = false)
+    private Long eventId;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date created; // event created time, for the lag metric
+}
@@ -0,0 +1,46 @@
+package lk.kolitha.dana.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Digits;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * DonorLifetimeStats entity class
+ *
+ * <p><b>IDEA:</b> Per donor totals maintained from the donation event log, so profile pages do not
+ * aggregate the donor's donation history on every read.</p>
+ *
+ * @since 2026-10-17
+ */
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DonorLifetimeStats {
+
+    @Id
+    @Column(name = "donor_id")
+    private Long donorId;
+
+    @Column(nullable = false)
+    private long donationCount;
+
+    @Digits(integer = 11, fraction = 2)
+    @Column(nullable = false, precision = 13, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date firstDonationAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date lastDonationAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date updated;
+}
@@ -0,0 +1,76 @@
+package lk.kolitha.dana.entity;
+
+import jakarta.persistence.*;
+import lk.kolitha.dana.enums.OutboundEmailStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * OutboundEmail entity class
+ *
+ * <p><b>IDEA:</b> Persistent mail queue. Request threads only insert a row, in the same transaction as the
+ * change that triggered the mail, and the mail worker sends due rows in batches over pooled SMTP sessions.
+ * Failed sends are retried with exponential backoff until the attempt limit, after which the row stays as a
+ * dead letter with the last error. A pending row is reused for a newer mail with the same dedupe key, so a
+ * recipient who asks for a code twice gets only the latest one.</p>
+ *
+ * @since 2026-10-17
+ */
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = {
+        @Index(name = "idx_outbound_email_status_next_attempt", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_outbound_email_dedupe_key", columnList = "dedupe_key, status")
+})
+public class OutboundEmail {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "LONGTEXT")
+    private String htmlBody;
+
+    // e.g. donor-otp:<email>; null for mails that must never be merged
+    private String dedupeKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboundEmailStatus status;
+
+    private int attempts;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date nextAttemptAt;
+
+    // Lease of a SENDING row; a worker that died mid batch leaves rows that are picked up again after it
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date lockedUntil;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date sentAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date created;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date updated;
+}
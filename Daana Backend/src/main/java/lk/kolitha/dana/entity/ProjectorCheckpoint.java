@@ -0,0 +1,33 @@
+package lk.kolitha.dana.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * ProjectorCheckpoint entity class
+ *
+ * <p><b>IDEA:</b> Per projector row that pollers and rebuilds lock while they apply events, so a batch is
+ * never applied by two instances at once. It holds no position: pending events are the projector's donation
+ * event deliveries. The row is created on first use, see {@link lk.kolitha.dana.repository.ProjectorCheckpointRepository#lock}.</p>
+ *
+ * @since 2026-10-17
+ */
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectorCheckpoint {
+
+    @Id
+    @Column(length = 100)
+    private String projectorName;
+
+    // Last time a batch or rebuild was applied
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date updated;
+}
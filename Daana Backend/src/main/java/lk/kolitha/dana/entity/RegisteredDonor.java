@@ -53,6 +53,8 @@ public class RegisteredDonor {
 
 
     private String profileImageUrl;
+    // Avatar sized copy of profileImageUrl, null until generated
+    private String profileImageAvatarUrl;
     private String phoneNumber;
     private String billingAddress;
     private boolean isBillingVerify;
@@ -69,6 +71,10 @@ public class RegisteredDonor {
     @Temporal(TemporalType.TIMESTAMP)
     private Date updated;
 
+    // Tokens issued before this time are rejected
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date credentialsChangedAt;
+
 
     @OneToMany(mappedBy = "registeredDonor", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<DonorCard> donorCards = new ArrayList<>();
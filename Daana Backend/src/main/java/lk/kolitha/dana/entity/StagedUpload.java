@@ -0,0 +1,41 @@
+package lk.kolitha.dana.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * StagedUpload entity class
+ *
+ * <p><b>IDEA:</b> Compensation record for a file that is uploaded to S3 before the database row that
+ * references it is written. The row is created before the upload and removed in the same transaction that
+ * stores the owning record. Rows left behind belong to failed or abandoned requests, and their objects are
+ * deleted from S3 by the staged upload sweeper.</p>
+ *
+ * @since 2026-10-17
+ */
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(name = "idx_staged_upload_created", columnList = "created"))
+public class StagedUpload {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 1000)
+    private String fileUrl;
+
+    // Business reference of the owning record, e.g. the donation payment reference number
+    private String reference;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date created;
+}
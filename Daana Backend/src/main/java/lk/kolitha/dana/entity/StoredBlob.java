@@ -0,0 +1,58 @@
+package lk.kolitha.dana.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * StoredBlob entity class
+ *
+ * <p><b>IDEA:</b> One row per distinct uploaded document, keyed by the SHA-256 of its bytes. The object is
+ * stored under a key derived from the hash, so a charity uploading the same certificate again only adds a
+ * reference instead of a new object. The reference count goes up for every record that points at the blob
+ * and down when that record drops it; blobs that stay unreferenced past a grace period are deleted by the
+ * blob collector.</p>
+ *
+ * @since 2026-10-17
+ */
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_stored_blob_content_hash", columnNames = "content_hash"),
+        indexes = @Index(name = "idx_stored_blob_references_updated", columnList = "reference_count, updated"))
+public class StoredBlob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Lower case hex SHA-256 of the content
+    @Column(nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(nullable = false, length = 1000)
+    private String objectKey;
+
+    @Column(nullable = false, length = 1000)
+    private String fileUrl;
+
+    private long size;
+
+    private String contentType;
+
+    private int referenceCount;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date created;
+
+    // Last reference change; the grace period of unreferenced blobs counts from here
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date updated;
+}
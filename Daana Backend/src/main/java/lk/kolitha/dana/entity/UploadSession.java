@@ -0,0 +1,66 @@
+package lk.kolitha.dana.entity;
+
+import jakarta.persistence.*;
+import lk.kolitha.dana.enums.UploadSessionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * UploadSession entity class
+ *
+ * <p><b>IDEA:</b> Resumable upload of a campaign video. Chunks are appended to a staging file on the instance
+ * and {@code receivedBytes} only moves forward once a chunk was written and verified, so a client that lost its
+ * connection asks for the offset and continues from there. Finalizing moves the staging file to storage and
+ * links it to the campaign. Sessions that are not finished before {@code expiresAt} are swept with their
+ * staging file.</p>
+ *
+ * @since 2026-10-17
+ */
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(name = "idx_upload_session_status_expires", columnList = "status, expires_at"))
+public class UploadSession {
+
+    // Random id handed to the client, so sessions cannot be guessed
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false)
+    private Long charityId;
+
+    @Column(nullable = false)
+    private Long campaignId;
+
+    private String fileName;
+
+    private String contentType;
+
+    private long totalSize;
+
+    private long receivedBytes;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private UploadSessionStatus status;
+
+    @Column(length = 1000)
+    private String fileUrl;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date created;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date updated;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date expiresAt;
+}
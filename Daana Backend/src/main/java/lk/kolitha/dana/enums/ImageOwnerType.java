@@ -0,0 +1,5 @@
+package lk.kolitha.dana.enums;
+
+public enum ImageOwnerType {
+    CAMPAIGN, CHARITY, DONOR
+}
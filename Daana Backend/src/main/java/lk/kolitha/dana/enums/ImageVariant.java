@@ -0,0 +1,20 @@
+package lk.kolitha.dana.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Resized copies generated for uploaded images. Each variant fits the image into a box of the given
+ * size without upscaling and is stored next to the original as {@code <original>-<suffix>.jpg}.
+ */
+@Getter
+@AllArgsConstructor
+public enum ImageVariant {
+    CARD("card", 480, 360),
+    DETAIL("detail", 1200, 900),
+    AVATAR("avatar", 160, 160);
+
+    private final String suffix;
+    private final int maxWidth;
+    private final int maxHeight;
+}
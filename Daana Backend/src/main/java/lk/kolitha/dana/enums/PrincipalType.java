@@ -0,0 +1,8 @@
+package lk.kolitha.dana.enums;
+
+/**
+ * Which account table an authenticated principal belongs to
+ */
+public enum PrincipalType {
+    DONOR, CHARITY, ADMIN
+}
@@ -0,0 +1,5 @@
+package lk.kolitha.dana.enums;
+
+public enum UploadSessionStatus {
+    OPEN, FINALIZING, COMPLETED
+}
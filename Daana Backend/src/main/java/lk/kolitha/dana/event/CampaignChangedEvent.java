@@ -0,0 +1,19 @@
+package lk.kolitha.dana.event;
+
+import lk.kolitha.dana.enums.CampaignChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by the program service whenever a campaign is created, updated or deleted.
+ * Listeners that keep derived copies of campaign data (caches, indexes) refresh from it after commit.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CampaignChangedEvent {
+
+    private final Long campaignId;
+    private final CampaignChangeType changeType;
+}
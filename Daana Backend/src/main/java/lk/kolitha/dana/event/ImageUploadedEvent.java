@@ -0,0 +1,19 @@
+package lk.kolitha.dana.event;
+
+import lk.kolitha.dana.enums.ImageOwnerType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published when a campaign image, charity logo or donor profile picture was replaced.
+ * The image variant pipeline generates the resized copies after commit.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ImageUploadedEvent {
+
+    private final ImageOwnerType ownerType;
+    private final Long ownerId;
+}
@@ -1,6 +1,7 @@
 package lk.kolitha.dana.exception;
 
 import lk.kolitha.dana.dto.CommonResponse;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -51,6 +52,17 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(ex.getHttpStatus()).body(response);
     }
 
+    // Two requests edited the same versioned entity; the later one has to reload and apply its change again
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<CommonResponse<String>> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        CommonResponse<String> response = new CommonResponse<>(
+                false,
+                "The record was changed by another request, reload it and try again",
+                null
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<CommonResponse<String>> handleRuntimeException(RuntimeException ex) {
         CommonResponse<String> response = new CommonResponse<>(
@@ -0,0 +1,44 @@
+package lk.kolitha.dana.repository;
+
+import jakarta.persistence.LockModeType;
+import lk.kolitha.dana.entity.CampaignCounterShard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CampaignCounterShardRepository extends JpaRepository<CampaignCounterShard, Long> {
+
+    // Atomic increment of one shard; creates the shard row on first use
+    @Modifying
+    @Query(value = "INSERT INTO campaign_counter_shard (campaign_id, shard_no, amount, updated) " +
+                   "VALUES (:campaignId, :shardNo, :delta, NOW()) " +
+                   "ON DUPLICATE KEY UPDATE amount = amount + :delta, updated = NOW()",
+           nativeQuery = true)
+    int incrementShard(@Param("campaignId") Long campaignId,
+                       @Param("shardNo") int shardNo,
+                       @Param("delta") BigDecimal delta);
+
+    // Campaigns that have amounts waiting to be folded into Campaigns.raised
+    @Query("SELECT DISTINCT s.campaignId FROM CampaignCounterShard s WHERE s.amount <> 0")
+    List<Long> findCampaignIdsWithPendingAmount();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CampaignCounterShard s WHERE s.campaignId = :campaignId ORDER BY s.shardNo")
+    List<CampaignCounterShard> findByCampaignIdForUpdate(@Param("campaignId") Long campaignId);
+
+    @Modifying
+    @Query("UPDATE CampaignCounterShard s SET s.amount = 0, s.updated = CURRENT_TIMESTAMP WHERE s.campaignId = :campaignId")
+    int resetShards(@Param("campaignId") Long campaignId);
+
+    // Not yet folded amount per campaign, returned as [campaignId, pendingAmount]
+    @Query("SELECT s.campaignId, SUM(s.amount) FROM CampaignCounterShard s WHERE s.campaignId IN :campaignIds GROUP BY s.campaignId")
+    List<Object[]> sumPendingAmountByCampaignIds(@Param("campaignIds") Collection<Long> campaignIds);
+}
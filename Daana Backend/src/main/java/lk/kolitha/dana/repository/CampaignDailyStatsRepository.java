@@ -0,0 +1,42 @@
+package lk.kolitha.dana.repository;
+
+import lk.kolitha.dana.entity.CampaignDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface CampaignDailyStatsRepository extends JpaRepository<CampaignDailyStats, Long> {
+
+    // Rebuild of the [from, to) window; a null charityId covers every charity
+    @Modifying
+    @Query(value = "DELETE FROM campaign_daily_stats WHERE (:charityId IS NULL OR charity_id = :charityId) " +
+                   "AND stat_date >= :fromDate AND stat_date < :toDate",
+           nativeQuery = true)
+    int deleteRange(@Param("charityId") Long charityId,
+                    @Param("fromDate") LocalDate fromDate,
+                    @Param("toDate") LocalDate toDate);
+
+    @Modifying
+    @Query(value = "INSERT INTO campaign_daily_stats (campaign_id, charity_id, stat_date, donation_count, amount, updated) " +
+                   "SELECT c.id, c.charity_id, DATE(d.created), COUNT(d.id), COALESCE(SUM(d.net_donation_amount), 0), NOW() " +
+                   "FROM donation d JOIN campaigns c ON c.id = d.campaigns_id " +
+                   "WHERE d.status = 'ACTIVE' AND (:charityId IS NULL OR c.charity_id = :charityId) " +
+                   "AND d.created >= :fromTime AND d.created < :toTime " +
+                   "GROUP BY c.id, c.charity_id, DATE(d.created)",
+           nativeQuery = true)
+    int insertRangeFromDonations(@Param("charityId") Long charityId,
+                                 @Param("fromTime") Date fromTime,
+                                 @Param("toTime") Date toTime);
+
+    // Returned as [campaignId, donationCount]
+    @Query("SELECT s.campaignId, SUM(s.donationCount) FROM CampaignDailyStats s WHERE s.campaignId IN :campaignIds GROUP BY s.campaignId")
+    List<Object[]> sumDonationCountByCampaignIds(@Param("campaignIds") Collection<Long> campaignIds);
+}
@@ -0,0 +1,15 @@
+package lk.kolitha.dana.repository;
+
+import lk.kolitha.dana.entity.CampaignTrendingScore;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CampaignTrendingScoreRepository extends JpaRepository<CampaignTrendingScore, Long> {
+
+    @Modifying
+    @Query("DELETE FROM CampaignTrendingScore s")
+    int deleteAllScores();
+}
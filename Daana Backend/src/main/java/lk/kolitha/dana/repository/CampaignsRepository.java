@@ -4,42 +4,63 @@ import lk.kolitha.dana.entity.Campaigns;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CampaignsRepository extends JpaRepository<Campaigns, Long> {
+public interface CampaignsRepository extends JpaRepository<Campaigns, Long>, CampaignsRepositoryCustom {
 
 
-    @Query("SELECT p FROM Campaigns p LEFT JOIN FETCH p.subCategory WHERE p.deleted = false ORDER BY p.raised DESC")
-    List<Campaigns> findTrendingProgramsWithSubCategory(Pageable pageable);
+    // Program card columns, shared by every card query; reads locationSummary instead of the programLocation LOB
+    String PROGRAM_CARD = "new lk.kolitha.dana.dto.program.BasicProgramCardDataResDto(p.id, p.programName, p.title, " +
+            "p.description, sc.name, p.locationSummary, p.programImage, p.programImageCardUrl, p.urlName, " +
+            "p.targetDonationAmount, p.raised, p.created)";
 
-    @Query("SELECT p FROM Campaigns p LEFT JOIN FETCH p.subCategory WHERE p.deleted = false ORDER BY p.created DESC")
-    List<Campaigns> findLatestProgramsWithSubCategory(Pageable pageable);
+    // Top-K read over the indexed trending score; campaigns without recent donations have no score row
+    @Query("SELECT " + PROGRAM_CARD + " FROM CampaignTrendingScore s JOIN Campaigns p ON p.id = s.campaignId " +
+           "LEFT JOIN p.subCategory sc WHERE p.deleted = false ORDER BY s.logScore DESC")
+    List<lk.kolitha.dana.dto.program.BasicProgramCardDataResDto> findTrendingProgramCards(Pageable pageable);
 
-    @Query("SELECT new lk.kolitha.dana.dto.program.BasicProgramCardDataResDto(p.id, p.programName, p.title, p.description, sc.name, p.programLocation, p.programImage, p.urlName, p.targetDonationAmount, p.raised) FROM Campaigns p " +
-            "INNER JOIN SubCategory sc ON p.subCategory.id = sc.id " +
-            "INNER JOIN Category c ON sc.category.id = c.id " +
-            "WHERE p.deleted = false " +
-            "AND (:categoryId IS NULL OR c.id = :categoryId) " +
-            "AND (:subCategoryId IS NULL OR sc.id = :subCategoryId) " +
-            "AND (:searchText IS NULL OR LOWER(p.title) LIKE LOWER(CONCAT('%', :searchText, '%')) " +
-            "OR LOWER(p.description) LIKE LOWER(CONCAT('%', :searchText, '%')) "+
-            "OR LOWER(p.programName) LIKE LOWER(CONCAT('%', :searchText, '%'))) "+
-            "ORDER BY p.created DESC")
-    Page<lk.kolitha.dana.dto.program.BasicProgramCardDataResDto> filterProgram(Long categoryId,
-                                                                               Long subCategoryId,
-                                                                               String searchText,
-                                                                               Pageable pageable);
+    @Query("SELECT " + PROGRAM_CARD + " FROM Campaigns p LEFT JOIN p.subCategory sc WHERE p.deleted = false " +
+           "ORDER BY p.created DESC")
+    List<lk.kolitha.dana.dto.program.BasicProgramCardDataResDto> findLatestProgramCards(Pageable pageable);
+
+    // Campaigns created before the create paths set the timestamp; keyset pages never return rows without one
+    @Modifying
+    @Transactional
+    @Query("UPDATE Campaigns p SET p.created = COALESCE(p.updated, CURRENT_TIMESTAMP) WHERE p.created IS NULL")
+    int backfillMissingCreated();
+
+    // Search index source rows, returned as [id, title, programName, description, subCategoryId, categoryId, created]
+    @Query("SELECT p.id, p.title, p.programName, p.description, sc.id, c.id, p.created FROM Campaigns p " +
+            "INNER JOIN p.subCategory sc INNER JOIN sc.category c WHERE p.deleted = false")
+    List<Object[]> findSearchDocuments();
+
+    @Query("SELECT p.id, p.title, p.programName, p.description, sc.id, c.id, p.created FROM Campaigns p " +
+            "INNER JOIN p.subCategory sc INNER JOIN sc.category c WHERE p.deleted = false AND p.id = :campaignId")
+    List<Object[]> findSearchDocumentById(@Param("campaignId") Long campaignId);
 
+    @Query("SELECT " + PROGRAM_CARD + " FROM Campaigns p " +
+            "INNER JOIN SubCategory sc ON p.subCategory.id = sc.id " +
+            "WHERE p.deleted = false AND p.id IN :ids")
+    List<lk.kolitha.dana.dto.program.BasicProgramCardDataResDto> findCardsByIds(@Param("ids") java.util.Collection<Long> ids);
 
     @Query("SELECT p FROM Campaigns p WHERE p.deleted = false AND p.urlName = :urlName")
     Optional<Campaigns> findByUrlNameWithRelations(@Param("urlName") String urlName);
 
+    // Cache key of the program detail response, returned as [id, version, raised, charity updated, sub category updated, category updated]
+    @Query("SELECT p.id, p.version, p.raised, ch.updated, sc.updated, cat.updated FROM Campaigns p " +
+            "LEFT JOIN p.charity ch LEFT JOIN p.subCategory sc LEFT JOIN sc.category cat " +
+            "WHERE p.deleted = false AND p.urlName = :urlName")
+    List<Object[]> findDetailVersionByUrlName(@Param("urlName") String urlName);
+
     @Query("SELECT p FROM Campaigns p LEFT JOIN FETCH p.subCategory WHERE p.charity.id = :charityId AND p.deleted = false")
     Page<Campaigns> findByCharityIdAndDeletedFalse(@Param("charityId") Long charityId, Pageable pageable);
 
@@ -49,6 +70,44 @@ public interface CampaignsRepository extends JpaRepository<Campaigns, Long> {
     @Query("SELECT COUNT(d) > 0 FROM Donation d WHERE d.campaigns.id = :campaignId AND d.status = 'ACTIVE'")
     boolean hasActiveDonations(@Param("campaignId") Long campaignId);
 
+    // Returned as [status, count]
+    @Query("SELECT p.status, COUNT(p) FROM Campaigns p WHERE p.charity.id = :charityId AND p.deleted = false GROUP BY p.status")
+    List<Object[]> countByStatusForCharity(@Param("charityId") Long charityId);
+
+    @Query("SELECT COALESCE(SUM(p.targetDonationAmount), 0) FROM Campaigns p WHERE p.charity.id = :charityId AND p.deleted = false")
+    BigDecimal sumTargetAmountByCharityId(@Param("charityId") Long charityId);
+
+    @Query("SELECT p FROM Campaigns p WHERE p.charity.id = :charityId AND p.deleted = false AND p.created IS NOT NULL ORDER BY p.created DESC")
+    List<Campaigns> findRecentByCharityId(@Param("charityId") Long charityId, Pageable pageable);
+
+    @Query("SELECT p FROM Campaigns p WHERE p.charity.id = :charityId AND p.deleted = false AND p.targetDonationAmount > 0 " +
+           "ORDER BY COALESCE(p.raised, 0) / p.targetDonationAmount DESC")
+    List<Campaigns> findTopPerformingByCharityId(@Param("charityId") Long charityId, Pageable pageable);
+
+    // Returned as [year, month, count]
+    @Query("SELECT year(p.created), month(p.created), COUNT(p) FROM Campaigns p " +
+           "WHERE p.charity.id = :charityId AND p.deleted = false AND p.created >= :fromDate " +
+           "GROUP BY year(p.created), month(p.created)")
+    List<Object[]> countCreatedPerMonthByCharityId(@Param("charityId") Long charityId, @Param("fromDate") java.util.Date fromDate);
+
+    // Only writer of Campaigns.raised; called by the counter fold job
+    @Modifying
+    @Query("UPDATE Campaigns c SET c.raised = COALESCE(c.raised, 0) + :delta WHERE c.id = :campaignId")
+    int addToRaised(@Param("campaignId") Long campaignId, @Param("delta") BigDecimal delta);
+
+    @Query("SELECT c.programImage FROM Campaigns c WHERE c.id = :campaignId")
+    Optional<String> findProgramImageById(@Param("campaignId") Long campaignId);
+
+    // Only applies when the image the variants were generated from is still the current one
+    @Modifying
+    @Query("UPDATE Campaigns c SET c.programImageCardUrl = :cardUrl, c.programImageDetailUrl = :detailUrl, " +
+           "c.version = c.version + 1 WHERE c.id = :campaignId AND c.programImage = :programImage")
+    int updateProgramImageVariants(@Param("campaignId") Long campaignId, @Param("programImage") String programImage,
+                                   @Param("cardUrl") String cardUrl, @Param("detailUrl") String detailUrl);
+
+    @Query("SELECT c.id FROM Campaigns c WHERE c.programImage IS NOT NULL AND c.programImageCardUrl IS NULL AND c.deleted = false ORDER BY c.id")
+    List<Long> findIdsMissingImageVariants(Pageable pageable);
+
     }
 
 
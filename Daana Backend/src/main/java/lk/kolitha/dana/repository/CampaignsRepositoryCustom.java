@@ -0,0 +1,26 @@
+package lk.kolitha.dana.repository;
+
+import lk.kolitha.dana.dto.program.BasicProgramCardDataResDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Program listing queries with optional filters. They are built per call with only the filters that are set,
+ * so every filter combination gets its own statement and plan instead of one generic plan full of
+ * {@code :param IS NULL OR ...} branches.
+ */
+public interface CampaignsRepositoryCustom {
+
+    Page<BasicProgramCardDataResDto> filterProgram(Long categoryId, Long subCategoryId, String searchText, Pageable pageable);
+
+    /**
+     * Keyset variant of filterProgram: rows after the (created, id) cursor, newest first, without a count query
+     */
+    List<BasicProgramCardDataResDto> filterProgramAfter(Long categoryId, Long subCategoryId, String searchText,
+                                                        Date cursorCreated, Long cursorId, Pageable pageable);
+
+    long countFilteredPrograms(Long categoryId, Long subCategoryId, String searchText);
+}
@@ -0,0 +1,102 @@
+package lk.kolitha.dana.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lk.kolitha.dana.dto.program.BasicProgramCardDataResDto;
+import lk.kolitha.dana.entity.Campaigns;
+import lk.kolitha.dana.entity.Campaigns_;
+import lk.kolitha.dana.entity.SubCategory;
+import lk.kolitha.dana.entity.SubCategory_;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+class CampaignsRepositoryCustomImpl implements CampaignsRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<BasicProgramCardDataResDto> filterProgram(Long categoryId, Long subCategoryId, String searchText, Pageable pageable) {
+        List<BasicProgramCardDataResDto> content = entityManager.createQuery(cardQuery(categoryId, subCategoryId, searchText, null, null))
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        // The count is skipped when the page shows the total already, e.g. a short first page
+        return PageableExecutionUtils.getPage(content, pageable, () -> countFilteredPrograms(categoryId, subCategoryId, searchText));
+    }
+
+    @Override
+    public List<BasicProgramCardDataResDto> filterProgramAfter(Long categoryId, Long subCategoryId, String searchText,
+                                                               Date cursorCreated, Long cursorId, Pageable pageable) {
+        return entityManager.createQuery(cardQuery(categoryId, subCategoryId, searchText, cursorCreated, cursorId))
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    @Override
+    public long countFilteredPrograms(Long categoryId, Long subCategoryId, String searchText) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Campaigns> program = query.from(Campaigns.class);
+        Join<Campaigns, SubCategory> subCategory = program.join(Campaigns_.subCategory);
+        query.select(cb.count(program))
+                .where(filters(cb, program, subCategory, categoryId, subCategoryId, searchText, null, null));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private CriteriaQuery<BasicProgramCardDataResDto> cardQuery(Long categoryId, Long subCategoryId, String searchText,
+                                                                Date cursorCreated, Long cursorId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BasicProgramCardDataResDto> query = cb.createQuery(BasicProgramCardDataResDto.class);
+        Root<Campaigns> program = query.from(Campaigns.class);
+        Join<Campaigns, SubCategory> subCategory = program.join(Campaigns_.subCategory);
+        query.select(cb.construct(BasicProgramCardDataResDto.class,
+                        program.get(Campaigns_.id), program.get(Campaigns_.programName), program.get(Campaigns_.title), program.get(Campaigns_.description),
+                        subCategory.get(SubCategory_.name), program.get(Campaigns_.locationSummary), program.get(Campaigns_.programImage),
+                        program.get(Campaigns_.programImageCardUrl), program.get(Campaigns_.urlName), program.get(Campaigns_.targetDonationAmount),
+                        program.get(Campaigns_.raised), program.get(Campaigns_.created)))
+                .where(filters(cb, program, subCategory, categoryId, subCategoryId, searchText, cursorCreated, cursorId))
+                .orderBy(cb.desc(program.get(Campaigns_.created)), cb.desc(program.get(Campaigns_.id)));
+        return query;
+    }
+
+    private static Predicate[] filters(CriteriaBuilder cb, Root<Campaigns> program, Join<Campaigns, SubCategory> subCategory,
+                                       Long categoryId, Long subCategoryId, String searchText,
+                                       Date cursorCreated, Long cursorId) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.isFalse(program.get(Campaigns_.deleted)));
+        if (categoryId != null) {
+            // Denormalized category id: the listing is read from (category_id, deleted, created, id) in order
+            predicates.add(cb.equal(program.get(Campaigns_.categoryId), categoryId));
+        } else {
+            // Listings only show programs whose sub category belongs to a category
+            predicates.add(cb.isNotNull(subCategory.get(SubCategory_.category)));
+        }
+        if (subCategoryId != null) {
+            predicates.add(cb.equal(program.get(Campaigns_.subCategory).get(SubCategory_.id), subCategoryId));
+        }
+        if (searchText != null && !searchText.isBlank()) {
+            String pattern = "%" + searchText.toLowerCase() + "%";
+            predicates.add(cb.or(
+                    cb.like(cb.lower(program.get(Campaigns_.title)), pattern),
+                    cb.like(cb.lower(program.get(Campaigns_.description)), pattern),
+                    cb.like(cb.lower(program.get(Campaigns_.programName)), pattern)));
+        }
+        if (cursorCreated != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(program.get(Campaigns_.created), cursorCreated),
+                    cb.and(cb.equal(program.get(Campaigns_.created), cursorCreated), cb.lessThan(program.get(Campaigns_.id), cursorId))));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+}
@@ -0,0 +1,47 @@
+package lk.kolitha.dana.repository;
+
+import lk.kolitha.dana.entity.CharityDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface CharityDailyStatsRepository extends JpaRepository<CharityDailyStats, Long> {
+
+    // Rebuild of the [from, to) window; a null charityId covers every charity
+    @Modifying
+    @Query(value = "DELETE FROM charity_daily_stats WHERE (:charityId IS NULL OR charity_id = :charityId) " +
+                   "AND stat_date >= :fromDate AND stat_date < :toDate",
+           nativeQuery = true)
+    int deleteRange(@Param("charityId") Long charityId,
+                    @Param("fromDate") LocalDate fromDate,
+                    @Param("toDate") LocalDate toDate);
+
+    @Modifying
+    @Query(value = "INSERT INTO charity_daily_stats (charity_id, stat_date, donation_count, amount, updated) " +
+                   "SELECT c.charity_id, DATE(d.created), COUNT(d.id), COALESCE(SUM(d.net_donation_amount), 0), NOW() " +
+                   "FROM donation d JOIN campaigns c ON c.id = d.campaigns_id " +
+                   "WHERE d.status = 'ACTIVE' AND (:charityId IS NULL OR c.charity_id = :charityId) " +
+                   "AND d.created >= :fromTime AND d.created < :toTime " +
+                   "GROUP BY c.charity_id, DATE(d.created)",
+           nativeQuery = true)
+    int insertRangeFromDonations(@Param("charityId") Long charityId,
+                                 @Param("fromTime") Date fromTime,
+                                 @Param("toTime") Date toTime);
+
+    // Returned as [donationCount, amount]
+    @Query("SELECT COALESCE(SUM(s.donationCount), 0), COALESCE(SUM(s.amount), 0) FROM CharityDailyStats s WHERE s.charityId = :charityId")
+    List<Object[]> sumTotalsByCharityId(@Param("charityId") Long charityId);
+
+    // Returned as [year, month, donationCount, amount]
+    @Query("SELECT year(s.statDate), month(s.statDate), SUM(s.donationCount), SUM(s.amount) FROM CharityDailyStats s " +
+           "WHERE s.charityId = :charityId AND s.statDate >= :fromDate " +
+           "GROUP BY year(s.statDate), month(s.statDate)")
+    List<Object[]> sumMonthlyByCharityId(@Param("charityId") Long charityId, @Param("fromDate") LocalDate fromDate);
+}
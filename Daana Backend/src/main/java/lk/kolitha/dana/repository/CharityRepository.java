@@ -1,9 +1,14 @@
 package lk.kolitha.dana.repository;
 
 import lk.kolitha.dana.entity.Charity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +17,16 @@ public interface CharityRepository extends JpaRepository<Charity,Long> {
     Optional<Charity> findById(Long id);
     Optional<Charity> findFirstByEmailAndAccountVerifyStatus(String email, boolean accountVerifyStatus);
 
+    @Query("SELECT c.logoUrl FROM Charity c WHERE c.id = :charityId")
+    Optional<String> findLogoUrlById(@Param("charityId") Long charityId);
+
+    // Only applies when the logo the avatar was generated from is still the current one; bumps updated so
+    // cached program detail responses showing the charity are rebuilt
+    @Modifying
+    @Query("UPDATE Charity c SET c.logoAvatarUrl = :avatarUrl, c.updated = CURRENT_TIMESTAMP WHERE c.id = :charityId AND c.logoUrl = :logoUrl")
+    int updateLogoAvatarUrl(@Param("charityId") Long charityId, @Param("logoUrl") String logoUrl, @Param("avatarUrl") String avatarUrl);
+
+    @Query("SELECT c.id FROM Charity c WHERE c.logoUrl IS NOT NULL AND c.logoAvatarUrl IS NULL ORDER BY c.id")
+    List<Long> findIdsMissingLogoVariants(Pageable pageable);
+
 }
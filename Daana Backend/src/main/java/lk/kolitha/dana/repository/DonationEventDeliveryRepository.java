@@ -0,0 +1,27 @@
+package lk.kolitha.dana.repository;
+
+import lk.kolitha.dana.entity.DonationEventDelivery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface DonationEventDeliveryRepository extends JpaRepository<DonationEventDelivery, Long> {
+
+    // Oldest pending events of a projector; rows of uncommitted events are not visible yet and are read once they commit
+    @Query("SELECT d FROM DonationEventDelivery d WHERE d.projectorName = :projectorName ORDER BY d.eventId")
+    List<DonationEventDelivery> findPending(@Param("projectorName") String projectorName, Pageable pageable);
+
+    @Query("SELECT d.id FROM DonationEventDelivery d WHERE d.projectorName = :projectorName")
+    List<Long> findPendingIds(@Param("projectorName") String projectorName);
+
+    long countByProjectorName(String projectorName);
+
+    @Query("SELECT MIN(d.created) FROM DonationEventDelivery d WHERE d.projectorName = :projectorName")
+    Date findOldestPendingCreated(@Param("projectorName") String projectorName);
+}
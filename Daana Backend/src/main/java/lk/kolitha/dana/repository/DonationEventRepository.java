@@ -0,0 +1,26 @@
+package lk.kolitha.dana.repository;
+
+import lk.kolitha.dana.entity.DonationEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface DonationEventRepository extends JpaRepository<DonationEvent, Long> {
+
+    // Events in id order; used with the pending deliveries of a projector
+    @Query("SELECT e FROM DonationEvent e WHERE e.id IN :ids ORDER BY e.id")
+    List<DonationEvent> findByIdsOrdered(@Param("ids") Collection<Long> ids);
+
+    // Events every projector has applied, i.e. without a pending delivery, past the retention period
+    @Modifying
+    @Query("DELETE FROM DonationEvent e WHERE e.created < :cutoff " +
+           "AND NOT EXISTS (SELECT d.id FROM DonationEventDelivery d WHERE d.eventId = e.id)")
+    int deleteDeliveredBefore(@Param("cutoff") Date cutoff);
+}
@@ -0,0 +1,41 @@
+package lk.kolitha.dana.repository;
+
+import lk.kolitha.dana.dto.donation.CharityDonationRow;
+import lk.kolitha.dana.dto.donor.DonorDonationRow;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Donation listing queries with optional filters. They are built per call with only the filters that are set,
+ * so every filter combination gets its own statement and plan instead of one generic plan full of
+ * {@code :param IS NULL OR ...} branches. Listings select only the columns of their response into a row record;
+ * no entity is loaded or dirty checked.
+ */
+public interface DonationRepositoryCustom {
+
+    Page<CharityDonationRow> findDonationsByCharityIdWithFilters(Long charityId, Date startDate, Date endDate, String donorEmail,
+                                                                 Boolean isAnonymous, Long programId, Pageable pageable);
+
+    /**
+     * Keyset variant of findDonationsByCharityIdWithFilters: rows after the (created, id) cursor, without a count query
+     */
+    List<CharityDonationRow> findDonationsByCharityIdAfter(Long charityId, Date startDate, Date endDate, String donorEmail,
+                                                           Boolean isAnonymous, Long programId, Date cursorCreated, Long cursorId,
+                                                           Pageable pageable);
+
+    long countDonationsByCharityIdWithFilters(Long charityId, Date startDate, Date endDate, String donorEmail,
+                                              Boolean isAnonymous, Long programId);
+
+    Page<DonorDonationRow> findDonationsByDonorIdWithFilters(Long donorId, Date startDate, Date endDate, Pageable pageable);
+
+    /**
+     * Keyset variant of findDonationsByDonorIdWithFilters: rows after the (created, id) cursor, without a count query
+     */
+    List<DonorDonationRow> findDonationsByDonorIdAfter(Long donorId, Date startDate, Date endDate, Date cursorCreated, Long cursorId,
+                                                       Pageable pageable);
+
+    long countDonationsByDonorIdWithFilters(Long donorId, Date startDate, Date endDate);
+}
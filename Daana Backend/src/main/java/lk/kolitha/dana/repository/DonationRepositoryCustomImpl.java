@@ -0,0 +1,192 @@
+package lk.kolitha.dana.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lk.kolitha.dana.dto.donation.CharityDonationRow;
+import lk.kolitha.dana.dto.donor.DonorDonationRow;
+import lk.kolitha.dana.entity.Campaigns;
+import lk.kolitha.dana.entity.Campaigns_;
+import lk.kolitha.dana.entity.Category;
+import lk.kolitha.dana.entity.Category_;
+import lk.kolitha.dana.entity.Charity;
+import lk.kolitha.dana.entity.Charity_;
+import lk.kolitha.dana.entity.Donation;
+import lk.kolitha.dana.entity.Donation_;
+import lk.kolitha.dana.entity.RegisteredDonor;
+import lk.kolitha.dana.entity.RegisteredDonor_;
+import lk.kolitha.dana.entity.SubCategory;
+import lk.kolitha.dana.entity.SubCategory_;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+class DonationRepositoryCustomImpl implements DonationRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<CharityDonationRow> findDonationsByCharityIdWithFilters(Long charityId, Date startDate, Date endDate, String donorEmail,
+                                                                        Boolean isAnonymous, Long programId, Pageable pageable) {
+        List<CharityDonationRow> content = entityManager.createQuery(charityDonationQuery(charityId, startDate, endDate, donorEmail,
+                        isAnonymous, programId, null, null))
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> countDonationsByCharityIdWithFilters(charityId, startDate, endDate, donorEmail, isAnonymous, programId));
+    }
+
+    @Override
+    public List<CharityDonationRow> findDonationsByCharityIdAfter(Long charityId, Date startDate, Date endDate, String donorEmail,
+                                                                  Boolean isAnonymous, Long programId, Date cursorCreated, Long cursorId,
+                                                                  Pageable pageable) {
+        return entityManager.createQuery(charityDonationQuery(charityId, startDate, endDate, donorEmail, isAnonymous, programId,
+                        cursorCreated, cursorId))
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    @Override
+    public long countDonationsByCharityIdWithFilters(Long charityId, Date startDate, Date endDate, String donorEmail,
+                                                     Boolean isAnonymous, Long programId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Donation> donation = query.from(Donation.class);
+        // The donor is only joined when filtering by donor email
+        Join<Donation, RegisteredDonor> donor = donorEmail != null ? donation.join(Donation_.registeredDonor, JoinType.LEFT) : null;
+        query.select(cb.count(donation))
+                .where(charityFilters(cb, donation, donor, charityId, startDate, endDate, donorEmail, isAnonymous, programId,
+                        null, null));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    public Page<DonorDonationRow> findDonationsByDonorIdWithFilters(Long donorId, Date startDate, Date endDate, Pageable pageable) {
+        List<DonorDonationRow> content = entityManager.createQuery(donorDonationQuery(donorId, startDate, endDate, null, null))
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> countDonationsByDonorIdWithFilters(donorId, startDate, endDate));
+    }
+
+    @Override
+    public List<DonorDonationRow> findDonationsByDonorIdAfter(Long donorId, Date startDate, Date endDate, Date cursorCreated, Long cursorId,
+                                                              Pageable pageable) {
+        return entityManager.createQuery(donorDonationQuery(donorId, startDate, endDate, cursorCreated, cursorId))
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    @Override
+    public long countDonationsByDonorIdWithFilters(Long donorId, Date startDate, Date endDate) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Donation> donation = query.from(Donation.class);
+        query.select(cb.count(donation))
+                .where(donorFilters(cb, donation, donorId, startDate, endDate, null, null));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private CriteriaQuery<CharityDonationRow> charityDonationQuery(Long charityId, Date startDate, Date endDate, String donorEmail,
+                                                                   Boolean isAnonymous, Long programId, Date cursorCreated, Long cursorId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CharityDonationRow> query = cb.createQuery(CharityDonationRow.class);
+        Root<Donation> donation = query.from(Donation.class);
+        Join<Donation, Campaigns> campaign = donation.join(Donation_.campaigns);
+        Join<Donation, RegisteredDonor> donor = donation.join(Donation_.registeredDonor, JoinType.LEFT);
+        query.select(cb.construct(CharityDonationRow.class,
+                        donation.get(Donation_.id), donation.get(Donation_.actualDonationAmount), donation.get(Donation_.netDonationAmount),
+                        donation.get(Donation_.serviceCharge), donation.get(Donation_.isAnonymousDonation), donation.get(Donation_.comments),
+                        donation.get(Donation_.status), donation.get(Donation_.paymentMethod), donation.get(Donation_.paymentSlipUrl),
+                        donation.get(Donation_.paymentReferenceNumber), donation.get(Donation_.created), donation.get(Donation_.updated),
+                        campaign.get(Campaigns_.id), campaign.get(Campaigns_.programName), campaign.get(Campaigns_.title), campaign.get(Campaigns_.urlName),
+                        campaign.get(Campaigns_.targetDonationAmount), campaign.get(Campaigns_.raised),
+                        donor.get(RegisteredDonor_.id), donor.get(RegisteredDonor_.firstName), donor.get(RegisteredDonor_.lastName), donor.get(RegisteredDonor_.email),
+                        donor.get(RegisteredDonor_.phoneNumber), donor.get(RegisteredDonor_.profileImageUrl)))
+                .where(charityFilters(cb, donation, donor, charityId, startDate, endDate, donorEmail, isAnonymous, programId,
+                        cursorCreated, cursorId))
+                .orderBy(cb.desc(donation.get(Donation_.created)), cb.desc(donation.get(Donation_.id)));
+        return query;
+    }
+
+    private CriteriaQuery<DonorDonationRow> donorDonationQuery(Long donorId, Date startDate, Date endDate, Date cursorCreated, Long cursorId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<DonorDonationRow> query = cb.createQuery(DonorDonationRow.class);
+        Root<Donation> donation = query.from(Donation.class);
+        Join<Donation, Campaigns> campaign = donation.join(Donation_.campaigns);
+        Join<Campaigns, Charity> charity = campaign.join(Campaigns_.charity, JoinType.LEFT);
+        Join<Campaigns, SubCategory> subCategory = campaign.join(Campaigns_.subCategory, JoinType.LEFT);
+        Join<SubCategory, Category> category = subCategory.join(SubCategory_.category, JoinType.LEFT);
+        Join<Donation, RegisteredDonor> donor = donation.join(Donation_.registeredDonor, JoinType.LEFT);
+        query.select(cb.construct(DonorDonationRow.class,
+                        donation.get(Donation_.id), donation.get(Donation_.actualDonationAmount), donation.get(Donation_.netDonationAmount),
+                        donation.get(Donation_.serviceCharge), donation.get(Donation_.isAnonymousDonation), donation.get(Donation_.comments),
+                        donation.get(Donation_.status), donation.get(Donation_.paymentMethod), donation.get(Donation_.paymentSlipUrl),
+                        donation.get(Donation_.paymentReferenceNumber), donation.get(Donation_.created), donation.get(Donation_.updated),
+                        campaign.get(Campaigns_.id), campaign.get(Campaigns_.programName), campaign.get(Campaigns_.title), campaign.get(Campaigns_.urlName),
+                        campaign.get(Campaigns_.programImage), campaign.get(Campaigns_.description), campaign.get(Campaigns_.targetDonationAmount),
+                        campaign.get(Campaigns_.raised), campaign.get(Campaigns_.startDate), campaign.get(Campaigns_.endDate), campaign.get(Campaigns_.status),
+                        charity.get(Charity_.id), charity.get(Charity_.name), charity.get(Charity_.logoUrl),
+                        subCategory.get(SubCategory_.id), subCategory.get(SubCategory_.name), category.get(Category_.id), category.get(Category_.name),
+                        donor.get(RegisteredDonor_.id), donor.get(RegisteredDonor_.firstName), donor.get(RegisteredDonor_.lastName)))
+                .where(donorFilters(cb, donation, donorId, startDate, endDate, cursorCreated, cursorId))
+                .orderBy(cb.desc(donation.get(Donation_.created)), cb.desc(donation.get(Donation_.id)));
+        return query;
+    }
+
+    private static Predicate[] charityFilters(CriteriaBuilder cb, Root<Donation> donation, From<Donation, RegisteredDonor> donor, Long charityId, Date startDate, Date endDate,
+                                              String donorEmail, Boolean isAnonymous, Long programId,
+                                              Date cursorCreated, Long cursorId) {
+        List<Predicate> predicates = new ArrayList<>();
+        // Denormalized charity id: the listing is read from (charity_id, created, id) without reaching the campaigns
+        predicates.add(cb.equal(donation.get(Donation_.charityId), charityId));
+        addDateFilters(cb, donation, predicates, startDate, endDate, cursorCreated, cursorId);
+        if (donorEmail != null) {
+            predicates.add(cb.equal(donor.get(RegisteredDonor_.email), donorEmail));
+        }
+        if (isAnonymous != null) {
+            predicates.add(cb.equal(donation.get(Donation_.isAnonymousDonation), isAnonymous));
+        }
+        if (programId != null) {
+            predicates.add(cb.equal(donation.get(Donation_.campaigns).get(Campaigns_.id), programId));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    private static Predicate[] donorFilters(CriteriaBuilder cb, Root<Donation> donation, Long donorId, Date startDate, Date endDate,
+                                            Date cursorCreated, Long cursorId) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(donation.get(Donation_.registeredDonor).get(RegisteredDonor_.id), donorId));
+        addDateFilters(cb, donation, predicates, startDate, endDate, cursorCreated, cursorId);
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    private static void addDateFilters(CriteriaBuilder cb, Root<Donation> donation, List<Predicate> predicates,
+                                       Date startDate, Date endDate, Date cursorCreated, Long cursorId) {
+        Path<Date> created = donation.get(Donation_.created);
+        if (startDate != null) {
+            predicates.add(cb.greaterThanOrEqualTo(created, startDate));
+        }
+        if (endDate != null) {
+            predicates.add(cb.lessThanOrEqualTo(created, endDate));
+        }
+        if (cursorCreated != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(created, cursorCreated),
+                    cb.and(cb.equal(created, cursorCreated), cb.lessThan(donation.get(Donation_.id), cursorId))));
+        }
+    }
+}
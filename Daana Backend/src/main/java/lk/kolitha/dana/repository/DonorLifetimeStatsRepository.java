@@ -0,0 +1,30 @@
+package lk.kolitha.dana.repository;
+
+import lk.kolitha.dana.entity.DonorLifetimeStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+@Repository
+public interface DonorLifetimeStatsRepository extends JpaRepository<DonorLifetimeStats, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO donor_lifetime_stats (donor_id, donation_count, total_amount, first_donation_at, last_donation_at, updated) " +
+                   "VALUES (:donorId, :count, :amount, :firstAt, :lastAt, NOW()) " +
+                   "ON DUPLICATE KEY UPDATE donation_count = donation_count + :count, " +
+                   "total_amount = total_amount + :amount, " +
+                   "first_donation_at = LEAST(COALESCE(first_donation_at, :firstAt), :firstAt), " +
+                   "last_donation_at = GREATEST(COALESCE(last_donation_at, :lastAt), :lastAt), " +
+                   "updated = NOW()",
+           nativeQuery = true)
+    int addDonations(@Param("donorId") Long donorId,
+                     @Param("count") long count,
+                     @Param("amount") BigDecimal amount,
+                     @Param("firstAt") Date firstAt,
+                     @Param("lastAt") Date lastAt);
+}
@@ -0,0 +1,45 @@
+package lk.kolitha.dana.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import lk.kolitha.dana.entity.OutboundEmail;
+import lk.kolitha.dana.enums.OutboundEmailStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface OutboundEmailRepository extends JpaRepository<OutboundEmail, Long> {
+
+    // Due rows plus SENDING rows whose lease ran out; rows locked by another instance are skipped
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboundEmail e " +
+           "WHERE (e.status = lk.kolitha.dana.enums.OutboundEmailStatus.PENDING AND e.nextAttemptAt <= :now) " +
+           "OR (e.status = lk.kolitha.dana.enums.OutboundEmailStatus.SENDING AND e.lockedUntil < :now) " +
+           "ORDER BY e.id")
+    List<OutboundEmail> findDueForUpdate(@Param("now") Date now, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM OutboundEmail e WHERE e.dedupeKey = :dedupeKey AND e.status = :status ORDER BY e.id")
+    List<OutboundEmail> findByDedupeKeyAndStatusForUpdate(@Param("dedupeKey") String dedupeKey,
+                                                         @Param("status") OutboundEmailStatus status);
+
+    @Modifying
+    @Query("UPDATE OutboundEmail e SET e.status = lk.kolitha.dana.enums.OutboundEmailStatus.PENDING, e.attempts = 0, " +
+           "e.nextAttemptAt = :now, e.updated = :now " +
+           "WHERE e.status = lk.kolitha.dana.enums.OutboundEmailStatus.DEAD")
+    int requeueDeadLetters(@Param("now") Date now);
+
+    @Modifying
+    @Query("DELETE FROM OutboundEmail e WHERE e.status = lk.kolitha.dana.enums.OutboundEmailStatus.SENT AND e.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") Date cutoff);
+}
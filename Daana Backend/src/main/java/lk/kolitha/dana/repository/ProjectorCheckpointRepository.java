@@ -0,0 +1,38 @@
+package lk.kolitha.dana.repository;
+
+import jakarta.persistence.LockModeType;
+import lk.kolitha.dana.entity.ProjectorCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.Optional;
+
+@Repository
+public interface ProjectorCheckpointRepository extends JpaRepository<ProjectorCheckpoint, String> {
+
+    // Serialises pollers of the same projector across application instances
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ProjectorCheckpoint c WHERE c.projectorName = :projectorName")
+    Optional<ProjectorCheckpoint> findForUpdate(@Param("projectorName") String projectorName);
+
+    // No-op when the row exists; concurrent inserts of the same projector wait on the key and then do nothing
+    @Modifying
+    @Query(value = "INSERT INTO projector_checkpoint (projector_name, updated) VALUES (:projectorName, :now) " +
+                   "ON DUPLICATE KEY UPDATE projector_name = projector_name", nativeQuery = true)
+    int insertIfMissing(@Param("projectorName") String projectorName, @Param("now") Date now);
+
+    /**
+     * Locks the projector's row for the current transaction, creating it first, so a projector without a row
+     * (added after the migrations seeded them) is serialised like the others
+     */
+    default ProjectorCheckpoint lock(String projectorName) {
+        insertIfMissing(projectorName, new Date());
+        return findForUpdate(projectorName).orElseThrow(() ->
+                new IllegalStateException("Checkpoint row of projector " + projectorName + " is missing after insert"));
+    }
+}
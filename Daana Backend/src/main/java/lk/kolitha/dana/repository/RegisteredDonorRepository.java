@@ -1,9 +1,14 @@
 package lk.kolitha.dana.repository;
 
 import lk.kolitha.dana.entity.RegisteredDonor;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +17,16 @@ public interface RegisteredDonorRepository extends JpaRepository<RegisteredDonor
 
     Optional<RegisteredDonor> findFirstByEmailAndAccountVerifyStatus(String email, boolean accountVerifyStatus);
 
+    @Query("SELECT d.profileImageUrl FROM RegisteredDonor d WHERE d.id = :donorId")
+    Optional<String> findProfileImageUrlById(@Param("donorId") Long donorId);
+
+    // Only applies when the picture the avatar was generated from is still the current one
+    @Modifying
+    @Query("UPDATE RegisteredDonor d SET d.profileImageAvatarUrl = :avatarUrl WHERE d.id = :donorId AND d.profileImageUrl = :profileImageUrl")
+    int updateProfileImageAvatarUrl(@Param("donorId") Long donorId, @Param("profileImageUrl") String profileImageUrl,
+                                    @Param("avatarUrl") String avatarUrl);
+
+    @Query("SELECT d.id FROM RegisteredDonor d WHERE d.profileImageUrl IS NOT NULL AND d.profileImageAvatarUrl IS NULL ORDER BY d.id")
+    List<Long> findIdsMissingProfileImageVariants(Pageable pageable);
+
 }
@@ -0,0 +1,21 @@
+package lk.kolitha.dana.repository;
+
+import lk.kolitha.dana.entity.StagedUpload;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StagedUploadRepository extends JpaRepository<StagedUpload, Long> {
+
+    @Query("SELECT s FROM StagedUpload s WHERE s.created < :cutoff ORDER BY s.created")
+    List<StagedUpload> findStaleUploads(@Param("cutoff") Date cutoff, Pageable pageable);
+
+    Optional<StagedUpload> findByFileUrlAndReference(String fileUrl, String reference);
+}
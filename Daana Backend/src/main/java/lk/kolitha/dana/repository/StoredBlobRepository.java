@@ -0,0 +1,45 @@
+package lk.kolitha.dana.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import lk.kolitha.dana.entity.StoredBlob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, Long> {
+
+    Optional<StoredBlob> findByContentHash(String contentHash);
+
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.referenceCount = b.referenceCount + 1, b.updated = :now WHERE b.contentHash = :contentHash")
+    int acquire(@Param("contentHash") String contentHash, @Param("now") Date now);
+
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.referenceCount = b.referenceCount - 1, b.updated = :now " +
+           "WHERE b.contentHash = :contentHash AND b.referenceCount > 0")
+    int release(@Param("contentHash") String contentHash, @Param("now") Date now);
+
+    // Unreferenced blobs past the grace period; rows locked by another collector are skipped
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT b FROM StoredBlob b WHERE b.referenceCount <= 0 AND b.updated < :cutoff ORDER BY b.id")
+    List<StoredBlob> findUnreferencedForUpdate(@Param("cutoff") Date cutoff, Pageable pageable);
+
+    @Query("SELECT COUNT(c) FROM Campaigns c " +
+           "WHERE c.relatedDocument1 = :fileUrl OR c.relatedDocument2 = :fileUrl OR c.relatedDocument3 = :fileUrl")
+    long countCampaignReferences(@Param("fileUrl") String fileUrl);
+
+    @Query("SELECT COUNT(d) FROM CharityProofDocument d WHERE d.fileName = :fileUrl")
+    long countProofDocumentReferences(@Param("fileUrl") String fileUrl);
+}
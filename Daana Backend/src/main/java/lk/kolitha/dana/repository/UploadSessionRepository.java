@@ -0,0 +1,35 @@
+package lk.kolitha.dana.repository;
+
+import lk.kolitha.dana.entity.UploadSession;
+import lk.kolitha.dana.enums.UploadSessionStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+
+    Optional<UploadSession> findByIdAndCharityId(String id, Long charityId);
+
+    // Moves the offset only from the value the chunk was written at
+    @Modifying
+    @Query("UPDATE UploadSession s SET s.receivedBytes = :receivedBytes, s.updated = :now " +
+           "WHERE s.id = :id AND s.receivedBytes = :offset AND s.status = lk.kolitha.dana.enums.UploadSessionStatus.OPEN")
+    int advanceOffset(@Param("id") String id, @Param("offset") long offset,
+                      @Param("receivedBytes") long receivedBytes, @Param("now") Date now);
+
+    @Modifying
+    @Query("UPDATE UploadSession s SET s.status = :status, s.updated = :now WHERE s.id = :id AND s.status = :expected")
+    int updateStatus(@Param("id") String id, @Param("expected") UploadSessionStatus expected,
+                     @Param("status") UploadSessionStatus status, @Param("now") Date now);
+
+    @Query("SELECT s FROM UploadSession s WHERE s.expiresAt < :now ORDER BY s.expiresAt")
+    List<UploadSession> findExpired(@Param("now") Date now, Pageable pageable);
+}
@@ -0,0 +1,109 @@
+package lk.kolitha.dana.security;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jakarta.annotation.PostConstruct;
+import lk.kolitha.dana.enums.PrincipalType;
+import lk.kolitha.dana.enums.Status;
+import lk.kolitha.dana.repository.AdminUserRepository;
+import lk.kolitha.dana.repository.CharityRepository;
+import lk.kolitha.dana.repository.RegisteredDonorRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Date;
+
+/**
+ * Short lived cache of whether an account may still use its tokens.
+ *
+ * <p>Token claims identify the account, this cache answers whether it is still active and whether the
+ * token was issued after the last credential change. Entries expire after a few seconds so changes made
+ * on another instance are picked up quickly; changes made here are applied at once through
+ * {@link #revoke}.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Log4j2
+public class AccountStatusCache {
+
+    private static final AccountState MISSING = new AccountState(false, null);
+
+    private final RegisteredDonorRepository donorRepository;
+    private final CharityRepository charityRepository;
+    private final AdminUserRepository adminUserRepository;
+
+    @Value("${application.security.account-status-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Value("${application.security.account-status-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    private LoadingCache<AccountKey, AccountState> states;
+
+    @PostConstruct
+    void init() {
+        states = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build(this::load);
+    }
+
+    /**
+     * @param issuedAt issue time of the token; tokens issued before the last credential change are rejected
+     * @return true if the account is active and the token is not older than its credentials
+     */
+    public boolean isTokenCurrent(PrincipalType principalType, Long accountId, Date issuedAt) {
+        AccountState state = states.get(new AccountKey(principalType, accountId));
+        if (!state.active()) {
+            return false;
+        }
+        if (state.credentialsChangedAt() == null) {
+            return true;
+        }
+        // JWT times have second precision
+        return issuedAt != null && issuedAt.getTime() / 1000 >= state.credentialsChangedAt().getTime() / 1000;
+    }
+
+    /**
+     * Drops the cached state after the account was deactivated, deleted or changed its password. Inside a
+     * transaction the entry is dropped again after commit, so a concurrent request cannot cache the old state.
+     */
+    public void revoke(PrincipalType principalType, Long accountId) {
+        AccountKey key = new AccountKey(principalType, accountId);
+        states.invalidate(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    states.invalidate(key);
+                }
+            });
+        }
+    }
+
+    private AccountState load(AccountKey key) {
+        log.debug("Loading account status for {} {}", key.principalType(), key.accountId());
+        return switch (key.principalType()) {
+            case DONOR -> donorRepository.findById(key.accountId())
+                    .map(donor -> new AccountState(!donor.isDeleted() && donor.isAccountVerifyStatus(), donor.getCredentialsChangedAt()))
+                    .orElse(MISSING);
+            case CHARITY -> charityRepository.findById(key.accountId())
+                    .map(charity -> new AccountState(!charity.isDeleted() && charity.getStatus() == Status.ACTIVE, charity.getCredentialsChangedAt()))
+                    .orElse(MISSING);
+            case ADMIN -> adminUserRepository.findById(key.accountId())
+                    .map(admin -> new AccountState(admin.getAdminStatus() == Status.ACTIVE, admin.getCredentialsChangedAt()))
+                    .orElse(MISSING);
+        };
+    }
+
+    private record AccountKey(PrincipalType principalType, Long accountId) {
+    }
+
+    private record AccountState(boolean active, Date credentialsChangedAt) {
+    }
+}
@@ -0,0 +1,19 @@
+package lk.kolitha.dana.security;
+
+import lk.kolitha.dana.enums.PrincipalType;
+import lk.kolitha.dana.enums.Role;
+
+import java.security.Principal;
+
+/**
+ * Principal built from the identity claims of an access token, so requests are authenticated without
+ * loading the account. {@link #getName()} is the email, matching what {@code Authentication.getName()}
+ * returned for the database loaded principal.
+ */
+public record AuthenticatedUser(Long id, String email, Role role, PrincipalType principalType) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -4,24 +4,27 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lk.kolitha.dana.service.CustomUserDetailsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final CustomUserDetailsService userDetailsService;
+    private final AccountStatusCache accountStatusCache;
 
     @Override
     protected void doFilterInternal(
@@ -31,7 +34,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
+        final VerifiedToken verifiedToken;
         
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -39,23 +42,44 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         
         jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
+        verifiedToken = jwtService.verify(jwt);
         
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-            
-            if (jwtService.isTokenValid(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
-                authToken.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request)
-                );
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+        if (verifiedToken.subject() != null && !jwtService.isRefreshToken(verifiedToken)
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            Optional<AuthenticatedUser> principal = jwtService.toAuthenticatedUser(verifiedToken);
+            if (principal.isPresent()) {
+                authenticateFromClaims(request, verifiedToken, principal.get());
+            } else {
+                authenticateFromDatabase(request, verifiedToken);
             }
         }
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Access tokens carry the account id, role and type; only the cached account status is checked
+     */
+    private void authenticateFromClaims(HttpServletRequest request, VerifiedToken token, AuthenticatedUser principal) {
+        if (!accountStatusCache.isTokenCurrent(principal.principalType(), principal.id(), token.issuedAt())) {
+            return;
+        }
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                principal,
+                null,
+                List.of(new SimpleGrantedAuthority("ROLE_" + principal.role().name()))
+        );
+        authToken.setDetails(
+                new WebAuthenticationDetailsSource().buildDetails(request)
+        );
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
+
+    /**
+     * Tokens without identity claims (issued before they were added) load the account by email, then get
+     * the same status and credential change checks as tokens with claims
+     */
+    private void authenticateFromDatabase(HttpServletRequest request, VerifiedToken token) {
+        userDetailsService.findAuthenticatedUser(token.subject())
+                .ifPresent(principal -> authenticateFromClaims(request, token, principal));
+    }
 }
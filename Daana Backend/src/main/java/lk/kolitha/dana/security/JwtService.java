@@ -1,25 +1,42 @@
 package lk.kolitha.dana.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lk.kolitha.dana.enums.PrincipalType;
+import lk.kolitha.dana.enums.Role;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
-import java.security.SecureRandom;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class JwtService {
 
+    // Identity claims of access tokens, used to authenticate requests without loading the account
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_ACCOUNT_TYPE = "acct";
+    public static final String CLAIM_TOKEN_TYPE = "token_type";
+    public static final String TOKEN_TYPE_REFRESH = "refresh";
+
     @Value("${application.security.jwt.secret-key}")
     private String secretKey;
     
@@ -29,13 +46,52 @@ public class JwtService {
     @Value("${application.security.jwt.refresh-token.expiration}")
     private long refreshExpiration;
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    @Value("${application.security.jwt.verified-cache.maximum-size:10000}")
+    private long verifiedCacheMaximumSize;
+
+    @Value("${application.security.jwt.verified-cache.ttl-seconds:300}")
+    private long verifiedCacheTtlSeconds;
+
+    // Built once; decoding the secret and building a parser per call showed up on every request
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    // Keyed by a digest of the token so raw tokens are not kept in memory
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        jwtParser = Jwts.parser().verifyWith(signingKey).build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaximumSize)
+                .expireAfterWrite(Duration.ofSeconds(verifiedCacheTtlSeconds))
+                .build();
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    /**
+     * Parses and verifies the token once. Tokens verified recently are served from a small cache
+     * without repeating the signature check; the expiry is still checked on every call.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, has a bad signature or has expired
+     */
+    public VerifiedToken verify(String token) {
+        String cacheKey = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(cacheKey);
+        if (cached != null) {
+            if (!cached.isExpired(System.currentTimeMillis())) {
+                return cached;
+            }
+            verifiedTokens.invalidate(cacheKey);
+            throw new ExpiredJwtException(null, null, "JWT expired at " + cached.expiration());
+        }
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+        VerifiedToken verified = new VerifiedToken(claims.getSubject(), claims.getIssuedAt(), claims.getExpiration(), claims);
+        verifiedTokens.put(cacheKey, verified);
+        return verified;
+    }
+
+    public String extractUsername(String token) {
+        return verify(token).subject();
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -46,15 +102,18 @@ public class JwtService {
             Map<String, Object> extraClaims,
             UserDetails userDetails
     ) {
-        return buildToken(extraClaims, userDetails, jwtExpiration);
+        return buildToken(extraClaims, userDetails.getUsername(), jwtExpiration);
     }
 
-    public String generateTokenWithScope(UserDetails userDetails, String scope) {
+    public String generateTokenWithScope(AuthenticatedUser user, String scope) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("scope", scope);
         claims.put("jti", generateJti());
         claims.put("domain", "http://api.daana.lk/dana");
-        return buildToken(claims, userDetails, jwtExpiration);
+        claims.put(CLAIM_USER_ID, user.id());
+        claims.put(CLAIM_ROLE, user.role().name());
+        claims.put(CLAIM_ACCOUNT_TYPE, user.principalType().name());
+        return buildToken(claims, user.email(), jwtExpiration);
     }
 
     public String generateRefreshToken(
@@ -62,50 +121,58 @@ public class JwtService {
     ) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("jti", generateJti());
-        claims.put("token_type", "refresh");
-        return buildToken(claims, userDetails, refreshExpiration);
+        claims.put(CLAIM_TOKEN_TYPE, TOKEN_TYPE_REFRESH);
+        return buildToken(claims, userDetails.getUsername(), refreshExpiration);
     }
 
     private String buildToken(
             Map<String, Object> extraClaims,
-            UserDetails userDetails,
+            String subject,
             long expiration
     ) {
         return Jwts
                 .builder()
                 .setClaims(extraClaims)
-                .setSubject(userDetails.getUsername())
+                .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+    /**
+     * Refresh tokens only obtain new access tokens; they are never accepted on an API request
+     */
+    public boolean isRefreshToken(VerifiedToken token) {
+        return TOKEN_TYPE_REFRESH.equals(token.claim(CLAIM_TOKEN_TYPE, String.class));
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Builds the principal from the identity claims of an access token
+     * @return the principal, or empty for tokens without identity claims (refresh tokens and tokens issued before the claims existed)
+     */
+    public Optional<AuthenticatedUser> toAuthenticatedUser(VerifiedToken token) {
+        Number userId = token.claim(CLAIM_USER_ID, Number.class);
+        String role = token.claim(CLAIM_ROLE, String.class);
+        String principalType = token.claim(CLAIM_ACCOUNT_TYPE, String.class);
+        if (userId == null || role == null || principalType == null || token.subject() == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new AuthenticatedUser(userId.longValue(), token.subject(),
+                    Role.valueOf(role), PrincipalType.valueOf(principalType)));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     private String generateJti() {
@@ -0,0 +1,36 @@
+package lk.kolitha.dana.security;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Claims of a JWT whose signature and expiry have been checked. Immutable, so one instance can be shared
+ * between requests presenting the same token.
+ */
+public record VerifiedToken(String subject, Date issuedAt, Date expiration, Map<String, Object> claims) {
+
+    public VerifiedToken {
+        issuedAt = issuedAt != null ? new Date(issuedAt.getTime()) : null;
+        expiration = expiration != null ? new Date(expiration.getTime()) : null;
+        claims = Map.copyOf(claims);
+    }
+
+    @Override
+    public Date issuedAt() {
+        return issuedAt != null ? new Date(issuedAt.getTime()) : null;
+    }
+
+    @Override
+    public Date expiration() {
+        return expiration != null ? new Date(expiration.getTime()) : null;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return expiration != null && expiration.getTime() <= nowMillis;
+    }
+
+    public <T> T claim(String name, Class<T> type) {
+        Object value = claims.get(name);
+        return type.isInstance(value) ? type.cast(value) : null;
+    }
+}
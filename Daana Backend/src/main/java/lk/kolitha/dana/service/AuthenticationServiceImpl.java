@@ -7,7 +7,7 @@ import lk.kolitha.dana.repository.AdminUserRepository;
 import lk.kolitha.dana.repository.CharityRepository;
 import lk.kolitha.dana.repository.RegisteredDonorRepository;
 import lk.kolitha.dana.util.CustomGenerator;
-import lk.kolitha.dana.util.DaanaSESEmailSender;
+import lk.kolitha.dana.util.EmailTemplateEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import lk.kolitha.dana.constants.ApplicationConstants;
@@ -19,20 +19,20 @@ import lk.kolitha.dana.dto.charity.CharityResetPasswordRequest;
 import lk.kolitha.dana.dto.donor.DonorRegisterRequest;
 import lk.kolitha.dana.entity.AdminUser;
 import lk.kolitha.dana.entity.Charity;
+import lk.kolitha.dana.enums.PrincipalType;
 import lk.kolitha.dana.enums.Role;
 import lk.kolitha.dana.enums.Status;
 import lk.kolitha.dana.exception.CustomServiceException;
+import lk.kolitha.dana.security.AccountStatusCache;
+import lk.kolitha.dana.security.AuthenticatedUser;
 import lk.kolitha.dana.security.JwtService;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.util.StreamUtils;
 
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -47,7 +47,9 @@ public class AuthenticationServiceImpl implements  AuthenticationService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
-    private final DaanaSESEmailSender emailSender;
+    private final OutboundEmailService outboundEmailService;
+    private final EmailTemplateEngine emailTemplateEngine;
+    private final AccountStatusCache accountStatusCache;
 
     @Override
     @Transactional
@@ -108,11 +110,13 @@ public class AuthenticationServiceImpl implements  AuthenticationService {
                         existingDonor.setFirstName(request.getFirstName());
                         existingDonor.setLastName(request.getLastName());
                         existingDonor.setPasswordHash(passwordEncoder.encode(request.getPassword()));
+                        existingDonor.setCredentialsChangedAt(new Date());
                         existingDonor.setAccountVerifyStatus(false); // Set to false until email is verified
                         existingDonor.setOptCode(otpCode);
                         existingDonor.setOptCodeGeneratedTimestamp(new Date());
                         existingDonor.setUpdated(new Date());
                         donor = donorRepository.save(existingDonor);
+                        accountStatusCache.revoke(PrincipalType.DONOR, donor.getId());
                         log.info("Successfully updated existing donor account for email: {}", request.getEmail());
                         
                         // Send OTP verification email
@@ -219,7 +223,8 @@ public class AuthenticationServiceImpl implements  AuthenticationService {
                 
                 if (!donor.isDeleted() && donor.isAccountVerifyStatus()) {
                     log.info("User authenticated as donor: {}", request.getEmail());
-                    return generateAuthResponse(donor.getEmail(), donor.getFirstName()+" "+donor.getLastName(), Role.DONOR,
+                    return generateAuthResponse(new AuthenticatedUser(donor.getId(), donor.getEmail(), Role.DONOR, PrincipalType.DONOR),
+                            donor.getFirstName()+" "+donor.getLastName(),
                             donor.getProfileImageUrl()==null?"":donor.getProfileImageUrl());
                 } else {
                     log.warn("Donor account is deleted or not verified: {}", request.getEmail());
@@ -237,7 +242,8 @@ public class AuthenticationServiceImpl implements  AuthenticationService {
                 
                 if (!charity.isDeleted() && charity.getStatus() == Status.ACTIVE) {
                     log.info("User authenticated as charity: {}", request.getEmail());
-                    return generateAuthResponse(charity.getEmail(), charity.getName(), Role.CHARITY, "");
+                    return generateAuthResponse(new AuthenticatedUser(charity.getId(), charity.getEmail(), Role.CHARITY, PrincipalType.CHARITY),
+                            charity.getName(), "");
                 } else {
                     log.warn("Charity account is deleted or not active: {}", request.getEmail());
                 }
@@ -254,7 +260,8 @@ public class AuthenticationServiceImpl implements  AuthenticationService {
                 
                 if (admin.getAdminStatus() == Status.ACTIVE) {
                     log.info("User authenticated as admin: {}", request.getEmail());
-                    return generateAuthResponse(admin.getEmail(), admin.getFullName(), admin.getAdminRole(), "");
+                    return generateAuthResponse(new AuthenticatedUser(admin.getId(), admin.getEmail(), admin.getAdminRole(), PrincipalType.ADMIN),
+                            admin.getFullName(), "");
                 } else {
                     log.warn("Admin account is not active: {}", request.getEmail());
                 }
@@ -279,7 +286,9 @@ public class AuthenticationServiceImpl implements  AuthenticationService {
         }
     }
 
-    private AuthenticationResponse generateAuthResponse(String email, String fullName, Role role, String profileImageUrl) {
+    private AuthenticationResponse generateAuthResponse(AuthenticatedUser principal, String fullName, String profileImageUrl) {
+        String email = principal.email();
+        Role role = principal.role();
         log.debug("Generating authentication response for user: {} with role: {}", email, role);
         
         try {
@@ -293,7 +302,7 @@ public class AuthenticationServiceImpl implements  AuthenticationService {
             String scope = generateScopeForRole(role);
             
             // Generate enhanced JWT token with scope and JTI
-            var jwtToken = jwtService.generateTokenWithScope(user, scope);
+            var jwtToken = jwtService.generateTokenWithScope(principal, scope);
             var refreshToken = jwtService.generateRefreshToken(user);
             
             log.debug("JWT token and refresh token generated successfully for user: {}", email);
@@ -309,7 +318,7 @@ public class AuthenticationServiceImpl implements  AuthenticationService {
                     .fullName(fullName)
                     .profileImageUrl(profileImageUrl)
                     .jti(extractJtiFromToken(jwtToken))
-                    .userId(extractUserIdFromEmail(email))
+                    .userId(principal.id())
                     .domain("http://api.dana.lk/dana")
                     .build();
         } catch (Exception e) {
@@ -336,19 +345,13 @@ public class AuthenticationServiceImpl implements  AuthenticationService {
     private String extractJtiFromToken(String token) {
         try {
             // Extract JTI from token claims
-            return jwtService.extractClaim(token, claims -> claims.get("jti", String.class));
+            return jwtService.verify(token).claim("jti", String.class);
         } catch (Exception e) {
             log.warn("Failed to extract JTI from token: {}", e.getMessage());
             return UUID.randomUUID().toString();
         }
     }
 
-    private Long extractUserIdFromEmail(String email) {
-        // This is a placeholder - in real implementation, you'd get this from the user entity
-        // For now, we'll generate a hash-based ID
-        return (long) email.hashCode();
-    }
-
     /**
      * Sends OTP verification email to the user
      * @param email User's email address
@@ -362,8 +365,8 @@ public class AuthenticationServiceImpl implements  AuthenticationService {
             String subject = "Verify Your Email - Daana.lk";
             String htmlContent = loadAndPopulateOtpEmailTemplate(firstName, otpCode);
             
-            emailSender.sendHtmEmail(email, subject, htmlContent);
-            log.info("OTP verification email sent successfully to: {}", email);
+            outboundEmailService.enqueueHtmlEmail(email, subject, htmlContent, "donor-otp:" + email.toLowerCase());
+            log.info("OTP verification email queued for: {}", email);
             
         } catch (Exception e) {
             log.error("Failed to send OTP verification email to: {}. Error: {}", email, e.getMessage(), e);
@@ -379,25 +382,9 @@ public class AuthenticationServiceImpl implements  AuthenticationService {
      * @return HTML email content with populated data
      */
     private String loadAndPopulateOtpEmailTemplate(String firstName, String otpCode) {
-        try {
-            log.debug("Loading OTP email template from resources");
-            
-            // Load the HTML template from resources
-            ClassPathResource resource = new ClassPathResource("EmailTemplates/OTPEmailTemplates.html");
-            String template = StreamUtils.copyToString(resource.getInputStream(), StandardCharsets.UTF_8);
-            
-            // Replace placeholders with actual values
-            String populatedTemplate = template
-                    .replace("{{firstName}}", firstName != null ? firstName : "User")
-                    .replace("{{otpCode}}", otpCode != null ? otpCode : "000000");
-            
-            log.debug("OTP email template loaded and populated successfully");
-            return populatedTemplate;
-            
-        } catch (IOException e) {
-            log.error("Failed to load OTP email template: {}", e.getMessage(), e);
-            throw new CustomServiceException(500, "Failed to load OTP email template. Please try again later.");
-        }
+        return emailTemplateEngine.render(ApplicationConstants.EmailTemplateConstants.OTP_VERIFICATION, Map.of(
+                "firstName", firstName != null ? firstName : "User",
+                "otpCode", otpCode != null ? otpCode : "000000"));
     }
 
 
@@ -582,7 +569,8 @@ public class AuthenticationServiceImpl implements  AuthenticationService {
             log.info("Charity authenticated successfully: {}", request.getEmail());
             
             // Generate authentication response
-            return generateAuthResponse(charity.getEmail(), charity.getName(), Role.CHARITY, 
+            return generateAuthResponse(new AuthenticatedUser(charity.getId(), charity.getEmail(), Role.CHARITY, PrincipalType.CHARITY),
+                    charity.getName(), 
                     charity.getLogoUrl() == null ? "" : charity.getLogoUrl());
             
         } catch (CustomServiceException e) {
@@ -733,11 +721,13 @@ public class AuthenticationServiceImpl implements  AuthenticationService {
             // Reset password
             String hashedPassword = passwordEncoder.encode(request.getNewPassword());
             charity.setPasswordHash(hashedPassword);
+            charity.setCredentialsChangedAt(new Date());
             charity.setOtpCode(null); // Clear the OTP code after successful reset
             charity.setOtpCodeGeneratedTimestamp(null);
             charity.setUpdated(new Date());
             
             charityRepository.save(charity);
+            accountStatusCache.revoke(PrincipalType.CHARITY, charity.getId());
             
             log.info("Password reset successful for charity email: {}", request.getEmail());
             
@@ -755,27 +745,20 @@ public class AuthenticationServiceImpl implements  AuthenticationService {
 
     private void sendCharityPasswordResetEmail(String email, String charityName, String otpCode) {
         try {
-            // Load email template
-            ClassPathResource resource = new ClassPathResource("EmailTemplates/CharityPasswordResetEmailTemplate.html");
-            String emailTemplate = StreamUtils.copyToString(resource.getInputStream(), StandardCharsets.UTF_8);
-            
-            // Replace placeholders
-            String emailContent = emailTemplate
-                    .replace("{{firstName}}", charityName)
-                    .replace("{{otpCode}}", otpCode);
+            String emailContent = emailTemplateEngine.render(ApplicationConstants.EmailTemplateConstants.CHARITY_PASSWORD_RESET, Map.of(
+                    "firstName", charityName != null ? charityName : "Charity",
+                    "otpCode", otpCode));
             
             // Send email
-            emailSender.sendHtmEmail(
+            outboundEmailService.enqueueHtmlEmail(
                     email,
                     "Password Reset - Daana.lk",
-                    emailContent
+                    emailContent,
+                    "charity-password-reset:" + email.toLowerCase()
             );
             
-            log.info("Password reset email sent successfully to charity: {}", email);
+            log.info("Password reset email queued for charity: {}", email);
             
-        } catch (IOException e) {
-            log.error("Failed to send password reset email to charity: {}. Error: {}", email, e.getMessage(), e);
-            throw new CustomServiceException(500, "Failed to send password reset email. Please try again later.");
         } catch (Exception e) {
             log.error("Unexpected error sending password reset email to charity: {}. Error: {}", email, e.getMessage(), e);
             throw new CustomServiceException(500, "Failed to send password reset email. Please try again later.");
@@ -0,0 +1,30 @@
+package lk.kolitha.dana.service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+
+public interface CampaignCounterService {
+
+    /**
+     * Adds an amount to a random shard of the campaign's raised counter.
+     * Must be called inside the transaction that records the donation or applies its event.
+     */
+    void increment(Long campaignId, BigDecimal amount);
+
+    /**
+     * Amount recorded in the shards but not yet folded into Campaigns.raised, per campaign.
+     * Campaigns without pending amounts are absent from the map.
+     */
+    Map<Long, BigDecimal> getPendingAmounts(Collection<Long> campaignIds);
+
+    /**
+     * Folded raised value plus the pending shard amount of a single campaign.
+     */
+    BigDecimal getCurrentRaised(Long campaignId, BigDecimal foldedRaised);
+
+    /**
+     * Moves all pending shard amounts into Campaigns.raised.
+     */
+    void foldPendingShards();
+}
@@ -28,5 +28,6 @@ public interface CharityService {
         // Charity account management methods
         void changePassword(Long charityId, PasswordChangeDto passwordChangeDto);
         CharityProfileDto updateProfile(Long charityId, ProfileUpdateDto profileUpdateDto);
+        String confirmLogo(Long charityId, String objectKey);
     }
 
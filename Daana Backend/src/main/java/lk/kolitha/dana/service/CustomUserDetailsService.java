@@ -1,16 +1,13 @@
 package lk.kolitha.dana.service;
 
 import lombok.RequiredArgsConstructor;
-import lk.kolitha.dana.constants.ApplicationConstants;
-import lk.kolitha.dana.entity.AdminUser;
-import lk.kolitha.dana.entity.Charity;
-import lk.kolitha.dana.entity.RegisteredDonor;
+import lk.kolitha.dana.enums.PrincipalType;
 import lk.kolitha.dana.enums.Role;
 import lk.kolitha.dana.enums.Status;
-import lk.kolitha.dana.exception.CustomServiceException;
 import lk.kolitha.dana.repository.AdminUserRepository;
 import lk.kolitha.dana.repository.CharityRepository;
 import lk.kolitha.dana.repository.RegisteredDonorRepository;
+import lk.kolitha.dana.security.AuthenticatedUser;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -19,7 +16,12 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
+import java.util.Optional;
 
+/**
+ * Loads accounts by email for password login and for tokens without identity claims.
+ * Requests with current access tokens are authenticated from the token claims instead.
+ */
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
@@ -30,55 +32,52 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        
-        // Check if it's a donor
-        try {
-            RegisteredDonor donor = donorRepository.findByEmail(email)
-                    .orElseThrow(() -> new CustomServiceException(404, ApplicationConstants.NotFoundConstants.NO_DONOR_FOUND));
-            
-            if (!donor.isDeleted() && donor.isAccountVerifyStatus()) {
-                return User.builder()
-                        .username(donor.getEmail())
-                        .password(donor.getPasswordHash())
-                        .authorities(Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + Role.DONOR.name())))
-                        .build();
-            }
-        } catch (CustomServiceException e) {
-            // Donor not found, continue to check other user types
-        }
-        
-        // Check if it's a charity
-        try {
-            Charity charity = charityRepository.findByEmail(email)
-                    .orElseThrow(() -> new CustomServiceException(404, ApplicationConstants.NotFoundConstants.NO_CHARITY_FOUND));
-            
-            if (!charity.isDeleted() && charity.getStatus() == Status.ACTIVE) {
-                return User.builder()
-                        .username(charity.getEmail())
-                        .password(charity.getPasswordHash())
-                        .authorities(Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + Role.CHARITY.name())))
-                        .build();
-            }
-        } catch (CustomServiceException e) {
-            // Charity not found, continue to check admin
-        }
-        
-        // Check if it's an admin
-        try {
-            AdminUser admin = adminUserRepository.findByEmail(email)
-                    .orElseThrow(() -> new CustomServiceException(404, ApplicationConstants.NotFoundConstants.NO_ADMIN_FOUND));
-            
-            if (admin.getAdminStatus() == Status.ACTIVE) {
-                return User.builder()
-                        .username(admin.getEmail())
-                        .password(admin.getPasswordHash())
-                        .authorities(Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + admin.getAdminRole().name())))
-                        .build();
-            }
-        } catch (CustomServiceException e) {
-            // Admin not found
-        }
-        
-        throw new UsernameNotFoundException("User not found with email: " + email);
+        return findDonor(email)
+                .or(() -> findCharity(email))
+                .or(() -> findAdmin(email))
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+    }
+
+    /**
+     * Looks up the active account of a token without identity claims, so it can be checked for
+     * revocation like any other token
+     * @return the principal, or empty if there is no active account with that email
+     */
+    public Optional<AuthenticatedUser> findAuthenticatedUser(String email) {
+        return donorRepository.findByEmail(email)
+                .filter(donor -> !donor.isDeleted() && donor.isAccountVerifyStatus())
+                .map(donor -> new AuthenticatedUser(donor.getId(), donor.getEmail(), Role.DONOR, PrincipalType.DONOR))
+                .or(() -> charityRepository.findByEmail(email)
+                        .filter(charity -> !charity.isDeleted() && charity.getStatus() == Status.ACTIVE)
+                        .map(charity -> new AuthenticatedUser(charity.getId(), charity.getEmail(), Role.CHARITY, PrincipalType.CHARITY)))
+                .or(() -> adminUserRepository.findByEmail(email)
+                        .filter(admin -> admin.getAdminStatus() == Status.ACTIVE)
+                        .map(admin -> new AuthenticatedUser(admin.getId(), admin.getEmail(), admin.getAdminRole(), PrincipalType.ADMIN)));
+    }
+
+    private Optional<UserDetails> findDonor(String email) {
+        return donorRepository.findByEmail(email)
+                .filter(donor -> !donor.isDeleted() && donor.isAccountVerifyStatus())
+                .map(donor -> buildUser(donor.getEmail(), donor.getPasswordHash(), Role.DONOR));
+    }
+
+    private Optional<UserDetails> findCharity(String email) {
+        return charityRepository.findByEmail(email)
+                .filter(charity -> !charity.isDeleted() && charity.getStatus() == Status.ACTIVE)
+                .map(charity -> buildUser(charity.getEmail(), charity.getPasswordHash(), Role.CHARITY));
+    }
+
+    private Optional<UserDetails> findAdmin(String email) {
+        return adminUserRepository.findByEmail(email)
+                .filter(admin -> admin.getAdminStatus() == Status.ACTIVE)
+                .map(admin -> buildUser(admin.getEmail(), admin.getPasswordHash(), admin.getAdminRole()));
+    }
+
+    private UserDetails buildUser(String email, String passwordHash, Role role) {
+        return User.builder()
+                .username(email)
+                .password(passwordHash)
+                .authorities(Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.name())))
+                .build();
     }
 }
@@ -0,0 +1,23 @@
+package lk.kolitha.dana.service;
+
+import java.time.LocalDate;
+
+public interface DashboardRollupService {
+
+    /**
+     * Recomputes the daily rollups of the [fromDate, toDate) window from the donation table.
+     * A null charityId covers every charity. Must run inside a transaction.
+     */
+    void recomputeRange(Long charityId, LocalDate fromDate, LocalDate toDate);
+
+    /**
+     * Recomputes the configured number of most recent days for every charity.
+     */
+    void repairRecentDays();
+
+    /**
+     * Recomputes the rollups for the whole donation history, one chunk per transaction.
+     * @return number of days covered
+     */
+    long rebuildAll();
+}
@@ -0,0 +1,22 @@
+package lk.kolitha.dana.service;
+
+import lk.kolitha.dana.dto.upload.DirectUploadRequestDto;
+import lk.kolitha.dana.dto.upload.DirectUploadResponseDto;
+import lk.kolitha.dana.enums.PrincipalType;
+
+public interface DirectUploadService {
+
+    /**
+     * Issues a short lived url the client uploads the file to directly. The object is staged, so it is
+     * deleted again when it is never confirmed.
+     */
+    DirectUploadResponseDto createUploadUrl(PrincipalType ownerType, Long ownerId, DirectUploadRequestDto request);
+
+    /**
+     * Copies an uploaded object out of its staging key, checks the copy against the folder limits and claims
+     * it in the current transaction.
+     * @param objectKey staging key the upload url was issued for
+     * @return public url of the copy, to be stored on the owning entity
+     */
+    String confirmUpload(PrincipalType ownerType, Long ownerId, String folder, String objectKey);
+}
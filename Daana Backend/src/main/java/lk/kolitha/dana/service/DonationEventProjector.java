@@ -0,0 +1,24 @@
+package lk.kolitha.dana.service;
+
+import lk.kolitha.dana.entity.DonationEvent;
+
+import java.util.List;
+
+/**
+ * Derived view maintained from the donation event outbox.
+ *
+ * <p>{@link #project(List)} is called inside the transaction that also removes the batch's pending deliveries,
+ * so a batch is applied exactly once per commit. A batch is in id order, but an event whose transaction
+ * committed late arrives after events with higher ids, so projections must not depend on the order of
+ * batches. A batch may be delivered again after a failure, so implementations must not keep state outside
+ * the transaction.</p>
+ */
+public interface DonationEventProjector {
+
+    /**
+     * Stable name, used as the checkpoint and delivery key and metric tag.
+     */
+    String getName();
+
+    void project(List<DonationEvent> events);
+}
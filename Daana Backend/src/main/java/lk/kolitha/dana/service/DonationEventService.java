@@ -0,0 +1,22 @@
+package lk.kolitha.dana.service;
+
+import lk.kolitha.dana.entity.Donation;
+
+public interface DonationEventService {
+
+    /**
+     * Appends a DONATION_CREATED event and a delivery for every projector to the outbox. Must run in the
+     * transaction that inserts the donation.
+     */
+    void recordDonationCreated(Donation donation, Long campaignId, Long charityId);
+
+    /**
+     * Feeds committed events to every projector, batch by batch, from its pending deliveries.
+     */
+    void projectPendingEvents();
+
+    /**
+     * Removes events that every projector has applied and that are older than the retention period.
+     */
+    void purgeProjectedEvents();
+}
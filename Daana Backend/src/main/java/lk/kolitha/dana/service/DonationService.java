@@ -1,5 +1,6 @@
 package lk.kolitha.dana.service;
 
+import lk.kolitha.dana.dto.CursorPage;
 import lk.kolitha.dana.dto.donation.DonationCreateResponseDto;
 import lk.kolitha.dana.dto.donation.DonationRequestDto;
 import lk.kolitha.dana.dto.donation.DonationResponseDto;
@@ -18,6 +19,16 @@ public interface DonationService {
                                                  Boolean isAnonymous, 
                                                  Long programId, 
                                                  org.springframework.data.domain.Pageable pageable);
+
+    CursorPage<DonationResponseDto> getCharityDonationsByCursor(Long charityId,
+                                                                java.util.Date startDate,
+                                                                java.util.Date endDate,
+                                                                String donorEmail,
+                                                                Boolean isAnonymous,
+                                                                Long programId,
+                                                                String cursor,
+                                                                int size,
+                                                                boolean includeTotal);
     
 
     DonationCreateResponseDto createDonation(DonationRequestDto donationRequest, Long authenticatedDonorId);
@@ -26,4 +37,11 @@ public interface DonationService {
                                                            java.util.Date startDate, 
                                                            java.util.Date endDate,
                                                            org.springframework.data.domain.Pageable pageable);
+
+    CursorPage<DonationHistoryResponseDto> getDonorDonationHistoryByCursor(Long donorId,
+                                                                           java.util.Date startDate,
+                                                                           java.util.Date endDate,
+                                                                           String cursor,
+                                                                           int size,
+                                                                           boolean includeTotal);
 }
@@ -0,0 +1,17 @@
+package lk.kolitha.dana.service;
+
+import lk.kolitha.dana.enums.ImageOwnerType;
+
+public interface ImageVariantService {
+
+    /**
+     * Generates and stores the resized copies of the owner's current image and records their urls.
+     */
+    void generateVariants(ImageOwnerType ownerType, Long ownerId);
+
+    /**
+     * Queues variant generation for images uploaded before the pipeline existed or whose generation failed.
+     * @return number of images queued
+     */
+    int enqueueMissingVariants();
+}
@@ -0,0 +1,28 @@
+package lk.kolitha.dana.service;
+
+public interface OutboundEmailService {
+
+    /**
+     * Queues an HTML mail. Joins the caller's transaction, so the mail is only sent if it commits.
+     * A still pending mail with the same dedupe key is replaced instead of queueing a second one.
+     *
+     * @param dedupeKey key of mails that supersede each other, or null
+     */
+    void enqueueHtmlEmail(String recipient, String subject, String htmlBody, String dedupeKey);
+
+    /**
+     * Claims due mails and sends them in batches on the mail worker pool.
+     */
+    void dispatchPendingEmails();
+
+    /**
+     * Puts every dead letter back in the queue with a fresh attempt budget.
+     * @return number of mails requeued
+     */
+    int requeueDeadLetters();
+
+    /**
+     * Deletes sent mails older than the configured retention.
+     */
+    void purgeSentEmails();
+}
@@ -0,0 +1,10 @@
+package lk.kolitha.dana.service;
+
+public interface ProgramDetailResponseService {
+
+    /**
+     * Serialized response of the public program detail page, the JSON of a CommonResponse with the FullProgramDto.
+     * @param gzip whether the client accepts gzip; the bytes are then gzip encoded
+     */
+    byte[] getProgramDetailJson(String urlName, boolean gzip);
+}
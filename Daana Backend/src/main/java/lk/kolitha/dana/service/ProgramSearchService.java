@@ -0,0 +1,28 @@
+package lk.kolitha.dana.service;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface ProgramSearchService {
+
+    /**
+     * False until the first index build has finished.
+     */
+    boolean isReady();
+
+    /**
+     * Ranked ids of the campaigns matching every token of the search text, best match first.
+     */
+    Page<Long> search(String searchText, Long categoryId, Long subCategoryId, Pageable pageable);
+
+    /**
+     * Re-reads one campaign from the database and replaces or removes its index entry.
+     */
+    void reindexCampaign(Long campaignId);
+
+    /**
+     * Rebuilds the whole index from the database.
+     * @return number of indexed campaigns
+     */
+    int rebuildIndex();
+}
@@ -1,5 +1,6 @@
 package lk.kolitha.dana.service;
 
+import lk.kolitha.dana.dto.CursorPage;
 import lk.kolitha.dana.dto.program.AdminFullProgramDto;
 import lk.kolitha.dana.dto.program.BasicProgramCardDataResDto;
 import lk.kolitha.dana.dto.program.CampaignUpdateRequestDto;
@@ -28,6 +29,16 @@ public interface ProgramService {
                                      String searchText,
                                      Pageable pageable);
 
+    /**
+     * Keyset paginated variant of {@link #filterPrograms}, newest first. The total is only counted when asked for.
+     */
+    CursorPage<BasicProgramCardDataResDto> filterProgramsByCursor(Long categoryId,
+                                                                  Long subCategoryId,
+                                                                  String searchText,
+                                                                  String cursor,
+                                                                  int size,
+                                                                  boolean includeTotal);
+
     FullProgramDto getProgramByUrl(String urlName);
 
     // New 2-step registration methods
@@ -28,6 +28,12 @@ public interface RegisteredDonorService {
      * @return Updated profile image URL
      */
     String updateProfilePicture(Long donorId, MultipartFile profileImage);
+
+    /**
+     * Links a profile picture the donor uploaded directly to storage
+     * @return public url of the new profile picture
+     */
+    String confirmProfilePicture(Long donorId, String objectKey);
     
     /**
      * Get donor profile by email
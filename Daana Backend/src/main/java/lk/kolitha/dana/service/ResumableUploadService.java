@@ -0,0 +1,27 @@
+package lk.kolitha.dana.service;
+
+import lk.kolitha.dana.dto.upload.UploadSessionCreateDto;
+import lk.kolitha.dana.dto.upload.UploadSessionDto;
+
+import java.io.InputStream;
+
+public interface ResumableUploadService {
+
+    UploadSessionDto createVideoSession(Long charityId, Long campaignId, UploadSessionCreateDto createDto);
+
+    UploadSessionDto getSession(Long charityId, String uploadId);
+
+    /**
+     * Appends one chunk at the given offset, which must equal the bytes received so far.
+     * @param chunkSha256 optional hex SHA-256 of the chunk; a mismatching chunk is discarded
+     */
+    UploadSessionDto appendChunk(Long charityId, String uploadId, long offset, long length, String chunkSha256, InputStream content);
+
+    /**
+     * Stores the completed file and links it to the campaign as its video.
+     * @param sha256 optional hex SHA-256 of the whole file
+     */
+    UploadSessionDto finalizeUpload(Long charityId, String uploadId, String sha256);
+
+    void sweepExpiredSessions();
+}
@@ -0,0 +1,26 @@
+package lk.kolitha.dana.service;
+
+import lk.kolitha.dana.entity.StagedUpload;
+
+public interface StagedUploadService {
+
+    /**
+     * Records a file that is about to be uploaded. Runs in its own short transaction.
+     */
+    StagedUpload stage(String fileUrl, String reference);
+
+    /**
+     * Marks the upload as owned by the record written in the current transaction.
+     */
+    void claim(Long stagedUploadId);
+
+    /**
+     * Deletes the uploaded object and its staging record. Used when the owning write failed.
+     */
+    void discard(StagedUpload stagedUpload);
+
+    /**
+     * Discards uploads that were never claimed within the configured age.
+     */
+    void sweepStaleUploads();
+}
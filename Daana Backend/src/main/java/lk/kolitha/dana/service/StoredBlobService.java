@@ -0,0 +1,32 @@
+package lk.kolitha.dana.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Optional;
+
+public interface StoredBlobService {
+
+    /**
+     * Stores a document under a key derived from the SHA-256 of its content. Content that is already stored
+     * is not uploaded again. Does not add a reference; call {@link #acquire(String)} in the transaction that
+     * stores the url.
+     * @return public url of the blob, empty when the upload failed
+     */
+    Optional<String> prepare(MultipartFile file);
+
+    /**
+     * Adds a reference to the blob behind the url. Urls that are not blobs are ignored.
+     */
+    void acquire(String fileUrl);
+
+    /**
+     * Drops a reference to the blob behind the url, e.g. when a document is replaced. Urls that are not
+     * blobs are ignored.
+     */
+    void release(String fileUrl);
+
+    /**
+     * Deletes blobs that stayed unreferenced for the grace period.
+     */
+    void collectUnreferencedBlobs();
+}
@@ -0,0 +1,20 @@
+package lk.kolitha.dana.service;
+
+import lk.kolitha.dana.entity.DonationEvent;
+
+import java.util.List;
+
+public interface TrendingScoreService {
+
+    /**
+     * Adds the donations of a batch of events to the campaign trending scores. Must run inside a transaction.
+     */
+    void recordDonations(List<DonationEvent> events);
+
+    /**
+     * Recomputes all scores from the donations of the configured window and removes the trending projector's
+     * pending deliveries of the donations it read.
+     * @return number of campaigns with a score
+     */
+    int rebuildScores();
+}
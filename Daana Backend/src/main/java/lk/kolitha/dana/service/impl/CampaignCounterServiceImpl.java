@@ -0,0 +1,115 @@
+package lk.kolitha.dana.service.impl;
+
+import lk.kolitha.dana.entity.CampaignCounterShard;
+import lk.kolitha.dana.repository.CampaignCounterShardRepository;
+import lk.kolitha.dana.repository.CampaignsRepository;
+import lk.kolitha.dana.service.CampaignCounterService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Striped counter behind Campaigns.raised.
+ *
+ * <p>Each donation increments one of {@code shardCount} rows picked at random, so hot campaigns spread
+ * their writes over several rows instead of serialising on the campaign row. The fold job periodically
+ * locks a campaign's shards, adds their total to Campaigns.raised and resets them in one transaction.
+ * Readers add the still pending shard total to the folded value, so the figure they show is at most one
+ * fold behind the shards.</p>
+ */
+@Service
+@Log4j2
+public class CampaignCounterServiceImpl implements CampaignCounterService {
+
+    private final CampaignCounterShardRepository shardRepository;
+    private final CampaignsRepository campaignsRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${daana.campaign-counter.shards:16}")
+    private int shardCount;
+
+    public CampaignCounterServiceImpl(CampaignCounterShardRepository shardRepository,
+                                      CampaignsRepository campaignsRepository,
+                                      PlatformTransactionManager transactionManager) {
+        this.shardRepository = shardRepository;
+        this.campaignsRepository = campaignsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void increment(Long campaignId, BigDecimal amount) {
+        if (amount == null || amount.signum() == 0) {
+            return;
+        }
+        int shardNo = ThreadLocalRandom.current().nextInt(Math.max(shardCount, 1));
+        shardRepository.incrementShard(campaignId, shardNo, amount);
+    }
+
+    @Override
+    public Map<Long, BigDecimal> getPendingAmounts(Collection<Long> campaignIds) {
+        if (campaignIds == null || campaignIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, BigDecimal> pending = new HashMap<>();
+        for (Object[] row : shardRepository.sumPendingAmountByCampaignIds(campaignIds)) {
+            BigDecimal amount = (BigDecimal) row[1];
+            if (amount != null && amount.signum() != 0) {
+                pending.put((Long) row[0], amount);
+            }
+        }
+        return pending;
+    }
+
+    @Override
+    public BigDecimal getCurrentRaised(Long campaignId, BigDecimal foldedRaised) {
+        BigDecimal raised = foldedRaised != null ? foldedRaised : BigDecimal.ZERO;
+        if (campaignId == null) {
+            return raised;
+        }
+        return raised.add(getPendingAmounts(List.of(campaignId)).getOrDefault(campaignId, BigDecimal.ZERO));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${daana.campaign-counter.fold-interval-ms:5000}")
+    public void foldPendingShards() {
+        List<Long> campaignIds = shardRepository.findCampaignIdsWithPendingAmount();
+        if (campaignIds.isEmpty()) {
+            return;
+        }
+        for (Long campaignId : campaignIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> foldCampaign(campaignId));
+            } catch (Exception e) {
+                // Shards stay untouched, the next run retries this campaign
+                log.error("Failed to fold raised counter shards for campaign ID: {}", campaignId, e);
+            }
+        }
+        log.debug("Folded raised counter shards for {} campaigns", campaignIds.size());
+    }
+
+    private void foldCampaign(Long campaignId) {
+        List<CampaignCounterShard> shards = shardRepository.findByCampaignIdForUpdate(campaignId);
+        BigDecimal total = shards.stream()
+                .map(CampaignCounterShard::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (total.signum() == 0) {
+            return;
+        }
+        campaignsRepository.addToRaised(campaignId, total);
+        shardRepository.resetShards(campaignId);
+    }
+}
@@ -0,0 +1,37 @@
+package lk.kolitha.dana.service.impl;
+
+import lk.kolitha.dana.entity.DonationEvent;
+import lk.kolitha.dana.enums.DonationEventType;
+import lk.kolitha.dana.service.CampaignCounterService;
+import lk.kolitha.dana.service.DonationEventProjector;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps Campaigns.raised in line with the donation events, one counter increment per campaign and batch.
+ */
+@Component
+@RequiredArgsConstructor
+public class CampaignTotalsProjector implements DonationEventProjector {
+
+    private final CampaignCounterService campaignCounterService;
+
+    @Override
+    public String getName() {
+        return "campaign-totals";
+    }
+
+    @Override
+    public void project(List<DonationEvent> events) {
+        Map<Long, BigDecimal> raisedByCampaign = events.stream()
+                .filter(event -> event.getEventType() == DonationEventType.DONATION_CREATED)
+                .collect(Collectors.groupingBy(DonationEvent::getCampaignId,
+                        Collectors.reducing(BigDecimal.ZERO, DonationEvent::getAmount, BigDecimal::add)));
+        raisedByCampaign.forEach(campaignCounterService::increment);
+    }
+}
@@ -1,5 +1,9 @@
 package lk.kolitha.dana.service.impl;
 
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jakarta.annotation.PostConstruct;
+import lk.kolitha.dana.config.RefreshAheadCacheFactory;
+import lk.kolitha.dana.constants.ApplicationConstants.CacheConstants;
 import lk.kolitha.dana.dto.category.CategoryWithSubCategoriesDto;
 import lk.kolitha.dana.dto.category.SubCategoryDto;
 import lk.kolitha.dana.entity.Category;
@@ -9,6 +13,8 @@ import lk.kolitha.dana.repository.CategoryRepository;
 import lk.kolitha.dana.service.CategoryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -20,15 +26,36 @@ import java.util.stream.Collectors;
 public class CategoryServiceImpl implements CategoryService {
     
     private final CategoryRepository categoryRepository;
+    private final RefreshAheadCacheFactory cacheFactory;
+    
+    private LoadingCache<String, List<CategoryWithSubCategoriesDto>> categoriesCache;
+    
+    @PostConstruct
+    void initCache() {
+        categoriesCache = cacheFactory.build(CacheConstants.CATEGORIES, key -> loadCategoriesWithSubCategories());
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpCache() {
+        try {
+            categoriesCache.get(CacheConstants.SINGLE_ENTRY_KEY);
+        } catch (Exception e) {
+            log.warn("Failed to warm up category cache: {}", e.getMessage());
+        }
+    }
     
     @Override
     public List<CategoryWithSubCategoriesDto> getAllCategoriesWithSubCategories() {
+        return categoriesCache.get(CacheConstants.SINGLE_ENTRY_KEY);
+    }
+    
+    private List<CategoryWithSubCategoriesDto> loadCategoriesWithSubCategories() {
         log.info("Fetching all categories with subcategories");
         List<Category> categories = categoryRepository.findAllActiveCategoriesWithSubCategories(Status.ACTIVE, Status.ACTIVE);
         
         return categories.stream()
                 .map(this::convertToCategoryWithSubCategoriesDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toUnmodifiableList());
     }
     
     /**
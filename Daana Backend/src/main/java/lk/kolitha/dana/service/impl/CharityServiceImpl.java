@@ -12,32 +12,37 @@ import lk.kolitha.dana.dto.charity.ProfileUpdateDto;
 import lk.kolitha.dana.entity.BankBetail;
 import lk.kolitha.dana.entity.Charity;
 import lk.kolitha.dana.entity.CharityProofDocument;
+import lk.kolitha.dana.enums.ImageOwnerType;
+import lk.kolitha.dana.enums.PrincipalType;
 import lk.kolitha.dana.enums.CharityProofDocumentType;
 import lk.kolitha.dana.enums.Status;
+import lk.kolitha.dana.event.ImageUploadedEvent;
 import lk.kolitha.dana.exception.CustomServiceException;
+import lk.kolitha.dana.repository.CharityDailyStatsRepository;
 import lk.kolitha.dana.repository.CharityRepository;
 import lk.kolitha.dana.repository.CampaignsRepository;
-import lk.kolitha.dana.repository.DonationRepository;
+import lk.kolitha.dana.security.AccountStatusCache;
 import lk.kolitha.dana.service.CharityService;
+import lk.kolitha.dana.service.DirectUploadService;
+import lk.kolitha.dana.service.OutboundEmailService;
+import lk.kolitha.dana.service.StoredBlobService;
 import lk.kolitha.dana.util.AwsFileHandler;
 import lk.kolitha.dana.util.CustomGenerator;
-import lk.kolitha.dana.util.DaanaSESEmailSender;
+import lk.kolitha.dana.util.EmailTemplateEngine;
+import lk.kolitha.dana.util.QueryFanOut;
 import lk.kolitha.dana.constants.ApplicationConstants;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.StreamUtils;
 
-import java.io.IOException;
 import java.math.BigDecimal;
-import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.Map;
 import java.util.List;
 import java.util.Optional;
-import org.springframework.data.domain.Pageable;
 
 @Service
 @RequiredArgsConstructor
@@ -46,10 +51,16 @@ public class CharityServiceImpl implements CharityService {
 
     private final CharityRepository charityRepository;
     private final CampaignsRepository campaignsRepository;
-    private final DonationRepository donationRepository;
+    private final CharityDailyStatsRepository charityDailyStatsRepository;
     private final PasswordEncoder passwordEncoder;
-    private final DaanaSESEmailSender emailSender;
+    private final OutboundEmailService outboundEmailService;
+    private final EmailTemplateEngine emailTemplateEngine;
     private final AwsFileHandler awsFileHandler;
+    private final AccountStatusCache accountStatusCache;
+    private final DirectUploadService directUploadService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StoredBlobService storedBlobService;
+    private final QueryFanOut queryFanOut;
 
     @Override
     public void registerCharity(CharityDto charityDto) {
@@ -73,7 +84,9 @@ public class CharityServiceImpl implements CharityService {
                 .orElseThrow(() -> new RuntimeException("Charity not found"));
         charity.setStatus(Status.ACTIVE);
         charity.setUpdated(new Date());
-        return charityRepository.save(charity);
+        Charity saved = charityRepository.save(charity);
+        accountStatusCache.revoke(PrincipalType.CHARITY, charityId);
+        return saved;
     }
 
     @Override
@@ -82,7 +95,9 @@ public class CharityServiceImpl implements CharityService {
                 .orElseThrow(() -> new RuntimeException("Charity not found"));
         charity.setStatus(Status.INACTIVE);
         charity.setUpdated(new Date());
-        return charityRepository.save(charity);
+        Charity saved = charityRepository.save(charity);
+        accountStatusCache.revoke(PrincipalType.CHARITY, charityId);
+        return saved;
     }
 
     @Override
@@ -168,19 +183,14 @@ public class CharityServiceImpl implements CharityService {
                 throw new CustomServiceException(400, errorMessage);
             }
             
-            // Upload document file to S3
-            String documentFileName = charity.getId() + "_" + step2Dto.getDocumentTypeAsEnum().name() + "_" + 
-                            System.currentTimeMillis();
-
-            Optional<String> documentFileUrl = awsFileHandler.uploadToS3Bucket(
-                step2Dto.getDocumentFile(), 
-                documentFileName, ApplicationConstants.S3FolderConstants.CHARITY_DOCUMENTS
-            );
+            // Upload document file to S3, stored by content so a certificate uploaded before is not stored again
+            Optional<String> documentFileUrl = storedBlobService.prepare(step2Dto.getDocumentFile());
             
             if (documentFileUrl.isEmpty()) {
                 log.error("Failed to upload document to S3 for charity: {}", step2Dto.getId());
                 throw new CustomServiceException(500, "Failed to upload document. Please try again later.");
             }
+            storedBlobService.acquire(documentFileUrl.get());
 
             // Upload logo file to S3 (if provided)
             String logoUrl = null;
@@ -195,6 +205,8 @@ public class CharityServiceImpl implements CharityService {
                 if (logoFileUrl.isPresent()) {
                     logoUrl = logoFileUrl.get();
                     charity.setLogoUrl(logoUrl);
+                    charity.setLogoAvatarUrl(null);
+                    eventPublisher.publishEvent(new ImageUploadedEvent(ImageOwnerType.CHARITY, charity.getId()));
                 } else {
                     log.warn("Failed to upload logo to S3 for charity: {}, continuing without logo", step2Dto.getId());
                 }
@@ -367,8 +379,8 @@ public class CharityServiceImpl implements CharityService {
             String subject = "Verify Your Charity Registration - Daana.lk";
             String htmlContent = loadAndPopulateCharityOtpEmailTemplate(charityName, otpCode);
             
-            emailSender.sendHtmEmail(email, subject, htmlContent);
-            log.info("OTP verification email sent successfully to charity: {}", email);
+            outboundEmailService.enqueueHtmlEmail(email, subject, htmlContent, "charity-otp:" + email.toLowerCase());
+            log.info("OTP verification email queued for charity: {}", email);
             
         } catch (Exception e) {
             log.error("Failed to send OTP verification email to charity: {}. Error: {}", email, e.getMessage(), e);
@@ -384,25 +396,9 @@ public class CharityServiceImpl implements CharityService {
      * @return HTML email content with populated data
      */
     private String loadAndPopulateCharityOtpEmailTemplate(String charityName, String otpCode) {
-        try {
-            log.debug("Loading charity OTP email template from resources");
-            
-            // Load the HTML template from resources
-            ClassPathResource resource = new ClassPathResource("EmailTemplates/OTPEmailTemplates.html");
-            String template = StreamUtils.copyToString(resource.getInputStream(), StandardCharsets.UTF_8);
-            
-            // Replace placeholders with actual values
-            String populatedTemplate = template
-                    .replace("{{firstName}}", charityName != null ? charityName : "Charity")
-                    .replace("{{otpCode}}", otpCode != null ? otpCode : "000000");
-            
-            log.debug("Charity OTP email template loaded and populated successfully");
-            return populatedTemplate;
-            
-        } catch (IOException e) {
-            log.error("Failed to load charity OTP email template: {}", e.getMessage(), e);
-            throw new CustomServiceException(500, "Failed to load OTP email template. Please try again later.");
-        }
+        return emailTemplateEngine.render(ApplicationConstants.EmailTemplateConstants.OTP_VERIFICATION, Map.of(
+                "firstName", charityName != null ? charityName : "Charity",
+                "otpCode", otpCode != null ? otpCode : "000000"));
     }
 
     /**
@@ -458,6 +454,11 @@ public class CharityServiceImpl implements CharityService {
     public CharityProfileDto getCharityProfile(Long charityId) {
         log.info("Getting charity profile for charity ID: {}", charityId);
         
+        // Statistics are read concurrently with the profile itself
+        QueryFanOut.Batch batch = queryFanOut.begin("profile of charity ID: " + charityId);
+        QueryFanOut.Part<List<Object[]>> statusCounts = batch.submit("programs", () -> campaignsRepository.countByStatusForCharity(charityId));
+        QueryFanOut.Part<List<Object[]>> donationTotals = batch.submit("donations", () -> charityDailyStatsRepository.sumTotalsByCharityId(charityId));
+        
         // Find charity by ID
         Charity charity = charityRepository.findById(charityId)
                 .orElseThrow(() -> new CustomServiceException("Charity not found with id: " + charityId));
@@ -472,6 +473,7 @@ public class CharityServiceImpl implements CharityService {
         profileDto.setDescription(charity.getDescription());
         profileDto.setExecutionType(charity.getExecutionType() != null ? charity.getExecutionType().toString() : null);
         profileDto.setLogoUrl(charity.getLogoUrl());
+        profileDto.setLogoAvatarUrl(charity.getLogoAvatarUrl());
         profileDto.setContactPersonName(charity.getContactPersonName());
         profileDto.setContactPersonMobile(String.valueOf(charity.getContactPersonMobile()));
         profileDto.setNicNumberOrRegistrationNumber(charity.getNicNumberOrRegistrationNumber());
@@ -519,26 +521,30 @@ public class CharityServiceImpl implements CharityService {
         profileDto.setCreated(charity.getCreated());
         profileDto.setUpdated(charity.getUpdated());
         
-        // Statistics
-        try {
-            List<lk.kolitha.dana.entity.Campaigns> programs = campaignsRepository.findByCharityIdAndDeletedFalse(charityId, Pageable.unpaged()).getContent();
-            profileDto.setTotalPrograms((long) programs.size());
-            profileDto.setActivePrograms(programs.stream()
-                    .filter(p -> p.getStatus() == Status.ACTIVE)
-                    .count());
-            
-            Long totalDonations = donationRepository.countDonationsByCharityId(charityId);
-            profileDto.setTotalDonations(totalDonations);
+        // Statistics; a section that could not be loaded stays null and is reported, rather than shown as zero
+        List<Object[]> statusRows = statusCounts.orElse(null);
+        if (statusRows != null) {
+            long totalPrograms = 0;
+            long activePrograms = 0;
+            for (Object[] row : statusRows) {
+                totalPrograms += (Long) row[1];
+                if (row[0] == Status.ACTIVE) {
+                    activePrograms = (Long) row[1];
+                }
+            }
+            profileDto.setTotalPrograms(totalPrograms);
+            profileDto.setActivePrograms(activePrograms);
+        }
+        
+        // Donation totals from the daily rollups
+        List<Object[]> donationRows = donationTotals.orElse(null);
+        if (donationRows != null) {
+            profileDto.setTotalDonations(((Number) donationRows.get(0)[0]).longValue());
             
-            BigDecimal totalRaised = donationRepository.getTotalDonationAmountByCharityId(charityId);
+            BigDecimal totalRaised = (BigDecimal) donationRows.get(0)[1];
             profileDto.setTotalRaisedAmount(totalRaised != null ? totalRaised.toString() : "0.00");
-        } catch (Exception e) {
-            log.warn("Error calculating statistics for charity ID: {}", charityId, e);
-            profileDto.setTotalPrograms(0L);
-            profileDto.setActivePrograms(0L);
-            profileDto.setTotalDonations(0L);
-            profileDto.setTotalRaisedAmount("0.00");
         }
+        profileDto.setUnavailableSections(batch.unavailable());
         
         // Additional Information
         profileDto.setOptCode(charity.getOtpCode());
@@ -578,13 +584,35 @@ public class CharityServiceImpl implements CharityService {
         // Update password
         String newPasswordHash = passwordEncoder.encode(passwordChangeDto.getNewPassword());
         charity.setPasswordHash(newPasswordHash);
+        charity.setCredentialsChangedAt(new Date());
         charity.setUpdated(new Date());
         
         charityRepository.save(charity);
+        accountStatusCache.revoke(PrincipalType.CHARITY, charityId);
         
         log.info("Password changed successfully for charity ID: {}", charityId);
     }
     
+    @Override
+    @Transactional
+    public String confirmLogo(Long charityId, String objectKey) {
+        log.info("Confirming direct upload of logo for charity ID: {}", charityId);
+
+        Charity charity = charityRepository.findById(charityId)
+                .orElseThrow(() -> new CustomServiceException("Charity not found with id: " + charityId));
+
+        String logoUrl = directUploadService.confirmUpload(PrincipalType.CHARITY, charityId,
+                ApplicationConstants.S3FolderConstants.LOGO_IMAGES, objectKey);
+        charity.setLogoUrl(logoUrl);
+        charity.setLogoAvatarUrl(null);
+        charity.setUpdated(new Date());
+        charityRepository.save(charity);
+        eventPublisher.publishEvent(new ImageUploadedEvent(ImageOwnerType.CHARITY, charityId));
+
+        log.info("Logo updated successfully for charity ID: {}", charityId);
+        return logoUrl;
+    }
+
     @Override
     @Transactional
     public CharityProfileDto updateProfile(Long charityId, ProfileUpdateDto profileUpdateDto) {
@@ -0,0 +1,41 @@
+package lk.kolitha.dana.service.impl;
+
+import lk.kolitha.dana.entity.DonationEvent;
+import lk.kolitha.dana.service.DashboardRollupService;
+import lk.kolitha.dana.service.DonationEventProjector;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Recomputes the daily rollup rows of every (charity, day) touched by a batch of donation events.
+ */
+@Component
+@RequiredArgsConstructor
+public class DashboardRollupProjector implements DonationEventProjector {
+
+    private final DashboardRollupService dashboardRollupService;
+
+    @Override
+    public String getName() {
+        return "dashboard-rollups";
+    }
+
+    @Override
+    public void project(List<DonationEvent> events) {
+        Map<Long, Set<LocalDate>> daysByCharity = events.stream()
+                .collect(Collectors.groupingBy(DonationEvent::getCharityId,
+                        Collectors.mapping(event -> event.getOccurredAt().toInstant().atZone(ZoneOffset.UTC).toLocalDate(),
+                                Collectors.toCollection(TreeSet::new))));
+
+        daysByCharity.forEach((charityId, days) ->
+                days.forEach(day -> dashboardRollupService.recomputeRange(charityId, day, day.plusDays(1))));
+    }
+}
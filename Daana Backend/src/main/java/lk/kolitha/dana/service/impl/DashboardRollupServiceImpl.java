@@ -0,0 +1,100 @@
+package lk.kolitha.dana.service.impl;
+
+import lk.kolitha.dana.repository.CampaignDailyStatsRepository;
+import lk.kolitha.dana.repository.CharityDailyStatsRepository;
+import lk.kolitha.dana.repository.DonationRepository;
+import lk.kolitha.dana.service.DashboardRollupService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+/**
+ * Maintains charity_daily_stats and campaign_daily_stats.
+ *
+ * <p>A window is always rebuilt from the active donations it covers (delete and re-insert), so applying
+ * the same window twice gives the same rows. Days are UTC days, matching how the donation timestamps
+ * are stored.</p>
+ */
+@Service
+@Log4j2
+public class DashboardRollupServiceImpl implements DashboardRollupService {
+
+    private final CharityDailyStatsRepository charityDailyStatsRepository;
+    private final CampaignDailyStatsRepository campaignDailyStatsRepository;
+    private final DonationRepository donationRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${daana.rollup.repair-days:7}")
+    private int repairDays;
+
+    @Value("${daana.rollup.rebuild-chunk-days:31}")
+    private int rebuildChunkDays;
+
+    public DashboardRollupServiceImpl(CharityDailyStatsRepository charityDailyStatsRepository,
+                                      CampaignDailyStatsRepository campaignDailyStatsRepository,
+                                      DonationRepository donationRepository,
+                                      PlatformTransactionManager transactionManager) {
+        this.charityDailyStatsRepository = charityDailyStatsRepository;
+        this.campaignDailyStatsRepository = campaignDailyStatsRepository;
+        this.donationRepository = donationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recomputeRange(Long charityId, LocalDate fromDate, LocalDate toDate) {
+        Date fromTime = toUtcDate(fromDate);
+        Date toTime = toUtcDate(toDate);
+        charityDailyStatsRepository.deleteRange(charityId, fromDate, toDate);
+        campaignDailyStatsRepository.deleteRange(charityId, fromDate, toDate);
+        charityDailyStatsRepository.insertRangeFromDonations(charityId, fromTime, toTime);
+        campaignDailyStatsRepository.insertRangeFromDonations(charityId, fromTime, toTime);
+    }
+
+    @Override
+    @Scheduled(cron = "${daana.rollup.repair-cron:0 15 * * * *}")
+    public void repairRecentDays() {
+        LocalDate tomorrow = LocalDate.now(ZoneOffset.UTC).plusDays(1);
+        try {
+            transactionTemplate.executeWithoutResult(status -> recomputeRange(null, tomorrow.minusDays(repairDays + 1L), tomorrow));
+            log.info("Repaired dashboard rollups for the last {} days", repairDays);
+        } catch (Exception e) {
+            log.error("Failed to repair dashboard rollups", e);
+        }
+    }
+
+    @Override
+    public long rebuildAll() {
+        Date earliest = donationRepository.findEarliestDonationDate();
+        if (earliest == null) {
+            log.info("No donations found, nothing to rebuild");
+            return 0;
+        }
+        LocalDate fromDate = earliest.toInstant().atZone(ZoneOffset.UTC).toLocalDate();
+        LocalDate endDate = LocalDate.now(ZoneOffset.UTC).plusDays(1);
+        log.info("Rebuilding dashboard rollups from {} to {}", fromDate, endDate);
+
+        LocalDate chunkStart = fromDate;
+        while (chunkStart.isBefore(endDate)) {
+            LocalDate chunkEnd = chunkStart.plusDays(rebuildChunkDays).isBefore(endDate) ? chunkStart.plusDays(rebuildChunkDays) : endDate;
+            LocalDate start = chunkStart;
+            transactionTemplate.executeWithoutResult(status -> recomputeRange(null, start, chunkEnd));
+            chunkStart = chunkEnd;
+        }
+        return ChronoUnit.DAYS.between(fromDate, endDate);
+    }
+
+    private Date toUtcDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+}
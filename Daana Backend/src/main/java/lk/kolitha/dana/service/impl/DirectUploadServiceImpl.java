@@ -0,0 +1,152 @@
+package lk.kolitha.dana.service.impl;
+
+import lk.kolitha.dana.dto.upload.DirectUploadRequestDto;
+import lk.kolitha.dana.dto.upload.DirectUploadResponseDto;
+import lk.kolitha.dana.entity.StagedUpload;
+import lk.kolitha.dana.enums.PrincipalType;
+import lk.kolitha.dana.exception.CustomServiceException;
+import lk.kolitha.dana.repository.StagedUploadRepository;
+import lk.kolitha.dana.service.DirectUploadService;
+import lk.kolitha.dana.service.StagedUploadService;
+import lk.kolitha.dana.storage.StoredObject;
+import lk.kolitha.dana.util.AwsFileHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.io.FilenameUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import static lk.kolitha.dana.constants.ApplicationConstants.S3FolderConstants.DIRECT_UPLOAD_STAGING;
+import static lk.kolitha.dana.constants.ApplicationConstants.S3FolderConstants.LOGO_IMAGES;
+import static lk.kolitha.dana.constants.ApplicationConstants.S3FolderConstants.PROFILE_IMAGES;
+
+/**
+ * Direct uploads: the client PUTs the file to a pre-signed url and confirms the object key afterwards,
+ * so the file never passes through the API. Urls point to a staging key, recorded as a staged upload
+ * owned by the caller and the folder. Confirming copies the object to its final key in the folder, checks
+ * the copy against the folder limits and links the copy; the signed url stays valid until it expires, so
+ * the staging key is never served and is deleted by the staged upload sweeper, along with anything PUT to
+ * it after the confirm and with unconfirmed uploads.
+ *
+ * <p>Only profile pictures and charity logos are confirmed this way. Payment slips and documents are
+ * still sent with their forms, and campaign videos use resumable uploads, so their folders have no policy
+ * here.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Log4j2
+public class DirectUploadServiceImpl implements DirectUploadService {
+
+    private static final Pattern FILE_EXTENSION = Pattern.compile("[a-z0-9]{1,10}");
+    private static final Set<String> IMAGE_TYPES = Set.of("image/jpeg", "image/png", "image/webp", "image/gif");
+    private static final long MB = 1024L * 1024;
+
+    // Staging row of a confirmed upload; only the sweeper reads it, to delete the staging key
+    private static final String CONFIRMED_REFERENCE = "direct:confirmed";
+
+    private static final Map<String, FolderPolicy> FOLDER_POLICIES = Map.of(
+            PROFILE_IMAGES, new FolderPolicy(Set.of(PrincipalType.DONOR, PrincipalType.CHARITY), IMAGE_TYPES, 5 * MB),
+            LOGO_IMAGES, new FolderPolicy(Set.of(PrincipalType.CHARITY), IMAGE_TYPES, 5 * MB)
+    );
+
+    private final AwsFileHandler awsFileHandler;
+    private final StagedUploadService stagedUploadService;
+    private final StagedUploadRepository stagedUploadRepository;
+
+    @Value("${daana.upload.direct.url-expiry-ms:900000}")
+    private long urlExpiryMs;
+
+    @Override
+    public DirectUploadResponseDto createUploadUrl(PrincipalType ownerType, Long ownerId, DirectUploadRequestDto request) {
+        FolderPolicy policy = policyFor(ownerType, request.getFolder());
+        String contentType = request.getContentType().trim().toLowerCase();
+        if (!policy.contentTypes().contains(contentType)) {
+            throw new CustomServiceException(400, "Content type " + contentType + " is not allowed for " + request.getFolder());
+        }
+        if (request.getContentLength() > policy.maxBytes()) {
+            throw new CustomServiceException(400, "File size cannot exceed " + policy.maxBytes() / MB + "MB");
+        }
+        String fileExtension = FilenameUtils.getExtension(request.getFileName()).toLowerCase();
+        if (!FILE_EXTENSION.matcher(fileExtension).matches()) {
+            throw new CustomServiceException(400, "File name must have a valid extension");
+        }
+
+        String name = ownerType.name().toLowerCase() + "-" + ownerId + "-" + UUID.randomUUID();
+        Date expiresAt = new Date(System.currentTimeMillis() + urlExpiryMs);
+        AwsFileHandler.PresignedUpload presigned =
+                awsFileHandler.presignUpload(name, DIRECT_UPLOAD_STAGING + request.getFolder(), fileExtension, contentType, expiresAt);
+        // Staged before the url is handed out, so an upload that is never confirmed is cleaned up
+        stagedUploadService.stage(presigned.fileUrl(), stagingReference(ownerType, ownerId, request.getFolder()));
+
+        log.info("Issued direct upload url for {} ID: {} to {}", ownerType, ownerId, presigned.objectKey());
+        return new DirectUploadResponseDto(presigned.uploadUrl(), presigned.objectKey(), contentType, policy.maxBytes(), expiresAt);
+    }
+
+    @Override
+    @Transactional
+    public String confirmUpload(PrincipalType ownerType, Long ownerId, String folder, String objectKey) {
+        FolderPolicy policy = policyFor(ownerType, folder);
+        String reference = stagingReference(ownerType, ownerId, folder);
+        StagedUpload stagedUpload = stagedUploadRepository
+                .findByFileUrlAndReference(awsFileHandler.toFileUrl(objectKey), reference)
+                .orElseThrow(() -> new CustomServiceException(404, "No pending upload found for this key"));
+
+        // The client can still PUT to the staging key, so the copy is what gets checked and linked
+        String finalKey = awsFileHandler.objectKeyFor(FilenameUtils.getBaseName(objectKey), folder,
+                FilenameUtils.getExtension(objectKey));
+        String fileUrl = awsFileHandler.toFileUrl(finalKey);
+        // Staged in its own transaction, so the copy is deleted again if this one rolls back
+        StagedUpload copyUpload = stagedUploadService.stage(fileUrl, reference);
+        try {
+            if (!awsFileHandler.copyObject(objectKey, finalKey)) {
+                stagedUploadService.discard(copyUpload);
+                throw new CustomServiceException(400, "File has not been uploaded yet");
+            }
+        } catch (IOException e) {
+            log.error("Failed to copy direct upload {} to {}: {}", objectKey, finalKey, e.getMessage());
+            throw new CustomServiceException(500, "Failed to store the uploaded file, please try again");
+        }
+
+        StoredObject storedObject = awsFileHandler.findStoredObject(finalKey)
+                .orElseThrow(() -> new CustomServiceException(500, "Copied upload not found: " + finalKey));
+        String contentType = storedObject.contentType();
+        long contentLength = storedObject.size();
+        awsFileHandler.deleteObject(objectKey);
+        if (contentLength <= 0 || contentLength > policy.maxBytes()
+                || contentType == null || !policy.contentTypes().contains(contentType.toLowerCase())) {
+            log.warn("Rejected direct upload {} ({} bytes, {})", objectKey, contentLength, contentType);
+            stagedUploadService.discard(copyUpload);
+            throw new CustomServiceException(400, "Uploaded file does not match the allowed size or type");
+        }
+
+        // The staging row stays for the sweeper, which removes whatever is PUT to the key until the url expires
+        stagedUpload.setReference(CONFIRMED_REFERENCE);
+        stagedUploadRepository.save(stagedUpload);
+        stagedUploadService.claim(copyUpload.getId());
+        log.info("Confirmed direct upload {} as {} for {} ID: {}", objectKey, finalKey, ownerType, ownerId);
+        return fileUrl;
+    }
+
+    private static FolderPolicy policyFor(PrincipalType ownerType, String folder) {
+        FolderPolicy policy = folder != null ? FOLDER_POLICIES.get(folder) : null;
+        if (policy == null || !policy.ownerTypes().contains(ownerType)) {
+            throw new CustomServiceException(400, "Direct uploads are not allowed to folder: " + folder);
+        }
+        return policy;
+    }
+
+    private static String stagingReference(PrincipalType ownerType, Long ownerId, String folder) {
+        return "direct:" + ownerType.name() + "-" + ownerId + ":" + folder;
+    }
+
+    private record FolderPolicy(Set<PrincipalType> ownerTypes, Set<String> contentTypes, long maxBytes) {
+    }
+}
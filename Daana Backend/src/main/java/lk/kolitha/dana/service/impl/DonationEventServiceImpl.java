@@ -0,0 +1,172 @@
+package lk.kolitha.dana.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lk.kolitha.dana.entity.Donation;
+import lk.kolitha.dana.entity.DonationEvent;
+import lk.kolitha.dana.entity.DonationEventDelivery;
+import lk.kolitha.dana.entity.ProjectorCheckpoint;
+import lk.kolitha.dana.enums.DonationEventType;
+import lk.kolitha.dana.repository.DonationEventDeliveryRepository;
+import lk.kolitha.dana.repository.DonationEventRepository;
+import lk.kolitha.dana.repository.ProjectorCheckpointRepository;
+import lk.kolitha.dana.service.DonationEventProjector;
+import lk.kolitha.dana.service.DonationEventService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Donation event outbox writer and poller.
+ *
+ * <p>Every event is written with one delivery row per projector, and each projector is driven independently
+ * from its own deliveries. A batch of deliveries is read, its events projected and the deliveries deleted in
+ * one transaction; if the projector fails the transaction rolls back and the same batch is delivered again
+ * on the next poll. Events are not skipped when transactions commit out of id order: an event's deliveries
+ * become visible when it commits and stay until applied. The projector's checkpoint row is locked while a
+ * batch is applied, so several application instances can run the poller without applying a batch twice.</p>
+ */
+@Service
+@Log4j2
+public class DonationEventServiceImpl implements DonationEventService {
+
+    private final DonationEventRepository donationEventRepository;
+    private final DonationEventDeliveryRepository deliveryRepository;
+    private final ProjectorCheckpointRepository checkpointRepository;
+    private final List<DonationEventProjector> projectors;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, AtomicLong> lagEvents = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> lagSeconds = new ConcurrentHashMap<>();
+    private final Map<String, Counter> projectedCounters = new ConcurrentHashMap<>();
+
+    @Value("${daana.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${daana.outbox.max-batches-per-poll:20}")
+    private int maxBatchesPerPoll;
+
+    @Value("${daana.outbox.retention-days:30}")
+    private int retentionDays;
+
+    public DonationEventServiceImpl(DonationEventRepository donationEventRepository,
+                                    DonationEventDeliveryRepository deliveryRepository,
+                                    ProjectorCheckpointRepository checkpointRepository,
+                                    List<DonationEventProjector> projectors,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry) {
+        this.donationEventRepository = donationEventRepository;
+        this.deliveryRepository = deliveryRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.projectors = projectors;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        for (DonationEventProjector projector : projectors) {
+            String name = projector.getName();
+            lagEvents.put(name, new AtomicLong());
+            lagSeconds.put(name, new AtomicLong());
+            Gauge.builder("daana.outbox.projector.lag.events", lagEvents.get(name), AtomicLong::get)
+                    .description("Donation events not yet applied by the projector")
+                    .tag("projector", name)
+                    .register(meterRegistry);
+            Gauge.builder("daana.outbox.projector.lag.seconds", lagSeconds.get(name), AtomicLong::get)
+                    .description("Age of the oldest donation event not yet applied by the projector")
+                    .tag("projector", name)
+                    .register(meterRegistry);
+            projectedCounters.put(name, Counter.builder("daana.outbox.projector.events")
+                    .description("Donation events applied by the projector")
+                    .tag("projector", name)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDonationCreated(Donation donation, Long campaignId, Long charityId) {
+        DonationEvent event = new DonationEvent();
+        event.setEventType(DonationEventType.DONATION_CREATED);
+        event.setDonationId(donation.getId());
+        event.setCampaignId(campaignId);
+        event.setCharityId(charityId);
+        event.setDonorId(donation.getRegisteredDonor() != null ? donation.getRegisteredDonor().getId() : null);
+        event.setAmount(donation.getNetDonationAmount());
+        event.setOccurredAt(donation.getCreated());
+        event.setCreated(new Date());
+        donationEventRepository.save(event);
+        for (DonationEventProjector projector : projectors) {
+            deliveryRepository.save(new DonationEventDelivery(null, projector.getName(), event.getId(), event.getCreated()));
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${daana.outbox.poll-interval-ms:1000}")
+    public void projectPendingEvents() {
+        for (DonationEventProjector projector : projectors) {
+            try {
+                int batches = 0;
+                int applied;
+                do {
+                    applied = applyNextBatch(projector);
+                    batches++;
+                } while (applied >= batchSize && batches < maxBatchesPerPoll);
+            } catch (Exception e) {
+                log.error("Donation event projector {} failed, batch will be retried", projector.getName(), e);
+            }
+            updateLag(projector.getName());
+        }
+    }
+
+    @Override
+    @Scheduled(cron = "${daana.outbox.purge-cron:0 30 3 * * *}")
+    public void purgeProjectedEvents() {
+        Date cutoff = new Date(System.currentTimeMillis() - retentionDays * 24L * 60 * 60 * 1000);
+        Integer deleted = transactionTemplate.execute(status -> donationEventRepository.deleteDeliveredBefore(cutoff));
+        log.info("Purged {} projected donation events", deleted);
+    }
+
+    private int applyNextBatch(DonationEventProjector projector) {
+        Integer applied = transactionTemplate.execute(status -> {
+            ProjectorCheckpoint checkpoint = checkpointRepository.lock(projector.getName());
+            List<DonationEventDelivery> deliveries = deliveryRepository.findPending(
+                    projector.getName(), PageRequest.of(0, batchSize));
+            if (deliveries.isEmpty()) {
+                return 0;
+            }
+            List<DonationEvent> events = donationEventRepository.findByIdsOrdered(
+                    deliveries.stream().map(DonationEventDelivery::getEventId).toList());
+            projector.project(events);
+            deliveryRepository.deleteAllInBatch(deliveries);
+            checkpoint.setUpdated(new Date());
+            checkpointRepository.save(checkpoint);
+            return deliveries.size();
+        });
+        int count = applied != null ? applied : 0;
+        if (count > 0) {
+            projectedCounters.get(projector.getName()).increment(count);
+        }
+        return count;
+    }
+
+    private void updateLag(String projectorName) {
+        try {
+            lagEvents.get(projectorName).set(deliveryRepository.countByProjectorName(projectorName));
+            Date oldestPending = deliveryRepository.findOldestPendingCreated(projectorName);
+            lagSeconds.get(projectorName).set(oldestPending == null ? 0
+                    : Math.max(0, (System.currentTimeMillis() - oldestPending.getTime()) / 1000));
+        } catch (Exception e) {
+            log.warn("Failed to update lag metrics for projector {}: {}", projectorName, e.getMessage());
+        }
+    }
+}
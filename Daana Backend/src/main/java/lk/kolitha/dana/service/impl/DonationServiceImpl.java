@@ -1,32 +1,46 @@
 package lk.kolitha.dana.service.impl;
 
+import lk.kolitha.dana.dto.CursorPage;
+import lk.kolitha.dana.dto.donation.CharityDonationRow;
 import lk.kolitha.dana.dto.donation.DonationCreateResponseDto;
 import lk.kolitha.dana.dto.donation.DonationRequestDto;
 import lk.kolitha.dana.dto.donation.DonationResponseDto;
 import lk.kolitha.dana.dto.donor.DonationHistoryResponseDto;
+import lk.kolitha.dana.dto.donor.DonorDonationRow;
 import lk.kolitha.dana.entity.Campaigns;
 import lk.kolitha.dana.entity.Donation;
-import lk.kolitha.dana.entity.RegisteredDonor;
+import lk.kolitha.dana.entity.StagedUpload;
 import lk.kolitha.dana.enums.Status;
 import lk.kolitha.dana.exception.CustomServiceException;
 import lk.kolitha.dana.repository.CampaignsRepository;
 import lk.kolitha.dana.repository.CharityRepository;
 import lk.kolitha.dana.repository.DonationRepository;
 import lk.kolitha.dana.repository.RegisteredDonorRepository;
+import lk.kolitha.dana.service.CampaignCounterService;
+import lk.kolitha.dana.service.DonationEventService;
 import lk.kolitha.dana.service.DonationService;
+import lk.kolitha.dana.service.StagedUploadService;
 import lk.kolitha.dana.util.AwsFileHandler;
+import lk.kolitha.dana.util.CursorCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.Calendar;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.UUID;
 
 import static lk.kolitha.dana.constants.ApplicationConstants.S3FolderConstants.PAYMENT_SLIP;
@@ -41,6 +55,13 @@ public class DonationServiceImpl implements DonationService {
     private final CampaignsRepository campaignsRepository;
     private final RegisteredDonorRepository registeredDonorRepository;
     private final AwsFileHandler awsFileHandler;
+    private final DonationEventService donationEventService;
+    private final StagedUploadService stagedUploadService;
+    private final CampaignCounterService campaignCounterService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${daana.pagination.max-cursor-page-size:100}")
+    private int maxCursorPageSize;
     
     @Override
     public Page<DonationResponseDto> getCharityDonations(Long charityId, 
@@ -57,19 +78,10 @@ public class DonationServiceImpl implements DonationService {
                 .orElseThrow(() -> new CustomServiceException("Charity not found with id: " + charityId));
         
         // Prepare date range for end date (set to end of day)
-        java.util.Date processedEndDate = endDate;
-        if (processedEndDate != null) {
-            Calendar cal = Calendar.getInstance();
-            cal.setTime(processedEndDate);
-            cal.set(Calendar.HOUR_OF_DAY, 23);
-            cal.set(Calendar.MINUTE, 59);
-            cal.set(Calendar.SECOND, 59);
-            cal.set(Calendar.MILLISECOND, 999);
-            processedEndDate = cal.getTime();
-        }
+        java.util.Date processedEndDate = endOfDay(endDate);
         
         // Get paginated donations with filters
-        Page<Donation> donations = donationRepository.findDonationsByCharityIdWithFilters(
+        Page<CharityDonationRow> donations = donationRepository.findDonationsByCharityIdWithFilters(
                 charityId,
                 startDate,
                 processedEndDate,
@@ -80,46 +92,75 @@ public class DonationServiceImpl implements DonationService {
         );
         
         // Convert to DTOs
-        Page<DonationResponseDto> donationDtos = donations.map(this::convertToDonationResponseDto);
+        Map<Long, BigDecimal> pendingRaised = pendingRaised(donations.getContent(), CharityDonationRow::programId);
+        Page<DonationResponseDto> donationDtos = donations.map(row -> convertToDonationResponseDto(row, pendingRaised.get(row.programId())));
         
         log.info("Retrieved {} donations for charity ID: {}", donationDtos.getTotalElements(), charityId);
         return donationDtos;
     }
+
+    @Override
+    public CursorPage<DonationResponseDto> getCharityDonationsByCursor(Long charityId,
+                                                                       java.util.Date startDate,
+                                                                       java.util.Date endDate,
+                                                                       String donorEmail,
+                                                                       Boolean isAnonymous,
+                                                                       Long programId,
+                                                                       String cursor,
+                                                                       int size,
+                                                                       boolean includeTotal) {
+        log.info("Getting donations by cursor for charity ID: {} with filters", charityId);
+
+        charityRepository.findById(charityId)
+                .orElseThrow(() -> new CustomServiceException("Charity not found with id: " + charityId));
+
+        java.util.Date processedEndDate = endOfDay(endDate);
+        CursorCodec.Cursor after = CursorCodec.decode(cursor);
+        int pageSize = cursorPageSize(size);
+        List<CharityDonationRow> rows = donationRepository.findDonationsByCharityIdAfter(
+                charityId, startDate, processedEndDate, donorEmail, isAnonymous, programId,
+                after != null ? after.created() : null, after != null ? after.id() : null,
+                PageRequest.of(0, pageSize + 1));
+        Long total = includeTotal
+                ? donationRepository.countDonationsByCharityIdWithFilters(charityId, startDate, processedEndDate, donorEmail, isAnonymous, programId)
+                : null;
+        Map<Long, BigDecimal> pendingRaised = pendingRaised(rows, CharityDonationRow::programId);
+        return toCursorPage(rows, pageSize, total, CharityDonationRow::created, CharityDonationRow::id,
+                row -> convertToDonationResponseDto(row, pendingRaised.get(row.programId())));
+    }
     
-    private DonationResponseDto convertToDonationResponseDto(Donation donation) {
+    private DonationResponseDto convertToDonationResponseDto(CharityDonationRow donation, BigDecimal pendingRaised) {
         DonationResponseDto dto = new DonationResponseDto();
         
         // Basic donation information
-        dto.setId(donation.getId());
-        dto.setActualDonationAmount(donation.getActualDonationAmount());
-        dto.setNetDonationAmount(donation.getNetDonationAmount());
-        dto.setServiceCharge(donation.getServiceCharge());
-        dto.setIsAnonymousDonation(donation.getIsAnonymousDonation());
-        dto.setComments(donation.getComments());
-        dto.setStatus(donation.getStatus() != null ? donation.getStatus().toString() : null);
-        dto.setPaymentMethod(donation.getPaymentMethod() != null ? donation.getPaymentMethod().toString() : null);
-        dto.setPaymentSlipUrl(donation.getPaymentSlipUrl());
-        dto.setPaymentReferenceNumber(donation.getPaymentReferenceNumber());
-        dto.setCreated(donation.getCreated());
-        dto.setUpdated(donation.getUpdated());
+        dto.setId(donation.id());
+        dto.setActualDonationAmount(donation.actualDonationAmount());
+        dto.setNetDonationAmount(donation.netDonationAmount());
+        dto.setServiceCharge(donation.serviceCharge());
+        dto.setIsAnonymousDonation(donation.isAnonymousDonation());
+        dto.setComments(donation.comments());
+        dto.setStatus(donation.status() != null ? donation.status().toString() : null);
+        dto.setPaymentMethod(donation.paymentMethod() != null ? donation.paymentMethod().toString() : null);
+        dto.setPaymentSlipUrl(donation.paymentSlipUrl());
+        dto.setPaymentReferenceNumber(donation.paymentReferenceNumber());
+        dto.setCreated(donation.created());
+        dto.setUpdated(donation.updated());
         
         // Program information
-        if (donation.getCampaigns() != null) {
-            dto.setProgramId(donation.getCampaigns().getId());
-            dto.setProgramName(donation.getCampaigns().getProgramName());
-            dto.setProgramTitle(donation.getCampaigns().getTitle());
-            dto.setProgramUrlSlug(donation.getCampaigns().getUrlName());
-        }
+        dto.setProgramId(donation.programId());
+        dto.setProgramName(donation.programName());
+        dto.setProgramTitle(donation.programTitle());
+        dto.setProgramUrlSlug(donation.programUrlSlug());
         
         // Donor information (only if not anonymous)
-        if (donation.getRegisteredDonor() != null && !Boolean.TRUE.equals(donation.getIsAnonymousDonation())) {
-            dto.setDonorId(donation.getRegisteredDonor().getId());
-            String fullName = donation.getRegisteredDonor().getFirstName() + " " + donation.getRegisteredDonor().getLastName();
+        if (donation.donorId() != null && !Boolean.TRUE.equals(donation.isAnonymousDonation())) {
+            dto.setDonorId(donation.donorId());
+            String fullName = donation.donorFirstName() + " " + donation.donorLastName();
             dto.setDonorName(fullName);
             dto.setDonorDisplayName(fullName);
-            dto.setDonorEmail(donation.getRegisteredDonor().getEmail());
-            dto.setDonorMobile(donation.getRegisteredDonor().getPhoneNumber());
-            dto.setDonorProfileImage(donation.getRegisteredDonor().getProfileImageUrl());
+            dto.setDonorEmail(donation.donorEmail());
+            dto.setDonorMobile(donation.donorMobile());
+            dto.setDonorProfileImage(donation.donorProfileImage());
         } else {
             // For anonymous donations, don't expose donor information
             dto.setDonorId(null);
@@ -131,13 +172,13 @@ public class DonationServiceImpl implements DonationService {
         }
         
         // Calculate completion percentage for the program
-        if (donation.getCampaigns() != null && 
-            donation.getCampaigns().getTargetDonationAmount() != null && 
-            donation.getCampaigns().getTargetDonationAmount().compareTo(java.math.BigDecimal.ZERO) > 0 &&
-            donation.getCampaigns().getRaised() != null) {
+        BigDecimal programRaised = currentRaised(donation.programRaised(), pendingRaised);
+        if (donation.programTargetAmount() != null && 
+            donation.programTargetAmount().compareTo(java.math.BigDecimal.ZERO) > 0 &&
+            programRaised != null) {
             
-            java.math.BigDecimal completionPercentage = donation.getCampaigns().getRaised()
-                    .divide(donation.getCampaigns().getTargetDonationAmount(), 4, java.math.RoundingMode.HALF_UP)
+            java.math.BigDecimal completionPercentage = programRaised
+                    .divide(donation.programTargetAmount(), 4, java.math.RoundingMode.HALF_UP)
                     .multiply(java.math.BigDecimal.valueOf(100));
             dto.setCompletionPercentage(completionPercentage);
         } else {
@@ -145,9 +186,9 @@ public class DonationServiceImpl implements DonationService {
         }
         
         // Format donation date
-        if (donation.getCreated() != null) {
+        if (donation.created() != null) {
             SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd, yyyy 'at' HH:mm");
-            dto.setDonationDateFormatted(dateFormat.format(donation.getCreated()));
+            dto.setDonationDateFormatted(dateFormat.format(donation.created()));
         } else {
             dto.setDonationDateFormatted("N/A");
         }
@@ -155,49 +196,63 @@ public class DonationServiceImpl implements DonationService {
         return dto;
     }
     
+    /**
+     * Donation intake runs in three phases so no database connection is held while the payment slip
+     * is sent to S3: a short read-only transaction validates the campaign and donor, the slip is
+     * uploaded outside any transaction, and a short write transaction stores the donation and its
+     * outbox event. The slip is registered as a staged upload before it is sent and claimed by
+     * the write transaction; if that write fails the uploaded object is deleted again.
+     */
     @Override
-    @Transactional
     public DonationCreateResponseDto createDonation(DonationRequestDto donationRequest, Long authenticatedDonorId) {
         log.info("Creating donation for campaign ID: {} with amount: {}", 
                 donationRequest.getCampaignId(), donationRequest.getActualDonationAmount());
         
-        // Validate campaign exists and is active
-        Campaigns campaign = campaignsRepository.findById(donationRequest.getCampaignId())
-                .orElseThrow(() -> new CustomServiceException("Campaign not found with id: " + donationRequest.getCampaignId()));
-        
-        if (campaign.isDeleted()) {
-            throw new CustomServiceException("Campaign is no longer available");
-        }
-        
-        if (campaign.getStatus() != Status.ACTIVE) {
-            throw new CustomServiceException("Campaign is not currently active");
-        }
-        
-        // Get authenticated donor if available
-        RegisteredDonor authenticatedDonor = null;
-        if (authenticatedDonorId != null) {
-            authenticatedDonor = registeredDonorRepository.findById(authenticatedDonorId)
-                    .orElseThrow(() -> new CustomServiceException("Authenticated donor not found"));
-        }
+        // Phase 1: validate campaign and donor
+        TransactionTemplate readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        Campaigns campaign = readTransaction.execute(status -> {
+            // Validate campaign exists and is active
+            Campaigns existingCampaign = campaignsRepository.findById(donationRequest.getCampaignId())
+                    .orElseThrow(() -> new CustomServiceException("Campaign not found with id: " + donationRequest.getCampaignId()));
+            
+            if (existingCampaign.isDeleted()) {
+                throw new CustomServiceException("Campaign is no longer available");
+            }
+            
+            if (existingCampaign.getStatus() != Status.ACTIVE) {
+                throw new CustomServiceException("Campaign is not currently active");
+            }
+            
+            // Verify authenticated donor if available
+            if (authenticatedDonorId != null && !registeredDonorRepository.existsById(authenticatedDonorId)) {
+                throw new CustomServiceException("Authenticated donor not found");
+            }
+            return existingCampaign;
+        });
         
         // Create donation entity
         Donation donation = new Donation();
         donation.setActualDonationAmount(donationRequest.getActualDonationAmount());
-        donation.setCampaigns(campaign);
         donation.setComments(donationRequest.getComments());
         donation.setPaymentMethod(donationRequest.getPaymentMethod());
         donation.setStatus(Status.PENDING); // Initial status
         donation.setPaymentReferenceNumber("DON-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
         
-        // Handle payment slip file upload
+        // Phase 2: stage and upload payment slip file outside any transaction
         String paymentSlipUrl = null;
+        StagedUpload stagedSlip = null;
         if (donationRequest.getPaymentSlipUrl() != null && !donationRequest.getPaymentSlipUrl().isEmpty()) {
+            stagedSlip = stagedUploadService.stage(
+                    awsFileHandler.resolveFileUrl(donationRequest.getPaymentSlipUrl(), donation.getPaymentReferenceNumber(), PAYMENT_SLIP),
+                    donation.getPaymentReferenceNumber());
             try {
                 paymentSlipUrl = awsFileHandler.uploadToS3Bucket(donationRequest.getPaymentSlipUrl(), donation.getPaymentReferenceNumber(), PAYMENT_SLIP)
                                  .orElseThrow(() -> new CustomServiceException("Failed to save payment slip file"));
                 donation.setPaymentSlipUrl(paymentSlipUrl);
             } catch (Exception e) {
                 log.error("Error saving payment slip file: {}", e.getMessage());
+                discardQuietly(stagedSlip);
                 throw new CustomServiceException("Failed to save payment slip file: " + e.getMessage());
             }
         }
@@ -213,28 +268,43 @@ public class DonationServiceImpl implements DonationService {
                 .setScale(2, RoundingMode.HALF_UP);
         donation.setNetDonationAmount(netAmount);
         
-        // Set donor information based on anonymous flag and authentication
-            if (authenticatedDonor != null) {
-                // Use authenticated donor
-                donation.setIsAnonymousDonation(false);
-                donation.setRegisteredDonor(authenticatedDonor);
-            } else {
-                donation.setIsAnonymousDonation(true);
-            }
-        
         // Set timestamps
         Date now = new Date();
         donation.setCreated(now);
         donation.setUpdated(now);
         
-        // Save donation
-        Donation savedDonation = donationRepository.save(donation);
-        
-        // Update campaign raised amount
-        BigDecimal currentRaised = campaign.getRaised() != null ? campaign.getRaised() : BigDecimal.ZERO;
-        campaign.setRaised(currentRaised.add(netAmount));
-        campaign.setUpdated(now);
-        campaignsRepository.save(campaign);
+        // Phase 3: store donation and campaign increment in one short transaction
+        Long stagedSlipId = stagedSlip != null ? stagedSlip.getId() : null;
+        Donation savedDonation;
+        try {
+            savedDonation = new TransactionTemplate(transactionManager).execute(status -> {
+                donation.setCampaigns(campaignsRepository.getReferenceById(campaign.getId()));
+                donation.setCharityId(campaign.getCharity().getId());
+                
+                // Set donor information based on anonymous flag and authentication
+                if (authenticatedDonorId != null) {
+                    // Use authenticated donor
+                    donation.setIsAnonymousDonation(false);
+                    donation.setRegisteredDonor(registeredDonorRepository.getReferenceById(authenticatedDonorId));
+                } else {
+                    donation.setIsAnonymousDonation(true);
+                }
+                
+                // Save donation
+                Donation saved = donationRepository.save(donation);
+                if (stagedSlipId != null) {
+                    stagedUploadService.claim(stagedSlipId);
+                }
+                
+                // Campaign raised amount and other derived figures are updated by the event projectors
+                donationEventService.recordDonationCreated(saved, campaign.getId(), campaign.getCharity().getId());
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            log.error("Error storing donation with reference: {}", donation.getPaymentReferenceNumber(), e);
+            discardQuietly(stagedSlip);
+            throw e;
+        }
         
         log.info("Donation created successfully with ID: {} and reference: {}", 
                 savedDonation.getId(), savedDonation.getPaymentReferenceNumber());
@@ -260,6 +330,18 @@ public class DonationServiceImpl implements DonationService {
         response.setMessage("Thank you for your donation. Your upload slip under review and will be sent to you shortly.");
         return response;
     }
+
+    private void discardQuietly(StagedUpload stagedUpload) {
+        if (stagedUpload == null) {
+            return;
+        }
+        try {
+            stagedUploadService.discard(stagedUpload);
+        } catch (Exception e) {
+            // Staging row is kept, the sweeper deletes the object later
+            log.error("Failed to discard staged upload ID: {}", stagedUpload.getId(), e);
+        }
+    }
     
     @Override
     public Page<DonationHistoryResponseDto> getDonorDonationHistory(Long donorId, 
@@ -273,19 +355,10 @@ public class DonationServiceImpl implements DonationService {
                 .orElseThrow(() -> new CustomServiceException("Donor not found with id: " + donorId));
         
         // Prepare date range for end date (set to end of day)
-        java.util.Date processedEndDate = endDate;
-        if (processedEndDate != null) {
-            Calendar cal = Calendar.getInstance();
-            cal.setTime(processedEndDate);
-            cal.set(Calendar.HOUR_OF_DAY, 23);
-            cal.set(Calendar.MINUTE, 59);
-            cal.set(Calendar.SECOND, 59);
-            cal.set(Calendar.MILLISECOND, 999);
-            processedEndDate = cal.getTime();
-        }
+        java.util.Date processedEndDate = endOfDay(endDate);
         
         // Get paginated donations with filters
-        Page<Donation> donations = donationRepository.findDonationsByDonorIdWithFilters(
+        Page<DonorDonationRow> donations = donationRepository.findDonationsByDonorIdWithFilters(
                 donorId,
                 startDate,
                 processedEndDate,
@@ -293,87 +366,153 @@ public class DonationServiceImpl implements DonationService {
         );
         
         // Convert to DTOs
-        Page<DonationHistoryResponseDto> donationDtos = donations.map(this::convertToDonationHistoryResponseDto);
+        Map<Long, BigDecimal> pendingRaised = pendingRaised(donations.getContent(), DonorDonationRow::campaignId);
+        Page<DonationHistoryResponseDto> donationDtos = donations.map(row -> convertToDonationHistoryResponseDto(row, pendingRaised.get(row.campaignId())));
         
         log.info("Retrieved {} donations for donor ID: {}", donationDtos.getTotalElements(), donorId);
         return donationDtos;
     }
+
+    @Override
+    public CursorPage<DonationHistoryResponseDto> getDonorDonationHistoryByCursor(Long donorId,
+                                                                                  java.util.Date startDate,
+                                                                                  java.util.Date endDate,
+                                                                                  String cursor,
+                                                                                  int size,
+                                                                                  boolean includeTotal) {
+        log.info("Getting donation history by cursor for donor ID: {} with filters", donorId);
+
+        registeredDonorRepository.findById(donorId)
+                .orElseThrow(() -> new CustomServiceException("Donor not found with id: " + donorId));
+
+        java.util.Date processedEndDate = endOfDay(endDate);
+        CursorCodec.Cursor after = CursorCodec.decode(cursor);
+        int pageSize = cursorPageSize(size);
+        List<DonorDonationRow> rows = donationRepository.findDonationsByDonorIdAfter(
+                donorId, startDate, processedEndDate,
+                after != null ? after.created() : null, after != null ? after.id() : null,
+                PageRequest.of(0, pageSize + 1));
+        Long total = includeTotal
+                ? donationRepository.countDonationsByDonorIdWithFilters(donorId, startDate, processedEndDate)
+                : null;
+        Map<Long, BigDecimal> pendingRaised = pendingRaised(rows, DonorDonationRow::campaignId);
+        return toCursorPage(rows, pageSize, total, DonorDonationRow::created, DonorDonationRow::id,
+                row -> convertToDonationHistoryResponseDto(row, pendingRaised.get(row.campaignId())));
+    }
+
+    /**
+     * Shard amounts not yet folded into campaigns.raised for the programs of a page, read once per page as the
+     * program page does
+     */
+    private <R> Map<Long, BigDecimal> pendingRaised(List<R> rows, Function<R, Long> programId) {
+        return campaignCounterService.getPendingAmounts(rows.stream().map(programId).filter(Objects::nonNull).distinct().toList());
+    }
+
+    private static BigDecimal currentRaised(BigDecimal raised, BigDecimal pendingRaised) {
+        if (pendingRaised == null) {
+            return raised;
+        }
+        return raised != null ? raised.add(pendingRaised) : pendingRaised;
+    }
+
+    private int cursorPageSize(int size) {
+        return Math.max(1, Math.min(size, maxCursorPageSize));
+    }
+
+    /**
+     * Builds a cursor page from rows fetched with one extra row; the extra row only tells whether a next page exists
+     */
+    private <R, T> CursorPage<T> toCursorPage(List<R> rows, int pageSize, Long total, Function<R, Date> created,
+                                              Function<R, Long> id, Function<R, T> mapper) {
+        boolean hasNext = rows.size() > pageSize;
+        List<R> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            R last = page.get(page.size() - 1);
+            nextCursor = CursorCodec.encode(created.apply(last), id.apply(last));
+        }
+        return new CursorPage<>(page.stream().map(mapper).toList(), nextCursor, hasNext, total);
+    }
+
+    private java.util.Date endOfDay(java.util.Date date) {
+        if (date == null) {
+            return null;
+        }
+        Calendar cal = Calendar.getInstance();
+        cal.setTime(date);
+        cal.set(Calendar.HOUR_OF_DAY, 23);
+        cal.set(Calendar.MINUTE, 59);
+        cal.set(Calendar.SECOND, 59);
+        cal.set(Calendar.MILLISECOND, 999);
+        return cal.getTime();
+    }
     
-    private DonationHistoryResponseDto convertToDonationHistoryResponseDto(Donation donation) {
+    private DonationHistoryResponseDto convertToDonationHistoryResponseDto(DonorDonationRow donation, BigDecimal pendingRaised) {
         DonationHistoryResponseDto dto = new DonationHistoryResponseDto();
         
         // Basic donation information
-        dto.setDonationId(donation.getId());
-        dto.setActualDonationAmount(donation.getActualDonationAmount());
-        dto.setNetDonationAmount(donation.getNetDonationAmount());
-        dto.setServiceCharge(donation.getServiceCharge());
-        dto.setIsAnonymousDonation(donation.getIsAnonymousDonation());
-        dto.setComments(donation.getComments());
-        dto.setStatus(donation.getStatus() != null ? donation.getStatus().toString() : null);
-        dto.setPaymentMethod(donation.getPaymentMethod() != null ? donation.getPaymentMethod().toString() : null);
-        dto.setPaymentSlipUrl(donation.getPaymentSlipUrl());
-        dto.setPaymentReferenceNumber(donation.getPaymentReferenceNumber());
-        dto.setCreated(donation.getCreated());
-        dto.setUpdated(donation.getUpdated());
+        dto.setDonationId(donation.id());
+        dto.setActualDonationAmount(donation.actualDonationAmount());
+        dto.setNetDonationAmount(donation.netDonationAmount());
+        dto.setServiceCharge(donation.serviceCharge());
+        dto.setIsAnonymousDonation(donation.isAnonymousDonation());
+        dto.setComments(donation.comments());
+        dto.setStatus(donation.status() != null ? donation.status().toString() : null);
+        dto.setPaymentMethod(donation.paymentMethod() != null ? donation.paymentMethod().toString() : null);
+        dto.setPaymentSlipUrl(donation.paymentSlipUrl());
+        dto.setPaymentReferenceNumber(donation.paymentReferenceNumber());
+        dto.setCreated(donation.created());
+        dto.setUpdated(donation.updated());
         
         // Campaign information
-        if (donation.getCampaigns() != null) {
-            Campaigns campaign = donation.getCampaigns();
-            dto.setCampaignId(campaign.getId());
-            dto.setCampaignName(campaign.getProgramName());
-            dto.setCampaignTitle(campaign.getTitle());
-            dto.setCampaignUrlSlug(campaign.getUrlName());
-            dto.setCampaignImage(campaign.getProgramImage());
-            dto.setCampaignDescription(campaign.getDescription());
-            dto.setCampaignTargetAmount(campaign.getTargetDonationAmount());
-            dto.setCampaignRaisedAmount(campaign.getRaised());
-            dto.setCampaignStartDate(campaign.getStartDate());
-            dto.setCampaignEndDate(campaign.getEndDate());
-            dto.setCampaignStatus(campaign.getStatus() != null ? campaign.getStatus().toString() : null);
+        dto.setCampaignId(donation.campaignId());
+        dto.setCampaignName(donation.campaignName());
+        dto.setCampaignTitle(donation.campaignTitle());
+        dto.setCampaignUrlSlug(donation.campaignUrlSlug());
+        dto.setCampaignImage(donation.campaignImage());
+        dto.setCampaignDescription(donation.campaignDescription());
+        dto.setCampaignTargetAmount(donation.campaignTargetAmount());
+        BigDecimal campaignRaised = currentRaised(donation.campaignRaisedAmount(), pendingRaised);
+        dto.setCampaignRaisedAmount(campaignRaised);
+        dto.setCampaignStartDate(donation.campaignStartDate());
+        dto.setCampaignEndDate(donation.campaignEndDate());
+        dto.setCampaignStatus(donation.campaignStatus() != null ? donation.campaignStatus().toString() : null);
+        
+        // Calculate campaign completion percentage
+        if (donation.campaignTargetAmount() != null && 
+            donation.campaignTargetAmount().compareTo(java.math.BigDecimal.ZERO) > 0 &&
+            campaignRaised != null) {
             
-            // Calculate campaign completion percentage
-            if (campaign.getTargetDonationAmount() != null && 
-                campaign.getTargetDonationAmount().compareTo(java.math.BigDecimal.ZERO) > 0 &&
-                campaign.getRaised() != null) {
-                
-                java.math.BigDecimal completionPercentage = campaign.getRaised()
-                        .divide(campaign.getTargetDonationAmount(), 4, java.math.RoundingMode.HALF_UP)
-                        .multiply(java.math.BigDecimal.valueOf(100));
-                dto.setCampaignCompletionPercentage(completionPercentage);
-            } else {
-                dto.setCampaignCompletionPercentage(java.math.BigDecimal.ZERO);
-            }
-            
-            // Charity information
-            if (campaign.getCharity() != null) {
-                dto.setCharityId(campaign.getCharity().getId());
-                dto.setCharityName(campaign.getCharity().getName());
-                dto.setCharityLogo(campaign.getCharity().getLogoUrl());
-            }
-            
-            // Category information
-            if (campaign.getSubCategory() != null) {
-                dto.setSubCategoryId(campaign.getSubCategory().getId());
-                dto.setSubCategoryName(campaign.getSubCategory().getName());
-                
-                if (campaign.getSubCategory().getCategory() != null) {
-                    dto.setCategoryId(campaign.getSubCategory().getCategory().getId());
-                    dto.setCategoryName(campaign.getSubCategory().getCategory().getName());
-                }
-            }
+            java.math.BigDecimal completionPercentage = campaignRaised
+                    .divide(donation.campaignTargetAmount(), 4, java.math.RoundingMode.HALF_UP)
+                    .multiply(java.math.BigDecimal.valueOf(100));
+            dto.setCampaignCompletionPercentage(completionPercentage);
+        } else {
+            dto.setCampaignCompletionPercentage(java.math.BigDecimal.ZERO);
         }
         
+        // Charity information
+        dto.setCharityId(donation.charityId());
+        dto.setCharityName(donation.charityName());
+        dto.setCharityLogo(donation.charityLogo());
+        
+        // Category information
+        dto.setSubCategoryId(donation.subCategoryId());
+        dto.setSubCategoryName(donation.subCategoryName());
+        dto.setCategoryId(donation.categoryId());
+        dto.setCategoryName(donation.categoryName());
+        
         // Format donation date
-        if (donation.getCreated() != null) {
+        if (donation.created() != null) {
             SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd, yyyy 'at' HH:mm");
-            dto.setDonationDateFormatted(dateFormat.format(donation.getCreated()));
+            dto.setDonationDateFormatted(dateFormat.format(donation.created()));
         } else {
             dto.setDonationDateFormatted("N/A");
         }
         
         // Set donor display name
-        if (donation.getRegisteredDonor() != null && !Boolean.TRUE.equals(donation.getIsAnonymousDonation())) {
-            String fullName = donation.getRegisteredDonor().getFirstName() + " " + donation.getRegisteredDonor().getLastName();
+        if (donation.donorId() != null && !Boolean.TRUE.equals(donation.isAnonymousDonation())) {
+            String fullName = donation.donorFirstName() + " " + donation.donorLastName();
             dto.setDonorDisplayName(fullName);
         } else {
             dto.setDonorDisplayName("Anonymous Donor");
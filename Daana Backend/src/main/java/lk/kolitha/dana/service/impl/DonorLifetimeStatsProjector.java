@@ -0,0 +1,50 @@
+package lk.kolitha.dana.service.impl;
+
+import lk.kolitha.dana.entity.DonationEvent;
+import lk.kolitha.dana.enums.DonationEventType;
+import lk.kolitha.dana.repository.DonorLifetimeStatsRepository;
+import lk.kolitha.dana.service.DonationEventProjector;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains DonorLifetimeStats, one upsert per donor and batch.
+ */
+@Component
+@RequiredArgsConstructor
+public class DonorLifetimeStatsProjector implements DonationEventProjector {
+
+    private final DonorLifetimeStatsRepository donorLifetimeStatsRepository;
+
+    @Override
+    public String getName() {
+        return "donor-lifetime-stats";
+    }
+
+    @Override
+    public void project(List<DonationEvent> events) {
+        Map<Long, List<DonationEvent>> eventsByDonor = events.stream()
+                .filter(event -> event.getEventType() == DonationEventType.DONATION_CREATED)
+                .filter(event -> Objects.nonNull(event.getDonorId()))
+                .collect(Collectors.groupingBy(DonationEvent::getDonorId));
+
+        eventsByDonor.forEach((donorId, donorEvents) -> {
+            BigDecimal amount = donorEvents.stream()
+                    .map(DonationEvent::getAmount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            donorLifetimeStatsRepository.addDonations(
+                    donorId,
+                    donorEvents.size(),
+                    amount,
+                    donorEvents.stream().map(DonationEvent::getOccurredAt).min(Comparator.naturalOrder()).orElse(null),
+                    donorEvents.stream().map(DonationEvent::getOccurredAt).max(Comparator.naturalOrder()).orElse(null));
+        });
+    }
+}
@@ -0,0 +1,206 @@
+package lk.kolitha.dana.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import lk.kolitha.dana.enums.CampaignChangeType;
+import lk.kolitha.dana.enums.ImageOwnerType;
+import lk.kolitha.dana.enums.ImageVariant;
+import lk.kolitha.dana.event.CampaignChangedEvent;
+import lk.kolitha.dana.event.ImageUploadedEvent;
+import lk.kolitha.dana.repository.CampaignsRepository;
+import lk.kolitha.dana.repository.CharityRepository;
+import lk.kolitha.dana.repository.RegisteredDonorRepository;
+import lk.kolitha.dana.service.ImageVariantService;
+import lk.kolitha.dana.util.AwsFileHandler;
+import lk.kolitha.dana.util.ImageResizer;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.io.FilenameUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background generation of resized image copies.
+ *
+ * <p>After an upload commits, the owner's current image is read back from storage, decoded once and written
+ * as one JPEG per variant next to the original. The variant urls are recorded only if the image was not
+ * replaced meanwhile. Work runs on a small bounded pool; when it is full the job is dropped and picked up by
+ * the next backfill, and readers fall back to the original image until the variants exist.</p>
+ */
+@Service
+@Log4j2
+public class ImageVariantServiceImpl implements ImageVariantService {
+
+    private static final String VARIANT_CONTENT_TYPE = "image/jpeg";
+
+    private final CampaignsRepository campaignsRepository;
+    private final CharityRepository charityRepository;
+    private final RegisteredDonorRepository registeredDonorRepository;
+    private final AwsFileHandler awsFileHandler;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor variantWorkers;
+
+    @Value("${daana.images.variants.jpeg-quality:0.8}")
+    private float jpegQuality;
+
+    // Decoding stops at the header for images above this size
+    @Value("${daana.images.variants.max-source-pixels:50000000}")
+    private long maxSourcePixels;
+
+    @Value("${daana.images.variants.backfill-batch-size:200}")
+    private int backfillBatchSize;
+
+    public ImageVariantServiceImpl(CampaignsRepository campaignsRepository,
+                                   CharityRepository charityRepository,
+                                   RegisteredDonorRepository registeredDonorRepository,
+                                   AwsFileHandler awsFileHandler,
+                                   ApplicationEventPublisher eventPublisher,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${daana.images.variants.threads:2}") int threads,
+                                   @Value("${daana.images.variants.queue-capacity:100}") int queueCapacity) {
+        this.campaignsRepository = campaignsRepository;
+        this.charityRepository = charityRepository;
+        this.registeredDonorRepository = registeredDonorRepository;
+        this.awsFileHandler = awsFileHandler;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.variantWorkers = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("image-variant-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.variantWorkers.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        variantWorkers.shutdown();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImageUploaded(ImageUploadedEvent event) {
+        enqueue(event.getOwnerType(), event.getOwnerId());
+    }
+
+    @Override
+    public void generateVariants(ImageOwnerType ownerType, Long ownerId) {
+        Optional<String> originalUrl = findImageUrl(ownerType, ownerId);
+        Optional<String> originalKey = originalUrl.flatMap(awsFileHandler::toObjectKey);
+        if (originalKey.isEmpty()) {
+            return;
+        }
+        List<ImageVariant> variants = variantsFor(ownerType);
+        Map<ImageVariant, String> variantUrls = new EnumMap<>(ImageVariant.class);
+        try {
+            BufferedImage source;
+            // Decoded at twice the largest variant, so the final downscale still has detail to work with
+            ImageVariant largest = variants.get(0);
+            try (InputStream in = awsFileHandler.openObject(originalKey.get())) {
+                source = ImageResizer.decode(in, largest.getMaxWidth() * 2, largest.getMaxHeight() * 2, maxSourcePixels);
+            }
+            String baseKey = FilenameUtils.removeExtension(originalKey.get());
+            for (ImageVariant variant : variants) {
+                byte[] jpeg = ImageResizer.encodeJpeg(
+                        ImageResizer.fit(source, variant.getMaxWidth(), variant.getMaxHeight()), jpegQuality);
+                String variantKey = baseKey + "-" + variant.getSuffix() + ".jpg";
+                variantUrls.put(variant, awsFileHandler.storeObject(variantKey, jpeg, VARIANT_CONTENT_TYPE));
+            }
+        } catch (IOException e) {
+            log.warn("Failed to generate image variants for {} ID: {}: {}", ownerType, ownerId, e.getMessage());
+            return;
+        }
+
+        Integer updated = transactionTemplate.execute(status -> recordVariants(ownerType, ownerId, originalUrl.get(), variantUrls));
+        if (updated == null || updated == 0) {
+            log.info("Image of {} ID: {} changed while its variants were generated, discarding them", ownerType, ownerId);
+            return;
+        }
+        log.info("Generated {} image variants for {} ID: {}", variantUrls.size(), ownerType, ownerId);
+    }
+
+    @Override
+    public int enqueueMissingVariants() {
+        PageRequest batch = PageRequest.of(0, backfillBatchSize);
+        int queued = 0;
+        queued += enqueueAll(ImageOwnerType.CAMPAIGN, campaignsRepository.findIdsMissingImageVariants(batch));
+        queued += enqueueAll(ImageOwnerType.CHARITY, charityRepository.findIdsMissingLogoVariants(batch));
+        queued += enqueueAll(ImageOwnerType.DONOR, registeredDonorRepository.findIdsMissingProfileImageVariants(batch));
+        log.info("Queued {} images for variant generation", queued);
+        return queued;
+    }
+
+    private int enqueueAll(ImageOwnerType ownerType, List<Long> ownerIds) {
+        int queued = 0;
+        for (Long ownerId : ownerIds) {
+            if (!enqueue(ownerType, ownerId)) {
+                break;
+            }
+            queued++;
+        }
+        return queued;
+    }
+
+    private boolean enqueue(ImageOwnerType ownerType, Long ownerId) {
+        try {
+            variantWorkers.execute(() -> {
+                try {
+                    generateVariants(ownerType, ownerId);
+                } catch (Exception e) {
+                    log.error("Image variant generation failed for {} ID: {}", ownerType, ownerId, e);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.warn("Image variant queue is full, skipping {} ID: {} until the next backfill", ownerType, ownerId);
+            return false;
+        }
+    }
+
+    private Optional<String> findImageUrl(ImageOwnerType ownerType, Long ownerId) {
+        return switch (ownerType) {
+            case CAMPAIGN -> campaignsRepository.findProgramImageById(ownerId);
+            case CHARITY -> charityRepository.findLogoUrlById(ownerId);
+            case DONOR -> registeredDonorRepository.findProfileImageUrlById(ownerId);
+        };
+    }
+
+    // Largest variant first, it sets the decode size
+    private static List<ImageVariant> variantsFor(ImageOwnerType ownerType) {
+        return switch (ownerType) {
+            case CAMPAIGN -> List.of(ImageVariant.DETAIL, ImageVariant.CARD);
+            case CHARITY, DONOR -> List.of(ImageVariant.AVATAR);
+        };
+    }
+
+    private int recordVariants(ImageOwnerType ownerType, Long ownerId, String originalUrl, Map<ImageVariant, String> variantUrls) {
+        return switch (ownerType) {
+            case CAMPAIGN -> {
+                int updated = campaignsRepository.updateProgramImageVariants(ownerId, originalUrl,
+                        variantUrls.get(ImageVariant.CARD), variantUrls.get(ImageVariant.DETAIL));
+                if (updated > 0) {
+                    // Cached card lists pick up the new urls
+                    eventPublisher.publishEvent(new CampaignChangedEvent(ownerId, CampaignChangeType.UPDATED));
+                }
+                yield updated;
+            }
+            case CHARITY -> charityRepository.updateLogoAvatarUrl(ownerId, originalUrl, variantUrls.get(ImageVariant.AVATAR));
+            case DONOR -> registeredDonorRepository.updateProfileImageAvatarUrl(ownerId, originalUrl, variantUrls.get(ImageVariant.AVATAR));
+        };
+    }
+}
@@ -0,0 +1,274 @@
+package lk.kolitha.dana.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+import lk.kolitha.dana.entity.OutboundEmail;
+import lk.kolitha.dana.enums.OutboundEmailStatus;
+import lk.kolitha.dana.exception.CustomServiceException;
+import lk.kolitha.dana.repository.OutboundEmailRepository;
+import lk.kolitha.dana.service.OutboundEmailService;
+import lk.kolitha.dana.util.DaanaSESEmailSender;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database backed mail queue and its worker.
+ *
+ * <p>A poll claims due rows in a short transaction by moving them to SENDING with a lease, splits them
+ * between the worker threads and sends each share over a single SMTP session. Results are written back in
+ * a second transaction. Rows are claimed with SKIP LOCKED, so several application instances can poll the
+ * same queue.</p>
+ */
+@Service
+@Log4j2
+public class OutboundEmailServiceImpl implements OutboundEmailService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboundEmailRepository outboundEmailRepository;
+    private final DaanaSESEmailSender emailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService mailWorkers;
+    private final int workerCount;
+
+    @Value("${daana.mail.queue.batch-size:50}")
+    private int batchSize;
+
+    @Value("${daana.mail.queue.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${daana.mail.queue.initial-backoff-ms:30000}")
+    private long initialBackoffMs;
+
+    @Value("${daana.mail.queue.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+
+    @Value("${daana.mail.queue.lease-ms:300000}")
+    private long leaseMs;
+
+    @Value("${daana.mail.queue.retention-days:14}")
+    private int retentionDays;
+
+    public OutboundEmailServiceImpl(OutboundEmailRepository outboundEmailRepository,
+                                    DaanaSESEmailSender emailSender,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${daana.mail.queue.workers:2}") int workerCount) {
+        this.outboundEmailRepository = outboundEmailRepository;
+        this.emailSender = emailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workerCount = Math.max(1, workerCount);
+        this.mailWorkers = Executors.newFixedThreadPool(this.workerCount, new CustomizableThreadFactory("mail-worker-"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        mailWorkers.shutdown();
+    }
+
+    @Override
+    @Transactional
+    public void enqueueHtmlEmail(String recipient, String subject, String htmlBody, String dedupeKey) {
+        Date now = new Date();
+        OutboundEmail email = null;
+        if (dedupeKey != null) {
+            List<OutboundEmail> pending = outboundEmailRepository.findByDedupeKeyAndStatusForUpdate(dedupeKey, OutboundEmailStatus.PENDING);
+            if (!pending.isEmpty()) {
+                email = pending.get(0);
+                log.info("Replacing queued mail ID: {} with a newer mail for key {}", email.getId(), dedupeKey);
+            }
+        }
+        if (email == null) {
+            email = new OutboundEmail();
+            email.setDedupeKey(dedupeKey);
+            email.setCreated(now);
+        }
+        email.setRecipient(recipient);
+        email.setSubject(subject);
+        email.setHtmlBody(htmlBody);
+        email.setStatus(OutboundEmailStatus.PENDING);
+        email.setAttempts(0);
+        email.setNextAttemptAt(now);
+        email.setLastError(null);
+        email.setUpdated(now);
+        outboundEmailRepository.save(email);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${daana.mail.queue.poll-interval-ms:2000}")
+    public void dispatchPendingEmails() {
+        List<OutboundEmail> claimed = transactionTemplate.execute(status -> claimDueEmails());
+        if (claimed == null || claimed.isEmpty()) {
+            return;
+        }
+
+        int shareSize = (claimed.size() + workerCount - 1) / workerCount;
+        List<List<OutboundEmail>> shares = new ArrayList<>();
+        List<Future<Map<Long, Exception>>> results = new ArrayList<>();
+        for (int from = 0; from < claimed.size(); from += shareSize) {
+            List<OutboundEmail> share = claimed.subList(from, Math.min(from + shareSize, claimed.size()));
+            shares.add(share);
+            results.add(mailWorkers.submit(() -> sendShare(share)));
+        }
+
+        // One deadline for the whole poll, so waiting on several shares never outlasts the lease
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(leaseMs);
+        Map<Long, Exception> failures = new HashMap<>();
+        Set<Long> unfinished = new HashSet<>();
+        for (int i = 0; i < results.size(); i++) {
+            Future<Map<Long, Exception>> result = results.get(i);
+            try {
+                failures.putAll(result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                // Rows of a share that did not report back stay SENDING and are retried when the lease ends
+                log.error("Mail worker did not complete its batch of {} mails", shares.get(i).size(), e);
+                result.cancel(true);
+                shares.get(i).forEach(email -> unfinished.add(email.getId()));
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> recordResults(claimed, failures, unfinished));
+    }
+
+    @Override
+    @Transactional
+    public int requeueDeadLetters() {
+        int requeued = outboundEmailRepository.requeueDeadLetters(new Date());
+        log.info("Requeued {} dead letter mails", requeued);
+        return requeued;
+    }
+
+    @Override
+    @Scheduled(cron = "${daana.mail.queue.purge-cron:0 45 3 * * *}")
+    public void purgeSentEmails() {
+        Date cutoff = new Date(System.currentTimeMillis() - retentionDays * 24L * 60 * 60 * 1000);
+        Integer deleted = transactionTemplate.execute(status -> outboundEmailRepository.deleteSentBefore(cutoff));
+        log.info("Purged {} sent mails", deleted);
+    }
+
+    private List<OutboundEmail> claimDueEmails() {
+        Date now = new Date();
+        List<OutboundEmail> due = outboundEmailRepository.findDueForUpdate(now, PageRequest.of(0, batchSize));
+        Date leaseUntil = new Date(now.getTime() + leaseMs);
+        for (OutboundEmail email : due) {
+            email.setStatus(OutboundEmailStatus.SENDING);
+            email.setLockedUntil(leaseUntil);
+            email.setAttempts(email.getAttempts() + 1);
+            email.setUpdated(now);
+        }
+        return due;
+    }
+
+    /**
+     * Sends one worker's share over a single SMTP session
+     * @return failures by mail ID; an absent ID was sent
+     */
+    private Map<Long, Exception> sendShare(List<OutboundEmail> share) {
+        Map<Long, Exception> failures = new HashMap<>();
+        List<MimeMessage> messages = new ArrayList<>();
+        Map<MimeMessage, Long> idsByMessage = new HashMap<>();
+        for (OutboundEmail email : share) {
+            try {
+                MimeMessage message = emailSender.createHtmlMessage(email.getRecipient(), email.getSubject(), email.getHtmlBody());
+                messages.add(message);
+                idsByMessage.put(message, email.getId());
+            } catch (Exception e) {
+                failures.put(email.getId(), e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return failures;
+        }
+        try {
+            emailSender.sendBatch(messages.toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                idsByMessage.values().forEach(id -> failures.put(id, e));
+            } else {
+                e.getFailedMessages().forEach((message, cause) -> failures.put(idsByMessage.get(message), cause));
+            }
+        } catch (Exception e) {
+            // Connection or authentication failure, nothing in this share was sent
+            idsByMessage.values().forEach(id -> failures.put(id, e));
+        }
+        return failures;
+    }
+
+    /**
+     * @param unfinished mails of shares that did not report back; their outcome is unknown, so they are left
+     *                   to the lease instead of being marked sent
+     */
+    private void recordResults(List<OutboundEmail> claimed, Map<Long, Exception> failures, Set<Long> unfinished) {
+        Date now = new Date();
+        for (OutboundEmail claimedEmail : claimed) {
+            if (unfinished.contains(claimedEmail.getId())) {
+                continue;
+            }
+            OutboundEmail email = outboundEmailRepository.findById(claimedEmail.getId()).orElse(null);
+            if (email == null || email.getStatus() != OutboundEmailStatus.SENDING) {
+                continue;
+            }
+            email.setLockedUntil(null);
+            email.setUpdated(now);
+            Exception failure = failures.get(email.getId());
+            if (failure == null) {
+                email.setStatus(OutboundEmailStatus.SENT);
+                email.setSentAt(now);
+                email.setLastError(null);
+            } else if (isPermanent(failure) || email.getAttempts() >= maxAttempts) {
+                email.setStatus(OutboundEmailStatus.DEAD);
+                email.setLastError(truncate(failure));
+                log.error("Mail ID: {} to {} moved to dead letters after {} attempts: {}",
+                        email.getId(), email.getRecipient(), email.getAttempts(), failure.getMessage());
+            } else {
+                email.setStatus(OutboundEmailStatus.PENDING);
+                email.setNextAttemptAt(new Date(now.getTime() + backoffMs(email.getAttempts())));
+                email.setLastError(truncate(failure));
+                log.warn("Mail ID: {} to {} failed on attempt {}, retrying at {}: {}",
+                        email.getId(), email.getRecipient(), email.getAttempts(), email.getNextAttemptAt(), failure.getMessage());
+            }
+        }
+    }
+
+    private long backoffMs(int attempts) {
+        long backoff = initialBackoffMs << Math.min(attempts - 1, 20);
+        return Math.min(backoff, maxBackoffMs);
+    }
+
+    // Bad addresses will not get better with retries
+    private static boolean isPermanent(Exception failure) {
+        if (failure instanceof CustomServiceException) {
+            return true;
+        }
+        return failure instanceof SendFailedException sendFailed
+                && sendFailed.getInvalidAddresses() != null
+                && sendFailed.getInvalidAddresses().length > 0;
+    }
+
+    private static String truncate(Exception failure) {
+        String message = failure.getClass().getSimpleName() + ": " + failure.getMessage();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
@@ -0,0 +1,229 @@
+package lk.kolitha.dana.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lk.kolitha.dana.constants.ApplicationConstants.CacheConstants;
+import lk.kolitha.dana.dto.CommonResponse;
+import lk.kolitha.dana.dto.program.FullProgramDto;
+import lk.kolitha.dana.event.CampaignChangedEvent;
+import lk.kolitha.dana.exception.CustomServiceException;
+import lk.kolitha.dana.repository.CampaignsRepository;
+import lk.kolitha.dana.service.CampaignCounterService;
+import lk.kolitha.dana.service.ProgramDetailResponseService;
+import lk.kolitha.dana.service.ProgramService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Serves the program detail page from a cache of its serialized, gzip compressed response.
+ *
+ * <p>Entries are keyed by url name, campaign version and the update times of the campaign's charity, sub
+ * category and category, which are part of the response; a request reads these and the raised value in one
+ * query by primary keys. Charity profile and logo changes set the charity's update time, so the campaigns
+ * of a changed charity are rebuilt on their next view, on every instance. The raised value changes with every donation, so it is not part of
+ * the cached bytes: the JSON is cached as the text before and after it, and the gzip body as a deflate
+ * stream flushed up to it and a separate stream after it. A request puts the current value in between as
+ * a stored (uncompressed) deflate block and appends the gzip trailer, so neither the JSON nor the
+ * compressed text is encoded again. Campaign edits raise the version; entries of a changed campaign are
+ * also dropped right away. Entries expire a fixed time after they were written, which bounds how long an
+ * edit made outside the application (a catalog fix that does not set updated) stays visible. The cache is
+ * bounded by the size of the entries in bytes.</p>
+ */
+@Service
+@Log4j2
+public class ProgramDetailResponseServiceImpl implements ProgramDetailResponseService {
+
+    private static final String RAISED_FIELD = "\"raised\":";
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    // Serialized in place of raised to find where the value goes; a number, so it cannot be inside a string value
+    private static final BigDecimal RAISED_PLACEHOLDER = new BigDecimal("-918273645.0192837465");
+
+    private final CampaignsRepository campaignsRepository;
+    private final ProgramService programService;
+    private final CampaignCounterService campaignCounterService;
+    private final ObjectMapper objectMapper;
+    private final Cache<DetailKey, SerializedDetail> responses;
+
+    @Value("${daana.cache.program-detail.compression-level:6}")
+    private int compressionLevel;
+
+    public ProgramDetailResponseServiceImpl(CampaignsRepository campaignsRepository,
+                                            ProgramService programService,
+                                            CampaignCounterService campaignCounterService,
+                                            ObjectMapper objectMapper,
+                                            MeterRegistry meterRegistry,
+                                            @Value("${daana.cache.program-detail.maximum-bytes:33554432}") long maximumBytes,
+                                            @Value("${daana.cache.program-detail.expire-after-write-seconds:3600}") long expireAfterWriteSeconds) {
+        this.campaignsRepository = campaignsRepository;
+        this.programService = programService;
+        this.campaignCounterService = campaignCounterService;
+        this.objectMapper = objectMapper;
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher((DetailKey key, SerializedDetail detail) -> detail.weight())
+                .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, CacheConstants.PROGRAM_DETAIL_RESPONSES);
+    }
+
+    @Override
+    public byte[] getProgramDetailJson(String urlName, boolean gzip) {
+        List<Object[]> rows = campaignsRepository.findDetailVersionByUrlName(urlName);
+        if (rows.isEmpty()) {
+            throw new CustomServiceException(404, "Program not found with urlName: " + urlName);
+        }
+        Object[] row = rows.get(0);
+        Long campaignId = (Long) row[0];
+        long version = row[1] != null ? (Long) row[1] : 0L;
+        BigDecimal raised = campaignCounterService.getCurrentRaised(campaignId, (BigDecimal) row[2]);
+        DetailKey detailKey = new DetailKey(urlName, version, millis(row[3]), millis(row[4]), millis(row[5]));
+
+        SerializedDetail detail = responses.get(detailKey, key -> serialize(key, campaignId));
+        byte[] raisedJson = toJson(raised);
+        return gzip ? detail.gzip(raisedJson) : detail.json(raisedJson);
+    }
+
+    /**
+     * Drop the cached responses of a campaign once its change is committed; a renamed campaign would
+     * otherwise keep its old url name entry until it expires
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCampaignChanged(CampaignChangedEvent event) {
+        responses.asMap().values().removeIf(detail -> detail.campaignId().equals(event.getCampaignId()));
+    }
+
+    private SerializedDetail serialize(DetailKey key, Long campaignId) {
+        log.debug("Serializing program detail response for urlName: {} version: {}", key.urlName(), key.version());
+        FullProgramDto program = programService.getProgramByUrl(key.urlName());
+        program.setRaised(RAISED_PLACEHOLDER);
+        byte[] json = toJson(new CommonResponse<>(true, "Program retrieved successfully", program));
+
+        byte[] marker = (RAISED_FIELD + new String(toJson(RAISED_PLACEHOLDER), StandardCharsets.UTF_8))
+                .getBytes(StandardCharsets.UTF_8);
+        int markerAt = indexOf(json, marker);
+        if (markerAt < 0) {
+            throw new CustomServiceException(500, "Raised value not found in the program detail response of " + key.urlName());
+        }
+        byte[] prefix = Arrays.copyOfRange(json, 0, markerAt + RAISED_FIELD.length());
+        byte[] suffix = Arrays.copyOfRange(json, markerAt + marker.length, json.length);
+
+        ByteArrayOutputStream gzipPrefix = new ByteArrayOutputStream(prefix.length / 3 + GZIP_HEADER.length);
+        gzipPrefix.writeBytes(GZIP_HEADER);
+        gzipPrefix.writeBytes(deflate(prefix, false));
+        return new SerializedDetail(campaignId, prefix, suffix, gzipPrefix.toByteArray(), deflate(suffix, true));
+    }
+
+    /**
+     * Raw deflate of the input. Unless it is the end of the stream, it is closed with a sync flush, which
+     * leaves the output on a byte boundary without a final block so more blocks can follow.
+     */
+    private byte[] deflate(byte[] input, boolean endOfStream) {
+        Deflater deflater = new Deflater(compressionLevel, true);
+        try {
+            deflater.setInput(input);
+            if (endOfStream) {
+                deflater.finish();
+            }
+            int flush = endOfStream ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH;
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 3 + 64);
+            byte[] buffer = new byte[8192];
+            while (true) {
+                int written = deflater.deflate(buffer, 0, buffer.length, flush);
+                out.write(buffer, 0, written);
+                // A sync flush is complete when it did not fill the buffer
+                if (endOfStream ? deflater.finished() : written < buffer.length) {
+                    return out.toByteArray();
+                }
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new CustomServiceException(500, "Failed to serialize the program detail response");
+        }
+    }
+
+    private static long millis(Object updated) {
+        return updated instanceof Date date ? date.getTime() : 0L;
+    }
+
+    private static int indexOf(byte[] data, byte[] pattern) {
+        outer:
+        for (int i = 0; i <= data.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private record DetailKey(String urlName, long version, long charityUpdated, long subCategoryUpdated, long categoryUpdated) {
+    }
+
+    /**
+     * @param prefix JSON up to and including {@code "raised":}
+     * @param suffix JSON after the raised value
+     * @param gzipPrefix gzip header and the sync flushed deflate blocks of prefix
+     * @param gzipSuffix deflate blocks of suffix, ending with the final block
+     */
+    private record SerializedDetail(Long campaignId, byte[] prefix, byte[] suffix, byte[] gzipPrefix, byte[] gzipSuffix) {
+
+        int weight() {
+            return prefix.length + suffix.length + gzipPrefix.length + gzipSuffix.length;
+        }
+
+        byte[] json(byte[] raisedJson) {
+            byte[] json = Arrays.copyOf(prefix, prefix.length + raisedJson.length + suffix.length);
+            System.arraycopy(raisedJson, 0, json, prefix.length, raisedJson.length);
+            System.arraycopy(suffix, 0, json, prefix.length + raisedJson.length, suffix.length);
+            return json;
+        }
+
+        byte[] gzip(byte[] raisedJson) {
+            CRC32 crc = new CRC32();
+            crc.update(prefix);
+            crc.update(raisedJson);
+            crc.update(suffix);
+            ByteBuffer gzip = ByteBuffer.allocate(gzipPrefix.length + 5 + raisedJson.length + gzipSuffix.length + 8)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            gzip.put(gzipPrefix);
+            // Stored block header on the byte boundary left by the sync flush: not final, no compression
+            gzip.put((byte) 0)
+                    .putShort((short) raisedJson.length)
+                    .putShort((short) ~raisedJson.length)
+                    .put(raisedJson);
+            gzip.put(gzipSuffix);
+            // Trailer: CRC-32 and length of the uncompressed JSON
+            gzip.putInt((int) crc.getValue())
+                    .putInt(prefix.length + raisedJson.length + suffix.length);
+            return gzip.array();
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package lk.kolitha.dana.service.impl;
+
+import lk.kolitha.dana.event.CampaignChangedEvent;
+import lk.kolitha.dana.repository.CampaignsRepository;
+import lk.kolitha.dana.service.ProgramSearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over campaign title, program name and description.
+ *
+ * <p>Documents are ranked with BM25 per field, weighted by a field boost. Every query token must match
+ * (the last one also as a prefix, so partially typed words still find results). The index is built on
+ * startup, kept current from {@link CampaignChangedEvent}s after commit, and can be rebuilt on demand.
+ * Readers share a read lock; single document updates and the swap of a rebuilt index take the write lock.
+ * Rebuilds run one at a time, so campaigns changed during one are all re-applied after its swap.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Log4j2
+public class ProgramSearchServiceImpl implements ProgramSearchService {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{M}\\p{N}]+");
+    private static final int TITLE = 0;
+    private static final int PROGRAM_NAME = 1;
+    private static final int DESCRIPTION = 2;
+    private static final double[] FIELD_BOOSTS = {3.0, 2.0, 1.0};
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final CampaignsRepository campaignsRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile IndexState state = new IndexState();
+    private volatile boolean ready;
+    // Campaigns changed while a rebuild was loading; re-applied once the rebuilt index is in place
+    private volatile Set<Long> changedDuringRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        try {
+            rebuildIndex();
+        } catch (Exception e) {
+            log.error("Failed to build program search index, searches fall back to the database", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCampaignChanged(CampaignChangedEvent event) {
+        try {
+            reindexCampaign(event.getCampaignId());
+        } catch (Exception e) {
+            log.error("Failed to update search index for campaign ID: {}", event.getCampaignId(), e);
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public Page<Long> search(String searchText, Long categoryId, Long subCategoryId, Pageable pageable) {
+        List<String> queryTokens = tokenize(searchText);
+        if (queryTokens.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (int i = 0; i < queryTokens.size(); i++) {
+                boolean prefix = i == queryTokens.size() - 1;
+                Map<Long, Double> tokenScores = scoreToken(queryTokens.get(i), prefix, categoryId, subCategoryId);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                        entry.setValue(entry.getValue() + tokenScores.get(entry.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return Page.empty(pageable);
+                }
+            }
+
+            Map<Long, Double> finalScores = scores;
+            List<Long> ranked = new ArrayList<>(finalScores.keySet());
+            ranked.sort(Comparator.<Long>comparingDouble(finalScores::get).reversed()
+                    .thenComparing(id -> state.documents.get(id).created, Comparator.reverseOrder()));
+
+            int from = (int) Math.min(pageable.getOffset(), ranked.size());
+            int to = Math.min(from + pageable.getPageSize(), ranked.size());
+            return new PageImpl<>(new ArrayList<>(ranked.subList(from, to)), pageable, ranked.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void reindexCampaign(Long campaignId) {
+        Set<Long> pending = changedDuringRebuild;
+        if (pending != null) {
+            pending.add(campaignId);
+        }
+        List<Object[]> rows = campaignsRepository.findSearchDocumentById(campaignId);
+        Document document = rows.isEmpty() ? null : toDocument(rows.get(0));
+        lock.writeLock().lock();
+        try {
+            state.remove(campaignId);
+            if (document != null) {
+                state.add(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int rebuildIndex() {
+        // A second rebuild waits; running both would replace the set of changed campaigns of the first
+        rebuildLock.lock();
+        try {
+            changedDuringRebuild = ConcurrentHashMap.newKeySet();
+            int campaigns;
+            try {
+                IndexState rebuilt = new IndexState();
+                for (Object[] row : campaignsRepository.findSearchDocuments()) {
+                    rebuilt.add(toDocument(row));
+                }
+                campaigns = rebuilt.documents.size();
+                lock.writeLock().lock();
+                try {
+                    state = rebuilt;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                ready = true;
+            } finally {
+                Set<Long> pending = changedDuringRebuild;
+                changedDuringRebuild = null;
+                pending.forEach(this::reindexCampaign);
+            }
+            log.info("Program search index built with {} campaigns", campaigns);
+            return campaigns;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private Map<Long, Double> scoreToken(String token, boolean prefix, Long categoryId, Long subCategoryId) {
+        Map<String, Map<Long, int[]>> matchingTerms = prefix
+                ? state.postings.subMap(token, true, token + Character.MAX_VALUE, false)
+                : state.postings.containsKey(token) ? Map.of(token, state.postings.get(token)) : Collections.emptyMap();
+
+        Map<Long, Double> scores = new HashMap<>();
+        int documentCount = state.documents.size();
+        for (Map<Long, int[]> posting : matchingTerms.values()) {
+            double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+            for (Map.Entry<Long, int[]> entry : posting.entrySet()) {
+                Document document = state.documents.get(entry.getKey());
+                if ((categoryId != null && !categoryId.equals(document.categoryId))
+                        || (subCategoryId != null && !subCategoryId.equals(document.subCategoryId))) {
+                    continue;
+                }
+                double score = idf * fieldWeightedFrequency(entry.getValue(), document);
+                // Prefix expansions of one token count once, with the best matching term
+                scores.merge(entry.getKey(), score, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private double fieldWeightedFrequency(int[] termFrequencies, Document document) {
+        double total = 0;
+        for (int field = 0; field < FIELD_BOOSTS.length; field++) {
+            int tf = termFrequencies[field];
+            if (tf == 0) {
+                continue;
+            }
+            double averageLength = state.averageFieldLength(field);
+            double norm = 1 - B + B * (averageLength > 0 ? document.fieldLengths[field] / averageLength : 1);
+            total += FIELD_BOOSTS[field] * tf * (K1 + 1) / (tf + K1 * norm);
+        }
+        return total;
+    }
+
+    private Document toDocument(Object[] row) {
+        Document document = new Document();
+        document.id = (Long) row[0];
+        document.subCategoryId = (Long) row[4];
+        document.categoryId = (Long) row[5];
+        document.created = row[6] != null ? ((Date) row[6]).getTime() : 0L;
+        String[] fields = new String[FIELD_BOOSTS.length];
+        fields[TITLE] = (String) row[1];
+        fields[PROGRAM_NAME] = (String) row[2];
+        fields[DESCRIPTION] = (String) row[3];
+        for (int field = 0; field < fields.length; field++) {
+            List<String> tokens = tokenize(fields[field]);
+            document.fieldLengths[field] = tokens.size();
+            for (String token : tokens) {
+                document.termFrequencies.computeIfAbsent(token, t -> new int[FIELD_BOOSTS.length])[field]++;
+            }
+        }
+        return document;
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase())) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static class Document {
+        private Long id;
+        private Long categoryId;
+        private Long subCategoryId;
+        private long created;
+        private final int[] fieldLengths = new int[FIELD_BOOSTS.length];
+        private final Map<String, int[]> termFrequencies = new HashMap<>();
+    }
+
+    private static class IndexState {
+        private final Map<Long, Document> documents = new HashMap<>();
+        private final NavigableMap<String, Map<Long, int[]>> postings = new TreeMap<>();
+        private final long[] totalFieldLengths = new long[FIELD_BOOSTS.length];
+
+        private void add(Document document) {
+            documents.put(document.id, document);
+            for (int field = 0; field < totalFieldLengths.length; field++) {
+                totalFieldLengths[field] += document.fieldLengths[field];
+            }
+            document.termFrequencies.forEach((term, frequencies) ->
+                    postings.computeIfAbsent(term, t -> new HashMap<>()).put(document.id, frequencies));
+        }
+
+        private void remove(Long documentId) {
+            Document document = documents.remove(documentId);
+            if (document == null) {
+                return;
+            }
+            for (int field = 0; field < totalFieldLengths.length; field++) {
+                totalFieldLengths[field] -= document.fieldLengths[field];
+            }
+            for (String term : document.termFrequencies.keySet()) {
+                Map<Long, int[]> posting = postings.get(term);
+                if (posting != null) {
+                    posting.remove(documentId);
+                    if (posting.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+
+        private double averageFieldLength(int field) {
+            return documents.isEmpty() ? 0 : (double) totalFieldLengths[field] / documents.size();
+        }
+    }
+}
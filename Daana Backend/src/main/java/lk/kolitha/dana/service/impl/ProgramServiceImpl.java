@@ -1,37 +1,59 @@
 package lk.kolitha.dana.service.impl;
 
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jakarta.annotation.PostConstruct;
 import jakarta.transaction.Transactional;
+import lk.kolitha.dana.config.RefreshAheadCacheFactory;
 import lk.kolitha.dana.constants.ApplicationConstants;
+import lk.kolitha.dana.constants.ApplicationConstants.CacheConstants;
 import lk.kolitha.dana.dto.program.*;
 import lk.kolitha.dana.dto.CharityDto;
+import lk.kolitha.dana.dto.CursorPage;
 import lk.kolitha.dana.dto.category.SubCategoryDto;
 import lk.kolitha.dana.dto.category.CategoryDto;
 import lk.kolitha.dana.entity.Campaigns;
 import lk.kolitha.dana.entity.Charity;
 import lk.kolitha.dana.entity.SubCategory;
 import lk.kolitha.dana.entity.Category;
+import lk.kolitha.dana.enums.CampaignChangeType;
+import lk.kolitha.dana.enums.ImageOwnerType;
 import lk.kolitha.dana.enums.Status;
+import lk.kolitha.dana.event.CampaignChangedEvent;
+import lk.kolitha.dana.event.ImageUploadedEvent;
 import lk.kolitha.dana.exception.CustomServiceException;
+import lk.kolitha.dana.repository.CampaignDailyStatsRepository;
+import lk.kolitha.dana.repository.CharityDailyStatsRepository;
 import lk.kolitha.dana.repository.CharityRepository;
 import lk.kolitha.dana.repository.CampaignsRepository;
-import lk.kolitha.dana.repository.DonationRepository;
 import lk.kolitha.dana.repository.SubCategoryRepository;
+import lk.kolitha.dana.service.CampaignCounterService;
+import lk.kolitha.dana.service.ProgramSearchService;
 import lk.kolitha.dana.service.ProgramService;
-import lk.kolitha.dana.util.AwsFileHandler;
+import lk.kolitha.dana.service.StoredBlobService;
+import lk.kolitha.dana.util.CursorCodec;
+import lk.kolitha.dana.util.ParallelFileUploader;
+import lk.kolitha.dana.util.QueryFanOut;
+import lk.kolitha.dana.util.ParallelFileUploader.FileUpload;
 import lk.kolitha.dana.util.UrlGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -40,68 +62,185 @@ import java.util.stream.Collectors;
 public class ProgramServiceImpl implements ProgramService {
     
     private final CampaignsRepository campaignsRepository;
-    private final AwsFileHandler awsFileHandler;
     // private final CategoryRepository categoryRepository; // Unused in current implementation
     private final CharityRepository charityRepository;
     private final SubCategoryRepository subCategoryRepository;
-    private final DonationRepository donationRepository;
     private final ModelMapper modelMapper;
+    private final CampaignCounterService campaignCounterService;
+    private final CharityDailyStatsRepository charityDailyStatsRepository;
+    private final CampaignDailyStatsRepository campaignDailyStatsRepository;
+    private final RefreshAheadCacheFactory cacheFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProgramSearchService programSearchService;
+    private final ParallelFileUploader parallelFileUploader;
+    private final StoredBlobService storedBlobService;
+    private final QueryFanOut queryFanOut;
+    
+    private LoadingCache<String, List<BasicProgramCardDataResDto>> trendingProgramsCache;
+    private LoadingCache<String, List<BasicProgramCardDataResDto>> latestProgramsCache;
+
+    @Value("${daana.pagination.max-cursor-page-size:100}")
+    private int maxCursorPageSize;
+
+    @PostConstruct
+    void initCaches() {
+        trendingProgramsCache = cacheFactory.build(CacheConstants.TRENDING_PROGRAMS, key -> loadTrendingPrograms());
+        latestProgramsCache = cacheFactory.build(CacheConstants.LATEST_PROGRAMS, key -> loadLatestPrograms());
+    }
+
+    /**
+     * Load the homepage lists once on startup so the first visitors are not served by a cold cache
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpCaches() {
+        try {
+            trendingProgramsCache.get(CacheConstants.SINGLE_ENTRY_KEY);
+            latestProgramsCache.get(CacheConstants.SINGLE_ENTRY_KEY);
+        } catch (Exception e) {
+            log.warn("Failed to warm up program caches: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Give campaigns saved without a creation time one, so they have a stable position in cursor pages
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissingCreated() {
+        try {
+            int updated = campaignsRepository.backfillMissingCreated();
+            if (updated > 0) {
+                log.info("Backfilled creation time of {} campaigns", updated);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to backfill campaign creation times: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reload the cached homepage lists after a campaign write is committed. Readers keep getting the
+     * previous lists until the reload finishes.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCampaignChanged(CampaignChangedEvent event) {
+        log.debug("Refreshing program caches after {}", event);
+        trendingProgramsCache.refresh(CacheConstants.SINGLE_ENTRY_KEY);
+        latestProgramsCache.refresh(CacheConstants.SINGLE_ENTRY_KEY);
+    }
 
 
     @Override
     public List<BasicProgramCardDataResDto> getTrendingPrograms() {
+        return trendingProgramsCache.get(CacheConstants.SINGLE_ENTRY_KEY);
+    }
+    
+    private List<BasicProgramCardDataResDto> loadTrendingPrograms() {
         log.info("Fetching trending programs");
         Pageable pageable = PageRequest.of(0, 10);
-        List<Campaigns> campaigns = campaignsRepository.findTrendingProgramsWithSubCategory(pageable);
+        List<BasicProgramCardDataResDto> cards = new ArrayList<>(campaignsRepository.findTrendingProgramCards(pageable));
         
-        return campaigns.stream()
-                .map(this::convertToBasicProgramCardDataResDto)
-                .collect(Collectors.toList());
+        // Fill up with the latest programs while too few campaigns received donations recently
+        if (cards.size() < pageable.getPageSize()) {
+            java.util.Set<Long> trendingIds = cards.stream().map(BasicProgramCardDataResDto::getProgramId).collect(Collectors.toSet());
+            campaignsRepository.findLatestProgramCards(pageable).stream()
+                    .filter(card -> !trendingIds.contains(card.getProgramId()))
+                    .limit(pageable.getPageSize() - cards.size())
+                    .forEach(cards::add);
+        }
+        
+        applyPendingRaised(cards);
+        return List.copyOf(cards);
     }
     
     @Override
     public List<BasicProgramCardDataResDto> getLatestPrograms() {
+        return latestProgramsCache.get(CacheConstants.SINGLE_ENTRY_KEY);
+    }
+    
+    private List<BasicProgramCardDataResDto> loadLatestPrograms() {
         log.info("Fetching latest programs");
         Pageable pageable = PageRequest.of(0, 10);
-        List<Campaigns> campaigns = campaignsRepository.findLatestProgramsWithSubCategory(pageable);
-        
-        return campaigns.stream()
-                .map(this::convertToBasicProgramCardDataResDto)
-                .collect(Collectors.toList());
+        List<BasicProgramCardDataResDto> cards = new ArrayList<>(campaignsRepository.findLatestProgramCards(pageable));
+        applyPendingRaised(cards);
+        return List.copyOf(cards);
     }
     
-    /**
-     * Convert Program entity to BasicProgramCardDataResDto
-     * @param campaigns Program entity
-     * @return BasicProgramCardDataResDto
-     */
-    private BasicProgramCardDataResDto convertToBasicProgramCardDataResDto(Campaigns campaigns) {
-        BasicProgramCardDataResDto dto = new BasicProgramCardDataResDto();
-        dto.setProgramId(campaigns.getId());
-        dto.setProgramName(campaigns.getProgramName());
-        dto.setProgramTitle(campaigns.getTitle());
-        dto.setProgramDescription(campaigns.getDescription());
-        dto.setLocation(campaigns.getProgramLocation());
-        dto.setProgramImageUrl(campaigns.getProgramImage());
-        dto.setTargetDonationAmount(campaigns.getTargetDonationAmount());
-        dto.setRaised(campaigns.getRaised());
-        dto.setUrlSlug(campaigns.getUrlName());
-        
-        // Set subcategory name if available
-        if (campaigns.getSubCategory() != null) {
-            dto.setSubCategoryName(campaigns.getSubCategory().getName());
-        }
-        
-        return dto;
-    }
-
     @Override
     public Page<BasicProgramCardDataResDto> filterPrograms(Long categoryId,
                                         Long subCategoryId,
                                         String searchText,
                                         Pageable pageable) {
         log.info("Fetching filtered programs for categoryId: {}, subCategoryId: {}, searchText: {}", categoryId, subCategoryId, searchText);
-        return campaignsRepository.filterProgram(categoryId, subCategoryId, searchText, pageable);
+        if (searchText != null && !searchText.isBlank() && programSearchService.isReady()) {
+            return searchPrograms(categoryId, subCategoryId, searchText, pageable);
+        }
+        Page<BasicProgramCardDataResDto> programs = campaignsRepository.filterProgram(categoryId, subCategoryId, searchText, pageable);
+        applyPendingRaised(programs.getContent());
+        return programs;
+    }
+
+    @Override
+    public CursorPage<BasicProgramCardDataResDto> filterProgramsByCursor(Long categoryId,
+                                                                         Long subCategoryId,
+                                                                         String searchText,
+                                                                         String cursor,
+                                                                         int size,
+                                                                         boolean includeTotal) {
+        log.info("Fetching filtered programs by cursor for categoryId: {}, subCategoryId: {}, searchText: {}", categoryId, subCategoryId, searchText);
+        CursorCodec.Cursor after = CursorCodec.decode(cursor);
+        int pageSize = Math.max(1, Math.min(size, maxCursorPageSize));
+        // One extra row tells whether another page exists without counting
+        List<BasicProgramCardDataResDto> rows = campaignsRepository.filterProgramAfter(categoryId, subCategoryId, searchText,
+                after != null ? after.created() : null, after != null ? after.id() : null, PageRequest.of(0, pageSize + 1));
+        boolean hasNext = rows.size() > pageSize;
+        List<BasicProgramCardDataResDto> cards = hasNext ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        applyPendingRaised(cards);
+
+        String nextCursor = null;
+        if (hasNext) {
+            BasicProgramCardDataResDto last = cards.get(cards.size() - 1);
+            nextCursor = CursorCodec.encode(last.getCreated(), last.getProgramId());
+        }
+        Long total = includeTotal ? campaignsRepository.countFilteredPrograms(categoryId, subCategoryId, searchText) : null;
+        return new CursorPage<>(cards, nextCursor, hasNext, total);
+    }
+
+    /**
+     * Text search through the in-memory index; card data of the ranked page is loaded with one query
+     */
+    private Page<BasicProgramCardDataResDto> searchPrograms(Long categoryId, Long subCategoryId, String searchText, Pageable pageable) {
+        Page<Long> rankedIds = programSearchService.search(searchText, categoryId, subCategoryId, pageable);
+        if (rankedIds.isEmpty()) {
+            return new PageImpl<>(new ArrayList<>(), pageable, rankedIds.getTotalElements());
+        }
+        Map<Long, BasicProgramCardDataResDto> cardsById = campaignsRepository.findCardsByIds(rankedIds.getContent()).stream()
+                .collect(Collectors.toMap(BasicProgramCardDataResDto::getProgramId, card -> card));
+        List<BasicProgramCardDataResDto> cards = rankedIds.getContent().stream()
+                .map(cardsById::get)
+                .filter(java.util.Objects::nonNull)
+                .collect(Collectors.toList());
+        applyPendingRaised(cards);
+        return new PageImpl<>(cards, pageable, rankedIds.getTotalElements());
+    }
+
+    /**
+     * Add the not yet folded shard amounts to the raised value of the given cards
+     * @param cards program cards carrying the folded raised value
+     */
+    private void applyPendingRaised(List<BasicProgramCardDataResDto> cards) {
+        if (cards.isEmpty()) {
+            return;
+        }
+        Map<Long, BigDecimal> pending = campaignCounterService.getPendingAmounts(
+                cards.stream().map(BasicProgramCardDataResDto::getProgramId).collect(Collectors.toList()));
+        if (pending.isEmpty()) {
+            return;
+        }
+        for (BasicProgramCardDataResDto card : cards) {
+            BigDecimal delta = pending.get(card.getProgramId());
+            if (delta != null) {
+                card.setRaised(card.getRaised() != null ? card.getRaised().add(delta) : delta);
+            }
+        }
     }
 
 
@@ -140,11 +279,13 @@ public class ProgramServiceImpl implements ProgramService {
         campaigns.setStartDate(step1Dto.getStartDate());
         campaigns.setEndDate(step1Dto.getEndDate());
         campaigns.setContactPersonName(step1Dto.getContactPersonName());
+        campaigns.setCreated(new java.util.Date());
 
         String url = UrlGenerator.generate(step1Dto.getProgramName(), 25);
         campaigns.setUrlName(url);
 
         Campaigns savedCampaigns = campaignsRepository.save(campaigns);
+        eventPublisher.publishEvent(new CampaignChangedEvent(savedCampaigns.getId(), CampaignChangeType.CREATED));
         log.info("Program step 1 completed successfully. Program ID: {}", savedCampaigns.getId());
         
         return modelMapper.map(savedCampaigns, AdminFullProgramDto.class);
@@ -160,13 +301,16 @@ public class ProgramServiceImpl implements ProgramService {
                 .orElseThrow(() -> new CustomServiceException("Program not found with id: " + step2Dto.getProgramId() + " for charity: " + charityId));
 
         // Handle file uploads
-        handleFileUploadsForStep2(campaign, step2Dto);
+        uploadCampaignMedia(campaign, campaign.getProgramName(), step2Dto.getProgramImage(), step2Dto.getProgramVideo(),
+                step2Dto.getRelatedDocument1(), step2Dto.getRelatedDocument2(), step2Dto.getRelatedDocument3());
         
         // Update status to PENDING for admin review
         campaign.setStatus(Status.PENDING);
         campaign.setUpdated(new java.util.Date());
         
         Campaigns savedCampaign = campaignsRepository.save(campaign);
+        eventPublisher.publishEvent(new CampaignChangedEvent(savedCampaign.getId(), CampaignChangeType.UPDATED));
+        publishImageUploaded(savedCampaign, step2Dto.getProgramImage());
         log.info("Program step 2 completed successfully. Program ID: {}", savedCampaign.getId());
         
         return modelMapper.map(savedCampaign, AdminFullProgramDto.class);
@@ -194,92 +338,17 @@ public class ProgramServiceImpl implements ProgramService {
         campaigns.setTitle(requestDto.getTitle());
         campaigns.setStartDate(requestDto.getStartDate());
         campaigns.setEndDate(requestDto.getEndDate());
+        campaigns.setCreated(new java.util.Date());
 
         String url = UrlGenerator.generate(requestDto.getProgramName(),25 );
         campaigns.setUrlName(url);
 
-        // Handle program image upload
-        if (requestDto.getProgramImage() != null && !requestDto.getProgramImage().isEmpty()) {
-            String logoFileName = requestDto.getProgramName() + "_cover_" + System.currentTimeMillis();
-            Optional<String> logoFileUrl = awsFileHandler.uploadToS3Bucket(
-                    requestDto.getProgramImage(),
-                    logoFileName,
-                    ApplicationConstants.S3FolderConstants.LOGO_IMAGES
-            );
-
-            if (logoFileUrl.isPresent()) {
-                campaigns.setProgramImage(logoFileUrl.get());
-            } else {
-                log.warn("Failed to cover image upload logo to S3 for program ID: {}", campaigns.getId());
-            }
-        }
-
-        // Handle program video upload
-        if (requestDto.getProgramVideo() != null && !requestDto.getProgramVideo().isEmpty()) {
-            String videoFileName = requestDto.getProgramName() + "_video_" + System.currentTimeMillis();
-
-            Optional<String> videoUrl = awsFileHandler.uploadToS3Bucket(
-                    requestDto.getProgramVideo(),
-                    videoFileName,
-                    ApplicationConstants.S3FolderConstants.PROGRAM_VIDEO
-            );
-
-            if (videoUrl.isPresent()) {
-                campaigns.setProgramVideo(videoUrl.get());
-            } else {
-                log.warn("Failed to upload video to S3 for program ID: {}, continuing without video", campaigns.getId());
-            }
-        }
-
-        // Handle related document 1 upload
-        if (requestDto.getRelatedDocument1() != null && !requestDto.getRelatedDocument1().isEmpty()) {
-            String document1FileName = requestDto.getProgramName() + "_document1_" + System.currentTimeMillis();
-            Optional<String> document1Url = awsFileHandler.uploadToS3Bucket(
-                    requestDto.getRelatedDocument1(),
-                    document1FileName,
-                    ApplicationConstants.S3FolderConstants.PROGRAM_DOCUMENTS
-            );
-
-            if (document1Url.isPresent()) {
-                campaigns.setRelatedDocument1(document1Url.get());
-            } else {
-                log.warn("Failed to upload related document 1 to S3 for program ID: {}", campaigns.getId());
-            }
-        }
-
-        // Handle related document 2 upload
-        if (requestDto.getRelatedDocument2() != null && !requestDto.getRelatedDocument2().isEmpty()) {
-            String document2FileName = requestDto.getProgramName() + "_document2_" + System.currentTimeMillis();
-            Optional<String> document2Url = awsFileHandler.uploadToS3Bucket(
-                    requestDto.getRelatedDocument2(),
-                    document2FileName,
-                    ApplicationConstants.S3FolderConstants.PROGRAM_DOCUMENTS
-            );
-
-            if (document2Url.isPresent()) {
-                campaigns.setRelatedDocument2(document2Url.get());
-            } else {
-                log.warn("Failed to upload related document 2 to S3 for program ID: {}", campaigns.getId());
-            }
-        }
-
-        // Handle related document 3 upload
-        if (requestDto.getRelatedDocument3() != null && !requestDto.getRelatedDocument3().isEmpty()) {
-            String document3FileName = requestDto.getProgramName() + "_document3_" + System.currentTimeMillis();
-            Optional<String> document3Url = awsFileHandler.uploadToS3Bucket(
-                    requestDto.getRelatedDocument3(),
-                    document3FileName,
-                    ApplicationConstants.S3FolderConstants.PROGRAM_DOCUMENTS
-            );
-
-            if (document3Url.isPresent()) {
-                campaigns.setRelatedDocument3(document3Url.get());
-            } else {
-                log.warn("Failed to upload related document 3 to S3 for program ID: {}", campaigns.getId());
-            }
-        }
+        uploadCampaignMedia(campaigns, requestDto.getProgramName(), requestDto.getProgramImage(), requestDto.getProgramVideo(),
+                requestDto.getRelatedDocument1(), requestDto.getRelatedDocument2(), requestDto.getRelatedDocument3());
 
         Campaigns savedCampaigns = campaignsRepository.save(campaigns);
+        eventPublisher.publishEvent(new CampaignChangedEvent(savedCampaigns.getId(), CampaignChangeType.CREATED));
+        publishImageUploaded(savedCampaigns, requestDto.getProgramImage());
         return modelMapper.map(savedCampaigns, AdminFullProgramDto.class);
     }
 
@@ -301,8 +370,10 @@ public class ProgramServiceImpl implements ProgramService {
         dto.setContactPersonName(campaigns.getContactPersonName());
         dto.setProgramLocation(campaigns.getProgramLocation());
         dto.setTargetDonationAmount(campaigns.getTargetDonationAmount());
-        dto.setRaised(campaigns.getRaised());
+        dto.setRaised(campaignCounterService.getCurrentRaised(campaigns.getId(), campaigns.getRaised()));
         dto.setProgramImage(campaigns.getProgramImage());
+        dto.setProgramImageCardUrl(campaigns.getProgramImageCardUrl());
+        dto.setProgramImageDetailUrl(campaigns.getProgramImageDetailUrl());
         dto.setProgramVideo(campaigns.getProgramVideo());
         dto.setStartDate(campaigns.getStartDate());
         dto.setEndDate(campaigns.getEndDate());
@@ -380,8 +451,17 @@ public class ProgramServiceImpl implements ProgramService {
                 .orElseThrow(() -> new CustomServiceException("Charity not found with id: " + charityId));
         
         Page<Campaigns> programs = campaignsRepository.findByCharityIdAndDeletedFalse(charityId, pageable);
-        
-        return programs.map(this::convertToCharityProgramTableDto);
+        Map<Long, BigDecimal> pendingRaised = campaignCounterService.getPendingAmounts(
+                programs.getContent().stream().map(Campaigns::getId).collect(Collectors.toList()));
+        
+        return programs.map(campaigns -> {
+            CharityProgramTableDto dto = convertToCharityProgramTableDto(campaigns);
+            BigDecimal delta = pendingRaised.get(campaigns.getId());
+            if (delta != null) {
+                dto.setRaised(dto.getRaised() != null ? dto.getRaised().add(delta) : delta);
+            }
+            return dto;
+        });
     }
 
     @Override
@@ -447,6 +527,7 @@ public class ProgramServiceImpl implements ProgramService {
         campaign.setUpdated(new java.util.Date());
         
         Campaigns savedCampaign = campaignsRepository.save(campaign);
+        eventPublisher.publishEvent(new CampaignChangedEvent(campaignId, CampaignChangeType.UPDATED));
         log.info("Campaign update step 1 completed successfully. Campaign ID: {}", campaignId);
         
         return modelMapper.map(savedCampaign, AdminFullProgramDto.class);
@@ -462,13 +543,16 @@ public class ProgramServiceImpl implements ProgramService {
                 .orElseThrow(() -> new CustomServiceException("Campaign not found with id: " + campaignId + " for charity: " + charityId));
         
         // Handle file uploads
-        handleFileUploadsForUpdateStep2(campaign, step2Dto);
+        uploadCampaignMedia(campaign, campaign.getProgramName(), step2Dto.getProgramImage(), step2Dto.getProgramVideo(),
+                step2Dto.getRelatedDocument1(), step2Dto.getRelatedDocument2(), step2Dto.getRelatedDocument3());
         
         // Set status to PENDING when campaign is updated
         campaign.setStatus(Status.PENDING);
         campaign.setUpdated(new java.util.Date());
         
         Campaigns savedCampaign = campaignsRepository.save(campaign);
+        eventPublisher.publishEvent(new CampaignChangedEvent(campaignId, CampaignChangeType.UPDATED));
+        publishImageUploaded(savedCampaign, step2Dto.getProgramImage());
         log.info("Campaign update step 2 completed successfully. Campaign ID: {}", campaignId);
         
         return modelMapper.map(savedCampaign, AdminFullProgramDto.class);
@@ -517,13 +601,16 @@ public class ProgramServiceImpl implements ProgramService {
         }
         
         // Handle file uploads
-        handleFileUploads(campaign, updateRequest);
+        uploadCampaignMedia(campaign, campaign.getProgramName(), updateRequest.getProgramImage(), updateRequest.getProgramVideo(),
+                updateRequest.getRelatedDocument1(), updateRequest.getRelatedDocument2(), updateRequest.getRelatedDocument3());
         
         // Set status to PENDING when campaign is updated
         campaign.setStatus(Status.PENDING);
         campaign.setUpdated(new java.util.Date());
         
         Campaigns savedCampaign = campaignsRepository.save(campaign);
+        eventPublisher.publishEvent(new CampaignChangedEvent(campaignId, CampaignChangeType.UPDATED));
+        publishImageUploaded(savedCampaign, updateRequest.getProgramImage());
         log.info("Campaign updated successfully. Status changed to PENDING for campaign ID: {}", campaignId);
         
         return modelMapper.map(savedCampaign, AdminFullProgramDto.class);
@@ -549,256 +636,49 @@ public class ProgramServiceImpl implements ProgramService {
         campaign.setDeleted(true);
         campaign.setUpdated(new java.util.Date());
         campaignsRepository.save(campaign);
+        eventPublisher.publishEvent(new CampaignChangedEvent(campaignId, CampaignChangeType.DELETED));
         
         log.info("Campaign deleted successfully (soft delete) for campaign ID: {}", campaignId);
     }
 
     /**
-     * Handle file uploads for program registration step 2
+     * Upload the cover image, video and related documents of a campaign concurrently and set the urls of
+     * the files that were uploaded. Absent files leave the current value untouched.
      */
-    private void handleFileUploadsForStep2(Campaigns campaign, ProgramRegisterStep2Dto step2Dto) {
-        // Handle program image upload
-        if (step2Dto.getProgramImage() != null && !step2Dto.getProgramImage().isEmpty()) {
-            String logoFileName = campaign.getProgramName() + "_cover_" + System.currentTimeMillis();
-            Optional<String> logoFileUrl = awsFileHandler.uploadToS3Bucket(
-                    step2Dto.getProgramImage(),
-                    logoFileName,
-                    ApplicationConstants.S3FolderConstants.LOGO_IMAGES
-            );
-
-            if (logoFileUrl.isPresent()) {
-                campaign.setProgramImage(logoFileUrl.get());
-            } else {
-                log.warn("Failed to upload program image to S3 for program ID: {}", campaign.getId());
-            }
-        }
-
-        // Handle program video upload
-        if (step2Dto.getProgramVideo() != null && !step2Dto.getProgramVideo().isEmpty()) {
-            String videoFileName = campaign.getProgramName() + "_video_" + System.currentTimeMillis();
-            Optional<String> videoUrl = awsFileHandler.uploadToS3Bucket(
-                    step2Dto.getProgramVideo(),
-                    videoFileName,
-                    ApplicationConstants.S3FolderConstants.PROGRAM_VIDEO
-            );
-
-            if (videoUrl.isPresent()) {
-                campaign.setProgramVideo(videoUrl.get());
-            } else {
-                log.warn("Failed to upload video to S3 for program ID: {}", campaign.getId());
-            }
-        }
-
-        // Handle related document uploads
-        if (step2Dto.getRelatedDocument1() != null && !step2Dto.getRelatedDocument1().isEmpty()) {
-            String document1FileName = campaign.getProgramName() + "_document1_" + System.currentTimeMillis();
-            Optional<String> document1Url = awsFileHandler.uploadToS3Bucket(
-                    step2Dto.getRelatedDocument1(),
-                    document1FileName,
-                    ApplicationConstants.S3FolderConstants.PROGRAM_DOCUMENTS
-            );
-
-            if (document1Url.isPresent()) {
-                campaign.setRelatedDocument1(document1Url.get());
-            } else {
-                log.warn("Failed to upload related document 1 to S3 for program ID: {}", campaign.getId());
-            }
-        }
-
-        if (step2Dto.getRelatedDocument2() != null && !step2Dto.getRelatedDocument2().isEmpty()) {
-            String document2FileName = campaign.getProgramName() + "_document2_" + System.currentTimeMillis();
-            Optional<String> document2Url = awsFileHandler.uploadToS3Bucket(
-                    step2Dto.getRelatedDocument2(),
-                    document2FileName,
-                    ApplicationConstants.S3FolderConstants.PROGRAM_DOCUMENTS
-            );
-
-            if (document2Url.isPresent()) {
-                campaign.setRelatedDocument2(document2Url.get());
-            } else {
-                log.warn("Failed to upload related document 2 to S3 for program ID: {}", campaign.getId());
-            }
-        }
-
-        if (step2Dto.getRelatedDocument3() != null && !step2Dto.getRelatedDocument3().isEmpty()) {
-            String document3FileName = campaign.getProgramName() + "_document3_" + System.currentTimeMillis();
-            Optional<String> document3Url = awsFileHandler.uploadToS3Bucket(
-                    step2Dto.getRelatedDocument3(),
-                    document3FileName,
-                    ApplicationConstants.S3FolderConstants.PROGRAM_DOCUMENTS
-            );
-
-            if (document3Url.isPresent()) {
-                campaign.setRelatedDocument3(document3Url.get());
-            } else {
-                log.warn("Failed to upload related document 3 to S3 for program ID: {}", campaign.getId());
-            }
-        }
-    }
-
-    /**
-     * Handle file uploads for campaign update step 2
-     */
-    private void handleFileUploadsForUpdateStep2(Campaigns campaign, CampaignUpdateStep2Dto step2Dto) {
-        // Handle program image upload
-        if (step2Dto.getProgramImage() != null && !step2Dto.getProgramImage().isEmpty()) {
-            String logoFileName = campaign.getProgramName() + "_cover_" + System.currentTimeMillis();
-            Optional<String> logoFileUrl = awsFileHandler.uploadToS3Bucket(
-                    step2Dto.getProgramImage(),
-                    logoFileName,
-                    ApplicationConstants.S3FolderConstants.LOGO_IMAGES
-            );
-
-            if (logoFileUrl.isPresent()) {
-                campaign.setProgramImage(logoFileUrl.get());
-            } else {
-                log.warn("Failed to upload program image to S3 for campaign ID: {}", campaign.getId());
-            }
-        }
-
-        // Handle program video upload
-        if (step2Dto.getProgramVideo() != null && !step2Dto.getProgramVideo().isEmpty()) {
-            String videoFileName = campaign.getProgramName() + "_video_" + System.currentTimeMillis();
-            Optional<String> videoUrl = awsFileHandler.uploadToS3Bucket(
-                    step2Dto.getProgramVideo(),
-                    videoFileName,
-                    ApplicationConstants.S3FolderConstants.PROGRAM_VIDEO
-            );
-
-            if (videoUrl.isPresent()) {
-                campaign.setProgramVideo(videoUrl.get());
-            } else {
-                log.warn("Failed to upload video to S3 for campaign ID: {}", campaign.getId());
-            }
-        }
-
-        // Handle related document uploads
-        if (step2Dto.getRelatedDocument1() != null && !step2Dto.getRelatedDocument1().isEmpty()) {
-            String document1FileName = campaign.getProgramName() + "_document1_" + System.currentTimeMillis();
-            Optional<String> document1Url = awsFileHandler.uploadToS3Bucket(
-                    step2Dto.getRelatedDocument1(),
-                    document1FileName,
-                    ApplicationConstants.S3FolderConstants.PROGRAM_DOCUMENTS
-            );
-
-            if (document1Url.isPresent()) {
-                campaign.setRelatedDocument1(document1Url.get());
-            } else {
-                log.warn("Failed to upload related document 1 to S3 for campaign ID: {}", campaign.getId());
-            }
-        }
-
-        if (step2Dto.getRelatedDocument2() != null && !step2Dto.getRelatedDocument2().isEmpty()) {
-            String document2FileName = campaign.getProgramName() + "_document2_" + System.currentTimeMillis();
-            Optional<String> document2Url = awsFileHandler.uploadToS3Bucket(
-                    step2Dto.getRelatedDocument2(),
-                    document2FileName,
-                    ApplicationConstants.S3FolderConstants.PROGRAM_DOCUMENTS
-            );
-
-            if (document2Url.isPresent()) {
-                campaign.setRelatedDocument2(document2Url.get());
-            } else {
-                log.warn("Failed to upload related document 2 to S3 for campaign ID: {}", campaign.getId());
-            }
-        }
-
-        if (step2Dto.getRelatedDocument3() != null && !step2Dto.getRelatedDocument3().isEmpty()) {
-            String document3FileName = campaign.getProgramName() + "_document3_" + System.currentTimeMillis();
-            Optional<String> document3Url = awsFileHandler.uploadToS3Bucket(
-                    step2Dto.getRelatedDocument3(),
-                    document3FileName,
-                    ApplicationConstants.S3FolderConstants.PROGRAM_DOCUMENTS
-            );
-
-            if (document3Url.isPresent()) {
-                campaign.setRelatedDocument3(document3Url.get());
-            } else {
-                log.warn("Failed to upload related document 3 to S3 for campaign ID: {}", campaign.getId());
-            }
-        }
+    private void uploadCampaignMedia(Campaigns campaign, String fileNamePrefix, MultipartFile programImage, MultipartFile programVideo,
+                                     MultipartFile relatedDocument1, MultipartFile relatedDocument2, MultipartFile relatedDocument3) {
+        long timestamp = System.currentTimeMillis();
+        String campaignRef = " for campaign ID: " + campaign.getId();
+        parallelFileUploader.uploadAll(List.of(
+                new FileUpload(programImage, fileNamePrefix + "_cover_" + timestamp,
+                        ApplicationConstants.S3FolderConstants.LOGO_IMAGES, url -> {
+                            campaign.setProgramImage(url);
+                            // Variants of the previous image no longer apply
+                            campaign.setProgramImageCardUrl(null);
+                            campaign.setProgramImageDetailUrl(null);
+                        }, "program image" + campaignRef),
+                new FileUpload(programVideo, fileNamePrefix + "_video_" + timestamp,
+                        ApplicationConstants.S3FolderConstants.PROGRAM_VIDEO, campaign::setProgramVideo, "video" + campaignRef),
+                // Documents are often the same certificates across campaigns, so they are stored once by content
+                FileUpload.contentAddressed(relatedDocument1, url -> {
+                    storedBlobService.release(campaign.getRelatedDocument1());
+                    campaign.setRelatedDocument1(url);
+                }, "related document 1" + campaignRef),
+                FileUpload.contentAddressed(relatedDocument2, url -> {
+                    storedBlobService.release(campaign.getRelatedDocument2());
+                    campaign.setRelatedDocument2(url);
+                }, "related document 2" + campaignRef),
+                FileUpload.contentAddressed(relatedDocument3, url -> {
+                    storedBlobService.release(campaign.getRelatedDocument3());
+                    campaign.setRelatedDocument3(url);
+                }, "related document 3" + campaignRef)
+        ));
     }
 
-    /**
-     * Handle file uploads for campaign update
-     */
-    private void handleFileUploads(Campaigns campaign, CampaignUpdateRequestDto updateRequest) {
-        // Handle program image upload
-        if (updateRequest.getProgramImage() != null && !updateRequest.getProgramImage().isEmpty()) {
-            String logoFileName = campaign.getProgramName() + "_cover_" + System.currentTimeMillis();
-            Optional<String> logoFileUrl = awsFileHandler.uploadToS3Bucket(
-                    updateRequest.getProgramImage(),
-                    logoFileName,
-                    ApplicationConstants.S3FolderConstants.LOGO_IMAGES
-            );
-
-            if (logoFileUrl.isPresent()) {
-                campaign.setProgramImage(logoFileUrl.get());
-            } else {
-                log.warn("Failed to upload program image to S3 for campaign ID: {}", campaign.getId());
-            }
-        }
-
-        // Handle program video upload
-        if (updateRequest.getProgramVideo() != null && !updateRequest.getProgramVideo().isEmpty()) {
-            String videoFileName = campaign.getProgramName() + "_video_" + System.currentTimeMillis();
-            Optional<String> videoUrl = awsFileHandler.uploadToS3Bucket(
-                    updateRequest.getProgramVideo(),
-                    videoFileName,
-                    ApplicationConstants.S3FolderConstants.PROGRAM_VIDEO
-            );
-
-            if (videoUrl.isPresent()) {
-                campaign.setProgramVideo(videoUrl.get());
-            } else {
-                log.warn("Failed to upload video to S3 for campaign ID: {}", campaign.getId());
-            }
-        }
-
-        // Handle related document uploads
-        if (updateRequest.getRelatedDocument1() != null && !updateRequest.getRelatedDocument1().isEmpty()) {
-            String document1FileName = campaign.getProgramName() + "_document1_" + System.currentTimeMillis();
-            Optional<String> document1Url = awsFileHandler.uploadToS3Bucket(
-                    updateRequest.getRelatedDocument1(),
-                    document1FileName,
-                    ApplicationConstants.S3FolderConstants.PROGRAM_DOCUMENTS
-            );
-
-            if (document1Url.isPresent()) {
-                campaign.setRelatedDocument1(document1Url.get());
-            } else {
-                log.warn("Failed to upload related document 1 to S3 for campaign ID: {}", campaign.getId());
-            }
-        }
-
-        if (updateRequest.getRelatedDocument2() != null && !updateRequest.getRelatedDocument2().isEmpty()) {
-            String document2FileName = campaign.getProgramName() + "_document2_" + System.currentTimeMillis();
-            Optional<String> document2Url = awsFileHandler.uploadToS3Bucket(
-                    updateRequest.getRelatedDocument2(),
-                    document2FileName,
-                    ApplicationConstants.S3FolderConstants.PROGRAM_DOCUMENTS
-            );
-
-            if (document2Url.isPresent()) {
-                campaign.setRelatedDocument2(document2Url.get());
-            } else {
-                log.warn("Failed to upload related document 2 to S3 for campaign ID: {}", campaign.getId());
-            }
-        }
-
-        if (updateRequest.getRelatedDocument3() != null && !updateRequest.getRelatedDocument3().isEmpty()) {
-            String document3FileName = campaign.getProgramName() + "_document3_" + System.currentTimeMillis();
-            Optional<String> document3Url = awsFileHandler.uploadToS3Bucket(
-                    updateRequest.getRelatedDocument3(),
-                    document3FileName,
-                    ApplicationConstants.S3FolderConstants.PROGRAM_DOCUMENTS
-            );
-
-            if (document3Url.isPresent()) {
-                campaign.setRelatedDocument3(document3Url.get());
-            } else {
-                log.warn("Failed to upload related document 3 to S3 for campaign ID: {}", campaign.getId());
-            }
+    // Resized copies of a new cover image are generated after commit
+    private void publishImageUploaded(Campaigns campaign, MultipartFile programImage) {
+        if (programImage != null && !programImage.isEmpty()) {
+            eventPublisher.publishEvent(new ImageUploadedEvent(ImageOwnerType.CAMPAIGN, campaign.getId()));
         }
     }
 
@@ -806,37 +686,50 @@ public class ProgramServiceImpl implements ProgramService {
     public CharityDashboardStatsDto getCharityDashboardStats(Long charityId) {
         log.info("Getting dashboard statistics for charity ID: {}", charityId);
         
-        try {
-            // Verify charity exists
-            charityRepository.findById(charityId)
-                    .orElseThrow(() -> new CustomServiceException("Charity not found with id: " + charityId));
-            
-            CharityDashboardStatsDto stats = new CharityDashboardStatsDto();
-            
-            // Get program statistics
-            List<Campaigns> allPrograms = campaignsRepository.findByCharityIdAndDeletedFalse(charityId, Pageable.unpaged()).getContent();
-            
-            // Count programs by status
-            long totalPrograms = allPrograms.size();
-            long activePrograms = allPrograms.stream().filter(p -> p.getStatus() == Status.ACTIVE).count();
-            long pendingPrograms = allPrograms.stream().filter(p -> p.getStatus() == Status.PENDING).count();
-            long draftPrograms = allPrograms.stream().filter(p -> p.getStatus() == Status.DRAFT).count();
-            long rejectedPrograms = allPrograms.stream().filter(p -> p.getStatus() == Status.INACTIVE).count();
+        // Verify charity exists before any dashboard query is started
+        if (!charityRepository.existsById(charityId)) {
+            throw new CustomServiceException("Charity not found with id: " + charityId);
+        }
+        
+        // Independent reads run concurrently; a section that fails is reported instead of failing the dashboard.
+        // Every part is submitted before any is awaited: reads that need a part's programs run inside that part.
+        java.time.YearMonth currentMonth = java.time.YearMonth.now(java.time.ZoneOffset.UTC);
+        java.time.LocalDate fromDate = currentMonth.minusMonths(5).atDay(1);
+        QueryFanOut.Batch batch = queryFanOut.begin("dashboard of charity ID: " + charityId);
+        QueryFanOut.Part<List<Object[]>> statusCounts = batch.submit("programs", () -> campaignsRepository.countByStatusForCharity(charityId));
+        QueryFanOut.Part<List<Object[]>> donationTotals = batch.submit("donations", () -> charityDailyStatsRepository.sumTotalsByCharityId(charityId));
+        QueryFanOut.Part<BigDecimal> targetAmount = batch.submit("targetAmount", () -> campaignsRepository.sumTargetAmountByCharityId(charityId));
+        QueryFanOut.Part<List<CharityDashboardStatsDto.RecentProgramDto>> recent = batch.submit("recentPrograms", () -> loadRecentPrograms(charityId));
+        QueryFanOut.Part<List<CharityDashboardStatsDto.TopPerformingProgramDto>> top = batch.submit("topPrograms", () -> loadTopPerformingPrograms(charityId));
+        QueryFanOut.Part<List<Object[]>> monthlyDonations = batch.submit("monthlyDonations", () -> charityDailyStatsRepository.sumMonthlyByCharityId(charityId, fromDate));
+        QueryFanOut.Part<List<Object[]>> monthlyPrograms = batch.submit("monthlyPrograms", () -> campaignsRepository.countCreatedPerMonthByCharityId(charityId,
+                java.util.Date.from(fromDate.atStartOfDay(java.time.ZoneOffset.UTC).toInstant())));
+        
+        CharityDashboardStatsDto stats = new CharityDashboardStatsDto();
+        
+        // Get program statistics, counted by status in the database
+        List<Object[]> statusRows = statusCounts.orElse(null);
+        if (statusRows != null) {
+            Map<Status, Long> programsByStatus = new java.util.EnumMap<>(Status.class);
+            for (Object[] row : statusRows) {
+                if (row[0] != null) {
+                    programsByStatus.put((Status) row[0], (Long) row[1]);
+                }
+            }
             
+            long totalPrograms = programsByStatus.values().stream().mapToLong(Long::longValue).sum();
             stats.setTotalPrograms(totalPrograms);
-            stats.setActivePrograms(activePrograms);
-            stats.setPendingPrograms(pendingPrograms);
-            stats.setDraftPrograms(draftPrograms);
-            stats.setRejectedPrograms(rejectedPrograms);
-            
-            // Calculate donation statistics using real donation data
-            BigDecimal totalRaised = donationRepository.getTotalDonationAmountByCharityId(charityId);
-            long totalDonations = donationRepository.countDonationsByCharityId(charityId);
-            
-            BigDecimal totalTargetAmount = allPrograms.stream()
-                    .map(Campaigns::getTargetDonationAmount)
-                    .filter(amount -> amount != null)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            stats.setActivePrograms(programsByStatus.getOrDefault(Status.ACTIVE, 0L));
+            stats.setPendingPrograms(programsByStatus.getOrDefault(Status.PENDING, 0L));
+            stats.setDraftPrograms(programsByStatus.getOrDefault(Status.DRAFT, 0L));
+            stats.setRejectedPrograms(programsByStatus.getOrDefault(Status.INACTIVE, 0L));
+        }
+        
+        // Donation statistics from the daily rollups
+        List<Object[]> donationRows = donationTotals.orElse(null);
+        if (donationRows != null) {
+            long totalDonations = ((Number) donationRows.get(0)[0]).longValue();
+            BigDecimal totalRaised = (BigDecimal) donationRows.get(0)[1];
             
             // Calculate average donation amount
             BigDecimal averageDonationAmount = totalDonations > 0 ? 
@@ -844,67 +737,78 @@ public class ProgramServiceImpl implements ProgramService {
                     BigDecimal.ZERO;
             
             stats.setTotalRaised(totalRaised);
-            stats.setTotalTargetAmount(totalTargetAmount);
             stats.setTotalDonations(totalDonations);
             stats.setAverageDonationAmount(averageDonationAmount);
-            
-            // Get recent programs (last 5)
-            List<CharityDashboardStatsDto.RecentProgramDto> recentPrograms = allPrograms.stream()
-                    .filter(p -> p.getCreated() != null)
-                    .sorted((p1, p2) -> p2.getCreated().compareTo(p1.getCreated()))
-                    .limit(5)
-                    .map(this::convertToRecentProgramDto)
-                    .collect(Collectors.toList());
-            
-            stats.setRecentPrograms(recentPrograms);
-            
-            // Get top performing programs (by completion percentage)
-            List<CharityDashboardStatsDto.TopPerformingProgramDto> topPerformingPrograms = allPrograms.stream()
-                    .filter(p -> p.getTargetDonationAmount() != null && p.getTargetDonationAmount().compareTo(BigDecimal.ZERO) > 0)
-                    .map(this::convertToTopPerformingProgramDto)
-                    .sorted((p1, p2) -> p2.getCompletionPercentage().compareTo(p1.getCompletionPercentage()))
-                    .limit(5)
-                    .collect(Collectors.toList());
-            
-            stats.setTopPerformingPrograms(topPerformingPrograms);
-            
-            // Get monthly statistics (last 6 months)
-            List<CharityDashboardStatsDto.MonthlyStatsDto> monthlyStats = getMonthlyStats(allPrograms, charityId);
-            stats.setMonthlyStats(monthlyStats);
+        }
+        stats.setTotalTargetAmount(targetAmount.orElse(null));
         
-            log.info("Dashboard statistics calculated successfully for charity ID: {}", charityId);
-            return stats;
-        } catch (Exception e) {
-            log.error("Error calculating dashboard statistics for charity ID: {}", charityId, e);
-            throw new CustomServiceException("Failed to calculate dashboard statistics: " + e.getMessage());
+        // Recent programs (last 5) and top performing programs (by completion percentage)
+        stats.setRecentPrograms(recent.orElse(List.of()));
+        stats.setTopPerformingPrograms(top.orElse(List.of()));
+        
+        // Get monthly statistics (last 6 months)
+        List<Object[]> monthlyDonationRows = monthlyDonations.orElse(null);
+        List<Object[]> monthlyProgramRows = monthlyPrograms.orElse(null);
+        if (monthlyDonationRows != null && monthlyProgramRows != null) {
+            stats.setMonthlyStats(getMonthlyStats(currentMonth, monthlyDonationRows, monthlyProgramRows));
         }
+        stats.setUnavailableSections(batch.unavailable());
+        
+        log.info("Dashboard statistics calculated for charity ID: {}, unavailable sections: {}", charityId, stats.getUnavailableSections());
+        return stats;
+    }
+    
+    private List<CharityDashboardStatsDto.RecentProgramDto> loadRecentPrograms(Long charityId) {
+        List<Campaigns> campaigns = campaignsRepository.findRecentByCharityId(charityId, PageRequest.of(0, 5));
+        Map<Long, BigDecimal> pendingRaised = campaignCounterService.getPendingAmounts(
+                campaigns.stream().map(Campaigns::getId).collect(Collectors.toList()));
+        return campaigns.stream()
+                .map(p -> convertToRecentProgramDto(p, pendingRaised.get(p.getId())))
+                .collect(Collectors.toList());
+    }
+    
+    private List<CharityDashboardStatsDto.TopPerformingProgramDto> loadTopPerformingPrograms(Long charityId) {
+        List<Campaigns> campaigns = campaignsRepository.findTopPerformingByCharityId(charityId, PageRequest.of(0, 5));
+        if (campaigns.isEmpty()) {
+            return List.of();
+        }
+        List<Long> campaignIds = campaigns.stream().map(Campaigns::getId).collect(Collectors.toList());
+        Map<Long, BigDecimal> pendingRaised = campaignCounterService.getPendingAmounts(campaignIds);
+        Map<Long, Long> donationCounts = new java.util.HashMap<>();
+        for (Object[] row : campaignDailyStatsRepository.sumDonationCountByCampaignIds(campaignIds)) {
+            donationCounts.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        return campaigns.stream()
+                .map(p -> convertToTopPerformingProgramDto(p, pendingRaised.get(p.getId()), donationCounts.getOrDefault(p.getId(), 0L)))
+                .sorted((p1, p2) -> p2.getCompletionPercentage().compareTo(p1.getCompletionPercentage()))
+                .collect(Collectors.toList());
     }
     
-    private CharityDashboardStatsDto.RecentProgramDto convertToRecentProgramDto(Campaigns campaign) {
+    private CharityDashboardStatsDto.RecentProgramDto convertToRecentProgramDto(Campaigns campaign, BigDecimal pendingRaised) {
         CharityDashboardStatsDto.RecentProgramDto dto = new CharityDashboardStatsDto.RecentProgramDto();
         dto.setId(campaign.getId());
         dto.setProgramName(campaign.getProgramName());
         dto.setTitle(campaign.getTitle());
         dto.setStatus(campaign.getStatus() != null ? campaign.getStatus().toString() : "UNKNOWN");
-        dto.setRaised(campaign.getRaised());
+        dto.setRaised(addPending(campaign.getRaised(), pendingRaised));
         dto.setTargetAmount(campaign.getTargetDonationAmount());
         dto.setCreatedDate(campaign.getCreated() != null ? campaign.getCreated().toString() : "N/A");
         return dto;
     }
     
-    private CharityDashboardStatsDto.TopPerformingProgramDto convertToTopPerformingProgramDto(Campaigns campaign) {
+    private CharityDashboardStatsDto.TopPerformingProgramDto convertToTopPerformingProgramDto(Campaigns campaign, BigDecimal pendingRaised, long donationCount) {
         CharityDashboardStatsDto.TopPerformingProgramDto dto = new CharityDashboardStatsDto.TopPerformingProgramDto();
+        BigDecimal raised = addPending(campaign.getRaised(), pendingRaised);
         dto.setId(campaign.getId());
         dto.setProgramName(campaign.getProgramName());
         dto.setTitle(campaign.getTitle());
-        dto.setRaised(campaign.getRaised() != null ? campaign.getRaised() : BigDecimal.ZERO);
+        dto.setRaised(raised);
         dto.setTargetAmount(campaign.getTargetDonationAmount());
         
         // Calculate completion percentage
         if (campaign.getTargetDonationAmount() != null && 
-            campaign.getTargetDonationAmount().compareTo(BigDecimal.ZERO) > 0 &&
-            campaign.getRaised() != null) {
-            BigDecimal completionPercentage = campaign.getRaised()
+            campaign.getTargetDonationAmount().compareTo(BigDecimal.ZERO) > 0) {
+            BigDecimal completionPercentage = raised
                     .divide(campaign.getTargetDonationAmount(), 4, java.math.RoundingMode.HALF_UP)
                     .multiply(BigDecimal.valueOf(100));
             dto.setCompletionPercentage(completionPercentage);
@@ -912,64 +816,39 @@ public class ProgramServiceImpl implements ProgramService {
             dto.setCompletionPercentage(BigDecimal.ZERO);
         }
         
-        dto.setDonationCount(donationRepository.countDonationsByCampaignId(campaign.getId()));
+        dto.setDonationCount(donationCount);
         return dto;
     }
     
-    private List<CharityDashboardStatsDto.MonthlyStatsDto> getMonthlyStats(List<Campaigns> programs, Long charityId) {
-        // Group programs by month for the last 6 months
-        Map<String, List<Campaigns>> programsByMonth = programs.stream()
-                .filter(p -> p.getCreated() != null)
-                .collect(Collectors.groupingBy(p -> {
-                    java.util.Calendar cal = java.util.Calendar.getInstance();
-                    cal.setTime(p.getCreated());
-                    return cal.get(java.util.Calendar.YEAR) + "-" + 
-                           String.format("%02d", cal.get(java.util.Calendar.MONTH) + 1);
-                }));
-        
-        // Generate last 6 months
-        List<CharityDashboardStatsDto.MonthlyStatsDto> monthlyStats = new ArrayList<>();
-        java.util.Calendar cal = java.util.Calendar.getInstance();
+    private BigDecimal addPending(BigDecimal raised, BigDecimal pendingRaised) {
+        BigDecimal folded = raised != null ? raised : BigDecimal.ZERO;
+        return pendingRaised != null ? folded.add(pendingRaised) : folded;
+    }
+    
+    private List<CharityDashboardStatsDto.MonthlyStatsDto> getMonthlyStats(java.time.YearMonth currentMonth,
+                                                                     List<Object[]> monthlyDonationRows,
+                                                                     List<Object[]> monthlyProgramRows) {
+        // Last 6 months including the current one, in UTC like the rollup days, from one grouped read each
+        Map<java.time.YearMonth, Object[]> donationsByMonth = new java.util.HashMap<>();
+        for (Object[] row : monthlyDonationRows) {
+            donationsByMonth.put(java.time.YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue()), row);
+        }
+        Map<java.time.YearMonth, Long> programsByMonth = new java.util.HashMap<>();
+        for (Object[] row : monthlyProgramRows) {
+            programsByMonth.put(java.time.YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue()), (Long) row[2]);
+        }
         
+        List<CharityDashboardStatsDto.MonthlyStatsDto> monthlyStats = new ArrayList<>();
         for (int i = 5; i >= 0; i--) {
-            cal.setTime(new java.util.Date());
-            cal.add(java.util.Calendar.MONTH, -i);
-            
-            String monthKey = cal.get(java.util.Calendar.YEAR) + "-" + 
-                             String.format("%02d", cal.get(java.util.Calendar.MONTH) + 1);
-            
-            List<Campaigns> monthPrograms = programsByMonth.getOrDefault(monthKey, new ArrayList<>());
+            java.time.YearMonth month = currentMonth.minusMonths(i);
+            Object[] donations = donationsByMonth.get(month);
             
             CharityDashboardStatsDto.MonthlyStatsDto monthlyStat = new CharityDashboardStatsDto.MonthlyStatsDto();
-            monthlyStat.setMonth(String.format("%02d", cal.get(java.util.Calendar.MONTH) + 1));
-            monthlyStat.setYear(String.valueOf(cal.get(java.util.Calendar.YEAR)));
-            monthlyStat.setProgramsCreated((long) monthPrograms.size());
-            
-            // Calculate month start and end dates
-            java.util.Calendar monthStart = java.util.Calendar.getInstance();
-            monthStart.setTime(cal.getTime());
-            monthStart.set(java.util.Calendar.DAY_OF_MONTH, 1);
-            monthStart.set(java.util.Calendar.HOUR_OF_DAY, 0);
-            monthStart.set(java.util.Calendar.MINUTE, 0);
-            monthStart.set(java.util.Calendar.SECOND, 0);
-            monthStart.set(java.util.Calendar.MILLISECOND, 0);
-            
-            java.util.Calendar monthEnd = java.util.Calendar.getInstance();
-            monthEnd.setTime(cal.getTime());
-            monthEnd.set(java.util.Calendar.DAY_OF_MONTH, monthEnd.getActualMaximum(java.util.Calendar.DAY_OF_MONTH));
-            monthEnd.set(java.util.Calendar.HOUR_OF_DAY, 23);
-            monthEnd.set(java.util.Calendar.MINUTE, 59);
-            monthEnd.set(java.util.Calendar.SECOND, 59);
-            monthEnd.set(java.util.Calendar.MILLISECOND, 999);
-            
-            // Get real donation data for this month
-            BigDecimal monthRaised = donationRepository.getTotalDonationAmountByCharityIdAndDateRange(
-                    charityId, monthStart.getTime(), monthEnd.getTime());
-            Long monthDonations = donationRepository.countDonationsByCharityIdAndDateRange(
-                    charityId, monthStart.getTime(), monthEnd.getTime());
-            
-            monthlyStat.setAmountRaised(monthRaised);
-            monthlyStat.setDonationsReceived(monthDonations);
+            monthlyStat.setMonth(String.format("%02d", month.getMonthValue()));
+            monthlyStat.setYear(String.valueOf(month.getYear()));
+            monthlyStat.setProgramsCreated(programsByMonth.getOrDefault(month, 0L));
+            monthlyStat.setAmountRaised(donations != null ? (BigDecimal) donations[3] : BigDecimal.ZERO);
+            monthlyStat.setDonationsReceived(donations != null ? ((Number) donations[2]).longValue() : 0L);
             
             monthlyStats.add(monthlyStat);
         }
@@ -3,16 +3,23 @@ package lk.kolitha.dana.service.impl;
 import lk.kolitha.dana.dto.donor.DonorProfileResponseDto;
 import lk.kolitha.dana.dto.donor.DonorProfileUpdateDto;
 import lk.kolitha.dana.entity.RegisteredDonor;
+import lk.kolitha.dana.enums.ImageOwnerType;
+import lk.kolitha.dana.enums.PrincipalType;
+import lk.kolitha.dana.event.ImageUploadedEvent;
 import lk.kolitha.dana.exception.CustomServiceException;
+import lk.kolitha.dana.repository.DonorLifetimeStatsRepository;
 import lk.kolitha.dana.repository.RegisteredDonorRepository;
+import lk.kolitha.dana.service.DirectUploadService;
 import lk.kolitha.dana.service.RegisteredDonorService;
 import lk.kolitha.dana.util.AwsFileHandler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.math.BigDecimal;
 import java.util.Date;
 import java.util.UUID;
 
@@ -25,6 +32,9 @@ public class RegisteredDonorServiceImpl implements RegisteredDonorService {
     
     private final RegisteredDonorRepository registeredDonorRepository;
     private final AwsFileHandler awsFileHandler;
+    private final DonorLifetimeStatsRepository donorLifetimeStatsRepository;
+    private final DirectUploadService directUploadService;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Override
     public DonorProfileResponseDto getDonorProfile(Long donorId) {
@@ -103,8 +113,10 @@ public class RegisteredDonorServiceImpl implements RegisteredDonorService {
             
             // Update donor profile image URL
             donor.setProfileImageUrl(profileImageUrl);
+            donor.setProfileImageAvatarUrl(null);
             donor.setUpdated(new Date());
             registeredDonorRepository.save(donor);
+            eventPublisher.publishEvent(new ImageUploadedEvent(ImageOwnerType.DONOR, donorId));
             
             log.info("Profile picture updated successfully for donor ID: {}", donorId);
             return profileImageUrl;
@@ -115,6 +127,25 @@ public class RegisteredDonorServiceImpl implements RegisteredDonorService {
         }
     }
     
+    @Override
+    @Transactional
+    public String confirmProfilePicture(Long donorId, String objectKey) {
+        log.info("Confirming direct upload of profile picture for donor ID: {}", donorId);
+
+        RegisteredDonor donor = registeredDonorRepository.findById(donorId)
+                .orElseThrow(() -> new CustomServiceException("Donor not found with id: " + donorId));
+
+        String profileImageUrl = directUploadService.confirmUpload(PrincipalType.DONOR, donorId, PROFILE_IMAGES, objectKey);
+        donor.setProfileImageUrl(profileImageUrl);
+        donor.setProfileImageAvatarUrl(null);
+        donor.setUpdated(new Date());
+        registeredDonorRepository.save(donor);
+        eventPublisher.publishEvent(new ImageUploadedEvent(ImageOwnerType.DONOR, donorId));
+
+        log.info("Profile picture updated successfully for donor ID: {}", donorId);
+        return profileImageUrl;
+    }
+
     private DonorProfileResponseDto convertToProfileResponseDto(RegisteredDonor donor) {
         DonorProfileResponseDto dto = new DonorProfileResponseDto();
         
@@ -124,6 +155,7 @@ public class RegisteredDonorServiceImpl implements RegisteredDonorService {
         dto.setEmail(donor.getEmail());
         dto.setGender(donor.getGender());
         dto.setProfileImageUrl(donor.getProfileImageUrl());
+        dto.setProfileImageAvatarUrl(donor.getProfileImageAvatarUrl());
         dto.setPhoneNumber(donor.getPhoneNumber());
         dto.setBillingAddress(donor.getBillingAddress());
         dto.setBillingVerify(donor.isBillingVerify());
@@ -137,6 +169,13 @@ public class RegisteredDonorServiceImpl implements RegisteredDonorService {
         dto.setFullName(fullName);
         dto.setDisplayName(fullName);
         
+        // Lifetime totals maintained by the donation event projector
+        donorLifetimeStatsRepository.findById(donor.getId()).ifPresentOrElse(stats -> {
+            dto.setTotalDonationCount(stats.getDonationCount());
+            dto.setTotalDonatedAmount(stats.getTotalAmount());
+            dto.setLastDonationDate(stats.getLastDonationAt());
+        }, () -> dto.setTotalDonatedAmount(BigDecimal.ZERO));
+        
         return dto;
     }
 }
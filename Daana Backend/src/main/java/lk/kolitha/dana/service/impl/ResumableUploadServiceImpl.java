@@ -0,0 +1,376 @@
+package lk.kolitha.dana.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import lk.kolitha.dana.constants.ApplicationConstants;
+import lk.kolitha.dana.dto.upload.UploadSessionCreateDto;
+import lk.kolitha.dana.dto.upload.UploadSessionDto;
+import lk.kolitha.dana.entity.Campaigns;
+import lk.kolitha.dana.entity.UploadSession;
+import lk.kolitha.dana.enums.CampaignChangeType;
+import lk.kolitha.dana.enums.Status;
+import lk.kolitha.dana.enums.UploadSessionStatus;
+import lk.kolitha.dana.event.CampaignChangedEvent;
+import lk.kolitha.dana.exception.CustomServiceException;
+import lk.kolitha.dana.repository.CampaignsRepository;
+import lk.kolitha.dana.repository.UploadSessionRepository;
+import lk.kolitha.dana.service.ResumableUploadService;
+import lk.kolitha.dana.util.AwsFileHandler;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.io.FilenameUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Resumable chunked uploads of campaign videos.
+ *
+ * <p>Each chunk is appended to a staging file at the offset the session has recorded, and the offset only
+ * moves forward after the chunk was written, synced and, when the client sent one, its checksum matched. A
+ * client that lost its connection asks for the offset and continues from there; bytes of a chunk that did not
+ * complete are cut off before the next write. Staging files live on the local disk of the instance that
+ * created the session, so chunk requests of one session must reach the same instance.</p>
+ */
+@Service
+@Log4j2
+public class ResumableUploadServiceImpl implements ResumableUploadService {
+
+    private static final Set<String> VIDEO_CONTENT_TYPES = Set.of("video/mp4", "video/quicktime", "video/webm");
+    private static final int DIGEST_BUFFER_SIZE = 64 * 1024;
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final CampaignsRepository campaignsRepository;
+    private final AwsFileHandler awsFileHandler;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    // One writer per session; a second request for the same session is rejected instead of queued
+    private final Map<String, ReentrantLock> sessionLocks = new ConcurrentHashMap<>();
+
+    @Value("${daana.upload.resumable.staging-dir:${java.io.tmpdir}/daana-uploads}")
+    private String stagingDirectory;
+
+    @Value("${daana.upload.resumable.max-chunk-bytes:16777216}")
+    private long maxChunkBytes;
+
+    @Value("${daana.upload.resumable.max-total-bytes:2147483648}")
+    private long maxTotalBytes;
+
+    @Value("${daana.upload.resumable.session-ttl-ms:86400000}")
+    private long sessionTtlMs;
+
+    @Value("${daana.upload.resumable.sweep-batch-size:100}")
+    private int sweepBatchSize;
+
+    private Path stagingDir;
+
+    public ResumableUploadServiceImpl(UploadSessionRepository uploadSessionRepository,
+                                      CampaignsRepository campaignsRepository,
+                                      AwsFileHandler awsFileHandler,
+                                      ApplicationEventPublisher eventPublisher,
+                                      PlatformTransactionManager transactionManager) {
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.campaignsRepository = campaignsRepository;
+        this.awsFileHandler = awsFileHandler;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void initStagingDir() throws IOException {
+        stagingDir = Paths.get(stagingDirectory).toAbsolutePath().normalize();
+        Files.createDirectories(stagingDir);
+        log.info("Resumable upload staging directory: {}", stagingDir);
+    }
+
+    @Override
+    public UploadSessionDto createVideoSession(Long charityId, Long campaignId, UploadSessionCreateDto createDto) {
+        campaignsRepository.findByIdAndCharityIdAndDeletedFalse(campaignId, charityId)
+                .orElseThrow(() -> new CustomServiceException(404, "Campaign not found with id: " + campaignId));
+        if (!VIDEO_CONTENT_TYPES.contains(createDto.getContentType())) {
+            throw new CustomServiceException(400, "Unsupported video type: " + createDto.getContentType());
+        }
+        if (createDto.getTotalSize() <= 0 || createDto.getTotalSize() > maxTotalBytes) {
+            throw new CustomServiceException(400, "Video size must be between 1 and " + maxTotalBytes + " bytes");
+        }
+
+        Date now = new Date();
+        UploadSession session = new UploadSession();
+        session.setId(UUID.randomUUID().toString());
+        session.setCharityId(charityId);
+        session.setCampaignId(campaignId);
+        session.setFileName(createDto.getFileName());
+        session.setContentType(createDto.getContentType());
+        session.setTotalSize(createDto.getTotalSize());
+        session.setReceivedBytes(0);
+        session.setStatus(UploadSessionStatus.OPEN);
+        session.setCreated(now);
+        session.setUpdated(now);
+        session.setExpiresAt(new Date(now.getTime() + sessionTtlMs));
+        try {
+            Files.createFile(stagingFile(session.getId()));
+        } catch (IOException e) {
+            log.error("Failed to create staging file for upload session: {}", e.getMessage());
+            throw new CustomServiceException(500, "Failed to start upload");
+        }
+        UploadSession saved = transactionTemplate.execute(status -> uploadSessionRepository.save(session));
+        log.info("Started upload session {} for video of campaign ID: {} ({} bytes)", saved.getId(), campaignId, saved.getTotalSize());
+        return toDto(saved);
+    }
+
+    @Override
+    public UploadSessionDto getSession(Long charityId, String uploadId) {
+        return toDto(findSession(charityId, uploadId));
+    }
+
+    @Override
+    public UploadSessionDto appendChunk(Long charityId, String uploadId, long offset, long length, String chunkSha256, InputStream content) {
+        checkChunk(findOpenSession(charityId, uploadId), offset, length);
+
+        ReentrantLock lock = sessionLocks.computeIfAbsent(uploadId, id -> new ReentrantLock());
+        if (!lock.tryLock()) {
+            throw new CustomServiceException(409, "Another chunk of this upload is in progress");
+        }
+        try {
+            // A chunk that completed between the first read and the lock has moved the offset; writing at the
+            // old one would cut off its bytes
+            UploadSession session = findOpenSession(charityId, uploadId);
+            checkChunk(session, offset, length);
+            writeChunk(session, offset, length, chunkSha256, content);
+            long receivedBytes = offset + length;
+            Integer advanced = transactionTemplate.execute(status ->
+                    uploadSessionRepository.advanceOffset(uploadId, offset, receivedBytes, new Date()));
+            if (advanced == null || advanced == 0) {
+                throw new CustomServiceException(409, "Upload session changed while the chunk was written");
+            }
+            session.setReceivedBytes(receivedBytes);
+            return toDto(session);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public UploadSessionDto finalizeUpload(Long charityId, String uploadId, String sha256) {
+        UploadSession session = findOpenSession(charityId, uploadId);
+        if (session.getReceivedBytes() != session.getTotalSize()) {
+            throw new CustomServiceException(409, "Upload is incomplete, received " + session.getReceivedBytes()
+                    + " of " + session.getTotalSize() + " bytes");
+        }
+        ReentrantLock lock = sessionLocks.computeIfAbsent(uploadId, id -> new ReentrantLock());
+        if (!lock.tryLock()) {
+            throw new CustomServiceException(409, "Another request for this upload is in progress");
+        }
+        try {
+            Path staging = stagingFile(uploadId);
+            if (sha256 != null && !sha256.isBlank() && !MessageDigest.isEqual(parseSha256(sha256), digestOf(staging))) {
+                throw new CustomServiceException(400, "Video checksum mismatch");
+            }
+            Integer claimed = transactionTemplate.execute(status -> uploadSessionRepository.updateStatus(
+                    uploadId, UploadSessionStatus.OPEN, UploadSessionStatus.FINALIZING, new Date()));
+            if (claimed == null || claimed == 0) {
+                throw new CustomServiceException(409, "Upload is already being finalized");
+            }
+
+            String fileUrl;
+            try {
+                String extension = FilenameUtils.getExtension(session.getFileName());
+                String objectKey = awsFileHandler.objectKeyFor(session.getCampaignId() + "_video_" + System.currentTimeMillis(),
+                        ApplicationConstants.S3FolderConstants.PROGRAM_VIDEO, extension.isEmpty() ? "mp4" : extension);
+                // Stored outside any transaction, large videos take a while
+                fileUrl = awsFileHandler.storeObject(objectKey, staging, session.getContentType());
+            } catch (Exception e) {
+                log.error("Failed to store video of upload session {}: {}", uploadId, e.getMessage());
+                transactionTemplate.execute(status -> uploadSessionRepository.updateStatus(
+                        uploadId, UploadSessionStatus.FINALIZING, UploadSessionStatus.OPEN, new Date()));
+                throw new CustomServiceException(500, "Failed to store video, finalize the upload again");
+            }
+
+            transactionTemplate.executeWithoutResult(status -> linkVideo(session, fileUrl));
+            deleteStagingFile(uploadId);
+            sessionLocks.remove(uploadId);
+            log.info("Finalized upload session {}, video of campaign ID: {} stored at {}", uploadId, session.getCampaignId(), fileUrl);
+            session.setStatus(UploadSessionStatus.COMPLETED);
+            session.setFileUrl(fileUrl);
+            return toDto(session);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${daana.upload.resumable.sweep-interval-ms:900000}")
+    public void sweepExpiredSessions() {
+        List<UploadSession> expired = uploadSessionRepository.findExpired(new Date(), PageRequest.of(0, sweepBatchSize));
+        for (UploadSession session : expired) {
+            ReentrantLock lock = sessionLocks.get(session.getId());
+            if (lock != null && lock.isLocked()) {
+                continue;
+            }
+            // Staging files are per instance, so every instance removes its own copy
+            deleteStagingFile(session.getId());
+            sessionLocks.remove(session.getId());
+            transactionTemplate.executeWithoutResult(status -> uploadSessionRepository.deleteById(session.getId()));
+        }
+        if (!expired.isEmpty()) {
+            log.info("Removed {} expired upload sessions", expired.size());
+        }
+    }
+
+    private void checkChunk(UploadSession session, long offset, long length) {
+        if (offset != session.getReceivedBytes()) {
+            throw new CustomServiceException(409, "Upload offset mismatch, expected " + session.getReceivedBytes());
+        }
+        if (length <= 0 || length > maxChunkBytes) {
+            throw new CustomServiceException(400, "Chunk size must be between 1 and " + maxChunkBytes + " bytes");
+        }
+        if (offset + length > session.getTotalSize()) {
+            throw new CustomServiceException(400, "Chunk exceeds the declared video size");
+        }
+    }
+
+    private void writeChunk(UploadSession session, long offset, long length, String chunkSha256, InputStream content) {
+        MessageDigest digest = chunkSha256 != null && !chunkSha256.isBlank() ? newSha256() : null;
+        byte[] expectedDigest = digest != null ? parseSha256(chunkSha256) : null;
+        InputStream in = digest != null ? new DigestInputStream(content, digest) : content;
+
+        try (FileChannel staging = FileChannel.open(stagingFile(session.getId()), StandardOpenOption.WRITE)) {
+            if (staging.size() < offset) {
+                throw new CustomServiceException(410, "Staged data of this upload is no longer available, start a new upload");
+            }
+            // Bytes past the offset are left over from a chunk that did not complete
+            staging.truncate(offset);
+            ReadableByteChannel source = Channels.newChannel(in);
+            long written = 0;
+            while (written < length) {
+                long transferred = staging.transferFrom(source, offset + written, length - written);
+                if (transferred <= 0) {
+                    break;
+                }
+                written += transferred;
+            }
+            if (written != length) {
+                staging.truncate(offset);
+                throw new CustomServiceException(400, "Chunk ended after " + written + " of " + length + " bytes");
+            }
+            if (digest != null && !MessageDigest.isEqual(expectedDigest, digest.digest())) {
+                staging.truncate(offset);
+                throw new CustomServiceException(400, "Chunk checksum mismatch");
+            }
+            staging.force(false);
+        } catch (IOException e) {
+            log.warn("Failed to write chunk of upload session {} at offset {}: {}", session.getId(), offset, e.getMessage());
+            throw new CustomServiceException(500, "Failed to write chunk, resume from the last offset");
+        }
+    }
+
+    private void linkVideo(UploadSession session, String fileUrl) {
+        Campaigns campaign = campaignsRepository.findByIdAndCharityIdAndDeletedFalse(session.getCampaignId(), session.getCharityId())
+                .orElseThrow(() -> new CustomServiceException(404, "Campaign not found with id: " + session.getCampaignId()));
+        campaign.setProgramVideo(fileUrl);
+        // A new video is reviewed like any other campaign update
+        campaign.setStatus(Status.PENDING);
+        campaign.setUpdated(new Date());
+        campaignsRepository.save(campaign);
+
+        UploadSession completed = uploadSessionRepository.findById(session.getId()).orElseThrow();
+        completed.setStatus(UploadSessionStatus.COMPLETED);
+        completed.setFileUrl(fileUrl);
+        completed.setUpdated(new Date());
+        uploadSessionRepository.save(completed);
+        eventPublisher.publishEvent(new CampaignChangedEvent(campaign.getId(), CampaignChangeType.UPDATED));
+    }
+
+    private UploadSession findSession(Long charityId, String uploadId) {
+        return uploadSessionRepository.findByIdAndCharityId(uploadId, charityId)
+                .orElseThrow(() -> new CustomServiceException(404, "Upload session not found"));
+    }
+
+    private UploadSession findOpenSession(Long charityId, String uploadId) {
+        UploadSession session = findSession(charityId, uploadId);
+        if (session.getStatus() != UploadSessionStatus.OPEN) {
+            throw new CustomServiceException(409, "Upload session is " + session.getStatus());
+        }
+        if (session.getExpiresAt().before(new Date())) {
+            throw new CustomServiceException(410, "Upload session expired, start a new upload");
+        }
+        return session;
+    }
+
+    private Path stagingFile(String uploadId) {
+        // Ids are generated UUIDs, but are checked before they become part of a path
+        return stagingDir.resolve(UUID.fromString(uploadId) + ".part");
+    }
+
+    private void deleteStagingFile(String uploadId) {
+        try {
+            Files.deleteIfExists(stagingFile(uploadId));
+        } catch (IOException e) {
+            log.warn("Failed to delete staging file of upload session {}: {}", uploadId, e.getMessage());
+        }
+    }
+
+    private static byte[] digestOf(Path file) {
+        MessageDigest digest = newSha256();
+        ByteBuffer buffer = ByteBuffer.allocate(DIGEST_BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) > 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        } catch (IOException e) {
+            throw new CustomServiceException(500, "Failed to read staged video");
+        }
+        return digest.digest();
+    }
+
+    private static byte[] parseSha256(String hex) {
+        try {
+            byte[] digest = HexFormat.of().parseHex(hex.trim());
+            if (digest.length == 32) {
+                return digest;
+            }
+        } catch (IllegalArgumentException ignored) {
+            // Reported below
+        }
+        throw new CustomServiceException(400, "Checksum must be a hex encoded SHA-256");
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private UploadSessionDto toDto(UploadSession session) {
+        return new UploadSessionDto(session.getId(), session.getCampaignId(), session.getReceivedBytes(), session.getTotalSize(),
+                maxChunkBytes, session.getStatus(), session.getFileUrl(), session.getExpiresAt());
+    }
+}
@@ -0,0 +1,74 @@
+package lk.kolitha.dana.service.impl;
+
+import lk.kolitha.dana.entity.StagedUpload;
+import lk.kolitha.dana.repository.StagedUploadRepository;
+import lk.kolitha.dana.service.StagedUploadService;
+import lk.kolitha.dana.util.AwsFileHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Log4j2
+public class StagedUploadServiceImpl implements StagedUploadService {
+
+    private final StagedUploadRepository stagedUploadRepository;
+    private final AwsFileHandler awsFileHandler;
+
+    @Value("${daana.upload.staged-max-age-ms:3600000}")
+    private long stagedMaxAgeMs;
+
+    @Value("${daana.upload.staged-sweep-batch-size:100}")
+    private int sweepBatchSize;
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public StagedUpload stage(String fileUrl, String reference) {
+        StagedUpload stagedUpload = new StagedUpload();
+        stagedUpload.setFileUrl(fileUrl);
+        stagedUpload.setReference(reference);
+        stagedUpload.setCreated(new Date());
+        return stagedUploadRepository.save(stagedUpload);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void claim(Long stagedUploadId) {
+        stagedUploadRepository.deleteById(stagedUploadId);
+    }
+
+    @Override
+    public void discard(StagedUpload stagedUpload) {
+        // Object first: if the delete fails the staging row stays and the sweeper retries
+        if (awsFileHandler.deleteFromS3Bucket(stagedUpload.getFileUrl())) {
+            stagedUploadRepository.deleteById(stagedUpload.getId());
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${daana.upload.staged-sweep-interval-ms:600000}")
+    public void sweepStaleUploads() {
+        Date cutoff = new Date(System.currentTimeMillis() - stagedMaxAgeMs);
+        List<StagedUpload> staleUploads = stagedUploadRepository.findStaleUploads(cutoff, PageRequest.of(0, sweepBatchSize));
+        if (staleUploads.isEmpty()) {
+            return;
+        }
+        log.info("Discarding {} unclaimed staged uploads", staleUploads.size());
+        for (StagedUpload stagedUpload : staleUploads) {
+            try {
+                discard(stagedUpload);
+            } catch (Exception e) {
+                log.error("Failed to discard staged upload ID: {}", stagedUpload.getId(), e);
+            }
+        }
+    }
+}
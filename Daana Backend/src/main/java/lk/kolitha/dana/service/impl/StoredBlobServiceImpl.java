@@ -0,0 +1,215 @@
+package lk.kolitha.dana.service.impl;
+
+import lk.kolitha.dana.constants.ApplicationConstants;
+import lk.kolitha.dana.entity.StoredBlob;
+import lk.kolitha.dana.repository.StoredBlobRepository;
+import lk.kolitha.dana.service.StoredBlobService;
+import lk.kolitha.dana.util.AwsFileHandler;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.io.FilenameUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Content addressed document storage with reference counting.
+ *
+ * <p>{@link #prepare} runs outside the caller's transaction, typically on an upload worker: it hashes the
+ * local upload and either touches the existing blob without sending anything to storage, or uploads the file
+ * once, straight to its content key, and inserts the blob row with no references. The reference is added by
+ * {@link #acquire} in the transaction that stores the url, so a rolled back request leaves an unreferenced
+ * blob for the collector instead of a count that never drops. Touching resets the grace period, which keeps
+ * the collector from deleting a blob between prepare and acquire.</p>
+ */
+@Service
+@Log4j2
+public class StoredBlobServiceImpl implements StoredBlobService {
+
+    private static final Pattern CONTENT_HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern FILE_EXTENSION = Pattern.compile("[a-z0-9]{1,10}");
+
+    private final StoredBlobRepository storedBlobRepository;
+    private final AwsFileHandler awsFileHandler;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${daana.blobs.unreferenced-grace-ms:86400000}")
+    private long unreferencedGraceMs;
+
+    @Value("${daana.blobs.gc-batch-size:50}")
+    private int gcBatchSize;
+
+    public StoredBlobServiceImpl(StoredBlobRepository storedBlobRepository,
+                                 AwsFileHandler awsFileHandler,
+                                 PlatformTransactionManager transactionManager) {
+        this.storedBlobRepository = storedBlobRepository;
+        this.awsFileHandler = awsFileHandler;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public Optional<String> prepare(MultipartFile file) {
+        try {
+            // The upload is already local (memory or a temp file), so known content is never sent to storage
+            String contentHash = sha256(file);
+            Optional<String> existing = touch(contentHash);
+            if (existing.isPresent()) {
+                log.info("Reusing stored blob {} for {}", contentHash, file.getOriginalFilename());
+                return existing;
+            }
+
+            String fileExtension = FilenameUtils.getExtension(file.getOriginalFilename()).toLowerCase();
+            String objectKey = awsFileHandler.objectKeyFor(contentHash.substring(0, 2) + "/" + contentHash,
+                    ApplicationConstants.S3FolderConstants.CONTENT_BLOBS,
+                    FILE_EXTENSION.matcher(fileExtension).matches() ? fileExtension : "bin");
+            String fileUrl = awsFileHandler.storeObject(objectKey, file);
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(contentHash, objectKey, fileUrl, file));
+                return Optional.of(fileUrl);
+            } catch (DataIntegrityViolationException e) {
+                // The same content was stored concurrently; use that blob and drop this copy if its key differs
+                Optional<String> winner = touch(contentHash);
+                if (winner.isPresent() && !winner.get().equals(fileUrl)) {
+                    awsFileHandler.deleteFromS3Bucket(fileUrl);
+                }
+                return winner;
+            }
+        } catch (IOException e) {
+            log.error("Failed to store blob for {}: {}", file.getOriginalFilename(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    @Transactional
+    public void acquire(String fileUrl) {
+        contentHashOf(fileUrl).ifPresent(contentHash -> {
+            if (storedBlobRepository.acquire(contentHash, new Date()) == 0) {
+                log.warn("Referenced blob {} does not exist", contentHash);
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    public void release(String fileUrl) {
+        contentHashOf(fileUrl).ifPresent(contentHash -> storedBlobRepository.release(contentHash, new Date()));
+    }
+
+    @Override
+    @Scheduled(cron = "${daana.blobs.gc-cron:0 15 4 * * *}")
+    public void collectUnreferencedBlobs() {
+        Date cutoff = new Date(System.currentTimeMillis() - unreferencedGraceMs);
+        int deleted = 0;
+        CollectedBatch batch;
+        do {
+            batch = transactionTemplate.execute(status -> collectBatch(cutoff));
+            deleted += batch.deleted();
+            // Stop on a short batch, or when nothing could be deleted so failing deletes are not retried in a loop
+        } while (batch.candidates() >= gcBatchSize && batch.deleted() > 0);
+        log.info("Collected {} unreferenced blobs", deleted);
+    }
+
+    /**
+     * Deletes one batch. The object is deleted while the row is still locked, so a concurrent prepare of the
+     * same content waits, fails to touch the deleted row and stores the content again instead of pointing at a
+     * deleted object.
+     */
+    private CollectedBatch collectBatch(Date cutoff) {
+        List<StoredBlob> candidates = storedBlobRepository.findUnreferencedForUpdate(cutoff, PageRequest.of(0, gcBatchSize));
+        int deleted = 0;
+        for (StoredBlob blob : candidates) {
+            // Counts are maintained by the services; the actual references are checked before deleting
+            long references = storedBlobRepository.countCampaignReferences(blob.getFileUrl())
+                    + storedBlobRepository.countProofDocumentReferences(blob.getFileUrl());
+            if (references > 0) {
+                log.warn("Blob {} has {} references but a count of {}, correcting", blob.getContentHash(), references, blob.getReferenceCount());
+                blob.setReferenceCount((int) references);
+                blob.setUpdated(new Date());
+                continue;
+            }
+            if (awsFileHandler.deleteFromS3Bucket(blob.getFileUrl())) {
+                storedBlobRepository.delete(blob);
+                deleted++;
+            }
+        }
+        return new CollectedBatch(candidates.size(), deleted);
+    }
+
+    /**
+     * Resets the grace period of the blob with this content.
+     * @return url of the blob, empty when there is none and the content has to be stored again
+     */
+    private Optional<String> touch(String contentHash) {
+        try {
+            return Optional.ofNullable(transactionTemplate.execute(status ->
+                    storedBlobRepository.findByContentHash(contentHash).map(blob -> {
+                        blob.setUpdated(new Date());
+                        // Flushed here so a row deleted by the collector since the read fails inside the template
+                        storedBlobRepository.saveAndFlush(blob);
+                        return blob.getFileUrl();
+                    }).orElse(null)));
+        } catch (OptimisticLockingFailureException e) {
+            log.info("Stored blob {} was collected while touching it, storing it again", contentHash);
+            return Optional.empty();
+        }
+    }
+
+    private void insert(String contentHash, String objectKey, String fileUrl, MultipartFile file) {
+        Date now = new Date();
+        StoredBlob blob = new StoredBlob();
+        blob.setContentHash(contentHash);
+        blob.setObjectKey(objectKey);
+        blob.setFileUrl(fileUrl);
+        blob.setSize(file.getSize());
+        blob.setContentType(file.getContentType());
+        blob.setReferenceCount(0);
+        blob.setCreated(now);
+        blob.setUpdated(now);
+        storedBlobRepository.saveAndFlush(blob);
+    }
+
+    private Optional<String> contentHashOf(String fileUrl) {
+        if (fileUrl == null || !fileUrl.contains(ApplicationConstants.S3FolderConstants.CONTENT_BLOBS)) {
+            return Optional.empty();
+        }
+        String baseName = FilenameUtils.getBaseName(fileUrl);
+        return CONTENT_HASH.matcher(baseName).matches() ? Optional.of(baseName) : Optional.empty();
+    }
+
+    private static String sha256(MultipartFile file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = file.getInputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private record CollectedBatch(int candidates, int deleted) {
+    }
+}
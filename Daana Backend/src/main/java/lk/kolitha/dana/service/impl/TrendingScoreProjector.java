@@ -0,0 +1,31 @@
+package lk.kolitha.dana.service.impl;
+
+import lk.kolitha.dana.entity.DonationEvent;
+import lk.kolitha.dana.service.DonationEventProjector;
+import lk.kolitha.dana.service.TrendingScoreService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Feeds donation events into the campaign trending scores.
+ */
+@Component
+@RequiredArgsConstructor
+public class TrendingScoreProjector implements DonationEventProjector {
+
+    public static final String NAME = "trending-scores";
+
+    private final TrendingScoreService trendingScoreService;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void project(List<DonationEvent> events) {
+        trendingScoreService.recordDonations(events);
+    }
+}
@@ -0,0 +1,142 @@
+package lk.kolitha.dana.service.impl;
+
+import lk.kolitha.dana.entity.CampaignTrendingScore;
+import lk.kolitha.dana.entity.DonationEvent;
+import lk.kolitha.dana.entity.ProjectorCheckpoint;
+import lk.kolitha.dana.enums.DonationEventType;
+import lk.kolitha.dana.repository.CampaignTrendingScoreRepository;
+import lk.kolitha.dana.repository.DonationEventDeliveryRepository;
+import lk.kolitha.dana.repository.DonationRepository;
+import lk.kolitha.dana.repository.ProjectorCheckpointRepository;
+import lk.kolitha.dana.service.TrendingScoreService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Forward-decay trending scores, see {@link CampaignTrendingScore}.
+ *
+ * <p>Each donation is folded into the stored log score with a log-add-exp, so a batch only touches the
+ * campaigns it contains and no past donation is read again.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Log4j2
+public class TrendingScoreServiceImpl implements TrendingScoreService {
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final CampaignTrendingScoreRepository trendingScoreRepository;
+    private final DonationRepository donationRepository;
+    private final DonationEventDeliveryRepository deliveryRepository;
+    private final ProjectorCheckpointRepository checkpointRepository;
+
+    @Value("${daana.trending.half-life-hours:72}")
+    private double halfLifeHours;
+
+    @Value("${daana.trending.landmark:2025-01-01T00:00:00Z}")
+    private String landmark;
+
+    @Value("${daana.trending.rebuild-window-days:30}")
+    private int rebuildWindowDays;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDonations(List<DonationEvent> events) {
+        List<DonationEvent> donations = events.stream()
+                .filter(event -> event.getEventType() == DonationEventType.DONATION_CREATED)
+                .collect(Collectors.toList());
+        if (donations.isEmpty()) {
+            return;
+        }
+        Map<Long, CampaignTrendingScore> scores = trendingScoreRepository.findAllById(
+                        donations.stream().map(DonationEvent::getCampaignId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(CampaignTrendingScore::getCampaignId, Function.identity()));
+
+        for (DonationEvent event : donations) {
+            addDonation(scores, event.getCampaignId(), event.getAmount(), event.getOccurredAt());
+        }
+        trendingScoreRepository.saveAll(scores.values());
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public int rebuildScores() {
+        // Holding the projector checkpoint keeps the poller from applying events while the scores are replaced
+        ProjectorCheckpoint checkpoint = checkpointRepository.lock(TrendingScoreProjector.NAME);
+        // Deliveries and donations are read from one snapshot, so the pending deliveries are exactly those of
+        // the donations read below; donations committed later keep theirs and reach the projector as usual
+        List<Long> pendingDeliveryIds = deliveryRepository.findPendingIds(TrendingScoreProjector.NAME);
+        Long maxDonationId = donationRepository.findMaxDonationId();
+        Date fromDate = new Date(System.currentTimeMillis() - rebuildWindowDays * 24L * 60 * 60 * 1000);
+
+        Map<Long, CampaignTrendingScore> scores = new HashMap<>();
+        long afterId = 0;
+        List<Object[]> page;
+        do {
+            page = donationRepository.findTrendingInputsAfter(afterId, maxDonationId, fromDate, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            for (Object[] row : page) {
+                addDonation(scores, (Long) row[1], (BigDecimal) row[2], (Date) row[3]);
+                afterId = (Long) row[0];
+            }
+        } while (page.size() == REBUILD_PAGE_SIZE);
+
+        trendingScoreRepository.deleteAllScores();
+        trendingScoreRepository.saveAll(scores.values());
+        for (int from = 0; from < pendingDeliveryIds.size(); from += REBUILD_PAGE_SIZE) {
+            deliveryRepository.deleteAllByIdInBatch(
+                    pendingDeliveryIds.subList(from, Math.min(from + REBUILD_PAGE_SIZE, pendingDeliveryIds.size())));
+        }
+        checkpoint.setUpdated(new Date());
+        checkpointRepository.save(checkpoint);
+        log.info("Rebuilt trending scores for {} campaigns from donations since {}", scores.size(), fromDate);
+        return scores.size();
+    }
+
+    private void addDonation(Map<Long, CampaignTrendingScore> scores, Long campaignId, BigDecimal amount, Date donatedAt) {
+        if (amount == null || amount.signum() <= 0 || donatedAt == null) {
+            return;
+        }
+        double term = Math.log(Math.log1p(amount.doubleValue())) + decayRate() * hoursSinceLandmark(donatedAt);
+        CampaignTrendingScore score = scores.get(campaignId);
+        if (score == null) {
+            score = new CampaignTrendingScore(campaignId, term, donatedAt, new Date());
+            scores.put(campaignId, score);
+            return;
+        }
+        score.setLogScore(logAddExp(score.getLogScore(), term));
+        if (score.getLastDonationAt() == null || donatedAt.after(score.getLastDonationAt())) {
+            score.setLastDonationAt(donatedAt);
+        }
+        score.setUpdated(new Date());
+    }
+
+    private double decayRate() {
+        return Math.log(2) / halfLifeHours;
+    }
+
+    private double hoursSinceLandmark(Date date) {
+        return (date.getTime() - Instant.parse(landmark).toEpochMilli()) / 3_600_000d;
+    }
+
+    // log(e^a + e^b) without overflowing for large exponents
+    private static double logAddExp(double a, double b) {
+        double max = Math.max(a, b);
+        return max + Math.log1p(Math.exp(-Math.abs(a - b)));
+    }
+}
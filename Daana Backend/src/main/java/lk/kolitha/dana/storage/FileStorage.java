@@ -0,0 +1,56 @@
+package lk.kolitha.dana.storage;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * Backend that keeps uploaded files. Objects are addressed by key, e.g. {@code daanaprofile-images/donor-1.png};
+ * the backend decides the public url a key is served from. The backend in use is chosen with
+ * {@code daana.storage.type}.
+ */
+public interface FileStorage {
+
+    void store(String objectKey, MultipartFile file) throws IOException;
+
+    void store(String objectKey, byte[] content, String contentType) throws IOException;
+
+    /**
+     * Stores a file that is already on local disk, such as an assembled chunked upload. The file is left in place.
+     */
+    void store(String objectKey, Path file, String contentType) throws IOException;
+
+    /**
+     * Stream of a stored object; the caller closes it.
+     */
+    InputStream open(String objectKey) throws IOException;
+
+    /**
+     * Copies an object to another key in the same storage, such as a direct upload from its staging key to
+     * the key it is served from.
+     * @return false when the source object does not exist
+     */
+    boolean copy(String sourceKey, String targetKey) throws IOException;
+
+    /**
+     * @return true when the object was deleted or did not exist
+     */
+    boolean delete(String objectKey);
+
+    /**
+     * @return empty when the object does not exist
+     */
+    Optional<StoredObject> stat(String objectKey);
+
+    String publicUrl(String objectKey);
+
+    /**
+     * Url the client can PUT the object to directly. The content type is part of the signature.
+     * @throws lk.kolitha.dana.exception.CustomServiceException when the backend has no signed urls
+     */
+    String presignUpload(String objectKey, String contentType, Date expiration);
+}
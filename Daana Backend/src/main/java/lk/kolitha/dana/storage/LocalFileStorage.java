@@ -0,0 +1,169 @@
+package lk.kolitha.dana.storage;
+
+import jakarta.annotation.PostConstruct;
+import lk.kolitha.dana.exception.CustomServiceException;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * Stores files on the local disk, for development, tests and deployments without S3.
+ *
+ * <p>Each file is written to a temp file next to its target, checked against its expected size and moved into
+ * place, so a reader never sees a partial file. A request part goes through {@link MultipartFile#transferTo(File)},
+ * which lets the servlet container move the file it already spooled to disk (a rename on the same file system)
+ * instead of copying it through the heap; local files are copied with {@link FileChannel#transferTo}, which the
+ * kernel does file to file. Files are served by {@code LocalFileController}.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "daana.storage.type", havingValue = "local")
+@Log4j2
+public class LocalFileStorage implements FileStorage {
+
+    @Value("${daana.storage.local.root-dir:uploads}")
+    private Path rootDir;
+
+    // Url the download controller is reachable under, ending with a slash
+    @Value("${daana.storage.local.base-url:http://localhost:8080/api/v1/public/files/}")
+    private String baseUrl;
+
+    @PostConstruct
+    void init() throws IOException {
+        rootDir = Files.createDirectories(rootDir).toRealPath();
+        log.info("Storing files on local disk under {}", rootDir);
+    }
+
+    @Override
+    public void store(String objectKey, MultipartFile file) throws IOException {
+        // The File overload hands the temp file to Part.write; the Path overload copies through a stream
+        write(objectKey, file.getSize(), tempFile -> file.transferTo(tempFile.toFile()));
+    }
+
+    @Override
+    public void store(String objectKey, byte[] content, String contentType) throws IOException {
+        write(objectKey, content.length, tempFile -> Files.write(tempFile, content));
+    }
+
+    @Override
+    public void store(String objectKey, Path file, String contentType) throws IOException {
+        long size = Files.size(file);
+        write(objectKey, size, tempFile -> {
+            try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ);
+                 FileChannel destination = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                long position = 0;
+                while (position < size) {
+                    long transferred = source.transferTo(position, size - position, destination);
+                    if (transferred <= 0) {
+                        break;
+                    }
+                    position += transferred;
+                }
+            }
+        });
+    }
+
+    @Override
+    public InputStream open(String objectKey) throws IOException {
+        return Files.newInputStream(resolve(objectKey));
+    }
+
+    private void write(String objectKey, long size, TempFileWriter writer) throws IOException {
+        Path target = resolve(objectKey);
+        Files.createDirectories(target.getParent());
+        Path tempFile = Files.createTempFile(target.getParent(), ".upload-", ".part");
+        try {
+            writer.writeTo(tempFile);
+            try (FileChannel written = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                if (written.size() != size) {
+                    throw new IOException("Stored " + written.size() + " of " + size + " bytes of " + objectKey);
+                }
+                written.force(false);
+            }
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    @Override
+    public boolean copy(String sourceKey, String targetKey) throws IOException {
+        Path source = resolve(sourceKey);
+        if (!Files.isRegularFile(source)) {
+            return false;
+        }
+        store(targetKey, source, contentTypeOf(source));
+        return true;
+    }
+
+    @Override
+    public boolean delete(String objectKey) {
+        try {
+            Files.deleteIfExists(resolve(objectKey));
+            return true;
+        } catch (IOException e) {
+            log.error("Error occurred while deleting file {}: {}", objectKey, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public Optional<StoredObject> stat(String objectKey) {
+        Path file = resolve(objectKey);
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new StoredObject(Files.size(file), contentTypeOf(file)));
+        } catch (IOException e) {
+            log.warn("Failed to read size of {}: {}", objectKey, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public String publicUrl(String objectKey) {
+        return baseUrl + objectKey;
+    }
+
+    @Override
+    public String presignUpload(String objectKey, String contentType, Date expiration) {
+        throw new CustomServiceException(501, "Direct uploads are not available with local file storage");
+    }
+
+    /**
+     * Path of an object on disk. Keys that would leave the storage root are rejected.
+     */
+    public Path resolve(String objectKey) {
+        Path file = rootDir.resolve(objectKey).normalize();
+        if (!file.startsWith(rootDir) || file.equals(rootDir)) {
+            throw new CustomServiceException(400, "Invalid file key: " + objectKey);
+        }
+        return file;
+    }
+
+    public static String contentTypeOf(Path file) {
+        return MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM)
+                .toString();
+    }
+
+    @FunctionalInterface
+    private interface TempFileWriter {
+        void writeTo(Path tempFile) throws IOException;
+    }
+}
@@ -0,0 +1,194 @@
+package lk.kolitha.dana.storage;
+
+import com.amazonaws.HttpMethod;
+import com.amazonaws.SdkClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.GeneratePresignedUrlRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.transfer.TransferManager;
+import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+
+/**
+ * Stores files in the S3 bucket. Files are served from the bucket url, not through the API.
+ */
+@Component
+@ConditionalOnProperty(name = "daana.storage.type", havingValue = "s3", matchIfMissing = true)
+@RequiredArgsConstructor
+@Log4j2
+public class S3FileStorage implements FileStorage {
+
+    @Value("${aws.s3.bucket-name}")
+    private String bucketName;
+    @Value("${aws.s3.bucket-url}")
+    private String bucketUrl;
+
+    // Files from this size on go as multipart uploads with parts sent in parallel
+    @Value("${aws.s3.multipart.threshold-bytes:16777216}")
+    private long multipartThreshold;
+    @Value("${aws.s3.multipart.part-size-bytes:8388608}")
+    private long multipartPartSize;
+    @Value("${aws.s3.multipart.part-threads:8}")
+    private int multipartPartThreads;
+
+    private final AmazonS3 s3Client;
+    private TransferManager transferManager;
+
+    @PostConstruct
+    void initTransferManager() {
+        transferManager = TransferManagerBuilder.standard()
+                .withS3Client(s3Client)
+                .withMultipartUploadThreshold(multipartThreshold)
+                .withMinimumUploadPartSize(multipartPartSize)
+                .withExecutorFactory(() -> Executors.newFixedThreadPool(multipartPartThreads, new CustomizableThreadFactory("s3-part-")))
+                .build();
+    }
+
+    @PreDestroy
+    void shutdownTransferManager() {
+        // The S3 client is a shared bean, only the part pool is shut down here
+        transferManager.shutdownNow(false);
+    }
+
+    @Override
+    public void store(String objectKey, MultipartFile file) throws IOException {
+        if (file.getSize() >= multipartThreshold) {
+            storeMultipart(objectKey, file);
+            return;
+        }
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentLength(file.getSize());
+        metadata.setContentType(file.getContentType());
+        try (InputStream in = file.getInputStream()) {
+            s3Client.putObject(bucketName, objectKey, in, metadata);
+        }
+    }
+
+    @Override
+    public void store(String objectKey, byte[] content, String contentType) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentLength(content.length);
+        metadata.setContentType(contentType);
+        s3Client.putObject(bucketName, objectKey, new ByteArrayInputStream(content), metadata);
+    }
+
+    @Override
+    public void store(String objectKey, Path file, String contentType) throws IOException {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentType(contentType);
+        // The transfer manager switches to parallel multipart uploads above the threshold
+        upload(new PutObjectRequest(bucketName, objectKey, file.toFile()).withMetadata(metadata));
+    }
+
+    @Override
+    public InputStream open(String objectKey) throws IOException {
+        try {
+            return s3Client.getObject(bucketName, objectKey).getObjectContent();
+        } catch (AmazonS3Exception e) {
+            if (e.getStatusCode() == 404) {
+                throw new FileNotFoundException(objectKey);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Multipart upload of a large file. Parallel part uploads need a file on disk, so the request part is
+     * moved to a temp file first. Failed parts are retried by the S3 client retry policy.
+     */
+    private void storeMultipart(String objectKey, MultipartFile file) throws IOException {
+        File tempFile = Files.createTempFile("daana-upload-", ".part").toFile();
+        try {
+            file.transferTo(tempFile);
+            ObjectMetadata metadata = new ObjectMetadata();
+            metadata.setContentType(file.getContentType());
+            upload(new PutObjectRequest(bucketName, objectKey, tempFile).withMetadata(metadata));
+        } finally {
+            if (!tempFile.delete()) {
+                log.warn("Failed to delete temp upload file: {}", tempFile);
+            }
+        }
+    }
+
+    private void upload(PutObjectRequest request) throws IOException {
+        try {
+            transferManager.upload(request).waitForCompletion();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while uploading " + request.getKey(), e);
+        }
+    }
+
+    @Override
+    public boolean copy(String sourceKey, String targetKey) {
+        try {
+            // Server side copy; content type and length are copied with the object
+            s3Client.copyObject(bucketName, sourceKey, bucketName, targetKey);
+            return true;
+        } catch (AmazonS3Exception e) {
+            if (e.getStatusCode() == 404) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean delete(String objectKey) {
+        try {
+            s3Client.deleteObject(bucketName, objectKey);
+            return true;
+        } catch (SdkClientException e) {
+            log.error("Error occurred while deleting file from s3: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public Optional<StoredObject> stat(String objectKey) {
+        try {
+            ObjectMetadata metadata = s3Client.getObjectMetadata(bucketName, objectKey);
+            return Optional.of(new StoredObject(metadata.getContentLength(), metadata.getContentType()));
+        } catch (AmazonS3Exception e) {
+            if (e.getStatusCode() == 404) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public String publicUrl(String objectKey) {
+        return bucketUrl + objectKey;
+    }
+
+    @Override
+    public String presignUpload(String objectKey, String contentType, Date expiration) {
+        GeneratePresignedUrlRequest request = new GeneratePresignedUrlRequest(bucketName, objectKey)
+                .withMethod(HttpMethod.PUT)
+                .withContentType(contentType)
+                .withExpiration(expiration);
+        return s3Client.generatePresignedUrl(request).toString();
+    }
+}
@@ -0,0 +1,7 @@
+package lk.kolitha.dana.storage;
+
+/**
+ * Size and type of a stored object as reported by the storage backend
+ */
+public record StoredObject(long size, String contentType) {
+}
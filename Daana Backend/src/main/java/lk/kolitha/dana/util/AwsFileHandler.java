@@ -1,7 +1,7 @@
 package lk.kolitha.dana.util;
 
-import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.model.ObjectMetadata;
+import lk.kolitha.dana.storage.FileStorage;
+import lk.kolitha.dana.storage.StoredObject;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.io.FilenameUtils;
@@ -10,39 +10,153 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.util.Objects;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Date;
 import java.util.Optional;
 
+/**
+ * Builds object keys and public urls for uploaded files and hands the bytes to the configured
+ * {@link FileStorage} (S3 by default, local disk with {@code daana.storage.type=local}).
+ */
 @Component
 @RequiredArgsConstructor
 @Log4j2
 public class AwsFileHandler {
 
-    @Value("${aws.s3.bucket-name}")
-    private String bucketName;
-    @Value("${aws.s3.bucket-url}")
-    private String bucketUrl;
     @Value("${aws.s3.project-folder}")
     private String projectBucketFolder;
 
-    private final AmazonS3 s3Client;
+    private final FileStorage fileStorage;
 
     public Optional<String> uploadToS3Bucket(MultipartFile file, String name, String folder) {
         try {
-            String fileExtension = FilenameUtils.getExtension(file.getOriginalFilename());
-            assert fileExtension != null;
-            ObjectMetadata metadata = new ObjectMetadata();
-            metadata.setContentLength(file.getSize());
-            metadata.setContentType(file.getContentType());
-            String fileName = projectBucketFolder + folder + name +"."+ fileExtension;
-            s3Client.putObject(bucketName, fileName, file.getInputStream(), metadata);
-            String fileUrl = bucketUrl + fileName;
+            String fileName = buildObjectKey(file, name, folder);
+            fileStorage.store(fileName, file);
+            String fileUrl = fileStorage.publicUrl(fileName);
             log.info("file file Url: {}", fileUrl);
-            return Optional.of(bucketUrl + fileName);
+            return Optional.of(fileUrl);
         } catch (IOException e) {
             log.trace("Error occurred while uploading image to s3: {}", e.getMessage());
             return Optional.empty();
         }
     }
 
+    /**
+     * Public url the file will get once uploaded with {@link #uploadToS3Bucket(MultipartFile, String, String)}.
+     */
+    public String resolveFileUrl(MultipartFile file, String name, String folder) {
+        return fileStorage.publicUrl(buildObjectKey(file, name, folder));
+    }
+
+    public String toFileUrl(String objectKey) {
+        return fileStorage.publicUrl(objectKey);
+    }
+
+    /**
+     * Deletes an object previously uploaded by this handler.
+     * @param fileUrl public url returned by the upload
+     * @return true when the object was deleted or did not belong to this storage
+     */
+    public boolean deleteFromS3Bucket(String fileUrl) {
+        Optional<String> objectKey = toObjectKey(fileUrl);
+        if (objectKey.isEmpty()) {
+            log.warn("Skipping delete of file outside the bucket url: {}", fileUrl);
+            return true;
+        }
+        boolean deleted = fileStorage.delete(objectKey.get());
+        if (deleted) {
+            log.info("Deleted file from s3: {}", fileUrl);
+        }
+        return deleted;
+    }
+
+    /**
+     * @return the object key of a public url, or empty for urls outside this storage
+     */
+    public Optional<String> toObjectKey(String fileUrl) {
+        String baseUrl = fileStorage.publicUrl("");
+        if (fileUrl == null || !fileUrl.startsWith(baseUrl) || fileUrl.length() == baseUrl.length()) {
+            return Optional.empty();
+        }
+        return Optional.of(fileUrl.substring(baseUrl.length()));
+    }
+
+    public InputStream openObject(String objectKey) throws IOException {
+        return fileStorage.open(objectKey);
+    }
+
+    public String objectKeyFor(String name, String folder, String fileExtension) {
+        return projectBucketFolder + folder + name + "." + fileExtension;
+    }
+
+    /**
+     * Stores an uploaded file under an explicit key
+     * @return public url of the stored object
+     */
+    public String storeObject(String objectKey, MultipartFile file) throws IOException {
+        fileStorage.store(objectKey, file);
+        return fileStorage.publicUrl(objectKey);
+    }
+
+    /**
+     * Stores generated content, such as an image variant, under the given key
+     * @return public url of the stored object
+     */
+    public String storeObject(String objectKey, byte[] content, String contentType) throws IOException {
+        fileStorage.store(objectKey, content, contentType);
+        return fileStorage.publicUrl(objectKey);
+    }
+
+    /**
+     * Stores a file from local disk, such as an assembled chunked upload, under the given key
+     * @return public url of the stored object
+     */
+    public String storeObject(String objectKey, Path file, String contentType) throws IOException {
+        fileStorage.store(objectKey, file, contentType);
+        return fileStorage.publicUrl(objectKey);
+    }
+
+    /**
+     * Url the client can PUT the file to directly, without passing it through the API.
+     * The content type is part of the signature, so the upload must send the same Content-Type header.
+     * @return the object key and the signed url
+     */
+    public PresignedUpload presignUpload(String name, String folder, String fileExtension, String contentType, Date expiration) {
+        String objectKey = objectKeyFor(name, folder, fileExtension);
+        String uploadUrl = fileStorage.presignUpload(objectKey, contentType, expiration);
+        return new PresignedUpload(objectKey, fileStorage.publicUrl(objectKey), uploadUrl);
+    }
+
+    /**
+     * Copies an object to the key it is served from, used to take direct uploads out of their staging key
+     * @return false when the source object does not exist
+     */
+    public boolean copyObject(String sourceKey, String targetKey) throws IOException {
+        return fileStorage.copy(sourceKey, targetKey);
+    }
+
+    public boolean deleteObject(String objectKey) {
+        return fileStorage.delete(objectKey);
+    }
+
+    /**
+     * Size and type of an uploaded object as stored, used to check direct uploads.
+     * @return empty when the object does not exist
+     */
+    public Optional<StoredObject> findStoredObject(String objectKey) {
+        return fileStorage.stat(objectKey);
+    }
+
+    private String buildObjectKey(MultipartFile file, String name, String folder) {
+        String fileExtension = FilenameUtils.getExtension(file.getOriginalFilename());
+        assert fileExtension != null;
+        return projectBucketFolder + folder + name + "." + fileExtension;
+    }
+
+    /**
+     * @param fileUrl public url the object will have once uploaded
+     */
+    public record PresignedUpload(String objectKey, String fileUrl, String uploadUrl) {
+    }
 }
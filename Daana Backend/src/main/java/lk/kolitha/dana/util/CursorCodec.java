@@ -0,0 +1,38 @@
+package lk.kolitha.dana.util;
+
+import lk.kolitha.dana.exception.CustomServiceException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Opaque continuation tokens for keyset pagination on {@code (created DESC, id DESC)}.
+ * The token is the URL safe Base64 form of {@code createdMillis:id} of the last row of a page.
+ */
+public class CursorCodec {
+
+    private CursorCodec() {
+    }
+
+    public static String encode(Date created, Long id) {
+        String raw = (created != null ? created.getTime() : 0L) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new Cursor(new Date(Long.parseLong(raw.substring(0, separator))), Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new CustomServiceException(400, "Invalid cursor");
+        }
+    }
+
+    public record Cursor(Date created, Long id) {
+    }
+}
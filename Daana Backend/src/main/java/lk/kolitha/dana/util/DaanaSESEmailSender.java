@@ -1,5 +1,6 @@
 package lk.kolitha.dana.util;
 
+import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lk.kolitha.dana.exception.CustomServiceException;
 import lombok.RequiredArgsConstructor;
@@ -9,6 +10,8 @@ import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Component;
 
+import java.io.UnsupportedEncodingException;
+
 @Component
 @RequiredArgsConstructor
 @Log4j2
@@ -19,24 +22,25 @@ public class DaanaSESEmailSender {
 
     private final JavaMailSender javaMailSender;
 
-    public void sendHtmEmail(String to, String subject, String text) {
-        try {
-            this.isValidEmail(to);
-            MimeMessage msg = javaMailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(msg, true, "UTF-8");
-
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setFrom(fromEmail, "Daana.lk");
-            helper.setReplyTo(fromEmail);
-            helper.setText("Please view this email in an HTML-compatible email client.", text);
-
-            javaMailSender.send(msg);
-            log.info("Method sendHtmEmail : mail successfully dispatched to {}", to);
-        } catch (Exception e) {
-            log.error("Method sendHtmEmail : mail sending failed - ", e);
-            throw new CustomServiceException("Email Sending Failed!");
-        }
+    public MimeMessage createHtmlMessage(String to, String subject, String text) throws MessagingException, UnsupportedEncodingException {
+        this.isValidEmail(to);
+        MimeMessage msg = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(msg, true, "UTF-8");
+
+        helper.setTo(to);
+        helper.setSubject(subject);
+        helper.setFrom(fromEmail, "Daana.lk");
+        helper.setReplyTo(fromEmail);
+        helper.setText("Please view this email in an HTML-compatible email client.", text);
+        return msg;
+    }
+
+    /**
+     * Sends the messages over one SMTP session. Failed messages are reported through
+     * {@link org.springframework.mail.MailSendException#getFailedMessages()}.
+     */
+    public void sendBatch(MimeMessage... messages) {
+        javaMailSender.send(messages);
     }
 
     void isValidEmail(String email) {
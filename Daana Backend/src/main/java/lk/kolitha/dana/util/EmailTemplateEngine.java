@@ -0,0 +1,146 @@
+package lk.kolitha.dana.util;
+
+import jakarta.annotation.PostConstruct;
+import lk.kolitha.dana.exception.CustomServiceException;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders the HTML mail templates under {@code EmailTemplates/}.
+ *
+ * <p>Every template is read once at startup and split into literal text and {@code {{name}}} placeholders,
+ * so a render only appends segments into a per-thread buffer. Values are HTML escaped. A new notification
+ * type only needs a new template file; its name is the file name without {@code .html}. With hot reload on,
+ * a template whose file changed is compiled again before it is rendered.</p>
+ */
+@Component
+@Log4j2
+public class EmailTemplateEngine {
+
+    private static final String PLACEHOLDER_START = "{{";
+    private static final String PLACEHOLDER_END = "}}";
+    private static final String TEMPLATE_SUFFIX = ".html";
+    // Buffers grown by an unusually large render are not kept per thread
+    private static final int MAX_RETAINED_BUFFER = 256 * 1024;
+
+    private final Map<String, CompiledTemplate> templates = new ConcurrentHashMap<>();
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(16 * 1024));
+
+    @Value("${daana.mail.templates.location:classpath:EmailTemplates/}")
+    private String location;
+
+    @Value("${daana.mail.templates.hot-reload:false}")
+    private boolean hotReload;
+
+    @PostConstruct
+    void loadTemplates() throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources(location + "*" + TEMPLATE_SUFFIX);
+        for (Resource resource : resources) {
+            CompiledTemplate template = compile(resource);
+            templates.put(template.name(), template);
+        }
+        log.info("Compiled {} email templates from {}", templates.size(), location);
+    }
+
+    /**
+     * @param values placeholder values; missing placeholders render as empty text
+     */
+    public String render(String templateName, Map<String, String> values) {
+        CompiledTemplate template = templates.get(templateName);
+        if (template == null) {
+            throw new CustomServiceException(500, "Email template not found: " + templateName);
+        }
+        if (hotReload) {
+            template = reloadIfModified(template);
+        }
+
+        // Virtual threads are not reused, a per-thread buffer would only be allocated and dropped
+        boolean virtual = Thread.currentThread().isVirtual();
+        StringBuilder buffer = virtual ? new StringBuilder(template.estimatedLength()) : buffers.get();
+        buffer.setLength(0);
+        buffer.ensureCapacity(template.estimatedLength());
+        String[] literals = template.literals();
+        String[] placeholders = template.placeholders();
+        for (int i = 0; i < placeholders.length; i++) {
+            buffer.append(literals[i]);
+            String value = values.get(placeholders[i]);
+            if (value != null) {
+                buffer.append(HtmlUtils.htmlEscape(value));
+            }
+        }
+        buffer.append(literals[placeholders.length]);
+
+        String rendered = buffer.toString();
+        if (!virtual && buffer.capacity() > MAX_RETAINED_BUFFER) {
+            buffers.remove();
+        }
+        return rendered;
+    }
+
+    private CompiledTemplate reloadIfModified(CompiledTemplate template) {
+        try {
+            if (template.resource().lastModified() != template.lastModified()) {
+                CompiledTemplate reloaded = compile(template.resource());
+                templates.put(reloaded.name(), reloaded);
+                log.info("Reloaded email template {}", reloaded.name());
+                return reloaded;
+            }
+        } catch (IOException e) {
+            log.warn("Failed to reload email template {}, using the compiled copy: {}", template.name(), e.getMessage());
+        }
+        return template;
+    }
+
+    private static CompiledTemplate compile(Resource resource) throws IOException {
+        String source;
+        try (InputStream in = resource.getInputStream()) {
+            source = StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+        }
+        String fileName = resource.getFilename();
+        String name = fileName.substring(0, fileName.length() - TEMPLATE_SUFFIX.length());
+
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int start = source.indexOf(PLACEHOLDER_START, position);
+            int end = start < 0 ? -1 : source.indexOf(PLACEHOLDER_END, start + PLACEHOLDER_START.length());
+            if (end < 0) {
+                break;
+            }
+            literals.add(source.substring(position, start));
+            placeholders.add(source.substring(start + PLACEHOLDER_START.length(), end).trim());
+            position = end + PLACEHOLDER_END.length();
+        }
+        literals.add(source.substring(position));
+
+        long lastModified;
+        try {
+            lastModified = resource.lastModified();
+        } catch (IOException e) {
+            // Resources inside a jar may not report a modification time
+            lastModified = 0L;
+        }
+        // Room for the placeholder values on top of the literal text
+        int estimatedLength = source.length() + placeholders.size() * 32;
+        return new CompiledTemplate(name, resource, lastModified, estimatedLength,
+                literals.toArray(new String[0]), placeholders.toArray(new String[0]));
+    }
+
+    private record CompiledTemplate(String name, Resource resource, long lastModified, int estimatedLength,
+                                    String[] literals, String[] placeholders) {
+    }
+}
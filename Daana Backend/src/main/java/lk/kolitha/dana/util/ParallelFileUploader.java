@@ -0,0 +1,120 @@
+package lk.kolitha.dana.util;
+
+import jakarta.annotation.PreDestroy;
+import lk.kolitha.dana.exception.CustomServiceException;
+import lk.kolitha.dana.service.StoredBlobService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Uploads the files of one request concurrently, so the request waits for its largest file instead of the
+ * sum of all files. The pool is bounded; when its queue is full the request thread uploads the file itself.
+ * Callbacks run on the request thread after every upload finished, so they may touch JPA entities.
+ */
+@Component
+@Log4j2
+public class ParallelFileUploader {
+
+    private final AwsFileHandler awsFileHandler;
+    private final StoredBlobService storedBlobService;
+    private final ThreadPoolExecutor uploadExecutor;
+
+    public ParallelFileUploader(AwsFileHandler awsFileHandler,
+                                StoredBlobService storedBlobService,
+                                @Value("${daana.upload.parallel.threads:8}") int threads,
+                                @Value("${daana.upload.parallel.queue-capacity:32}") int queueCapacity) {
+        this.awsFileHandler = awsFileHandler;
+        this.storedBlobService = storedBlobService;
+        this.uploadExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("file-upload-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.uploadExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        uploadExecutor.shutdown();
+    }
+
+    /**
+     * Uploads every file that is present and waits for all of them. A file that could not be uploaded is
+     * logged and skipped, as with a single upload.
+     */
+    public void uploadAll(List<FileUpload> uploads) {
+        List<FileUpload> submitted = new ArrayList<>();
+        List<Future<Optional<String>>> results = new ArrayList<>();
+        for (FileUpload upload : uploads) {
+            if (upload.file() == null || upload.file().isEmpty()) {
+                continue;
+            }
+            submitted.add(upload);
+            results.add(uploadExecutor.submit(() -> upload.contentAddressed()
+                    ? storedBlobService.prepare(upload.file())
+                    : awsFileHandler.uploadToS3Bucket(upload.file(), upload.name(), upload.folder())));
+        }
+
+        RuntimeException firstFailure = null;
+        for (int i = 0; i < submitted.size(); i++) {
+            FileUpload upload = submitted.get(i);
+            try {
+                Optional<String> fileUrl = results.get(i).get();
+                if (fileUrl.isPresent()) {
+                    if (upload.contentAddressed()) {
+                        // Counted in the caller's transaction, before the callback may release a replaced blob
+                        storedBlobService.acquire(fileUrl.get());
+                    }
+                    upload.onUploaded().accept(fileUrl.get());
+                } else {
+                    log.warn("Failed to upload {} to S3", upload.description());
+                }
+            } catch (ExecutionException e) {
+                log.error("Error uploading {} to S3: {}", upload.description(), e.getCause().getMessage());
+                if (firstFailure == null) {
+                    firstFailure = e.getCause() instanceof RuntimeException runtime
+                            ? runtime : new CustomServiceException(500, "Failed to upload " + upload.description());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CustomServiceException(500, "Interrupted while uploading files");
+            }
+        }
+        // Same outcome as the sequential uploads: a storage error fails the request once every upload settled
+        if (firstFailure != null) {
+            throw firstFailure;
+        }
+    }
+
+    /**
+     * @param onUploaded receives the public url of the uploaded file
+     * @param description used in log messages, e.g. "video for campaign ID: 12"
+     * @param contentAddressed store as a deduplicated blob instead of under name and folder
+     */
+    public record FileUpload(MultipartFile file, String name, String folder, Consumer<String> onUploaded, String description,
+                             boolean contentAddressed) {
+
+        public FileUpload(MultipartFile file, String name, String folder, Consumer<String> onUploaded, String description) {
+            this(file, name, folder, onUploaded, description, false);
+        }
+
+        /**
+         * Upload stored as a content addressed blob; identical documents are stored once
+         */
+        public static FileUpload contentAddressed(MultipartFile file, Consumer<String> onUploaded, String description) {
+            return new FileUpload(file, null, null, onUploaded, description, true);
+        }
+    }
+}
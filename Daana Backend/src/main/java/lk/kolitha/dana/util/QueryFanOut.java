@@ -0,0 +1,191 @@
+package lk.kolitha.dana.util;
+
+import jakarta.annotation.PreDestroy;
+import lk.kolitha.dana.exception.CustomServiceException;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent read queries of one request concurrently, so a composite endpoint waits for its
+ * slowest query instead of the sum of all of them.
+ *
+ * <p>Each query runs in its own read-only transaction, and so on its own connection. A batch lets at most
+ * {@code per-request} of its queries run at once and shares one deadline; the transaction timeout is set to
+ * the same deadline, so a query still running when it passes is cancelled by the driver. Results are read
+ * with {@link Part#get()} when the request cannot do without them, or {@link Part#orElse} when a missing
+ * section should only be reported. The pool is bounded; when its queue is full the request thread runs the
+ * query itself.</p>
+ */
+@Component
+@Log4j2
+public class QueryFanOut {
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolExecutor queryExecutor;
+    private final int perRequest;
+    private final long deadlineMs;
+
+    public QueryFanOut(PlatformTransactionManager transactionManager,
+                       @Value("${daana.query.fan-out.threads:6}") int threads,
+                       @Value("${daana.query.fan-out.queue-capacity:64}") int queueCapacity,
+                       @Value("${daana.query.fan-out.per-request:4}") int perRequest,
+                       @Value("${daana.query.fan-out.deadline-ms:3000}") long deadlineMs) {
+        this.perRequest = Math.max(1, perRequest);
+        this.deadlineMs = deadlineMs;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(deadlineMs + 999)));
+        this.queryExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("query-fan-out-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.queryExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        queryExecutor.shutdown();
+    }
+
+    /**
+     * @param description used in log messages, e.g. "dashboard of charity ID: 12"
+     */
+    public Batch begin(String description) {
+        return new Batch(description);
+    }
+
+    public final class Batch {
+
+        private final String description;
+        private final Semaphore permits = new Semaphore(perRequest);
+        private final long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        private final List<String> unavailable = Collections.synchronizedList(new ArrayList<>());
+
+        private Batch(String description) {
+            this.description = description;
+        }
+
+        /**
+         * Starts a query. Blocks while the batch already runs its share of queries, up to the deadline.
+         * @param name section the query fills, reported when it is unavailable
+         */
+        public <T> Part<T> submit(String name, Supplier<T> query) {
+            Part<T> part = new Part<>(this, name);
+            try {
+                if (!permits.tryAcquire(remainingNanos(), TimeUnit.NANOSECONDS)) {
+                    part.failure = new TimeoutException("Deadline passed before the query started");
+                    return part;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                part.failure = e;
+                return part;
+            }
+            part.future = queryExecutor.submit(() -> {
+                try {
+                    return readOnlyTransaction.execute(status -> query.get());
+                } finally {
+                    permits.release();
+                }
+            });
+            return part;
+        }
+
+        /**
+         * @return names of the parts read with {@link Part#orElse} that failed or missed the deadline
+         */
+        public List<String> unavailable() {
+            synchronized (unavailable) {
+                return new ArrayList<>(unavailable);
+            }
+        }
+
+        private long remainingNanos() {
+            return Math.max(0, deadlineNanos - System.nanoTime());
+        }
+    }
+
+    public static final class Part<T> {
+
+        private final Batch batch;
+        private final String name;
+        private Future<T> future;
+        private Throwable failure;
+        private T value;
+        private boolean done;
+
+        private Part(Batch batch, String name) {
+            this.batch = batch;
+            this.name = name;
+        }
+
+        /**
+         * Result of a query the request cannot do without
+         * @throws CustomServiceException with the query's own status when it failed, 503 when it missed the deadline
+         */
+        public T get() {
+            Optional<T> result = await();
+            if (failure == null) {
+                return result.orElse(null);
+            }
+            if (failure instanceof CustomServiceException serviceException) {
+                throw serviceException;
+            }
+            throw new CustomServiceException(503, "Failed to load " + name + " for " + batch.description);
+        }
+
+        /**
+         * Result of an optional section; on failure the fallback is returned and the section reported as unavailable
+         */
+        public T orElse(T fallback) {
+            Optional<T> result = await();
+            if (failure == null) {
+                return result.orElse(null);
+            }
+            batch.unavailable.add(name);
+            return fallback;
+        }
+
+        private Optional<T> await() {
+            if (!done) {
+                done = true;
+                if (future != null) {
+                    try {
+                        value = future.get(batch.remainingNanos(), TimeUnit.NANOSECONDS);
+                    } catch (ExecutionException e) {
+                        failure = e.getCause();
+                    } catch (TimeoutException e) {
+                        // The transaction timeout stops the statement, the connection is not interrupted mid-read
+                        future.cancel(false);
+                        failure = e;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        failure = e;
+                    }
+                }
+                if (failure != null) {
+                    log.warn("Query {} for {} failed: {}", name, batch.description,
+                            failure instanceof TimeoutException ? "deadline passed" : failure.getMessage());
+                }
+            }
+            return Optional.ofNullable(value);
+        }
+    }
+}
@@ -2,8 +2,10 @@ package lk.kolitha.dana.util;
 
 import lk.kolitha.dana.entity.Charity;
 import lk.kolitha.dana.entity.RegisteredDonor;
+import lk.kolitha.dana.enums.PrincipalType;
 import lk.kolitha.dana.repository.CharityRepository;
 import lk.kolitha.dana.repository.RegisteredDonorRepository;
+import lk.kolitha.dana.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -33,6 +35,10 @@ public class SecurityUtils {
      * @return charity ID of the authenticated user
      */
     public Long getCurrentCharityId() {
+        AuthenticatedUser user = getCurrentAuthenticatedUser();
+        if (user != null) {
+            return user.principalType() == PrincipalType.CHARITY ? user.id() : null;
+        }
         String email = getCurrentUserEmail();
         if (email != null) {
             Charity charity = charityRepository.findByEmail(email).orElse(null);
@@ -46,6 +52,10 @@ public class SecurityUtils {
      * @return donor ID of the authenticated user
      */
     public Long getCurrentDonorId() {
+        AuthenticatedUser user = getCurrentAuthenticatedUser();
+        if (user != null) {
+            return user.principalType() == PrincipalType.DONOR ? user.id() : null;
+        }
         String email = getCurrentUserEmail();
         if (email != null) {
             RegisteredDonor donor = registeredDonorRepository.findByEmail(email).orElse(null);
@@ -59,9 +69,22 @@ public class SecurityUtils {
      * @return RegisteredDonor entity of the authenticated user
      */
     public RegisteredDonor getCurrentDonor() {
-        String email = getCurrentUserEmail();
-        if (email != null) {
-            return registeredDonorRepository.findByEmail(email).orElse(null);
+        Long donorId = getCurrentDonorId();
+        if (donorId != null) {
+            return registeredDonorRepository.findById(donorId).orElse(null);
+        }
+        return null;
+    }
+
+    /**
+     * Get the principal built from the access token claims
+     * @return the principal, or null when the request was authenticated another way
+     */
+    private AuthenticatedUser getCurrentAuthenticatedUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user;
         }
         return null;
     }
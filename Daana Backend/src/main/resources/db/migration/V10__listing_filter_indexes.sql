@@ -0,0 +1,26 @@
+-- ----------------------------------------------------------------------------------------------------------------------
+-- Indexes for the filtered keyset pages that QueryPlanTest found sorted once it explained the statements Hibernate
+-- actually sends.
+-- ----------------------------------------------------------------------------------------------------------------------
+
+-- Category of the campaign's sub category, copied onto the campaign so a listing filtered by category is read from one
+-- (category_id, deleted, created, id) index in order instead of sorting every campaign of the category's sub
+-- categories. A sub category never moves to another category; Campaigns.setSubCategory keeps the copy in step.
+alter table campaigns
+   add column category_id bigint;
+
+update campaigns c
+  join sub_category sc on sc.id = c.sub_category_id
+   set c.category_id = sc.category_id;
+
+create index idx_campaigns_category_deleted_created_id
+   on campaigns (category_id, deleted, created, id);
+
+-- Listing filtered by sub category
+create index idx_campaigns_sub_category_deleted_created_id
+   on campaigns (sub_category_id, deleted, created, id);
+
+-- Donations of one program were read through (campaigns_id, status, created) and sorted: its implicit id suffix makes
+-- it cover the keyset columns, so the optimizer prefers it to (campaigns_id, created, id). The active donation checks
+-- of a campaign read (campaigns_id, created, id) as well.
+drop index idx_donation_campaign_status_created on donation;
@@ -0,0 +1,316 @@
+-- ----------------------------------------------------------------------------------------------------------------------
+-- Baseline schema: the tables, constraints and indexes the entity mappings produced under ddl-auto=update before
+-- migrations were introduced. Databases created that way are baselined at this version and skip it, so it must not
+-- change; later schema changes go in new versions.
+-- ----------------------------------------------------------------------------------------------------------------------
+create table admin_user (
+    created datetime(6),
+    id bigint not null auto_increment,
+    updated datetime(6),
+    email varchar(255) not null,
+    full_name varchar(255),
+    password_hash varchar(255) not null,
+    username varchar(255) not null,
+    admin_role enum ('ADMIN','CHARITY','DONOR','GUEST','MONITOR') not null,
+    admin_status enum ('ACTIVE','DRAFT','INACTIVE','PENDING') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table bank_betail (
+    charity_id bigint,
+    created datetime(6),
+    id bigint not null auto_increment,
+    program_id bigint,
+    updated datetime(6),
+    account_holder_name varchar(255) not null,
+    account_number varchar(255) not null,
+    bank_name varchar(255) not null,
+    branch_name varchar(255) not null,
+    swift_code varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table campaigns (
+    deleted bit not null,
+    raised decimal(11,2),
+    target_donation_amount decimal(11,2),
+    charity_id bigint,
+    created datetime(6),
+    end_date datetime(6),
+    id bigint not null auto_increment,
+    start_date datetime(6),
+    sub_category_id bigint,
+    updated datetime(6),
+    description varchar(2000),
+    contact_person_email varchar(255),
+    contact_person_mobile varchar(255),
+    contact_person_name varchar(255),
+    program_image varchar(255),
+    program_name varchar(255),
+    program_video varchar(255),
+    related_document1 varchar(255),
+    related_document2 varchar(255),
+    related_document3 varchar(255),
+    title varchar(255),
+    url_name varchar(255),
+    program_location longtext,
+    status enum ('ACTIVE','DRAFT','INACTIVE','PENDING') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table category (
+    created datetime(6),
+    id bigint not null auto_increment,
+    updated datetime(6),
+    image_url varchar(255),
+    name varchar(255) not null,
+    description longtext,
+    status enum ('ACTIVE','DRAFT','INACTIVE','PENDING') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table charity (
+    account_verify_status bit not null,
+    contact_person_mobile integer not null,
+    is_deleted bit not null,
+    mobile_number integer not null,
+    created datetime(6),
+    id bigint not null auto_increment,
+    otp_code_generated_timestamp datetime(6),
+    updated datetime(6),
+    contact_person_email varchar(255),
+    contact_person_name varchar(255),
+    email varchar(255) not null,
+    logo_url varchar(255),
+    name varchar(255) not null,
+    nic_number_or_registration_number varchar(255),
+    otp_code varchar(255),
+    password_hash varchar(255) not null,
+    website varchar(255),
+    description longtext,
+    execution_type enum ('ORGANIZATION','PERSON') not null,
+    status enum ('ACTIVE','DRAFT','INACTIVE','PENDING') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table charity_category (
+    category_id bigint not null,
+    charity_id bigint not null,
+    deleted datetime(6),
+    id bigint not null auto_increment,
+    updated datetime(6),
+    registered_moderator_username varchar(255),
+    status enum ('ACTIVE','DRAFT','INACTIVE','PENDING') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table charity_proof_document (
+    is_public bit not null,
+    charity_id bigint not null,
+    created datetime(6),
+    id bigint not null auto_increment,
+    updated datetime(6),
+    file_name varchar(255),
+    charity_proof_document_type enum ('BUSINESS_REGISTRATION_CERTIFICATE','DRIVING_LICENCE','ID_CARD','OTHERS','PASSPORT','REQUEST_FOR_PROOF_OF_ADDRESS','REQUEST_LETTER_OF_REFERRAL'),
+    status enum ('ACTIVE','DRAFT','INACTIVE','PENDING'),
+    primary key (id)
+) engine=InnoDB;
+
+create table donation (
+    actual_donation_amount decimal(11,2),
+    is_anonymous_donation bit,
+    net_donation_amount decimal(11,2),
+    service_charge float(53) not null,
+    campaigns_id bigint not null,
+    created datetime(6),
+    donation_package_id bigint,
+    id bigint not null auto_increment,
+    registered_donor_id bigint,
+    updated datetime(6),
+    payment_reference_number varchar(255) not null,
+    payment_slip_url varchar(255),
+    comments longtext,
+    payment_method enum ('BANK_TRANSFER','CARD','CASH','CHEQUE') not null,
+    status enum ('ACTIVE','DRAFT','INACTIVE','PENDING') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table donation_package (
+    paket_amount decimal(11,2),
+    created datetime(6),
+    id bigint not null auto_increment,
+    updated datetime(6),
+    status enum ('ACTIVE','DRAFT','INACTIVE','PENDING') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table donor_card (
+    is_deleted bit not null,
+    request_apply bit not null,
+    created datetime(6),
+    id bigint not null auto_increment,
+    registered_donor_id bigint not null,
+    updated datetime(6),
+    card_holder_name varchar(255),
+    card_no varchar(255),
+    contact_number varchar(255),
+    accepting_status enum ('ACTIVE','DRAFT','INACTIVE','PENDING') not null,
+    card_expire_type enum ('LIFETIME','MONTHLY','ONE_TIME','YEARLY') not null,
+    card_type enum ('AMERICAN_EXPRESS','DISCOVER','MASTERCARD','UNION_PAY','VISA') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table monitor (
+    is_deleted bit not null,
+    three_login_attempt_count integer not null,
+    created datetime(6),
+    deleted datetime(6),
+    id bigint not null auto_increment,
+    last_login_out_timestamp datetime(6),
+    updated datetime(6),
+    director_approval_name varchar(255),
+    mode varchar(255),
+    moderator_description varchar(255),
+    moderator_name varchar(255),
+    moderator_phone varchar(255),
+    moderator_username varchar(255),
+    password varchar(255),
+    description longtext,
+    role enum ('ADMIN','CHARITY','DONOR','GUEST','MONITOR') not null,
+    status enum ('ACTIVE','DRAFT','INACTIVE','PENDING') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table monitor_category (
+    category_id bigint not null,
+    id bigint not null auto_increment,
+    monitor_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table registered_donor (
+    account_verify_status bit not null,
+    is_billing_verify bit not null,
+    is_deleted bit not null,
+    three_login_attempt_count integer not null,
+    created datetime(6),
+    id bigint not null auto_increment,
+    opt_code_generated_timestamp datetime(6),
+    updated datetime(6),
+    billing_address varchar(255),
+    email varchar(255) not null,
+    first_name varchar(255),
+    last_name varchar(255),
+    opt_code varchar(255),
+    phone_number varchar(255),
+    profile_image_url varchar(255),
+    unique_customer_id varchar(255),
+    gender enum ('FEMALE','MALE') not null,
+    password_hash tinytext not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table sub_category (
+    category_id bigint,
+    created datetime(6),
+    id bigint not null auto_increment,
+    updated datetime(6),
+    name varchar(255),
+    description longtext,
+    status enum ('ACTIVE','DRAFT','INACTIVE','PENDING') not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table admin_user
+   add constraint UK6etwowal6qxvr7xuvqcqmnnk7 unique (email);
+
+alter table admin_user
+   add constraint UKlvod9bfm438ex1071ku1glb70 unique (username);
+
+alter table bank_betail
+   add constraint UKgm7t32serl19innttqwslrs28 unique (charity_id);
+
+alter table bank_betail
+   add constraint UK3yttq4lgpv034udh5k6ucx3hj unique (account_number);
+
+alter table category
+   add constraint UK46ccwnsi9409t36lurvtyljak unique (name);
+
+alter table charity
+   add constraint UK50bds7qn351ktfmh46xdgubw5 unique (email);
+
+alter table donation
+   add constraint UK5bmlaq045yp2ifu0upwwymoew unique (payment_reference_number);
+
+alter table registered_donor
+   add constraint UKcnuxpvnh97k2f2ygql3rwai9 unique (email);
+
+alter table bank_betail
+   add constraint FKs1xdthdydef64130id642oalp
+   foreign key (program_id)
+   references campaigns (id);
+
+alter table bank_betail
+   add constraint FKkpp47kta54krd259bfl65wnf9
+   foreign key (charity_id)
+   references charity (id);
+
+alter table campaigns
+   add constraint FKcxyw0sf4q1k97rj793tb31hbm
+   foreign key (charity_id)
+   references charity (id);
+
+alter table campaigns
+   add constraint FK1a7ewjovilfemggjj6glhbscs
+   foreign key (sub_category_id)
+   references sub_category (id);
+
+alter table charity_category
+   add constraint FKobu5mhuhwucd86nfwmbkynunm
+   foreign key (category_id)
+   references category (id);
+
+alter table charity_category
+   add constraint FK5jf4glcb12g560tnyfp3fiile
+   foreign key (charity_id)
+   references charity (id);
+
+alter table charity_proof_document
+   add constraint FKtp8tek5w1q65guc4tw94fkaq2
+   foreign key (charity_id)
+   references charity (id);
+
+alter table donation
+   add constraint FKbju820cglnasq30jg8ild9mov
+   foreign key (campaigns_id)
+   references campaigns (id);
+
+alter table donation
+   add constraint FKcps0es63302qmcq053nyhsx11
+   foreign key (donation_package_id)
+   references donation_package (id);
+
+alter table donation
+   add constraint FK6ls73bq6apb2jvutj2ffa3a7q
+   foreign key (registered_donor_id)
+   references registered_donor (id);
+
+alter table donor_card
+   add constraint FKbreds8aae2wyh6xtp3gcmi4px
+   foreign key (registered_donor_id)
+   references registered_donor (id);
+
+alter table monitor_category
+   add constraint FKau6ko9ooeu312fmvdk31n7qd8
+   foreign key (category_id)
+   references category (id);
+
+alter table monitor_category
+   add constraint FK1w2d9xhe0sksnvlgsi1ivctim
+   foreign key (monitor_id)
+   references monitor (id);
+
+alter table sub_category
+   add constraint FKl65dyy5me2ypoyj8ou1hnt64e
+   foreign key (category_id)
+   references category (id);
@@ -0,0 +1,191 @@
+-- ----------------------------------------------------------------------------------------------------------------------
+-- Tables and columns added with the counters, rollups, outbox projections, email outbox, uploads and token revocation
+-- since the baseline, and the keyset indexes of the listing pages.
+-- ----------------------------------------------------------------------------------------------------------------------
+alter table admin_user
+   add column credentials_changed_at datetime(6);
+
+alter table campaigns
+   add column program_image_card_url varchar(255);
+
+alter table campaigns
+   add column program_image_detail_url varchar(255);
+
+alter table charity
+   add column credentials_changed_at datetime(6);
+
+alter table charity
+   add column logo_avatar_url varchar(255);
+
+alter table registered_donor
+   add column credentials_changed_at datetime(6);
+
+alter table registered_donor
+   add column profile_image_avatar_url varchar(255);
+
+create table campaign_counter_shard (
+    amount decimal(11,2) not null,
+    shard_no integer not null,
+    campaign_id bigint not null,
+    id bigint not null auto_increment,
+    updated datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create table campaign_daily_stats (
+    amount decimal(13,2) not null,
+    stat_date date not null,
+    campaign_id bigint not null,
+    charity_id bigint not null,
+    donation_count bigint not null,
+    id bigint not null auto_increment,
+    updated datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create table campaign_trending_score (
+    log_score float(53) not null,
+    campaign_id bigint not null,
+    last_donation_at datetime(6),
+    updated datetime(6),
+    primary key (campaign_id)
+) engine=InnoDB;
+
+create table charity_daily_stats (
+    amount decimal(13,2) not null,
+    stat_date date not null,
+    charity_id bigint not null,
+    donation_count bigint not null,
+    id bigint not null auto_increment,
+    updated datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create table donation_event (
+    amount decimal(11,2) not null,
+    campaign_id bigint not null,
+    charity_id bigint not null,
+    created datetime(6) not null,
+    donation_id bigint not null,
+    donor_id bigint,
+    id bigint not null auto_increment,
+    occurred_at datetime(6) not null,
+    event_type enum ('DONATION_CREATED') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table donor_lifetime_stats (
+    total_amount decimal(13,2) not null,
+    donation_count bigint not null,
+    donor_id bigint not null,
+    first_donation_at datetime(6),
+    last_donation_at datetime(6),
+    updated datetime(6),
+    primary key (donor_id)
+) engine=InnoDB;
+
+create table outbound_email (
+    attempts integer not null,
+    created datetime(6) not null,
+    id bigint not null auto_increment,
+    locked_until datetime(6),
+    next_attempt_at datetime(6) not null,
+    sent_at datetime(6),
+    updated datetime(6),
+    last_error varchar(1000),
+    dedupe_key varchar(255),
+    recipient varchar(255) not null,
+    subject varchar(255) not null,
+    html_body LONGTEXT not null,
+    status enum ('DEAD','PENDING','SENDING','SENT') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table projector_checkpoint (
+    last_event_id bigint not null,
+    updated datetime(6),
+    projector_name varchar(100) not null,
+    primary key (projector_name)
+) engine=InnoDB;
+
+create table staged_upload (
+    created datetime(6) not null,
+    id bigint not null auto_increment,
+    file_url varchar(1000) not null,
+    reference varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table stored_blob (
+    reference_count integer not null,
+    created datetime(6) not null,
+    id bigint not null auto_increment,
+    size bigint not null,
+    updated datetime(6) not null,
+    content_hash varchar(64) not null,
+    file_url varchar(1000) not null,
+    object_key varchar(1000) not null,
+    content_type varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table upload_session (
+    campaign_id bigint not null,
+    charity_id bigint not null,
+    created datetime(6) not null,
+    expires_at datetime(6) not null,
+    received_bytes bigint not null,
+    total_size bigint not null,
+    updated datetime(6),
+    id varchar(36) not null,
+    file_url varchar(1000),
+    content_type varchar(255),
+    file_name varchar(255),
+    status enum ('COMPLETED','FINALIZING','OPEN') not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table campaign_counter_shard
+   add constraint uk_counter_shard_campaign_shard unique (campaign_id, shard_no);
+
+create index idx_campaign_daily_stats_charity_date
+   on campaign_daily_stats (charity_id, stat_date);
+
+alter table campaign_daily_stats
+   add constraint uk_campaign_daily_stats_campaign_date unique (campaign_id, stat_date);
+
+create index idx_campaigns_created_id
+   on campaigns (created, id);
+
+create index idx_campaign_trending_score_log_score
+   on campaign_trending_score (log_score);
+
+alter table charity_daily_stats
+   add constraint uk_charity_daily_stats_charity_date unique (charity_id, stat_date);
+
+create index idx_donation_campaign_created_id
+   on donation (campaigns_id, created, id);
+
+create index idx_donation_donor_created_id
+   on donation (registered_donor_id, created, id);
+
+create index idx_donation_event_created
+   on donation_event (created);
+
+create index idx_outbound_email_status_next_attempt
+   on outbound_email (status, next_attempt_at);
+
+create index idx_outbound_email_dedupe_key
+   on outbound_email (dedupe_key, status);
+
+create index idx_staged_upload_created
+   on staged_upload (created);
+
+create index idx_stored_blob_references_updated
+   on stored_blob (reference_count, updated);
+
+alter table stored_blob
+   add constraint uk_stored_blob_content_hash unique (content_hash);
+
+create index idx_upload_session_status_expires
+   on upload_session (status, expires_at);
@@ -0,0 +1,33 @@
+-- ----------------------------------------------------------------------------------------------------------------------
+-- Secondary indexes for the DonationRepository and CampaignsRepository queries. Every listing and count filters
+-- campaigns on deleted = false and donations on status = 'ACTIVE', so both lead the composite keys they belong to.
+-- ----------------------------------------------------------------------------------------------------------------------
+
+-- Active donations of a campaign: countDonationsByCampaignId, hasActiveDonations and the charity totals and date
+-- ranges, which reach donations through the charity's campaigns
+create index idx_donation_campaign_status_created
+   on donation (campaigns_id, status, created);
+
+-- Earliest donation for the rollup rebuild and the date bound of the trending score rebuild
+create index idx_donation_created
+   on donation (created);
+
+-- Public listing and keyset pages, newest first
+create index idx_campaigns_deleted_created_id
+   on campaigns (deleted, created, id);
+
+-- Charity program counts by status and the charity program table
+create index idx_campaigns_charity_deleted_status
+   on campaigns (charity_id, deleted, status);
+
+-- Recent programs and programs created per month on the charity dashboard
+create index idx_campaigns_charity_deleted_created
+   on campaigns (charity_id, deleted, created);
+
+-- Program detail page by url name
+create index idx_campaigns_url_name
+   on campaigns (url_name);
+
+-- Expired upload session cleanup, which does not filter on status
+create index idx_upload_session_expires
+   on upload_session (expires_at);
@@ -0,0 +1,11 @@
+-- ----------------------------------------------------------------------------------------------------------------------
+-- Short copy of campaigns.program_location for the program card queries, which then no longer read the longtext
+-- column. Campaigns.setProgramLocation keeps it in sync for new and edited campaigns.
+-- ----------------------------------------------------------------------------------------------------------------------
+
+alter table campaigns
+   add column location_summary varchar(255);
+
+update campaigns
+   set location_summary = left(program_location, 255)
+ where program_location is not null;
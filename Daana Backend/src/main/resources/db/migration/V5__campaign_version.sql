@@ -0,0 +1,7 @@
+-- ----------------------------------------------------------------------------------------------------------------------
+-- Optimistic lock version of campaigns. The serialized program detail responses are cached per url name and version,
+-- so an edit makes the cached copy unreachable on every instance without a shared cache.
+-- ----------------------------------------------------------------------------------------------------------------------
+
+alter table campaigns
+   add column version bigint not null default 0;
@@ -0,0 +1,33 @@
+-- ----------------------------------------------------------------------------------------------------------------------
+-- Pending donation event deliveries, one row per projector and event. Projectors used to read the events above their
+-- checkpoint, which skipped an event whose transaction committed after a higher id had been applied.
+-- ----------------------------------------------------------------------------------------------------------------------
+
+create table donation_event_delivery (
+    created datetime(6) not null,
+    event_id bigint not null,
+    id bigint not null auto_increment,
+    projector_name varchar(100) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table donation_event_delivery
+   add constraint uk_donation_event_delivery_event_projector unique (event_id, projector_name);
+
+create index idx_donation_event_delivery_projector_event
+   on donation_event_delivery (projector_name, event_id);
+
+-- Checkpoint rows are the pollers' lock, so every projector gets one up front
+insert into projector_checkpoint (projector_name, last_event_id, updated)
+select p.projector_name, 0, now(6)
+  from (select 'dashboard-rollups' as projector_name
+        union all select 'campaign-totals'
+        union all select 'trending-scores'
+        union all select 'donor-lifetime-stats') p
+ where not exists (select 1 from projector_checkpoint c where c.projector_name = p.projector_name);
+
+-- Events a projector has not reached yet are still pending for it
+insert into donation_event_delivery (projector_name, event_id, created)
+select c.projector_name, e.id, e.created
+  from projector_checkpoint c
+  join donation_event e on e.id > c.last_event_id;
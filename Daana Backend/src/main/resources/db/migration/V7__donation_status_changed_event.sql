@@ -0,0 +1,7 @@
+-- ----------------------------------------------------------------------------------------------------------------------
+-- Donation status changes are written to the outbox too, so approving a pending donation updates the dashboard
+-- rollups of its day without waiting for the hourly repair.
+-- ----------------------------------------------------------------------------------------------------------------------
+
+alter table donation_event
+   modify column event_type enum ('DONATION_CREATED','DONATION_STATUS_CHANGED') not null;
@@ -0,0 +1,15 @@
+-- ----------------------------------------------------------------------------------------------------------------------
+-- Charity of the donation's campaign, copied onto the donation so the charity's donation listings are read from one
+-- (charity_id, created, id) index in order and stop at the page size. A campaign never moves to another charity, so
+-- the copy cannot go stale; DonationServiceImpl sets it on insert.
+-- ----------------------------------------------------------------------------------------------------------------------
+
+alter table donation
+   add column charity_id bigint;
+
+update donation d
+  join campaigns c on c.id = d.campaigns_id
+   set d.charity_id = c.charity_id;
+
+create index idx_donation_charity_created_id
+   on donation (charity_id, created, id);
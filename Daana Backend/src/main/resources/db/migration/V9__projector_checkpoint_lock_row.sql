@@ -0,0 +1,7 @@
+-- ----------------------------------------------------------------------------------------------------------------------
+-- projector_checkpoint is only the per projector lock row: pending events are the projector's deliveries, so the last
+-- applied event id was written but never read. Missing rows are created by the poller before it locks them.
+-- ----------------------------------------------------------------------------------------------------------------------
+
+alter table projector_checkpoint
+   drop column last_event_id;
@@ -0,0 +1,242 @@
+package lk.kolitha.dana.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lk.kolitha.dana.entity.Campaigns;
+import lk.kolitha.dana.entity.Donation;
+import lk.kolitha.dana.repository.DonationRepositoryCustom;
+import lk.kolitha.dana.support.EmbeddedMariaDb;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page of the charity donation listing and of the donor donation history: the row record queries
+ * of DonationRepositoryCustom against the managed entity queries with fetch joins they replaced. Each
+ * page runs in its own persistence context, as in a request, and reads the fields the response DTO is
+ * built from. Run with the GC profiler for the allocation per page:
+ * {@code org.openjdk.jmh.Main DonationListingBenchmark -prof gc}.
+ *
+ * <p>Production entities are bytecode enhanced (see the hibernate-enhance-maven-plugin execution), so
+ * lazy basic attributes such as Campaigns.programLocation stay unloaded; run this against enhanced
+ * classes, e.g. after {@code mvn test-compile}, for numbers that match.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 3)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DonationListingBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final long CHARITY_ID = 7L;
+    private static final long DONOR_ID = 12L;
+
+    private static final String CHARITY_PAGE_ENTITIES = "SELECT d FROM Donation d JOIN FETCH d.campaigns c " +
+            "LEFT JOIN FETCH d.registeredDonor rd WHERE d.charityId = :charityId ORDER BY d.created DESC, d.id DESC";
+    private static final String DONOR_PAGE_ENTITIES = "SELECT d FROM Donation d JOIN FETCH d.campaigns c " +
+            "LEFT JOIN FETCH c.charity LEFT JOIN FETCH c.subCategory sc LEFT JOIN FETCH sc.category " +
+            "WHERE d.registeredDonor.id = :donorId ORDER BY d.created DESC, d.id DESC";
+
+    private HikariDataSource dataSource;
+    private EntityManagerFactory entityManagerFactory;
+    private DonationRepositoryCustom donationRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        String url = EmbeddedMariaDb.createMigratedDatabase("donation_listing_benchmark");
+        seed(url);
+
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(EmbeddedMariaDb.USER);
+        dataSource.setPassword(EmbeddedMariaDb.PASSWORD);
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan(Donation.class.getPackageName());
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        // As Spring Boot configures Hibernate, with the dialect set because MariaDB cannot be detected by the MySQL driver
+        factory.setJpaPropertyMap(Map.of(
+                "hibernate.dialect", "org.hibernate.dialect.MySQLDialect",
+                "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName(),
+                "hibernate.implicit_naming_strategy", SpringImplicitNamingStrategy.class.getName()));
+        factory.afterPropertiesSet();
+        entityManagerFactory = factory.getObject();
+
+        // The repository fragment is package private; it gets a new entity manager per page below
+        Class<?> fragment = Class.forName("lk.kolitha.dana.repository.DonationRepositoryCustomImpl");
+        var constructor = fragment.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        donationRepository = (DonationRepositoryCustom) constructor.newInstance();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManagerFactory.close();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public void charityPageEntities(Blackhole blackhole) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            List<Donation> donations = entityManager.createQuery(CHARITY_PAGE_ENTITIES, Donation.class)
+                    .setParameter("charityId", CHARITY_ID)
+                    .setMaxResults(PAGE_SIZE + 1)
+                    .getResultList();
+            for (Donation donation : donations) {
+                consumeDonation(donation, blackhole);
+                consumeCampaign(donation.getCampaigns(), blackhole);
+                if (donation.getRegisteredDonor() != null) {
+                    blackhole.consume(donation.getRegisteredDonor().getFirstName());
+                    blackhole.consume(donation.getRegisteredDonor().getLastName());
+                    blackhole.consume(donation.getRegisteredDonor().getEmail());
+                    blackhole.consume(donation.getRegisteredDonor().getPhoneNumber());
+                    blackhole.consume(donation.getRegisteredDonor().getProfileImageUrl());
+                }
+            }
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Benchmark
+    public Object charityPageRows() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            ReflectionTestUtils.setField(donationRepository, "entityManager", entityManager);
+            return donationRepository.findDonationsByCharityIdAfter(CHARITY_ID, null, null, null, null, null, null, null,
+                    PageRequest.of(0, PAGE_SIZE + 1));
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Benchmark
+    public void donorPageEntities(Blackhole blackhole) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            List<Donation> donations = entityManager.createQuery(DONOR_PAGE_ENTITIES, Donation.class)
+                    .setParameter("donorId", DONOR_ID)
+                    .setMaxResults(PAGE_SIZE + 1)
+                    .getResultList();
+            for (Donation donation : donations) {
+                consumeDonation(donation, blackhole);
+                Campaigns campaign = donation.getCampaigns();
+                consumeCampaign(campaign, blackhole);
+                blackhole.consume(campaign.getProgramImage());
+                blackhole.consume(campaign.getDescription());
+                blackhole.consume(campaign.getStartDate());
+                blackhole.consume(campaign.getEndDate());
+                blackhole.consume(campaign.getStatus());
+                if (campaign.getCharity() != null) {
+                    blackhole.consume(campaign.getCharity().getName());
+                    blackhole.consume(campaign.getCharity().getLogoUrl());
+                }
+                if (campaign.getSubCategory() != null) {
+                    blackhole.consume(campaign.getSubCategory().getName());
+                    blackhole.consume(campaign.getSubCategory().getCategory().getName());
+                }
+                // Not fetched by the old query; the first access loads the donor
+                blackhole.consume(donation.getRegisteredDonor().getFirstName());
+                blackhole.consume(donation.getRegisteredDonor().getLastName());
+            }
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Benchmark
+    public Object donorPageRows() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            ReflectionTestUtils.setField(donationRepository, "entityManager", entityManager);
+            return donationRepository.findDonationsByDonorIdAfter(DONOR_ID, null, null, null, null, PageRequest.of(0, PAGE_SIZE + 1));
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(DonationListingBenchmark.class.getSimpleName()).addProfiler("gc").build()).run();
+    }
+
+    private static void consumeDonation(Donation donation, Blackhole blackhole) {
+        blackhole.consume(donation.getId());
+        blackhole.consume(donation.getActualDonationAmount());
+        blackhole.consume(donation.getNetDonationAmount());
+        blackhole.consume(donation.getServiceCharge());
+        blackhole.consume(donation.getIsAnonymousDonation());
+        blackhole.consume(donation.getComments());
+        blackhole.consume(donation.getStatus());
+        blackhole.consume(donation.getPaymentMethod());
+        blackhole.consume(donation.getPaymentSlipUrl());
+        blackhole.consume(donation.getPaymentReferenceNumber());
+        blackhole.consume(donation.getCreated());
+        blackhole.consume(donation.getUpdated());
+    }
+
+    private static void consumeCampaign(Campaigns campaign, Blackhole blackhole) {
+        blackhole.consume(campaign.getId());
+        blackhole.consume(campaign.getProgramName());
+        blackhole.consume(campaign.getTitle());
+        blackhole.consume(campaign.getUrlName());
+        blackhole.consume(campaign.getTargetDonationAmount());
+        blackhole.consume(campaign.getRaised());
+    }
+
+    /**
+     * Campaigns with full length descriptions and a long location, charities with a long description, and
+     * 60000 donations spread over them and 2000 donors
+     */
+    private static void seed(String url) throws Exception {
+        try (Connection connection = EmbeddedMariaDb.connect(url); Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO category (id, name, status) SELECT seq, CONCAT('category-', seq), 'ACTIVE' FROM seq_1_to_5");
+            statement.execute("INSERT INTO sub_category (id, category_id, name, status) " +
+                    "SELECT seq, seq % 5 + 1, CONCAT('sub-category-', seq), 'ACTIVE' FROM seq_1_to_20");
+            statement.execute("INSERT INTO charity (id, account_verify_status, contact_person_mobile, is_deleted, mobile_number, " +
+                    "email, name, password_hash, execution_type, status, created, description) " +
+                    "SELECT seq, 1, 0, 0, 0, CONCAT('charity-', seq, '@example.org'), CONCAT('Charity ', seq), 'hash', " +
+                    "'ORGANIZATION', 'ACTIVE', NOW(), REPEAT('About the charity. ', 250) FROM seq_1_to_200");
+            statement.execute("INSERT INTO campaigns (id, deleted, charity_id, sub_category_id, created, url_name, title, " +
+                    "program_name, description, program_location, location_summary, raised, target_donation_amount, status) " +
+                    "SELECT seq, 0, seq % 200 + 1, seq % 20 + 1, NOW() - INTERVAL seq MINUTE, CONCAT('program-', seq), " +
+                    "CONCAT('Program ', seq), CONCAT('Program ', seq), REPEAT('Description of the program. ', 70), " +
+                    "REPEAT('Location and directions. ', 800), 'Colombo', 5000, 100000, 'ACTIVE' FROM seq_1_to_4000");
+            statement.execute("INSERT INTO registered_donor (id, account_verify_status, is_billing_verify, is_deleted, " +
+                    "three_login_attempt_count, email, first_name, last_name, gender, password_hash) " +
+                    "SELECT seq, 1, 0, 0, 0, CONCAT('donor-', seq, '@example.org'), 'First', 'Last', 'FEMALE', 'hash' FROM seq_1_to_2000");
+            statement.execute("INSERT INTO donation (id, service_charge, campaigns_id, charity_id, registered_donor_id, created, " +
+                    "actual_donation_amount, net_donation_amount, payment_reference_number, payment_method, status, comments) " +
+                    "SELECT seq, 0, seq % 4000 + 1, (seq % 4000 + 1) % 200 + 1, seq % 2000 + 1, NOW() - INTERVAL seq MINUTE, " +
+                    "1000, 1000, CONCAT('ref-', seq), 'CARD', 'ACTIVE', 'Keep up the good work' FROM seq_1_to_60000");
+            statement.execute("ANALYZE TABLE campaigns, donation, registered_donor, charity PERSISTENT FOR ALL");
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package lk.kolitha.dana.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import lk.kolitha.dana.entity.RegisteredDonor;
+import lk.kolitha.dana.enums.PrincipalType;
+import lk.kolitha.dana.enums.Role;
+import lk.kolitha.dana.repository.AdminUserRepository;
+import lk.kolitha.dana.repository.CharityRepository;
+import lk.kolitha.dana.repository.RegisteredDonorRepository;
+import lk.kolitha.dana.security.AccountStatusCache;
+import lk.kolitha.dana.security.AuthenticatedUser;
+import lk.kolitha.dana.security.JwtAuthenticationFilter;
+import lk.kolitha.dana.security.JwtService;
+import lk.kolitha.dana.service.CustomUserDetailsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Per request cost of authenticating an access token in {@link JwtAuthenticationFilter}, with the
+ * verified token cache on and off (off is the cost of a token seen for the first time), against the
+ * three full parses with a key rebuilt each time that the filter did before.
+ *
+ * <p>Run the main method from the test classpath, e.g. in the IDE.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final String EMAIL = "donor@example.org";
+    private static final long DONOR_ID = 12L;
+
+    // Maximum size of the verified token cache; 0 evicts every entry, so each request is verified again
+    @Param({"10000", "0"})
+    public long verifiedCacheSize;
+
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filter;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", TimeUnit.DAYS.toMillis(1));
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheMaximumSize", verifiedCacheSize);
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheTtlSeconds", 300L);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+
+        RegisteredDonor donor = new RegisteredDonor();
+        donor.setId(DONOR_ID);
+        donor.setEmail(EMAIL);
+        donor.setAccountVerifyStatus(true);
+        RegisteredDonorRepository donorRepository = mock(RegisteredDonorRepository.class);
+        when(donorRepository.findById(DONOR_ID)).thenReturn(Optional.of(donor));
+        CharityRepository charityRepository = mock(CharityRepository.class);
+        AdminUserRepository adminUserRepository = mock(AdminUserRepository.class);
+
+        AccountStatusCache accountStatusCache = new AccountStatusCache(donorRepository, charityRepository, adminUserRepository);
+        ReflectionTestUtils.setField(accountStatusCache, "ttlSeconds", 30L);
+        ReflectionTestUtils.setField(accountStatusCache, "maximumSize", 100L);
+        ReflectionTestUtils.invokeMethod(accountStatusCache, "init");
+
+        filter = new JwtAuthenticationFilter(jwtService,
+                new CustomUserDetailsService(donorRepository, charityRepository, adminUserRepository), accountStatusCache);
+        token = jwtService.generateTokenWithScope(new AuthenticatedUser(DONOR_ID, EMAIL, Role.DONOR, PrincipalType.DONOR), "donor");
+    }
+
+    @Benchmark
+    public Authentication filter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /**
+     * What the filter verified before: extractUsername, then isTokenValid parsing the subject and the
+     * expiration again, each decoding the secret and building a new parser
+     */
+    @Benchmark
+    public boolean previousThreeParses() {
+        String username = parseWithNewKey().getSubject();
+        return username.equals(parseWithNewKey().getSubject())
+                && parseWithNewKey().getExpiration().after(new Date());
+    }
+
+    private Claims parseWithNewKey() {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(JwtAuthenticationFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
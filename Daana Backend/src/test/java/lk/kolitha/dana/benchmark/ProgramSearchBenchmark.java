@@ -0,0 +1,201 @@
+package lk.kolitha.dana.benchmark;
+
+import lk.kolitha.dana.repository.CampaignsRepository;
+import lk.kolitha.dana.service.impl.ProgramSearchServiceImpl;
+import lk.kolitha.dana.support.EmbeddedMariaDb;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * First page of a program search: the in-memory index plus loading the page by id, against the LIKE
+ * listing query it replaced, on the embedded MariaDB with the same generated campaigns. The common word
+ * is in many of the campaigns, the rare one in few; the LIKE query has to read every campaign either way,
+ * the index only the postings of the word.
+ *
+ * <p>Run the main method from the test classpath, e.g. in the IDE.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProgramSearchBenchmark {
+
+    private static final int PAGE_SIZE = 12;
+    private static final int VOCABULARY_SIZE = 3000;
+
+    private static final String LIKE_PAGE = "SELECT p.id, p.program_name, p.title, p.description, sc.name, p.location_summary, " +
+            "p.url_name, p.raised, p.created FROM campaigns p JOIN sub_category sc ON sc.id = p.sub_category_id " +
+            "WHERE p.deleted = 0 AND sc.category_id IS NOT NULL AND (LOWER(p.title) LIKE ? OR LOWER(p.description) LIKE ? " +
+            "OR LOWER(p.program_name) LIKE ?) ORDER BY p.created DESC, p.id DESC LIMIT " + PAGE_SIZE;
+    private static final String PAGE_BY_IDS = "SELECT p.id, p.program_name, p.title, p.description, sc.name, p.location_summary, " +
+            "p.url_name, p.raised, p.created FROM campaigns p JOIN sub_category sc ON sc.id = p.sub_category_id WHERE p.id IN (%s)";
+
+    @Param({"5000", "20000"})
+    public int campaigns;
+
+    @Param({"common", "rare"})
+    public String word;
+
+    private Connection connection;
+    private PreparedStatement likePage;
+    private ProgramSearchServiceImpl searchService;
+    private String searchText;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        List<Object[]> documents = generateDocuments();
+        searchText = "common".equals(word) ? word(20) : word(VOCABULARY_SIZE - 1);
+
+        CampaignsRepository campaignsRepository = mock(CampaignsRepository.class);
+        when(campaignsRepository.findSearchDocuments()).thenReturn(documents);
+        searchService = new ProgramSearchServiceImpl(campaignsRepository);
+        searchService.rebuildIndex();
+
+        String url = EmbeddedMariaDb.createMigratedDatabase("search_benchmark_" + campaigns);
+        connection = EmbeddedMariaDb.connect(url);
+        seed(documents);
+        likePage = connection.prepareStatement(LIKE_PAGE);
+        String pattern = "%" + searchText + "%";
+        likePage.setString(1, pattern);
+        likePage.setString(2, pattern);
+        likePage.setString(3, pattern);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void likeQuery(Blackhole blackhole) throws SQLException {
+        try (ResultSet rows = likePage.executeQuery()) {
+            consume(rows, blackhole);
+        }
+    }
+
+    @Benchmark
+    public Page<Long> indexSearch() {
+        return searchService.search(searchText, null, null, PageRequest.of(0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public void indexSearchAndLoadPage(Blackhole blackhole) throws SQLException {
+        Page<Long> ids = indexSearch();
+        if (ids.isEmpty()) {
+            return;
+        }
+        String placeholders = ids.getContent().stream().map(String::valueOf).collect(Collectors.joining(","));
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(String.format(PAGE_BY_IDS, placeholders))) {
+            consume(rows, blackhole);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(ProgramSearchBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * Rows as returned by findSearchDocuments: id, title, program name, description, sub category, category, created.
+     * Words are drawn with a skewed distribution, so low numbered words are common and high numbered ones rare.
+     */
+    private List<Object[]> generateDocuments() {
+        Random random = new Random(42);
+        long now = System.currentTimeMillis();
+        List<Object[]> documents = new ArrayList<>(campaigns);
+        for (int id = 1; id <= campaigns; id++) {
+            int subCategoryId = id % 20 + 1;
+            documents.add(new Object[]{(long) id, words(random, 6), words(random, 4), words(random, 120),
+                    (long) subCategoryId, (long) (subCategoryId % 5 + 1), new Date(now - id * 60_000L)});
+        }
+        return documents;
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            double skewed = Math.pow(random.nextDouble(), 3);
+            text.append(i == 0 ? "" : " ").append(word((int) (skewed * VOCABULARY_SIZE)));
+        }
+        return text.toString();
+    }
+
+    private static String word(int number) {
+        return "w" + number * 7919 % 100_000 + "x";
+    }
+
+    private void seed(List<Object[]> documents) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO category (id, name, status) SELECT seq, CONCAT('category-', seq), 'ACTIVE' FROM seq_1_to_5");
+            statement.execute("INSERT INTO sub_category (id, category_id, name, status) " +
+                    "SELECT seq, seq % 5 + 1, CONCAT('sub-category-', seq), 'ACTIVE' FROM seq_1_to_20");
+            statement.execute("INSERT INTO charity (id, account_verify_status, contact_person_mobile, is_deleted, mobile_number, " +
+                    "email, name, password_hash, execution_type, status, created) " +
+                    "SELECT seq, 1, 0, 0, 0, CONCAT('charity-', seq, '@example.org'), CONCAT('Charity ', seq), 'hash', " +
+                    "'ORGANIZATION', 'ACTIVE', NOW() FROM seq_1_to_200");
+        }
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO campaigns (id, deleted, charity_id, " +
+                "sub_category_id, created, url_name, title, program_name, description, location_summary, raised, " +
+                "target_donation_amount, status) VALUES (?, 0, ?, ?, ?, ?, ?, ?, ?, 'Colombo', 0, 100000, 'ACTIVE')")) {
+            for (Object[] document : documents) {
+                long id = (Long) document[0];
+                insert.setLong(1, id);
+                insert.setLong(2, id % 200 + 1);
+                insert.setLong(3, (Long) document[4]);
+                insert.setTimestamp(4, new Timestamp(((Date) document[6]).getTime()));
+                insert.setString(5, "program-" + id);
+                insert.setString(6, (String) document[1]);
+                insert.setString(7, (String) document[2]);
+                insert.setString(8, (String) document[3]);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+
+    private static void consume(ResultSet rows, Blackhole blackhole) throws SQLException {
+        int columns = rows.getMetaData().getColumnCount();
+        while (rows.next()) {
+            for (int column = 1; column <= columns; column++) {
+                blackhole.consume(rows.getObject(column));
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package lk.kolitha.dana.benchmark;
+
+import lk.kolitha.dana.DanaApplication;
+import lk.kolitha.dana.support.EmbeddedMariaDb;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test of the public program endpoints with requests on virtual threads against the platform Tomcat
+ * pool, at the same datasource pool size. Boots the application on the embedded MariaDB, seeds campaigns,
+ * and for every client count runs closed loop clients (each sends its next request when the last one
+ * returns) over a mix of the cursor listing and the program detail, then prints throughput and latency
+ * percentiles per mode.
+ *
+ * <p>Run the main method from the test classpath, e.g. in the IDE. Arguments, all optional: seconds of
+ * measurement per run, datasource pool size, client counts (comma separated).</p>
+ */
+public class ThreadModeLoadComparison {
+
+    private static final int CAMPAIGNS = 2000;
+    private static final int WARMUP_SECONDS = 10;
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 30;
+        int poolSize = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int[] clientCounts = args.length > 2
+                ? Arrays.stream(args[2].split(",")).mapToInt(Integer::parseInt).toArray()
+                : new int[]{50, 400};
+
+        String url = EmbeddedMariaDb.createMigratedDatabase("thread_mode_load");
+        seed(url);
+
+        List<String> results = new ArrayList<>();
+        for (boolean virtualThreads : new boolean[]{false, true}) {
+            ConfigurableApplicationContext context = start(url, poolSize, virtualThreads);
+            try {
+                int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+                String base = "http://localhost:" + port + "/api/v1/public/programs/";
+                run(base, clientCounts[clientCounts.length - 1], WARMUP_SECONDS);
+                for (int clients : clientCounts) {
+                    Result result = run(base, clients, seconds);
+                    results.add(String.format("%-9s pool=%-3d clients=%-4d %s",
+                            virtualThreads ? "virtual" : "platform", poolSize, clients, result));
+                }
+            } finally {
+                context.close();
+            }
+        }
+        results.forEach(System.out::println);
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext start(String url, int poolSize, boolean virtualThreads) throws Exception {
+        return SpringApplication.run(DanaApplication.class,
+                "--server.port=0",
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=" + EmbeddedMariaDb.USER,
+                "--spring.datasource.password=" + EmbeddedMariaDb.PASSWORD,
+                "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "--spring.datasource.hikari.minimum-idle=" + poolSize,
+                "--spring.jpa.database-platform=org.hibernate.dialect.MySQLDialect",
+                "--spring.servlet.multipart.location=" + Files.createTempDirectory("multipart"),
+                "--spring.threads.virtual.enabled=" + virtualThreads);
+    }
+
+    /**
+     * Campaigns spread over 20 sub categories of 5 categories, owned by 200 charities
+     */
+    private static void seed(String url) throws Exception {
+        try (Connection connection = EmbeddedMariaDb.connect(url); Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO category (id, name, status) SELECT seq, CONCAT('category-', seq), 'ACTIVE' FROM seq_1_to_5");
+            statement.execute("INSERT INTO sub_category (id, category_id, name, status) " +
+                    "SELECT seq, seq % 5 + 1, CONCAT('sub-category-', seq), 'ACTIVE' FROM seq_1_to_20");
+            statement.execute("INSERT INTO charity (id, account_verify_status, contact_person_mobile, is_deleted, mobile_number, " +
+                    "email, name, password_hash, execution_type, status, created) " +
+                    "SELECT seq, 1, 0, 0, 0, CONCAT('charity-', seq, '@example.org'), CONCAT('Charity ', seq), 'hash', " +
+                    "'ORGANIZATION', 'ACTIVE', NOW() FROM seq_1_to_200");
+            statement.execute("INSERT INTO campaigns (id, deleted, charity_id, sub_category_id, created, url_name, title, " +
+                    "program_name, description, location_summary, raised, target_donation_amount, status) " +
+                    "SELECT seq, 0, seq % 200 + 1, seq % 20 + 1, NOW() - INTERVAL seq MINUTE, CONCAT('program-', seq), " +
+                    "CONCAT('Program ', seq), CONCAT('Program ', seq), REPEAT('Description of the program. ', 40), " +
+                    "'Colombo', 0, 100000, 'ACTIVE' FROM seq_1_to_" + CAMPAIGNS);
+        }
+    }
+
+    private static Result run(String base, int clients, int seconds) throws Exception {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        long end = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<Future<List<Long>>> workers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                workers.add(executor.submit(() -> {
+                    List<Long> latencies = new ArrayList<>();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < end) {
+                        // Two listings to one detail, as on the home and search pages
+                        String path = random.nextInt(3) == 0
+                                ? "program-" + (random.nextInt(CAMPAIGNS) + 1)
+                                : "filter/cursor?size=12&categoryId=" + (random.nextInt(5) + 1);
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(base + path)).GET().build();
+                        long start = System.nanoTime();
+                        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                        latencies.add(System.nanoTime() - start);
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return latencies;
+                }));
+            }
+        }
+        List<Long> latencies = new ArrayList<>();
+        for (Future<List<Long>> worker : workers) {
+            latencies.addAll(worker.get());
+        }
+        return new Result(latencies, errors.get(), seconds);
+    }
+
+    private record Result(long[] sortedNanos, long errors, int seconds) {
+
+        Result(List<Long> latencies, long errors, int seconds) {
+            this(latencies.stream().mapToLong(Long::longValue).sorted().toArray(), errors, seconds);
+        }
+
+        private double percentileMs(double percentile) {
+            if (sortedNanos.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * sortedNanos.length) - 1;
+            return sortedNanos[Math.max(index, 0)] / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("requests/s=%8.1f p50=%7.1fms p99=%7.1fms max=%7.1fms errors=%d",
+                    (double) sortedNanos.length / seconds, percentileMs(50), percentileMs(99), percentileMs(100), errors);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package lk.kolitha.dana.migration;
+
+import lk.kolitha.dana.repository.CampaignDailyStatsRepository;
+import lk.kolitha.dana.repository.CampaignsRepository;
+import lk.kolitha.dana.repository.CharityDailyStatsRepository;
+import lk.kolitha.dana.repository.DonationEventDeliveryRepository;
+import lk.kolitha.dana.repository.DonationEventRepository;
+import lk.kolitha.dana.repository.DonationRepository;
+import lk.kolitha.dana.repository.OutboundEmailRepository;
+import lk.kolitha.dana.repository.StagedUploadRepository;
+import lk.kolitha.dana.repository.StoredBlobRepository;
+import lk.kolitha.dana.repository.UploadSessionRepository;
+import lk.kolitha.dana.support.EmbeddedMariaDb;
+import lk.kolitha.dana.support.StatementCapture;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * EXPLAIN of the hot queries on a seeded, migrated database: none may read a whole table, or a whole index of
+ * one, that grows with use.
+ * Each case calls the repository method the services call, in a transaction that is rolled back, and explains
+ * every statement the driver sent for it, with the bound parameters inlined.
+ * Category and sub category are exempt; they stay a few dozen rows and MariaDB is right to scan them.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class QueryPlanTest {
+
+    private static final Set<String> LOOKUP_TABLES = Set.of("category", "sub_category");
+    private static final Pattern TABLE_ALIAS = Pattern.compile("\\b(?:from|join) (\\w+) (\\w+)");
+
+    private static String url;
+
+    @Autowired
+    private CampaignsRepository campaignsRepository;
+    @Autowired
+    private DonationRepository donationRepository;
+    @Autowired
+    private DonationEventRepository donationEventRepository;
+    @Autowired
+    private DonationEventDeliveryRepository deliveryRepository;
+    @Autowired
+    private OutboundEmailRepository outboundEmailRepository;
+    @Autowired
+    private UploadSessionRepository uploadSessionRepository;
+    @Autowired
+    private StoredBlobRepository storedBlobRepository;
+    @Autowired
+    private StagedUploadRepository stagedUploadRepository;
+    @Autowired
+    private CharityDailyStatsRepository charityDailyStatsRepository;
+    @Autowired
+    private CampaignDailyStatsRepository campaignDailyStatsRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @DynamicPropertySource
+    static void dataSource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> url() + "?" + StatementCapture.urlOption());
+        registry.add("spring.datasource.username", () -> EmbeddedMariaDb.USER);
+        registry.add("spring.datasource.password", () -> EmbeddedMariaDb.PASSWORD);
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.MySQLDialect");
+    }
+
+    private static synchronized String url() {
+        if (url == null) {
+            url = EmbeddedMariaDb.createMigratedDatabase("query_plans");
+            seed();
+        }
+        return url;
+    }
+
+    private static void seed() {
+        try (Connection connection = EmbeddedMariaDb.connect(url); Statement statement = connection.createStatement()) {
+            for (String sql : SEED) {
+                statement.execute(sql);
+            }
+            statement.execute("ANALYZE TABLE campaigns, donation, donation_event, donation_event_delivery, registered_donor, charity, " +
+                    "outbound_email, upload_session, stored_blob, staged_upload, campaign_trending_score, " +
+                    "campaign_daily_stats, charity_daily_stats PERSISTENT FOR ALL");
+        } catch (Exception e) {
+            throw new IllegalStateException("Query plan database could not be seeded", e);
+        }
+    }
+
+    /**
+     * A repository call as a service makes it
+     */
+    interface HotQuery {
+        void run(QueryPlanTest repositories);
+    }
+
+    static Stream<Arguments> hotQueries() {
+        Date cursorCreated = minutesAgo(100);
+        return Stream.of(
+                hotQuery("latest program cards", test -> test.campaignsRepository.findLatestProgramCards(PageRequest.of(0, 10))),
+                hotQuery("trending program cards", test -> test.campaignsRepository.findTrendingProgramCards(PageRequest.of(0, 10))),
+                hotQuery("filtered listing keyset page", test -> test.campaignsRepository.filterProgramAfter(null, null, null,
+                        cursorCreated, 1000L, PageRequest.of(0, 13))),
+                hotQuery("category listing keyset page", test -> test.campaignsRepository.filterProgramAfter(2L, null, null,
+                        cursorCreated, 1000L, PageRequest.of(0, 13))),
+                hotQuery("sub category listing keyset page", test -> test.campaignsRepository.filterProgramAfter(null, 4L, null,
+                        cursorCreated, 1000L, PageRequest.of(0, 13))),
+                hotQuery("program detail by url name", test -> test.campaignsRepository.findDetailVersionByUrlName("program-77")),
+                hotQuery("charity program page", test -> test.campaignsRepository.findByCharityIdAndDeletedFalse(7L,
+                        PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "created")))),
+                hotQuery("charity program counts by status", test -> test.campaignsRepository.countByStatusForCharity(7L)),
+                hotQuery("donor donation keyset page", test -> test.donationRepository.findDonationsByDonorIdAfter(12L, null, null,
+                        new Date(), 5000L, PageRequest.of(0, 21))),
+                hotQuery("program donation keyset page", test -> test.donationRepository.findDonationsByCharityIdAfter(43L, null, null,
+                        null, null, 42L, new Date(), 5000L, PageRequest.of(0, 21))),
+                hotQuery("charity donation keyset page", test -> test.donationRepository.findDonationsByCharityIdAfter(7L, null, null,
+                        null, null, null, new Date(), 5000L, PageRequest.of(0, 21))),
+                hotQuery("trending rebuild input scan", test -> test.donationRepository.findTrendingInputsAfter(100L, 600L,
+                        minutesAgo(7 * 24 * 60), PageRequest.of(0, 500))),
+                hotQuery("outbox pending deliveries", test -> test.deliveryRepository.findPending("campaign-totals", PageRequest.of(0, 200))),
+                hotQuery("outbox batch events", test -> test.donationEventRepository.findByIdsOrdered(List.of(19001L, 19002L, 19003L))),
+                hotQuery("outbox purge", test -> test.donationEventRepository.deleteDeliveredBefore(minutesAgo(5 * 60))),
+                hotQuery("email outbox poll", test -> test.outboundEmailRepository.findDueForUpdate(new Date(), PageRequest.of(0, 20))),
+                hotQuery("expired upload sessions", test -> test.uploadSessionRepository.findExpired(minutesAgo(24 * 60), PageRequest.of(0, 100))),
+                hotQuery("unreferenced blobs", test -> test.storedBlobRepository.findUnreferencedForUpdate(minutesAgo(24 * 60), PageRequest.of(0, 100))),
+                hotQuery("stale staged uploads", test -> test.stagedUploadRepository.findStaleUploads(minutesAgo(24 * 60), PageRequest.of(0, 100))),
+                hotQuery("charity monthly rollup", test -> test.charityDailyStatsRepository.sumMonthlyByCharityId(7L, LocalDate.now().minusMonths(6))),
+                hotQuery("campaign donation counts", test -> test.campaignDailyStatsRepository.sumDonationCountByCampaignIds(List.of(3L, 4L, 5L, 6L)))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    void hotQueryDoesNotScanAGrowingTable(String name, HotQuery query) throws Exception {
+        List<String> fullScans = new ArrayList<>();
+        for (PlanRow row : explain(query)) {
+            // A whole index read that still needs a sort cannot stop at the LIMIT either
+            boolean fullScan = "ALL".equals(row.type()) || ("index".equals(row.type()) && row.extra().contains("Using filesort"));
+            if (fullScan && !LOOKUP_TABLES.contains(row.table())) {
+                fullScans.add(row.table());
+            }
+        }
+        assertThat(fullScans).as("tables read in full by " + name).isEmpty();
+    }
+
+    static Stream<Arguments> keysetPages() {
+        return hotQueries().filter(query -> query.get()[0].toString().endsWith("keyset page"));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("keysetPages")
+    void keysetPageIsReadInIndexOrder(String name, HotQuery query) throws Exception {
+        List<String> sorted = new ArrayList<>();
+        for (PlanRow row : explain(query)) {
+            // A sorted page reads every matching row before it can return the first one
+            if (row.extra().contains("Using filesort")) {
+                sorted.add(row.table());
+            }
+        }
+        assertThat(sorted).as("tables sorted by " + name).isEmpty();
+    }
+
+    private List<PlanRow> explain(HotQuery query) throws Exception {
+        StatementCapture.clear();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            query.run(this);
+            status.setRollbackOnly();
+        });
+        List<String> statements = StatementCapture.statements();
+        assertThat(statements).as("statements sent").isNotEmpty();
+
+        List<PlanRow> plan = new ArrayList<>();
+        try (Connection connection = EmbeddedMariaDb.connect(url); Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                // EXPLAIN names tables by the aliases Hibernate gives them
+                Map<String, String> tables = new HashMap<>();
+                Matcher alias = TABLE_ALIAS.matcher(sql);
+                while (alias.find()) {
+                    tables.put(alias.group(2), alias.group(1));
+                }
+                try (ResultSet rows = statement.executeQuery("EXPLAIN " + sql)) {
+                    while (rows.next()) {
+                        String table = rows.getString("table");
+                        plan.add(new PlanRow(tables.getOrDefault(table, table), rows.getString("type"), String.valueOf(rows.getString("Extra"))));
+                    }
+                }
+            }
+        }
+        return plan;
+    }
+
+    private record PlanRow(String table, String type, String extra) {
+    }
+
+    private static Arguments hotQuery(String name, HotQuery query) {
+        return Arguments.of(name, query);
+    }
+
+    private static Date minutesAgo(long minutes) {
+        return new Date(System.currentTimeMillis() - minutes * 60_000);
+    }
+
+    private static final List<String> SEED = List.of(
+            "INSERT INTO category (id, name, status) SELECT seq, CONCAT('category-', seq), 'ACTIVE' FROM seq_1_to_5",
+            "INSERT INTO sub_category (id, category_id, name, status) " +
+            "SELECT seq, seq % 5 + 1, CONCAT('sub-category-', seq), 'ACTIVE' FROM seq_1_to_20",
+            "INSERT INTO charity (id, account_verify_status, contact_person_mobile, is_deleted, mobile_number, email, name, " +
+            "password_hash, execution_type, status, created) " +
+            "SELECT seq, 1, 0, 0, 0, CONCAT('charity-', seq, '@example.org'), CONCAT('Charity ', seq), 'hash', " +
+            "'ORGANIZATION', 'ACTIVE', NOW() FROM seq_1_to_200",
+            "INSERT INTO campaigns (id, deleted, charity_id, sub_category_id, created, url_name, program_name, " +
+            "location_summary, raised, target_donation_amount, status) " +
+            "SELECT seq, seq % 10 = 0, seq % 200 + 1, seq % 20 + 1, NOW() - INTERVAL seq MINUTE, CONCAT('program-', seq), " +
+            "CONCAT('Program ', seq), 'Colombo', 0, 100000, ELT(seq % 3 + 1, 'ACTIVE', 'PENDING', 'DRAFT') " +
+            "FROM seq_1_to_4000",
+            "INSERT INTO registered_donor (id, account_verify_status, is_billing_verify, is_deleted, three_login_attempt_count, " +
+            "email, gender, password_hash) " +
+            "SELECT seq, 1, 0, 0, 0, CONCAT('donor-', seq, '@example.org'), 'FEMALE', 'hash' FROM seq_1_to_2000",
+            "INSERT INTO donation (id, service_charge, campaigns_id, charity_id, registered_donor_id, created, " +
+            "net_donation_amount, payment_reference_number, payment_method, status) " +
+            "SELECT seq, 0, seq % 4000 + 1, (seq % 4000 + 1) % 200 + 1, seq % 2000 + 1, NOW() - INTERVAL seq MINUTE, 1000, CONCAT('ref-', seq), " +
+            "'CARD', IF(seq % 4 = 0, 'PENDING', 'ACTIVE') FROM seq_1_to_60000",
+            "INSERT INTO donation_event (id, event_type, donation_id, campaign_id, charity_id, donor_id, amount, occurred_at, created) " +
+            "SELECT seq, 'DONATION_CREATED', seq, seq % 4000 + 1, seq % 200 + 1, seq % 2000 + 1, 1000, " +
+            "NOW() - INTERVAL seq SECOND, NOW() - INTERVAL seq SECOND FROM seq_1_to_20000",
+            "INSERT INTO donation_event_delivery (projector_name, event_id, created) " +
+            "SELECT c.projector_name, e.id, e.created FROM projector_checkpoint c JOIN donation_event e ON e.id > 19000",
+            "INSERT INTO campaign_trending_score (campaign_id, log_score, last_donation_at) " +
+            "SELECT seq, seq / 7, NOW() FROM seq_1_to_4000",
+            "INSERT INTO outbound_email (id, attempts, created, next_attempt_at, sent_at, recipient, subject, html_body, status) " +
+            "SELECT seq, 1, NOW() - INTERVAL seq MINUTE, NOW() - INTERVAL seq MINUTE, NOW() - INTERVAL seq MINUTE, " +
+            "'someone@example.org', 'Subject', '<p>Body</p>', IF(seq % 500 = 0, 'PENDING', 'SENT') FROM seq_1_to_20000",
+            "INSERT INTO upload_session (id, campaign_id, charity_id, created, expires_at, received_bytes, total_size, status) " +
+            "SELECT CONCAT('session-', seq), seq % 4000 + 1, seq % 200 + 1, NOW() - INTERVAL seq HOUR, " +
+            "NOW() - INTERVAL seq HOUR + INTERVAL 1 DAY, 0, 1000, IF(seq % 3 = 0, 'OPEN', 'COMPLETED') FROM seq_1_to_5000",
+            "INSERT INTO stored_blob (id, reference_count, created, updated, size, content_hash, file_url, object_key) " +
+            "SELECT seq, IF(seq % 200 = 0, 0, 1), NOW() - INTERVAL seq HOUR, NOW() - INTERVAL seq HOUR, 1000, " +
+            "SHA2(seq, 256), CONCAT('https://files.example.org/', seq), CONCAT('blobs/', seq) FROM seq_1_to_5000",
+            "INSERT INTO staged_upload (id, created, file_url) " +
+            "SELECT seq, NOW() - INTERVAL seq MINUTE, CONCAT('https://files.example.org/staged/', seq) FROM seq_1_to_5000",
+            "INSERT INTO campaign_daily_stats (campaign_id, charity_id, stat_date, donation_count, amount) " +
+            "SELECT c.seq, c.seq % 200 + 1, CURDATE() - INTERVAL d.seq DAY, 3, 3000 FROM seq_1_to_4000 c JOIN seq_0_to_9 d",
+            "INSERT INTO charity_daily_stats (charity_id, stat_date, donation_count, amount) " +
+            "SELECT c.seq, CURDATE() - INTERVAL d.seq DAY, 60, 60000 FROM seq_1_to_200 c JOIN seq_0_to_199 d"
+    );
+}
@@ -0,0 +1,97 @@
+package lk.kolitha.dana.migration;
+
+import jakarta.persistence.Entity;
+import lk.kolitha.dana.support.EmbeddedMariaDb;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+/**
+ * The migrations against the two kinds of database they meet: an empty one, and one created by ddl-auto=update
+ * from the entity mappings before migrations existed, which Flyway baselines at version 1.
+ */
+class SchemaMigrationTest {
+
+    @Test
+    void emptyDatabaseMigratesAndMatchesTheMappings() {
+        String url = EmbeddedMariaDb.createDatabase("migration_fresh");
+
+        MigrateResult result = EmbeddedMariaDb.flyway(url).migrate();
+
+        assertThat(result.success).isTrue();
+        assertThat(result.initialSchemaVersion).isNull();
+        assertThatCode(() -> validateMappings(url)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void preSeriesDatabaseIsBaselinedAndUpgraded() throws Exception {
+        String url = EmbeddedMariaDb.createDatabase("migration_baselined");
+        // What ddl-auto=update left behind before migrations: the V1 schema, existing rows, no history table
+        EmbeddedMariaDb.runScript(url, "db/migration/V1__baseline_schema.sql");
+        try (Connection connection = EmbeddedMariaDb.connect(url); Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO charity (id, account_verify_status, contact_person_mobile, is_deleted, mobile_number, " +
+                    "email, name, password_hash, execution_type, status) " +
+                    "VALUES (1, 1, 0, 0, 0, 'charity@example.org', 'Charity', 'hash', 'ORGANIZATION', 'ACTIVE')");
+            statement.execute("INSERT INTO campaigns (id, deleted, charity_id, created, url_name, program_location, status) " +
+                    "VALUES (1, 0, 1, NOW(), 'program-1', REPEAT('x', 300), 'ACTIVE')");
+        }
+
+        MigrateResult result = EmbeddedMariaDb.flyway(url).migrate();
+
+        assertThat(result.success).isTrue();
+        assertThat(Arrays.stream(EmbeddedMariaDb.flyway(url).info().applied()).map(MigrationInfo::getVersion)
+                .map(Object::toString))
+                .first().isEqualTo("1");
+        assertThat(result.migrationsExecuted).isEqualTo(EmbeddedMariaDb.flyway(url).info().applied().length - 1);
+        assertThatCode(() -> validateMappings(url)).doesNotThrowAnyException();
+
+        try (Connection connection = EmbeddedMariaDb.connect(url); Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT location_summary, version FROM campaigns WHERE id = 1")) {
+            assertThat(rows.next()).isTrue();
+            assertThat(rows.getString(1)).hasSize(255);
+            assertThat(rows.getLong(2)).isZero();
+        }
+    }
+
+    /**
+     * Build a session factory over every entity with ddl-auto=validate, the way the application starts
+     */
+    private static void validateMappings(String url) throws ClassNotFoundException {
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting("jakarta.persistence.jdbc.url", url)
+                .applySetting("jakarta.persistence.jdbc.user", EmbeddedMariaDb.USER)
+                .applySetting("jakarta.persistence.jdbc.password", EmbeddedMariaDb.PASSWORD)
+                // The MySQL driver cannot read MariaDB's keyword list, which dialect detection needs; production runs MySQL
+                .applySetting("hibernate.dialect", "org.hibernate.dialect.MySQLDialect")
+                .applySetting("hibernate.hbm2ddl.auto", "validate")
+                .applySetting("hibernate.physical_naming_strategy",
+                        "org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy")
+                .applySetting("hibernate.implicit_naming_strategy",
+                        "org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy")
+                .build();
+        try {
+            MetadataSources sources = new MetadataSources(registry);
+            ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+            scanner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+            for (var candidate : scanner.findCandidateComponents("lk.kolitha.dana.entity")) {
+                sources.addAnnotatedClass(Class.forName(candidate.getBeanClassName()));
+            }
+            sources.buildMetadata().buildSessionFactory().close();
+        } finally {
+            StandardServiceRegistryBuilder.destroy(registry);
+        }
+    }
+}
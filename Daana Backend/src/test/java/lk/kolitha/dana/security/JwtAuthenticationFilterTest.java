@@ -0,0 +1,137 @@
+package lk.kolitha.dana.security;
+
+import lk.kolitha.dana.entity.RegisteredDonor;
+import lk.kolitha.dana.enums.PrincipalType;
+import lk.kolitha.dana.enums.Role;
+import lk.kolitha.dana.repository.AdminUserRepository;
+import lk.kolitha.dana.repository.CharityRepository;
+import lk.kolitha.dana.repository.RegisteredDonorRepository;
+import lk.kolitha.dana.service.CustomUserDetailsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String EMAIL = "donor@example.org";
+    private static final long DONOR_ID = 12L;
+
+    private final RegisteredDonorRepository donorRepository = mock(RegisteredDonorRepository.class);
+    private final RegisteredDonor donor = new RegisteredDonor();
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970");
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 60_000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", 600_000L);
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheMaximumSize", 100L);
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheTtlSeconds", 300L);
+        jwtService.init();
+
+        CharityRepository charityRepository = mock(CharityRepository.class);
+        AdminUserRepository adminUserRepository = mock(AdminUserRepository.class);
+        AccountStatusCache accountStatusCache = new AccountStatusCache(donorRepository, charityRepository, adminUserRepository);
+        ReflectionTestUtils.setField(accountStatusCache, "ttlSeconds", 30L);
+        ReflectionTestUtils.setField(accountStatusCache, "maximumSize", 100L);
+        accountStatusCache.init();
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService(donorRepository, charityRepository, adminUserRepository);
+
+        donor.setId(DONOR_ID);
+        donor.setEmail(EMAIL);
+        donor.setAccountVerifyStatus(true);
+        when(donorRepository.findById(DONOR_ID)).thenReturn(Optional.of(donor));
+        when(donorRepository.findByEmail(EMAIL)).thenReturn(Optional.of(donor));
+
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, accountStatusCache);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void accessTokenIsAccepted() throws Exception {
+        Authentication authentication = authenticate(accessToken());
+
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getPrincipal()).isEqualTo(principal());
+    }
+
+    @Test
+    void accessTokenIssuedBeforeCredentialChangeIsRejected() throws Exception {
+        donor.setCredentialsChangedAt(inTwoSeconds());
+
+        assertThat(authenticate(accessToken())).isNull();
+    }
+
+    @Test
+    void tokenWithoutIdentityClaimsIsAcceptedAsTheAccount() throws Exception {
+        Authentication authentication = authenticate(jwtService.generateToken(userDetails()));
+
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getPrincipal()).isEqualTo(principal());
+    }
+
+    @Test
+    void tokenWithoutIdentityClaimsIssuedBeforeCredentialChangeIsRejected() throws Exception {
+        donor.setCredentialsChangedAt(inTwoSeconds());
+
+        assertThat(authenticate(jwtService.generateToken(userDetails()))).isNull();
+    }
+
+    @Test
+    void tokenOfDeactivatedAccountIsRejected() throws Exception {
+        String token = jwtService.generateToken(userDetails());
+        donor.setAccountVerifyStatus(false);
+
+        assertThat(authenticate(token)).isNull();
+    }
+
+    @Test
+    void refreshTokenIsNotAnAccessToken() throws Exception {
+        assertThat(authenticate(jwtService.generateRefreshToken(userDetails()))).isNull();
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private String accessToken() {
+        return jwtService.generateTokenWithScope(principal(), "donor");
+    }
+
+    private static AuthenticatedUser principal() {
+        return new AuthenticatedUser(DONOR_ID, EMAIL, Role.DONOR, PrincipalType.DONOR);
+    }
+
+    private static UserDetails userDetails() {
+        return User.builder().username(EMAIL).password("").authorities("DONOR").build();
+    }
+
+    // JWT issue times have second precision, so the change must be in a later second than the token
+    private static Date inTwoSeconds() {
+        return new Date(System.currentTimeMillis() + 2000);
+    }
+}
@@ -0,0 +1,197 @@
+package lk.kolitha.dana.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lk.kolitha.dana.entity.Donation;
+import lk.kolitha.dana.entity.DonationEvent;
+import lk.kolitha.dana.repository.DonationEventDeliveryRepository;
+import lk.kolitha.dana.repository.DonationEventRepository;
+import lk.kolitha.dana.repository.ProjectorCheckpointRepository;
+import lk.kolitha.dana.service.DonationEventProjector;
+import lk.kolitha.dana.support.EmbeddedMariaDbJpaTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import({DonationEventServiceImpl.class, DonationEventServiceImplTest.Projectors.class})
+class DonationEventServiceImplTest extends EmbeddedMariaDbJpaTest {
+
+    @Autowired
+    private DonationEventServiceImpl donationEventService;
+    @Autowired
+    private RecordingProjector projector;
+    @Autowired
+    private DonationEventRepository donationEventRepository;
+    @Autowired
+    private DonationEventDeliveryRepository deliveryRepository;
+    @Autowired
+    private ProjectorCheckpointRepository checkpointRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        deliveryRepository.deleteAllInBatch();
+        donationEventRepository.deleteAllInBatch();
+        checkpointRepository.deleteAllInBatch();
+        projector.donationIds.clear();
+    }
+
+    @Test
+    void eventCommittedAfterAHigherIdWasProjectedIsStillProjected() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch recorded = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        // The slow transaction takes the lower event id and commits last
+        CompletableFuture<Void> slow = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+            donationEventService.recordDonationCreated(donation(1L), 10L, 100L);
+            recorded.countDown();
+            await(commit);
+        }));
+        assertThat(recorded.await(10, TimeUnit.SECONDS)).isTrue();
+        transaction.executeWithoutResult(status -> donationEventService.recordDonationCreated(donation(2L), 10L, 100L));
+
+        donationEventService.projectPendingEvents();
+        assertThat(projector.donationIds).containsExactly(2L);
+
+        commit.countDown();
+        slow.get(10, TimeUnit.SECONDS);
+        donationEventService.projectPendingEvents();
+
+        assertThat(projector.donationIds).containsExactly(2L, 1L);
+        assertThat(deliveryRepository.count()).isZero();
+    }
+
+    @Test
+    void failedBatchIsDeliveredAgain() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> donationEventService.recordDonationCreated(donation(3L), 10L, 100L));
+        projector.failNext = true;
+
+        donationEventService.projectPendingEvents();
+        assertThat(projector.donationIds).isEmpty();
+        assertThat(deliveryRepository.count()).isOne();
+
+        donationEventService.projectPendingEvents();
+        assertThat(projector.donationIds).containsExactly(3L);
+    }
+
+    @Test
+    void projectorWithoutCheckpointRowIsStillSerialised() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> donationEventService.recordDonationCreated(donation(6L), 10L, 100L));
+        assertThat(checkpointRepository.findById("recording")).isEmpty();
+
+        // Another instance holds the projector's row, created by its lock
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+            checkpointRepository.lock("recording");
+            locked.countDown();
+            await(release);
+        }));
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Void> poll = CompletableFuture.runAsync(donationEventService::projectPendingEvents);
+        Thread.sleep(500);
+        assertThat(poll).isNotDone();
+        assertThat(projector.donationIds).isEmpty();
+
+        release.countDown();
+        holder.get(10, TimeUnit.SECONDS);
+        poll.get(10, TimeUnit.SECONDS);
+        assertThat(projector.donationIds).containsExactly(6L);
+    }
+
+    @Test
+    void purgeKeepsEventsThatAreStillPending() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            donationEventService.recordDonationCreated(donation(4L), 10L, 100L);
+            donationEventService.recordDonationCreated(donation(5L), 10L, 100L);
+        });
+        // Both events are past the retention period; only the first is projected
+        donationEventRepository.findAll().forEach(event -> {
+            event.setCreated(new Date(0));
+            donationEventRepository.save(event);
+        });
+        deliveryRepository.findAll().stream()
+                .filter(delivery -> delivery.getEventId().equals(eventIdOf(4L)))
+                .forEach(deliveryRepository::delete);
+
+        donationEventService.purgeProjectedEvents();
+
+        assertThat(donationEventRepository.findAll()).extracting(DonationEvent::getDonationId).containsExactly(5L);
+    }
+
+    private Long eventIdOf(Long donationId) {
+        return donationEventRepository.findAll().stream()
+                .filter(event -> event.getDonationId().equals(donationId))
+                .findFirst().orElseThrow().getId();
+    }
+
+    private static Donation donation(Long id) {
+        Donation donation = new Donation();
+        donation.setId(id);
+        donation.setNetDonationAmount(new BigDecimal("1000.00"));
+        donation.setCreated(new Date());
+        return donation;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static class RecordingProjector implements DonationEventProjector {
+
+        final List<Long> donationIds = new ArrayList<>();
+        boolean failNext;
+
+        @Override
+        public String getName() {
+            return "recording";
+        }
+
+        @Override
+        public void project(List<DonationEvent> events) {
+            if (failNext) {
+                failNext = false;
+                throw new IllegalStateException("projection failed");
+            }
+            events.forEach(event -> donationIds.add(event.getDonationId()));
+        }
+    }
+
+    @TestConfiguration
+    static class Projectors {
+
+        @Bean
+        RecordingProjector recordingProjector() {
+            return new RecordingProjector();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package lk.kolitha.dana.service.impl;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.Message;
+import jakarta.mail.internet.MimeMessage;
+import lk.kolitha.dana.entity.OutboundEmail;
+import lk.kolitha.dana.enums.OutboundEmailStatus;
+import lk.kolitha.dana.repository.OutboundEmailRepository;
+import lk.kolitha.dana.util.DaanaSESEmailSender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+/**
+ * The mail worker against a local SMTP server. Two workers split a poll in two shares; one share has a bad
+ * address, the other holds an SMTP session past the lease.
+ */
+class OutboundEmailServiceImplTest {
+
+    private static final long LEASE_MS = 500;
+    private static final String SLOW_RECIPIENT = "slow@example.org";
+
+    private final OutboundEmailRepository outboundEmailRepository = mock(OutboundEmailRepository.class);
+    // Rows of the queue by ID
+    private final Map<Long, OutboundEmail> rows = new ConcurrentHashMap<>();
+    // Holds the SMTP session of a share that contains SLOW_RECIPIENT until released
+    private final CountDownLatch releaseSlowShare = new CountDownLatch(1);
+    private GreenMail smtpServer;
+    private OutboundEmailServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtpServer = new GreenMail(ServerSetupTest.SMTP.dynamicPort());
+        smtpServer.start();
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpServer.getSmtp().getPort());
+
+        DaanaSESEmailSender emailSender = spy(new DaanaSESEmailSender(mailSender));
+        ReflectionTestUtils.setField(emailSender, "fromEmail", "no-reply@daana.lk");
+        doAnswer(invocation -> {
+            boolean slow = Arrays.stream(invocation.getArguments()).map(MimeMessage.class::cast)
+                    .anyMatch(message -> recipientOf(message).equals(SLOW_RECIPIENT));
+            if (slow) {
+                releaseSlowShare.await();
+            }
+            return invocation.callRealMethod();
+        }).when(emailSender).sendBatch(any(MimeMessage[].class));
+
+        service = new OutboundEmailServiceImpl(outboundEmailRepository, emailSender, mock(PlatformTransactionManager.class), 2);
+        ReflectionTestUtils.setField(service, "batchSize", 50);
+        ReflectionTestUtils.setField(service, "maxAttempts", 6);
+        ReflectionTestUtils.setField(service, "initialBackoffMs", 30_000L);
+        ReflectionTestUtils.setField(service, "maxBackoffMs", 3_600_000L);
+        ReflectionTestUtils.setField(service, "leaseMs", LEASE_MS);
+
+        when(outboundEmailRepository.findDueForUpdate(any(Date.class), any(Pageable.class))).thenAnswer(invocation -> {
+            Date now = invocation.getArgument(0);
+            return rows.values().stream()
+                    .filter(email -> email.getStatus() == OutboundEmailStatus.PENDING && !email.getNextAttemptAt().after(now)
+                            || email.getStatus() == OutboundEmailStatus.SENDING && email.getLockedUntil().before(now))
+                    .sorted(Comparator.comparing(OutboundEmail::getId))
+                    .toList();
+        });
+        when(outboundEmailRepository.findById(anyLong())).thenAnswer(invocation -> Optional.ofNullable(rows.get(invocation.<Long>getArgument(0))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseSlowShare.countDown();
+        service.shutdown();
+        smtpServer.stop();
+    }
+
+    @Test
+    void recordsFailuresAndLeavesTimedOutShareToTheLease() throws Exception {
+        // Shares are [1, 2] and [3, 4]
+        queue(1, "first@example.org");
+        queue(2, "not-an-address");
+        queue(3, SLOW_RECIPIENT);
+        queue(4, "fourth@example.org");
+
+        service.dispatchPendingEmails();
+
+        assertThat(rows.get(1L).getStatus()).isEqualTo(OutboundEmailStatus.SENT);
+        assertThat(rows.get(2L).getStatus()).isEqualTo(OutboundEmailStatus.DEAD);
+        // Outcome unknown: not marked sent, claimed again when the lease ends
+        assertThat(rows.get(3L).getStatus()).isEqualTo(OutboundEmailStatus.SENDING);
+        assertThat(rows.get(4L).getStatus()).isEqualTo(OutboundEmailStatus.SENDING);
+        assertThat(receivedRecipients()).containsExactly("first@example.org");
+
+        releaseSlowShare.countDown();
+        Thread.sleep(LEASE_MS + 100);
+        service.dispatchPendingEmails();
+
+        assertThat(rows.get(3L).getStatus()).isEqualTo(OutboundEmailStatus.SENT);
+        assertThat(rows.get(4L).getStatus()).isEqualTo(OutboundEmailStatus.SENT);
+        assertThat(rows.get(3L).getAttempts()).isEqualTo(2);
+        assertThat(receivedRecipients()).containsExactlyInAnyOrder("first@example.org", SLOW_RECIPIENT, "fourth@example.org");
+    }
+
+    private void queue(long id, String recipient) {
+        Date now = new Date();
+        OutboundEmail email = new OutboundEmail();
+        email.setId(id);
+        email.setRecipient(recipient);
+        email.setSubject("Donation received");
+        email.setHtmlBody("<p>Thank you</p>");
+        email.setStatus(OutboundEmailStatus.PENDING);
+        email.setNextAttemptAt(now);
+        email.setCreated(now);
+        email.setUpdated(now);
+        rows.put(id, email);
+    }
+
+    private List<String> receivedRecipients() {
+        return Arrays.stream(smtpServer.getReceivedMessages()).map(OutboundEmailServiceImplTest::recipientOf).toList();
+    }
+
+    private static String recipientOf(MimeMessage message) {
+        try {
+            return message.getRecipients(Message.RecipientType.TO)[0].toString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package lk.kolitha.dana.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lk.kolitha.dana.dto.CommonResponse;
+import lk.kolitha.dana.dto.program.FullProgramDto;
+import lk.kolitha.dana.exception.CustomServiceException;
+import lk.kolitha.dana.repository.CampaignsRepository;
+import lk.kolitha.dana.service.CampaignCounterService;
+import lk.kolitha.dana.service.ProgramService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProgramDetailResponseServiceImplTest {
+
+    private static final String URL_NAME = "clean-water";
+    private static final Long CAMPAIGN_ID = 42L;
+
+    private final CampaignsRepository campaignsRepository = mock(CampaignsRepository.class);
+    private final ProgramService programService = mock(ProgramService.class);
+    private final CampaignCounterService campaignCounterService = mock(CampaignCounterService.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ProgramDetailResponseServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ProgramDetailResponseServiceImpl(campaignsRepository, programService, campaignCounterService,
+                objectMapper, new SimpleMeterRegistry(), 1 << 20, 3600);
+        ReflectionTestUtils.setField(service, "compressionLevel", 6);
+        when(programService.getProgramByUrl(URL_NAME)).thenAnswer(invocation -> program());
+        givenRow(3L, new Date(1000));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "1500.50", "123456789012.99", "-1"})
+    void splicedResponsesMatchTheSerializedProgram(String raised) throws Exception {
+        when(campaignCounterService.getCurrentRaised(eq(CAMPAIGN_ID), any())).thenReturn(new BigDecimal(raised));
+        byte[] expected = expectedJson(new BigDecimal(raised));
+
+        assertThat(service.getProgramDetailJson(URL_NAME, false)).isEqualTo(expected);
+        // GZIPInputStream checks the CRC-32 and length trailer
+        assertThat(gunzip(service.getProgramDetailJson(URL_NAME, true))).isEqualTo(expected);
+    }
+
+    @Test
+    void raisedChangesReuseTheCachedResponse() throws Exception {
+        when(campaignCounterService.getCurrentRaised(eq(CAMPAIGN_ID), any()))
+                .thenReturn(new BigDecimal("10"), new BigDecimal("20000.75"));
+
+        service.getProgramDetailJson(URL_NAME, true);
+        byte[] second = service.getProgramDetailJson(URL_NAME, true);
+
+        assertThat(gunzip(second)).isEqualTo(expectedJson(new BigDecimal("20000.75")));
+        verify(programService, times(1)).getProgramByUrl(URL_NAME);
+    }
+
+    @Test
+    void charityChangeRebuildsTheResponse() {
+        when(campaignCounterService.getCurrentRaised(eq(CAMPAIGN_ID), any())).thenReturn(BigDecimal.ONE);
+
+        service.getProgramDetailJson(URL_NAME, false);
+        givenRow(3L, new Date(2000));
+        service.getProgramDetailJson(URL_NAME, false);
+
+        verify(programService, times(2)).getProgramByUrl(URL_NAME);
+    }
+
+    @Test
+    void unknownProgramIsNotFound() {
+        when(campaignsRepository.findDetailVersionByUrlName("missing")).thenReturn(Collections.emptyList());
+
+        assertThatThrownBy(() -> service.getProgramDetailJson("missing", false))
+                .isInstanceOfSatisfying(CustomServiceException.class, e -> assertThat(e.getStatusCode()).isEqualTo(404));
+    }
+
+    private void givenRow(long version, Date charityUpdated) {
+        Object[] row = {CAMPAIGN_ID, version, BigDecimal.ZERO, charityUpdated, new Date(500), new Date(500)};
+        when(campaignsRepository.findDetailVersionByUrlName(URL_NAME)).thenReturn(List.<Object[]>of(row));
+    }
+
+    private byte[] expectedJson(BigDecimal raised) throws IOException {
+        FullProgramDto program = program();
+        program.setRaised(raised);
+        return objectMapper.writeValueAsBytes(new CommonResponse<>(true, "Program retrieved successfully", program));
+    }
+
+    private static FullProgramDto program() {
+        FullProgramDto program = new FullProgramDto();
+        program.setProgramName("Clean water for \"raised\": schools");
+        program.setRaised(BigDecimal.ZERO);
+        return program;
+    }
+
+    private static byte[] gunzip(byte[] gzip) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return in.readAllBytes();
+        }
+    }
+}
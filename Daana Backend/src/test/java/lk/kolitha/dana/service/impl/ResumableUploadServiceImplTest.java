@@ -0,0 +1,163 @@
+package lk.kolitha.dana.service.impl;
+
+import lk.kolitha.dana.dto.upload.UploadSessionCreateDto;
+import lk.kolitha.dana.dto.upload.UploadSessionDto;
+import lk.kolitha.dana.entity.Campaigns;
+import lk.kolitha.dana.entity.UploadSession;
+import lk.kolitha.dana.exception.CustomServiceException;
+import lk.kolitha.dana.repository.CampaignsRepository;
+import lk.kolitha.dana.repository.UploadSessionRepository;
+import lk.kolitha.dana.util.AwsFileHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ResumableUploadServiceImplTest {
+
+    private static final Long CHARITY_ID = 7L;
+    private static final Long CAMPAIGN_ID = 42L;
+
+    @TempDir
+    Path stagingDir;
+
+    private final UploadSessionRepository uploadSessionRepository = mock(UploadSessionRepository.class);
+    private final CampaignsRepository campaignsRepository = mock(CampaignsRepository.class);
+    // Row of the session as the database has it; every read returns a copy, like a new persistence context
+    private final AtomicReference<UploadSession> row = new AtomicReference<>();
+    private ResumableUploadServiceImpl service;
+    private String uploadId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new ResumableUploadServiceImpl(uploadSessionRepository, campaignsRepository, mock(AwsFileHandler.class),
+                mock(ApplicationEventPublisher.class), mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "stagingDirectory", stagingDir.toString());
+        ReflectionTestUtils.setField(service, "maxChunkBytes", 16L);
+        ReflectionTestUtils.setField(service, "maxTotalBytes", 1024L);
+        ReflectionTestUtils.setField(service, "sessionTtlMs", 60_000L);
+        service.initStagingDir();
+
+        when(campaignsRepository.findByIdAndCharityIdAndDeletedFalse(CAMPAIGN_ID, CHARITY_ID)).thenReturn(Optional.of(new Campaigns()));
+        when(uploadSessionRepository.save(any(UploadSession.class))).thenAnswer(invocation -> {
+            row.set(copy(invocation.getArgument(0)));
+            return invocation.getArgument(0);
+        });
+        when(uploadSessionRepository.findByIdAndCharityId(anyString(), eq(CHARITY_ID))).thenAnswer(invocation -> Optional.of(copy(row.get())));
+        when(uploadSessionRepository.advanceOffset(anyString(), anyLong(), anyLong(), any())).thenAnswer(invocation -> {
+            UploadSession current = row.get();
+            if (current.getReceivedBytes() != (long) invocation.getArgument(1)) {
+                return 0;
+            }
+            current.setReceivedBytes(invocation.getArgument(2));
+            return 1;
+        });
+
+        uploadId = service.createVideoSession(CHARITY_ID, CAMPAIGN_ID,
+                new UploadSessionCreateDto("video.mp4", "video/mp4", 12)).getUploadId();
+    }
+
+    @Test
+    void chunksAdvanceTheOffset() throws Exception {
+        assertThat(append(0, "abcd").getOffset()).isEqualTo(4);
+        assertThat(append(4, "efgh").getOffset()).isEqualTo(8);
+
+        assertThat(staged()).isEqualTo("abcdefgh");
+        assertThat(row.get().getReceivedBytes()).isEqualTo(8);
+    }
+
+    @Test
+    void chunkAtAnOldOffsetIsRejected() throws Exception {
+        append(0, "abcd");
+
+        assertStatus(() -> append(0, "wxyz"), 409);
+        assertThat(staged()).isEqualTo("abcd");
+    }
+
+    @Test
+    void chunkWhoseOffsetMovedBeforeItGotTheLockDoesNotCutOffTheData() throws Exception {
+        append(0, "abcd");
+        // The request read the session before the previous chunk completed
+        UploadSession stale = copy(row.get());
+        stale.setReceivedBytes(0);
+        when(uploadSessionRepository.findByIdAndCharityId(uploadId, CHARITY_ID))
+                .thenReturn(Optional.of(stale))
+                .thenAnswer(invocation -> Optional.of(copy(row.get())));
+
+        assertStatus(() -> append(0, "wxyz"), 409);
+        assertThat(staged()).isEqualTo("abcd");
+        assertThat(row.get().getReceivedBytes()).isEqualTo(4);
+    }
+
+    @Test
+    void shortChunkLeavesTheOffsetAndIsCutOff() throws Exception {
+        append(0, "abcd");
+
+        assertStatus(() -> service.appendChunk(CHARITY_ID, uploadId, 4, 8, null, stream("ef")), 400);
+        assertThat(staged()).isEqualTo("abcd");
+        assertThat(row.get().getReceivedBytes()).isEqualTo(4);
+
+        assertThat(append(4, "efgh").getOffset()).isEqualTo(8);
+        assertThat(staged()).isEqualTo("abcdefgh");
+    }
+
+    @Test
+    void chunkWithWrongChecksumIsCutOff() throws Exception {
+        String sha256OfSomethingElse = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+
+        assertStatus(() -> service.appendChunk(CHARITY_ID, uploadId, 0, 4, sha256OfSomethingElse, stream("abcd")), 400);
+        assertThat(staged()).isEmpty();
+        assertThat(row.get().getReceivedBytes()).isZero();
+    }
+
+    private UploadSessionDto append(long offset, String chunk) {
+        return service.appendChunk(CHARITY_ID, uploadId, offset, chunk.length(), null, stream(chunk));
+    }
+
+    private String staged() throws Exception {
+        return Files.readString(stagingDir.resolve(uploadId + ".part"), StandardCharsets.UTF_8);
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void assertStatus(Runnable call, int statusCode) {
+        assertThatThrownBy(call::run)
+                .isInstanceOfSatisfying(CustomServiceException.class, e -> assertThat(e.getStatusCode()).isEqualTo(statusCode));
+    }
+
+    private static UploadSession copy(UploadSession session) {
+        UploadSession copy = new UploadSession();
+        copy.setId(session.getId());
+        copy.setCharityId(session.getCharityId());
+        copy.setCampaignId(session.getCampaignId());
+        copy.setFileName(session.getFileName());
+        copy.setContentType(session.getContentType());
+        copy.setTotalSize(session.getTotalSize());
+        copy.setReceivedBytes(session.getReceivedBytes());
+        copy.setStatus(session.getStatus());
+        copy.setCreated(session.getCreated());
+        copy.setUpdated(session.getUpdated());
+        copy.setExpiresAt(session.getExpiresAt());
+        return copy;
+    }
+}
@@ -0,0 +1,102 @@
+package lk.kolitha.dana.service.impl;
+
+import lk.kolitha.dana.entity.StoredBlob;
+import lk.kolitha.dana.repository.StoredBlobRepository;
+import lk.kolitha.dana.util.AwsFileHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class StoredBlobServiceImplTest {
+
+    private static final byte[] CONTENT = "certificate".getBytes(StandardCharsets.UTF_8);
+
+    private final StoredBlobRepository storedBlobRepository = mock(StoredBlobRepository.class);
+    private final AwsFileHandler awsFileHandler = mock(AwsFileHandler.class);
+    private StoredBlobServiceImpl service;
+    private String contentHash;
+    private String objectKey;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new StoredBlobServiceImpl(storedBlobRepository, awsFileHandler, mock(PlatformTransactionManager.class));
+        contentHash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(CONTENT));
+        objectKey = "blobs/" + contentHash.substring(0, 2) + "/" + contentHash + ".pdf";
+
+        when(awsFileHandler.objectKeyFor(anyString(), anyString(), anyString()))
+                .thenAnswer(invocation -> invocation.<String>getArgument(1) + invocation.getArgument(0) + "." + invocation.getArgument(2));
+        when(awsFileHandler.storeObject(anyString(), any(MultipartFile.class)))
+                .thenAnswer(invocation -> "https://bucket/" + invocation.getArgument(0));
+    }
+
+    @Test
+    void uploadsNewContentOnceToItsContentKey() throws Exception {
+        when(storedBlobRepository.findByContentHash(contentHash)).thenReturn(Optional.empty());
+        MockMultipartFile file = file();
+
+        Optional<String> fileUrl = service.prepare(file);
+
+        assertThat(fileUrl).contains("https://bucket/" + objectKey);
+        verify(awsFileHandler).storeObject(objectKey, file);
+        verify(storedBlobRepository).saveAndFlush(any(StoredBlob.class));
+    }
+
+    @Test
+    void reusesExistingContentWithoutUploading() {
+        StoredBlob existing = blob();
+        when(storedBlobRepository.findByContentHash(contentHash)).thenReturn(Optional.of(existing));
+        when(storedBlobRepository.saveAndFlush(existing)).thenReturn(existing);
+
+        Optional<String> fileUrl = service.prepare(file());
+
+        assertThat(fileUrl).contains(existing.getFileUrl());
+        verifyNoMoreInteractions(awsFileHandler);
+    }
+
+    @Test
+    void storesAgainWhenTheBlobIsCollectedWhileTouchingIt() throws Exception {
+        StoredBlob collected = blob();
+        when(storedBlobRepository.findByContentHash(contentHash)).thenReturn(Optional.of(collected));
+        when(storedBlobRepository.saveAndFlush(any(StoredBlob.class))).thenAnswer(invocation -> {
+            if (invocation.getArgument(0) == collected) {
+                throw new ObjectOptimisticLockingFailureException(StoredBlob.class, collected.getId());
+            }
+            return invocation.getArgument(0);
+        });
+
+        Optional<String> fileUrl = service.prepare(file());
+
+        assertThat(fileUrl).contains("https://bucket/" + objectKey);
+        verify(awsFileHandler).storeObject(anyString(), any(MultipartFile.class));
+        verify(awsFileHandler, never()).deleteFromS3Bucket(anyString());
+    }
+
+    private StoredBlob blob() {
+        StoredBlob blob = new StoredBlob();
+        blob.setId(3L);
+        blob.setContentHash(contentHash);
+        blob.setFileUrl("https://bucket/blobs/existing.pdf");
+        return blob;
+    }
+
+    private static MockMultipartFile file() {
+        return new MockMultipartFile("file", "certificate.pdf", "application/pdf", CONTENT);
+    }
+}
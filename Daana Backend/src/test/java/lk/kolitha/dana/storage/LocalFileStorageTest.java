@@ -0,0 +1,86 @@
+package lk.kolitha.dana.storage;
+
+import lk.kolitha.dana.exception.CustomServiceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalFileStorageTest {
+
+    @TempDir
+    Path rootDir;
+
+    private LocalFileStorage storage;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        storage = new LocalFileStorage();
+        ReflectionTestUtils.setField(storage, "rootDir", rootDir);
+        storage.init();
+    }
+
+    @Test
+    void storesMultipartFile() throws Exception {
+        storage.store("slips/1.pdf", new MockMultipartFile("file", "1.pdf", "application/pdf", bytes("slip")));
+
+        assertThat(read("slips/1.pdf")).isEqualTo("slip");
+        assertNoTempFiles("slips");
+    }
+
+    @Test
+    void storesContent() throws Exception {
+        storage.store("variants/1.jpg", bytes("jpeg"), "image/jpeg");
+
+        assertThat(read("variants/1.jpg")).isEqualTo("jpeg");
+    }
+
+    @Test
+    void storesLocalFileReplacingTheOldOne() throws Exception {
+        Path video = Files.write(rootDir.resolve("staged.mp4"), bytes("x".repeat(200_000)));
+        storage.store("videos/1.mp4", bytes("old"), "video/mp4");
+
+        storage.store("videos/1.mp4", video, "video/mp4");
+
+        assertThat(Files.size(storage.resolve("videos/1.mp4"))).isEqualTo(200_000);
+        assertNoTempFiles("videos");
+    }
+
+    @Test
+    void copiesObjects() throws Exception {
+        storage.store("direct-uploads/logo-images/1.png", bytes("png"), "image/png");
+
+        assertThat(storage.copy("direct-uploads/logo-images/1.png", "logo-images/1.png")).isTrue();
+        assertThat(storage.copy("direct-uploads/logo-images/2.png", "logo-images/2.png")).isFalse();
+        assertThat(read("logo-images/1.png")).isEqualTo("png");
+    }
+
+    @Test
+    void rejectsKeysOutsideTheRoot() {
+        assertThatThrownBy(() -> storage.store("../escape.txt", bytes("x"), "text/plain"))
+                .isInstanceOf(CustomServiceException.class);
+    }
+
+    private String read(String objectKey) throws Exception {
+        return Files.readString(storage.resolve(objectKey), StandardCharsets.UTF_8);
+    }
+
+    private void assertNoTempFiles(String folder) throws Exception {
+        try (Stream<Path> files = Files.list(rootDir.resolve(folder))) {
+            assertThat(files.map(file -> file.getFileName().toString())).noneMatch(name -> name.endsWith(".part"));
+        }
+    }
+
+    private static byte[] bytes(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+}
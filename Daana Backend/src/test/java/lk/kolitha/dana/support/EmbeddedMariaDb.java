@@ -0,0 +1,97 @@
+package lk.kolitha.dana.support;
+
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfiguration;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import ch.vorburger.exec.ManagedProcessException;
+import org.flywaydb.core.Flyway;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * One embedded MariaDB server per test JVM; every test class works in a database of its own.
+ */
+public final class EmbeddedMariaDb {
+
+    public static final String USER = "root";
+    public static final String PASSWORD = "";
+
+    private static DB db;
+    private static DBConfiguration configuration;
+
+    private EmbeddedMariaDb() {
+    }
+
+    /**
+     * Create an empty database and return its JDBC url
+     */
+    public static synchronized String createDatabase(String name) {
+        try {
+            if (db == null) {
+                DBConfigurationBuilder builder = DBConfigurationBuilder.newBuilder();
+                builder.setPort(0);
+                // mariadbd refuses to run as root unless told to
+                if ("root".equals(System.getProperty("user.name"))) {
+                    builder.addArg("--user=root");
+                }
+                configuration = builder.build();
+                db = DB.newEmbeddedDB(configuration);
+                db.start();
+            }
+            db.run("DROP DATABASE IF EXISTS " + name);
+            db.createDB(name);
+        } catch (ManagedProcessException e) {
+            throw new IllegalStateException("Embedded MariaDB could not be started", e);
+        }
+        return "jdbc:mysql://localhost:" + configuration.getPort() + "/" + name;
+    }
+
+    /**
+     * Create a database and apply every migration in db/migration
+     */
+    public static String createMigratedDatabase(String name) {
+        String url = createDatabase(name);
+        flyway(url).migrate();
+        return url;
+    }
+
+    public static Flyway flyway(String url) {
+        return Flyway.configure()
+                .dataSource(url, USER, PASSWORD)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
+    }
+
+    public static Connection connect(String url) throws SQLException {
+        return DriverManager.getConnection(url, USER, PASSWORD);
+    }
+
+    /**
+     * Run a classpath SQL script statement by statement; the migrations only use ';' in comments and at statement ends
+     */
+    public static void runScript(String url, String resource) throws SQLException, IOException {
+        String script;
+        try (InputStream in = EmbeddedMariaDb.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Script not found: " + resource);
+            }
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        try (Connection connection = connect(url); Statement statement = connection.createStatement()) {
+            for (String sql : script.replaceAll("(?m)^--.*$", "").split(";")) {
+                String trimmed = sql.trim();
+                if (!trimmed.isEmpty()) {
+                    statement.execute(trimmed);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package lk.kolitha.dana.support;
+
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * JPA slice on the embedded MariaDB, migrated by Flyway like production. Tests are not wrapped in a
+ * transaction, because the behaviour under test is usually what other transactions see; they clean up
+ * the rows they write.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public abstract class EmbeddedMariaDbJpaTest {
+
+    private static String url;
+
+    @DynamicPropertySource
+    static void dataSource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", EmbeddedMariaDbJpaTest::url);
+        registry.add("spring.datasource.username", () -> EmbeddedMariaDb.USER);
+        registry.add("spring.datasource.password", () -> EmbeddedMariaDb.PASSWORD);
+        // The MySQL driver cannot read MariaDB's keyword list, which dialect detection needs; production runs MySQL
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.MySQLDialect");
+    }
+
+    private static synchronized String url() {
+        if (url == null) {
+            url = EmbeddedMariaDb.createDatabase("jpa_tests");
+        }
+        return url;
+    }
+}
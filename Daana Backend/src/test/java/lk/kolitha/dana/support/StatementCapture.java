@@ -0,0 +1,65 @@
+package lk.kolitha.dana.support;
+
+import com.mysql.cj.MysqlConnection;
+import com.mysql.cj.Query;
+import com.mysql.cj.interceptors.QueryInterceptor;
+import com.mysql.cj.log.Log;
+import com.mysql.cj.protocol.Resultset;
+import com.mysql.cj.protocol.ServerSession;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Records every statement a connection sends, as the server receives it: client-side prepared statements
+ * arrive with their parameters already inlined. Enabled per datasource with {@link #urlOption()}.
+ */
+public class StatementCapture implements QueryInterceptor {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    public static String urlOption() {
+        return "queryInterceptors=" + StatementCapture.class.getName();
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    /**
+     * Statements on tables sent since the last clear, without the pool's validation and the driver's session queries
+     */
+    public static List<String> statements() {
+        return STATEMENTS.stream()
+                .filter(sql -> sql.matches("(?is)\\s*(select\\b.*\\bfrom|update|delete|insert)\\b.*") && !sql.contains("@@"))
+                .toList();
+    }
+
+    @Override
+    public QueryInterceptor init(MysqlConnection conn, Properties props, Log log) {
+        return this;
+    }
+
+    @Override
+    public <T extends Resultset> T preProcess(Supplier<String> sql, Query interceptedQuery) {
+        STATEMENTS.add(sql.get());
+        return null;
+    }
+
+    @Override
+    public boolean executeTopLevelOnly() {
+        return true;
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    @Override
+    public <T extends Resultset> T postProcess(Supplier<String> sql, Query interceptedQuery, T originalResultSet,
+                                               ServerSession serverSession) {
+        return null;
+    }
+}
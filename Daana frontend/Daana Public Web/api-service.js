@@ -839,7 +839,8 @@ class ApiService {
         const name = program.programName;
         const description = program.programDescription || program.description;
         const category = program.subCategoryName || program.subCategory?.name || program.category?.name;
-        const location = program.location || program.programLocation;
+        // Cards carry only the leading 255 characters as location; the program detail has the full programLocation
+        const location = program.programLocation || program.location;
         const image = program.programImageUrl || program.programImage;
         const target = program.targetDonationAmount || program.target;
         const raised = program.raised;